@@ -1,6 +1,11 @@
 package com.musala.drone.config;
 
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Properties specific to Musala.
@@ -10,7 +15,591 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
     // jhipster-needle-application-properties-property
+    private final CommandLanes commandLanes = new CommandLanes();
+
+    private final LowBattery lowBattery = new LowBattery();
+
+    private final AuditJournal auditJournal = new AuditJournal();
+
+    private final AuditRetention auditRetention = new AuditRetention();
+
+    private final Pagination pagination = new Pagination();
+
+    private final CriteriaCache criteriaCache = new CriteriaCache();
+
+    private final SecondLevelCache secondLevelCache = new SecondLevelCache();
+
+    private final BlobStore blobStore = new BlobStore();
+
+    private final DroneEvents droneEvents = new DroneEvents();
+
+    private final BulkImport bulkImport = new BulkImport();
+
     // jhipster-needle-application-properties-property-getter
+    public CommandLanes getCommandLanes() {
+        return commandLanes;
+    }
+
+    public LowBattery getLowBattery() {
+        return lowBattery;
+    }
+
+    public AuditJournal getAuditJournal() {
+        return auditJournal;
+    }
+
+    public AuditRetention getAuditRetention() {
+        return auditRetention;
+    }
+
+    public Pagination getPagination() {
+        return pagination;
+    }
+
+    public CriteriaCache getCriteriaCache() {
+        return criteriaCache;
+    }
+
+    public SecondLevelCache getSecondLevelCache() {
+        return secondLevelCache;
+    }
+
+    public BlobStore getBlobStore() {
+        return blobStore;
+    }
+
+    public DroneEvents getDroneEvents() {
+        return droneEvents;
+    }
+
+    public BulkImport getBulkImport() {
+        return bulkImport;
+    }
+
     // jhipster-needle-application-properties-property-class
+    public static class CommandLanes {
+
+        private int stripes = 1024;
+
+        private long timeoutMillis = 10000;
+
+        public int getStripes() {
+            return stripes;
+        }
+
+        public void setStripes(int stripes) {
+            this.stripes = stripes;
+        }
+
+        public long getTimeoutMillis() {
+            return timeoutMillis;
+        }
+
+        public void setTimeoutMillis(long timeoutMillis) {
+            this.timeoutMillis = timeoutMillis;
+        }
+    }
+
+    public static class LowBattery {
+
+        /**
+         * Battery capacity (in %) under which a drone is audited.
+         */
+        private long threshold = 20;
+
+        /**
+         * How far (in %) above the threshold the battery must come back before the drone can be audited again.
+         */
+        private long hysteresis = 5;
+
+        /**
+         * Cron of the fallback sweep auditing the drones missed by the write path, disabled with "-".
+         */
+        private String sweepCron = "-";
+
+        /**
+         * Number of drones the fallback sweep audits per statement.
+         */
+        private int sweepChunkSize = 500;
+
+        public long getThreshold() {
+            return threshold;
+        }
+
+        public void setThreshold(long threshold) {
+            this.threshold = threshold;
+        }
+
+        public long getHysteresis() {
+            return hysteresis;
+        }
+
+        public void setHysteresis(long hysteresis) {
+            this.hysteresis = hysteresis;
+        }
+
+        public String getSweepCron() {
+            return sweepCron;
+        }
+
+        public void setSweepCron(String sweepCron) {
+            this.sweepCron = sweepCron;
+        }
+
+        public int getSweepChunkSize() {
+            return sweepChunkSize;
+        }
+
+        public void setSweepChunkSize(int sweepChunkSize) {
+            this.sweepChunkSize = sweepChunkSize;
+        }
+    }
+
+    public static class AuditJournal {
+
+        /**
+         * What to do with an audit when the journal buffer is full.
+         */
+        public enum Overflow {
+            /**
+             * Wait for the writer to make room.
+             */
+            BLOCK,
+            /**
+             * Discard the oldest buffered audit.
+             */
+            DROP_OLDEST,
+            /**
+             * Append the audit to the spill file, written to the database once the buffer drained.
+             */
+            SPILL,
+        }
+
+        /**
+         * Number of audits the buffer holds, rounded up to a power of two.
+         */
+        private int capacity = 8192;
+
+        /**
+         * Maximum number of audits written per transaction.
+         */
+        private int batchSize = 100;
+
+        /**
+         * Maximum time (in ms) an audit waits in the buffer for its batch to fill.
+         */
+        private long flushIntervalMillis = 200;
+
+        private Overflow overflow = Overflow.BLOCK;
+
+        /**
+         * File the audits are spilled to, also used for the batches the database refused.
+         */
+        private String spillFile = Paths.get(System.getProperty("java.io.tmpdir"), "musala-audit-journal.ndjson").toString();
+
+        /**
+         * Maximum time (in ms) the shutdown waits for the buffer to be written.
+         */
+        private long shutdownTimeoutMillis = 30000;
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getFlushIntervalMillis() {
+            return flushIntervalMillis;
+        }
+
+        public void setFlushIntervalMillis(long flushIntervalMillis) {
+            this.flushIntervalMillis = flushIntervalMillis;
+        }
+
+        public Overflow getOverflow() {
+            return overflow;
+        }
+
+        public void setOverflow(Overflow overflow) {
+            this.overflow = overflow;
+        }
+
+        public String getSpillFile() {
+            return spillFile;
+        }
+
+        public void setSpillFile(String spillFile) {
+            this.spillFile = spillFile;
+        }
+
+        public long getShutdownTimeoutMillis() {
+            return shutdownTimeoutMillis;
+        }
+
+        public void setShutdownTimeoutMillis(long shutdownTimeoutMillis) {
+            this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        }
+    }
+
+    public static class AuditRetention {
+
+        /**
+         * Period covered by each partition of the audit table.
+         */
+        public enum Partitioning {
+            DAILY,
+            MONTHLY,
+        }
+
+        /**
+         * Cron of the audit maintenance, disabled with "-". The maintenance also runs at startup.
+         */
+        private String cron = "0 30 0 * * *";
+
+        private Partitioning partitioning = Partitioning.MONTHLY;
+
+        /**
+         * Number of partitions created ahead of the current one.
+         */
+        private int precreate = 3;
+
+        /**
+         * Number of days the audits are kept, forever if 0. Partitions are dropped once they are entirely past it.
+         */
+        private int retentionDays = 365;
+
+        /**
+         * Number of audits deleted per transaction when the audit table is not partitioned.
+         */
+        private int deleteChunkSize = 1000;
+
+        public String getCron() {
+            return cron;
+        }
+
+        public void setCron(String cron) {
+            this.cron = cron;
+        }
+
+        public Partitioning getPartitioning() {
+            return partitioning;
+        }
+
+        public void setPartitioning(Partitioning partitioning) {
+            this.partitioning = partitioning;
+        }
+
+        public int getPrecreate() {
+            return precreate;
+        }
+
+        public void setPrecreate(int precreate) {
+            this.precreate = precreate;
+        }
+
+        public int getRetentionDays() {
+            return retentionDays;
+        }
+
+        public void setRetentionDays(int retentionDays) {
+            this.retentionDays = retentionDays;
+        }
+
+        public int getDeleteChunkSize() {
+            return deleteChunkSize;
+        }
+
+        public void setDeleteChunkSize(int deleteChunkSize) {
+            this.deleteChunkSize = deleteChunkSize;
+        }
+    }
+
+    public static class Pagination {
+
+        /**
+         * Number of rows of a table, by the database statistics, above which the total of its pages is estimated instead of
+         * counted; 0 always counts it.
+         */
+        private long estimateTotalAbove = 0;
+
+        public long getEstimateTotalAbove() {
+            return estimateTotalAbove;
+        }
+
+        public void setEstimateTotalAbove(long estimateTotalAbove) {
+            this.estimateTotalAbove = estimateTotalAbove;
+        }
+    }
+
+    public static class CriteriaCache {
+
+        /**
+         * Maximum number of results cached per entity, 0 disables the cache.
+         */
+        private long maximumSize = 1000;
+
+        /**
+         * Maximum time (in ms) a result is cached, however long the entities it read are not written.
+         */
+        private long timeToLiveMillis = 30000;
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public long getTimeToLiveMillis() {
+            return timeToLiveMillis;
+        }
+
+        public void setTimeToLiveMillis(long timeToLiveMillis) {
+            this.timeToLiveMillis = timeToLiveMillis;
+        }
+    }
+
+    public static class SecondLevelCache {
+
+        /**
+         * Settings of the regions, by region name, overriding the ones of {@code jhipster.cache.caffeine}.
+         */
+        private final Map<String, Region> regions = new HashMap<>();
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public static class Region {
+
+            /**
+             * Maximum number of entries of the region.
+             */
+            private Long maxEntries;
+
+            /**
+             * Time (in s) an entry stays in the region after it was written.
+             */
+            private Long timeToLiveSeconds;
+
+            public Long getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(Long maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public Long getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(Long timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+        }
+    }
+
+    public static class BlobStore {
+
+        /**
+         * Where the blobs, such as the medication images, are stored.
+         */
+        public enum Type {
+            /**
+             * In the blob_store table.
+             */
+            DATABASE,
+            /**
+             * In files of the directory, named after their hash.
+             */
+            FILESYSTEM,
+        }
+
+        private Type type = Type.DATABASE;
+
+        /**
+         * Directory of the FILESYSTEM blobs.
+         */
+        private String directory = Paths.get(System.getProperty("java.io.tmpdir"), "musala-blobs").toString();
+
+        /**
+         * Largest blob accepted, such as {@code 10MB}; a larger upload is rejected while it is read.
+         */
+        private DataSize maxSize = DataSize.ofMegabytes(10);
+
+        /**
+         * Cron of the sweep deleting the blobs no medication references, disabled with "-".
+         */
+        private String sweepCron = "-";
+
+        /**
+         * How long ago a blob must have been last stored to be swept, longer than any command referencing it may take.
+         */
+        private Duration sweepGracePeriod = Duration.ofDays(1);
+
+        /**
+         * Number of blobs the sweep checks for references per query.
+         */
+        private int sweepChunkSize = 500;
+
+        public Type getType() {
+            return type;
+        }
+
+        public void setType(Type type) {
+            this.type = type;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public DataSize getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(DataSize maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public String getSweepCron() {
+            return sweepCron;
+        }
+
+        public void setSweepCron(String sweepCron) {
+            this.sweepCron = sweepCron;
+        }
+
+        public Duration getSweepGracePeriod() {
+            return sweepGracePeriod;
+        }
+
+        public void setSweepGracePeriod(Duration sweepGracePeriod) {
+            this.sweepGracePeriod = sweepGracePeriod;
+        }
+
+        public int getSweepChunkSize() {
+            return sweepChunkSize;
+        }
+
+        public void setSweepChunkSize(int sweepChunkSize) {
+            this.sweepChunkSize = sweepChunkSize;
+        }
+    }
+
+    public static class DroneEvents {
+
+        /**
+         * Number of events of a drone after its last snapshot from which a new snapshot is taken.
+         */
+        private int snapshotInterval = 100;
+
+        /**
+         * Cron of the snapshots, disabled with "-".
+         */
+        private String snapshotCron = "0 */5 * * * *";
+
+        /**
+         * Number of drones snapshotted per statement.
+         */
+        private int snapshotChunkSize = 500;
+
+        public int getSnapshotInterval() {
+            return snapshotInterval;
+        }
+
+        public void setSnapshotInterval(int snapshotInterval) {
+            this.snapshotInterval = snapshotInterval;
+        }
+
+        public String getSnapshotCron() {
+            return snapshotCron;
+        }
+
+        public void setSnapshotCron(String snapshotCron) {
+            this.snapshotCron = snapshotCron;
+        }
+
+        public int getSnapshotChunkSize() {
+            return snapshotChunkSize;
+        }
+
+        public void setSnapshotChunkSize(int snapshotChunkSize) {
+            this.snapshotChunkSize = snapshotChunkSize;
+        }
+    }
+
+    public static class BulkImport {
+
+        /**
+         * Number of rows imported per transaction: a chunk failing in the database is rejected as a whole.
+         */
+        private int chunkSize = 1000;
+
+        /**
+         * Number of rows inserted per JDBC batch.
+         */
+        private int flushSize = 250;
+
+        /**
+         * Number of row errors reported per import; the rejected rows past it are only counted.
+         */
+        private int maxErrors = 1000;
+
+        /**
+         * Number of distinct drones the medications of one chunk may load: the chunk holds their command lanes until it
+         * commits, so it is closed early rather than hold more.
+         */
+        private int maxDronesPerChunk = 32;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getFlushSize() {
+            return flushSize;
+        }
+
+        public void setFlushSize(int flushSize) {
+            this.flushSize = flushSize;
+        }
+
+        public int getMaxErrors() {
+            return maxErrors;
+        }
+
+        public void setMaxErrors(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        public int getMaxDronesPerChunk() {
+            return maxDronesPerChunk;
+        }
+
+        public void setMaxDronesPerChunk(int maxDronesPerChunk) {
+            this.maxDronesPerChunk = maxDronesPerChunk;
+        }
+    }
 }
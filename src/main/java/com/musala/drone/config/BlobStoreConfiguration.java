@@ -0,0 +1,30 @@
+package com.musala.drone.config;
+
+import com.musala.drone.service.BlobStore;
+import com.musala.drone.service.DatabaseBlobStore;
+import com.musala.drone.service.FileSystemBlobStore;
+import java.nio.file.Paths;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * The {@link BlobStore} chosen by {@code application.blob-store.type}.
+ */
+@Configuration
+public class BlobStoreConfiguration {
+
+    @Bean
+    public BlobStore blobStore(
+        ApplicationProperties applicationProperties,
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager
+    ) {
+        ApplicationProperties.BlobStore properties = applicationProperties.getBlobStore();
+        if (properties.getType() == ApplicationProperties.BlobStore.Type.FILESYSTEM) {
+            return new FileSystemBlobStore(Paths.get(properties.getDirectory()));
+        }
+        return new DatabaseBlobStore(jdbcTemplate, transactionManager);
+    }
+}
@@ -11,5 +11,8 @@ public final class Constants {
     public static final String SYSTEM = "system";
     public static final String DEFAULT_LANGUAGE = "en";
 
+    // A drone below this battery capacity (in %) is only loaded with the weight that fills it up
+    public static final long MIN_LOADING_BATTERY_CAPACITY = 25;
+
     private Constants() {}
 }
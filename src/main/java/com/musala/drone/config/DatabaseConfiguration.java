@@ -1,20 +1,31 @@
 package com.musala.drone.config;
 
+import com.musala.drone.repository.ExtendedJpaRepository;
+import com.musala.drone.service.EntityVersions;
 import java.sql.SQLException;
+import org.hibernate.boot.spi.MetadataBuilderContributor;
+import org.hibernate.dialect.function.SQLFunctionTemplate;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.type.StandardBasicTypes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.core.env.Environment;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.data.repository.core.support.RepositoryProxyPostProcessor;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 import tech.jhipster.config.JHipsterConstants;
 import tech.jhipster.config.h2.H2ConfigurationHelper;
 
 @Configuration
-@EnableJpaRepositories({ "com.musala.drone.repository" })
+@EnableJpaRepositories(value = { "com.musala.drone.repository" }, repositoryBaseClass = ExtendedJpaRepository.class)
 @EnableJpaAuditing(auditorAwareRef = "springSecurityAuditorAware")
 @EnableTransactionManagement
 public class DatabaseConfiguration {
@@ -41,6 +52,44 @@ public class DatabaseConfiguration {
         return H2ConfigurationHelper.createServer(port);
     }
 
+    /**
+     * Register the {@link ExtendedJpaRepository#COUNT_OVER_FUNCTION} used to count the total of a page in the page query.
+     *
+     * @return the Hibernate properties customizer.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer windowFunctionsHibernatePropertiesCustomizer() {
+        MetadataBuilderContributor contributor = metadataBuilder ->
+            metadataBuilder.applySqlFunction(
+                ExtendedJpaRepository.COUNT_OVER_FUNCTION,
+                new SQLFunctionTemplate(StandardBasicTypes.LONG, "count(?1) over()")
+            );
+        return hibernateProperties -> hibernateProperties.put(EntityManagerFactoryBuilderImpl.METADATA_BUILDER_CONTRIBUTOR, contributor);
+    }
+
+    /**
+     * Have the repositories bump the {@link EntityVersions versions} of their entity type when they write it.
+     *
+     * @param entityVersions the versions of the entity types.
+     * @return the post processor of the repository factory beans.
+     */
+    @Bean
+    public static BeanPostProcessor entityVersionsRepositoryPostProcessor(ObjectProvider<EntityVersions> entityVersions) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport) {
+                    RepositoryProxyPostProcessor postProcessor = (proxyFactory, repositoryInformation) ->
+                        proxyFactory.addAdvice(entityVersions.getObject().repositoryInterceptor(repositoryInformation.getDomainType()));
+                    ((RepositoryFactoryBeanSupport<?, ?, ?>) bean).addRepositoryFactoryCustomizer(factory ->
+                            factory.addRepositoryProxyPostProcessor(postProcessor)
+                        );
+                }
+                return bean;
+            }
+        };
+    }
+
     private String getValidPortForH2() {
         int port = Integer.parseInt(env.getProperty("server.port"));
         if (port < 10000) {
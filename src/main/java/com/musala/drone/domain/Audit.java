@@ -1,5 +1,7 @@
 package com.musala.drone.domain;
 
+import com.musala.drone.domain.enumeration.AuditEventType;
+import com.musala.drone.domain.enumeration.AuditSeverity;
 import java.io.Serializable;
 import java.time.Instant;
 import javax.persistence.*;
@@ -39,7 +41,19 @@ public class Audit implements Serializable {
     @Column(name = "last_modified_date")
     private Instant lastModifiedDate;
 
+    @Column(name = "drone_id")
+    private Long droneId;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type")
+    private AuditEventType eventType;
+
+    @Column(name = "numeric_value")
+    private Long numericValue;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "severity")
+    private AuditSeverity severity;
 
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
@@ -121,6 +135,58 @@ public class Audit implements Serializable {
         this.lastModifiedDate = lastModifiedDate;
     }
 
+    public Long getDroneId() {
+        return this.droneId;
+    }
+
+    public Audit droneId(Long droneId) {
+        this.setDroneId(droneId);
+        return this;
+    }
+
+    public void setDroneId(Long droneId) {
+        this.droneId = droneId;
+    }
+
+    public AuditEventType getEventType() {
+        return this.eventType;
+    }
+
+    public Audit eventType(AuditEventType eventType) {
+        this.setEventType(eventType);
+        return this;
+    }
+
+    public void setEventType(AuditEventType eventType) {
+        this.eventType = eventType;
+    }
+
+    public Long getNumericValue() {
+        return this.numericValue;
+    }
+
+    public Audit numericValue(Long numericValue) {
+        this.setNumericValue(numericValue);
+        return this;
+    }
+
+    public void setNumericValue(Long numericValue) {
+        this.numericValue = numericValue;
+    }
+
+    public AuditSeverity getSeverity() {
+        return this.severity;
+    }
+
+    public Audit severity(AuditSeverity severity) {
+        this.setSeverity(severity);
+        return this;
+    }
+
+    public void setSeverity(AuditSeverity severity) {
+        this.severity = severity;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -150,6 +216,10 @@ public class Audit implements Serializable {
             ", createdDate='" + getCreatedDate() + "'" +
             ", lastModifiedBy='" + getLastModifiedBy() + "'" +
             ", lastModifiedDate='" + getLastModifiedDate() + "'" +
+            ", droneId=" + getDroneId() +
+            ", eventType='" + getEventType() + "'" +
+            ", numericValue=" + getNumericValue() +
+            ", severity='" + getSeverity() + "'" +
             "}";
     }
 }
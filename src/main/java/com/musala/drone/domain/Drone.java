@@ -9,12 +9,15 @@ import java.util.HashSet;
 import java.util.Set;
 import javax.persistence.*;
 import javax.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * SysDomain (sys_domain) entity.\n@author Shehab Tarek.
  */
 @Entity
 @Table(name = "drone")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Drone implements Serializable {
 
@@ -31,7 +34,7 @@ public class Drone implements Serializable {
     private String serialNumber;
 
     @NotNull
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = Model.Converter.class)
     @Column(name = "model", nullable = false)
     private Model model;
 
@@ -44,7 +47,7 @@ public class Drone implements Serializable {
     private Long batteryCapacity;
 
     @NotNull
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = State.Converter.class)
     @Column(name = "state", nullable = false)
     private State state;
 
@@ -63,6 +66,7 @@ public class Drone implements Serializable {
     private Instant lastModifiedDate;
 
     @OneToMany(mappedBy = "drone")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JsonIgnoreProperties(value = { "drone" }, allowSetters = true)
     private Set<Medication> droneMedications = new HashSet<>();
 
@@ -71,6 +75,13 @@ public class Drone implements Serializable {
     @Column(name="audit_flage_notification")
     private Boolean auditFlageNotification;
 
+    /**
+     * Sum of the weights of the medications loaded on this drone. It is maintained by the conditional
+     * updates of {@link com.musala.drone.repository.DroneRepository} only, never by entity merges.
+     */
+    @Column(name = "loaded_weight", nullable = false, insertable = false, updatable = false)
+    private Integer loadedWeight;
+
 
 
     public Boolean getAuditFlageNotification() {
@@ -81,6 +92,14 @@ public class Drone implements Serializable {
         this.auditFlageNotification = auditFlageNotification;
     }
 
+    public Integer getLoadedWeight() {
+        return loadedWeight;
+    }
+
+    public void setLoadedWeight(Integer loadedWeight) {
+        this.loadedWeight = loadedWeight;
+    }
+
     public Long getId() {
         return this.id;
     }
@@ -0,0 +1,191 @@
+package com.musala.drone.domain;
+
+import com.musala.drone.domain.enumeration.DroneEventType;
+import com.musala.drone.domain.enumeration.State;
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+
+/**
+ * A change of the state, battery or load of a drone, appended to the {@code drone_event} log and never updated.
+ * <p>
+ * The {@code seq} is drawn from its own sequence, in blocks, so appending does not contend on anything; it orders the
+ * events of a drone since the commands of a drone are serialised by {@link com.musala.drone.service.DroneCommandLanes}.
+ */
+@Entity
+@Table(name = "drone_event")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class DroneEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "droneEventSequenceGenerator")
+    @SequenceGenerator(name = "droneEventSequenceGenerator", sequenceName = "drone_event_seq", allocationSize = 50)
+    @Column(name = "seq")
+    private Long seq;
+
+    @NotNull
+    @Column(name = "drone_id", nullable = false)
+    private Long droneId;
+
+    @NotNull
+    @Convert(converter = DroneEventType.Converter.class)
+    @Column(name = "type", nullable = false)
+    private DroneEventType type;
+
+    @Convert(converter = State.Converter.class)
+    @Column(name = "state")
+    private State state;
+
+    @Column(name = "battery_capacity")
+    private Long batteryCapacity;
+
+    @Column(name = "loaded_weight")
+    private Integer loadedWeight;
+
+    @NotNull
+    @Column(name = "created_by", nullable = false)
+    private String createdBy;
+
+    @NotNull
+    @Column(name = "created_date", nullable = false)
+    private Instant createdDate;
+
+    public Long getSeq() {
+        return this.seq;
+    }
+
+    public DroneEvent seq(Long seq) {
+        this.setSeq(seq);
+        return this;
+    }
+
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
+
+    public Long getDroneId() {
+        return this.droneId;
+    }
+
+    public DroneEvent droneId(Long droneId) {
+        this.setDroneId(droneId);
+        return this;
+    }
+
+    public void setDroneId(Long droneId) {
+        this.droneId = droneId;
+    }
+
+    public DroneEventType getType() {
+        return this.type;
+    }
+
+    public DroneEvent type(DroneEventType type) {
+        this.setType(type);
+        return this;
+    }
+
+    public void setType(DroneEventType type) {
+        this.type = type;
+    }
+
+    public State getState() {
+        return this.state;
+    }
+
+    public DroneEvent state(State state) {
+        this.setState(state);
+        return this;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+    }
+
+    public Long getBatteryCapacity() {
+        return this.batteryCapacity;
+    }
+
+    public DroneEvent batteryCapacity(Long batteryCapacity) {
+        this.setBatteryCapacity(batteryCapacity);
+        return this;
+    }
+
+    public void setBatteryCapacity(Long batteryCapacity) {
+        this.batteryCapacity = batteryCapacity;
+    }
+
+    public Integer getLoadedWeight() {
+        return this.loadedWeight;
+    }
+
+    public DroneEvent loadedWeight(Integer loadedWeight) {
+        this.setLoadedWeight(loadedWeight);
+        return this;
+    }
+
+    public void setLoadedWeight(Integer loadedWeight) {
+        this.loadedWeight = loadedWeight;
+    }
+
+    public String getCreatedBy() {
+        return this.createdBy;
+    }
+
+    public DroneEvent createdBy(String createdBy) {
+        this.setCreatedBy(createdBy);
+        return this;
+    }
+
+    public void setCreatedBy(String createdBy) {
+        this.createdBy = createdBy;
+    }
+
+    public Instant getCreatedDate() {
+        return this.createdDate;
+    }
+
+    public DroneEvent createdDate(Instant createdDate) {
+        this.setCreatedDate(createdDate);
+        return this;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DroneEvent)) {
+            return false;
+        }
+        return seq != null && seq.equals(((DroneEvent) o).seq);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "DroneEvent{" +
+            "seq=" + getSeq() +
+            ", droneId=" + getDroneId() +
+            ", type='" + getType() + "'" +
+            ", state='" + getState() + "'" +
+            ", batteryCapacity=" + getBatteryCapacity() +
+            ", loadedWeight=" + getLoadedWeight() +
+            ", createdBy='" + getCreatedBy() + "'" +
+            ", createdDate='" + getCreatedDate() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,181 @@
+package com.musala.drone.domain;
+
+import com.musala.drone.domain.enumeration.State;
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * The state, battery and load of a drone folded from its {@link DroneEvent events} up to {@code seq}, so that its state
+ * is read from the last snapshot and the events after it rather than from all its events.
+ */
+@Entity
+@Table(name = "drone_snapshot")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class DroneSnapshot implements Serializable, Persistable<Long> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The seq of the last event folded into the snapshot.
+     */
+    @Id
+    @Column(name = "seq")
+    private Long seq;
+
+    @NotNull
+    @Column(name = "drone_id", nullable = false)
+    private Long droneId;
+
+    @NotNull
+    @Convert(converter = State.Converter.class)
+    @Column(name = "state", nullable = false)
+    private State state;
+
+    @NotNull
+    @Column(name = "battery_capacity", nullable = false)
+    private Long batteryCapacity;
+
+    @NotNull
+    @Column(name = "loaded_weight", nullable = false)
+    private Integer loadedWeight;
+
+    @NotNull
+    @Column(name = "created_date", nullable = false)
+    private Instant createdDate;
+
+    @Transient
+    private boolean isPersisted;
+
+    @Override
+    public Long getId() {
+        return this.seq;
+    }
+
+    public Long getSeq() {
+        return this.seq;
+    }
+
+    public DroneSnapshot seq(Long seq) {
+        this.setSeq(seq);
+        return this;
+    }
+
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
+
+    public Long getDroneId() {
+        return this.droneId;
+    }
+
+    public DroneSnapshot droneId(Long droneId) {
+        this.setDroneId(droneId);
+        return this;
+    }
+
+    public void setDroneId(Long droneId) {
+        this.droneId = droneId;
+    }
+
+    public State getState() {
+        return this.state;
+    }
+
+    public DroneSnapshot state(State state) {
+        this.setState(state);
+        return this;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+    }
+
+    public Long getBatteryCapacity() {
+        return this.batteryCapacity;
+    }
+
+    public DroneSnapshot batteryCapacity(Long batteryCapacity) {
+        this.setBatteryCapacity(batteryCapacity);
+        return this;
+    }
+
+    public void setBatteryCapacity(Long batteryCapacity) {
+        this.batteryCapacity = batteryCapacity;
+    }
+
+    public Integer getLoadedWeight() {
+        return this.loadedWeight;
+    }
+
+    public DroneSnapshot loadedWeight(Integer loadedWeight) {
+        this.setLoadedWeight(loadedWeight);
+        return this;
+    }
+
+    public void setLoadedWeight(Integer loadedWeight) {
+        this.loadedWeight = loadedWeight;
+    }
+
+    public Instant getCreatedDate() {
+        return this.createdDate;
+    }
+
+    public DroneSnapshot createdDate(Instant createdDate) {
+        this.setCreatedDate(createdDate);
+        return this;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    @PostLoad
+    @PostPersist
+    public void updateEntityState() {
+        this.setIsPersisted();
+    }
+
+    @Transient
+    @Override
+    public boolean isNew() {
+        return !this.isPersisted;
+    }
+
+    public DroneSnapshot setIsPersisted() {
+        this.isPersisted = true;
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DroneSnapshot)) {
+            return false;
+        }
+        return seq != null && seq.equals(((DroneSnapshot) o).seq);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "DroneSnapshot{" +
+            "seq=" + getSeq() +
+            ", droneId=" + getDroneId() +
+            ", state='" + getState() + "'" +
+            ", batteryCapacity=" + getBatteryCapacity() +
+            ", loadedWeight=" + getLoadedWeight() +
+            ", createdDate='" + getCreatedDate() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,140 @@
+package com.musala.drone.domain;
+
+import java.io.Serializable;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * The number and total weight of the medications of a drone, and the weight it can still take: a read model of the fleet
+ * list, kept up to date by the commands loading and unloading the drone, so that it is filtered and paged without
+ * aggregating the medications.
+ */
+@Entity
+@Table(name = "drone_summary")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class DroneSummary implements Serializable, Persistable<Long> {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "drone_id")
+    private Long droneId;
+
+    @NotNull
+    @Column(name = "medication_count", nullable = false)
+    private Integer medicationCount;
+
+    @NotNull
+    @Column(name = "total_weight", nullable = false)
+    private Integer totalWeight;
+
+    @NotNull
+    @Column(name = "remaining_capacity", nullable = false)
+    private Integer remainingCapacity;
+
+    @Transient
+    private boolean isPersisted;
+
+    @Override
+    public Long getId() {
+        return this.droneId;
+    }
+
+    public Long getDroneId() {
+        return this.droneId;
+    }
+
+    public DroneSummary droneId(Long droneId) {
+        this.setDroneId(droneId);
+        return this;
+    }
+
+    public void setDroneId(Long droneId) {
+        this.droneId = droneId;
+    }
+
+    public Integer getMedicationCount() {
+        return this.medicationCount;
+    }
+
+    public DroneSummary medicationCount(Integer medicationCount) {
+        this.setMedicationCount(medicationCount);
+        return this;
+    }
+
+    public void setMedicationCount(Integer medicationCount) {
+        this.medicationCount = medicationCount;
+    }
+
+    public Integer getTotalWeight() {
+        return this.totalWeight;
+    }
+
+    public DroneSummary totalWeight(Integer totalWeight) {
+        this.setTotalWeight(totalWeight);
+        return this;
+    }
+
+    public void setTotalWeight(Integer totalWeight) {
+        this.totalWeight = totalWeight;
+    }
+
+    public Integer getRemainingCapacity() {
+        return this.remainingCapacity;
+    }
+
+    public DroneSummary remainingCapacity(Integer remainingCapacity) {
+        this.setRemainingCapacity(remainingCapacity);
+        return this;
+    }
+
+    public void setRemainingCapacity(Integer remainingCapacity) {
+        this.remainingCapacity = remainingCapacity;
+    }
+
+    @PostLoad
+    @PostPersist
+    public void updateEntityState() {
+        this.setIsPersisted();
+    }
+
+    @Transient
+    @Override
+    public boolean isNew() {
+        return !this.isPersisted;
+    }
+
+    public DroneSummary setIsPersisted() {
+        this.isPersisted = true;
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DroneSummary)) {
+            return false;
+        }
+        return droneId != null && droneId.equals(((DroneSummary) o).droneId);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "DroneSummary{" +
+            "droneId=" + getDroneId() +
+            ", medicationCount=" + getMedicationCount() +
+            ", totalWeight=" + getTotalWeight() +
+            ", remainingCapacity=" + getRemainingCapacity() +
+            "}";
+    }
+}
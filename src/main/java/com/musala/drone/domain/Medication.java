@@ -5,12 +5,15 @@ import java.io.Serializable;
 import java.time.Instant;
 import javax.persistence.*;
 import javax.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * A Medication.
  */
 @Entity
 @Table(name = "medication")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Medication implements Serializable {
 
@@ -34,9 +37,12 @@ public class Medication implements Serializable {
     @Column(name = "code", nullable = false, unique = true)
     private String code;
 
-    @Lob
-    @Column(name = "image")
-    private byte[] image;
+    /**
+     * SHA-256 of the image, whose content is in the {@link com.musala.drone.service.BlobStore}.
+     */
+    @Size(min = 64, max = 64)
+    @Column(name = "image_hash", length = 64)
+    private String imageHash;
 
     @Column(name = "image_content_type")
     private String imageContentType;
@@ -113,17 +119,17 @@ public class Medication implements Serializable {
         this.code = code;
     }
 
-    public byte[] getImage() {
-        return this.image;
+    public String getImageHash() {
+        return this.imageHash;
     }
 
-    public Medication image(byte[] image) {
-        this.setImage(image);
+    public Medication imageHash(String imageHash) {
+        this.setImageHash(imageHash);
         return this;
     }
 
-    public void setImage(byte[] image) {
-        this.image = image;
+    public void setImageHash(String imageHash) {
+        this.imageHash = imageHash;
     }
 
     public String getImageContentType() {
@@ -231,7 +237,7 @@ public class Medication implements Serializable {
             ", name='" + getName() + "'" +
             ", weight=" + getWeight() +
             ", code='" + getCode() + "'" +
-            ", image='" + getImage() + "'" +
+            ", imageHash='" + getImageHash() + "'" +
             ", imageContentType='" + getImageContentType() + "'" +
             ", createdBy='" + getCreatedBy() + "'" +
             ", createdDate='" + getCreatedDate() + "'" +
@@ -0,0 +1,8 @@
+package com.musala.drone.domain.enumeration;
+
+/**
+ * The AuditEventType enumeration.
+ */
+public enum AuditEventType {
+    BATTERY_LOW,
+}
@@ -0,0 +1,10 @@
+package com.musala.drone.domain.enumeration;
+
+/**
+ * The AuditSeverity enumeration.
+ */
+public enum AuditSeverity {
+    INFO,
+    WARNING,
+    CRITICAL,
+}
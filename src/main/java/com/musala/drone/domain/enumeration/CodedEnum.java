@@ -0,0 +1,14 @@
+package com.musala.drone.domain.enumeration;
+
+/**
+ * An enumeration stored as a small integer code rather than as its name.
+ * <p>
+ * The codes are part of the schema: a constant keeps its code when constants are added, renamed or reordered, and a
+ * code is never reused.
+ */
+public interface CodedEnum {
+    /**
+     * @return the code stored in the database.
+     */
+    short getCode();
+}
@@ -0,0 +1,47 @@
+package com.musala.drone.domain.enumeration;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import javax.persistence.AttributeConverter;
+
+/**
+ * Converts a {@link CodedEnum} to its code and back.
+ *
+ * @param <E> the type of the enumeration.
+ */
+public abstract class CodedEnumConverter<E extends Enum<E> & CodedEnum> implements AttributeConverter<E, Short> {
+
+    private final Class<E> type;
+
+    private final E[] byCode;
+
+    @SuppressWarnings("unchecked")
+    protected CodedEnumConverter(Class<E> type) {
+        this.type = type;
+        E[] constants = type.getEnumConstants();
+        int maxCode = Arrays.stream(constants).mapToInt(CodedEnum::getCode).max().orElse(-1);
+        byCode = (E[]) Array.newInstance(type, maxCode + 1);
+        for (E constant : constants) {
+            if (constant.getCode() < 0 || byCode[constant.getCode()] != null) {
+                throw new IllegalStateException("Invalid or duplicate code " + constant.getCode() + " of " + type.getName());
+            }
+            byCode[constant.getCode()] = constant;
+        }
+    }
+
+    @Override
+    public Short convertToDatabaseColumn(E attribute) {
+        return attribute == null ? null : attribute.getCode();
+    }
+
+    @Override
+    public E convertToEntityAttribute(Short code) {
+        if (code == null) {
+            return null;
+        }
+        if (code < 0 || code >= byCode.length || byCode[code] == null) {
+            throw new IllegalArgumentException("Unknown code " + code + " of " + type.getName());
+        }
+        return byCode[code];
+    }
+}
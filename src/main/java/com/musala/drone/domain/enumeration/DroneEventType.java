@@ -0,0 +1,36 @@
+package com.musala.drone.domain.enumeration;
+
+/**
+ * The DroneEventType enumeration, stored as its {@link CodedEnum code}.
+ */
+public enum DroneEventType implements CodedEnum {
+    /**
+     * The drone entered the log, with its state, battery and load: it was created, or it existed when the log was
+     * introduced.
+     */
+    CREATED(0),
+    /**
+     * Some of the state, battery and load of the drone changed, the others are {@code null}.
+     */
+    CHANGED(1),
+    DELETED(2);
+
+    private final short code;
+
+    DroneEventType(int code) {
+        this.code = (short) code;
+    }
+
+    @Override
+    public short getCode() {
+        return code;
+    }
+
+    @javax.persistence.Converter
+    public static class Converter extends CodedEnumConverter<DroneEventType> {
+
+        public Converter() {
+            super(DroneEventType.class);
+        }
+    }
+}
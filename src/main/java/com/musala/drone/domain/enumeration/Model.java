@@ -1,11 +1,30 @@
 package com.musala.drone.domain.enumeration;
 
 /**
- * The Model enumeration.
+ * The Model enumeration, stored as its {@link CodedEnum code}.
  */
-public enum Model {
-    Lightweight,
-    Middleweight,
-    Cruiserweight,
-    Heavyweight,
+public enum Model implements CodedEnum {
+    Lightweight(0),
+    Middleweight(1),
+    Cruiserweight(2),
+    Heavyweight(3);
+
+    private final short code;
+
+    Model(int code) {
+        this.code = (short) code;
+    }
+
+    @Override
+    public short getCode() {
+        return code;
+    }
+
+    @javax.persistence.Converter
+    public static class Converter extends CodedEnumConverter<Model> {
+
+        public Converter() {
+            super(Model.class);
+        }
+    }
 }
@@ -1,13 +1,32 @@
 package com.musala.drone.domain.enumeration;
 
 /**
- * The State enumeration.
+ * The State enumeration, stored as its {@link CodedEnum code}.
  */
-public enum State {
-    IDLE,
-    LOADING,
-    LOADED,
-    DELIVERING,
-    DELIVERED,
-    RETURNING,
+public enum State implements CodedEnum {
+    IDLE(0),
+    LOADING(1),
+    LOADED(2),
+    DELIVERING(3),
+    DELIVERED(4),
+    RETURNING(5);
+
+    private final short code;
+
+    State(int code) {
+        this.code = (short) code;
+    }
+
+    @Override
+    public short getCode() {
+        return code;
+    }
+
+    @javax.persistence.Converter
+    public static class Converter extends CodedEnumConverter<State> {
+
+        public Converter() {
+            super(State.class);
+        }
+    }
 }
@@ -1,7 +1,12 @@
 package com.musala.drone.repository;
 
 import com.musala.drone.domain.Audit;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +14,16 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface AuditRepository extends JpaRepository<Audit, Long>, JpaSpecificationExecutor<Audit> {}
+public interface AuditRepository
+    extends
+        JpaRepository<Audit, Long>,
+        JpaSpecificationExecutor<Audit>,
+        KeysetSpecificationExecutor<Audit>,
+        PageSpecificationExecutor<Audit> {
+    @Query("select a.id from Audit a where a.createdDate < :cutoff")
+    List<Long> findIdsCreatedBefore(@Param("cutoff") Instant cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("delete from Audit a where a.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,69 @@
+package com.musala.drone.repository;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+import com.musala.drone.domain.DroneEvent;
+import com.musala.drone.domain.enumeration.DroneEventType;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the DroneEvent entity. The events are only ever inserted.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface DroneEventRepository extends JpaRepository<DroneEvent, Long> {
+    String HISTORY_QUERY =
+        "select e from DroneEvent e where e.droneId = :droneId and e.seq > :afterSeq and e.seq <= :untilSeq order by e.seq";
+
+    /**
+     * @return the events of the drone with a seq in {@code (afterSeq, untilSeq]}, in order.
+     */
+    @Query(HISTORY_QUERY)
+    List<DroneEvent> findHistory(
+        @Param("droneId") Long droneId,
+        @Param("afterSeq") Long afterSeq,
+        @Param("untilSeq") Long untilSeq,
+        Pageable pageable
+    );
+
+    /**
+     * Stream the events of the drone with a seq in {@code (afterSeq, untilSeq]}, in order, in a transaction.
+     */
+    @Query(HISTORY_QUERY)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<DroneEvent> streamHistory(@Param("droneId") Long droneId, @Param("afterSeq") Long afterSeq, @Param("untilSeq") Long untilSeq);
+
+    /**
+     * @return the events of the drones after their last snapshot, in order of drone and seq.
+     */
+    @Query(
+        "select e from DroneEvent e where e.droneId in :droneIds" +
+        " and e.seq > coalesce((select max(s.seq) from DroneSnapshot s where s.droneId = e.droneId), 0)" +
+        " order by e.droneId, e.seq"
+    )
+    List<DroneEvent> findTailsByDroneIdIn(@Param("droneIds") Collection<Long> droneIds);
+
+    /**
+     * @return the ids above {@code afterDroneId} of the drones with at least {@code minEvents} events after their last
+     * snapshot and no {@code deleted} event, in order.
+     */
+    @Query(
+        "select e.droneId from DroneEvent e where e.droneId > :afterDroneId" +
+        " and e.seq > coalesce((select max(s.seq) from DroneSnapshot s where s.droneId = e.droneId), 0)" +
+        " and not exists (select d from DroneEvent d where d.droneId = e.droneId and d.type = :deleted)" +
+        " group by e.droneId having count(e) >= :minEvents order by e.droneId"
+    )
+    List<Long> findDroneIdsToSnapshot(
+        @Param("afterDroneId") Long afterDroneId,
+        @Param("minEvents") long minEvents,
+        @Param("deleted") DroneEventType deleted,
+        Pageable pageable
+    );
+}
@@ -1,18 +1,130 @@
 package com.musala.drone.repository;
 
 import com.musala.drone.domain.Drone;
+import com.musala.drone.domain.enumeration.Model;
+import com.musala.drone.domain.enumeration.State;
+import javax.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Spring Data JPA repository for the Drone entity.
  */
 @SuppressWarnings("unused")
 @Repository
-public interface DroneRepository extends JpaRepository<Drone, Long>, JpaSpecificationExecutor<Drone> {
+public interface DroneRepository
+    extends
+        JpaRepository<Drone, Long>,
+        JpaSpecificationExecutor<Drone>,
+        KeysetSpecificationExecutor<Drone>,
+        PageSpecificationExecutor<Drone> {
 
     Optional<List<Drone>> findAllByBatteryCapacityLessThanAndAuditFlageNotification(Long battery,Boolean audit);
+
+    /**
+     * Add {@code weight} to the loaded weight of the drone if it still fits under its weight limit, in a single statement.
+     * The drone becomes {@code loaded} when the new weight reaches the limit, {@code loading} otherwise; a load that does
+     * not fill the drone is only accepted when the battery capacity is at least {@code minBatteryCapacity}.
+     *
+     * @return the number of updated rows, {@code 0} if the load was rejected or the drone does not exist.
+     */
+    @Modifying
+    @Query(
+        "update Drone d set d.loadedWeight = d.loadedWeight + :weight," +
+        " d.state = case when d.loadedWeight + :weight = d.weightLimit then :loaded else :loading end" +
+        " where d.id = :id and d.loadedWeight + :weight <= d.weightLimit" +
+        " and (d.loadedWeight + :weight = d.weightLimit or d.batteryCapacity >= :minBatteryCapacity)"
+    )
+    int loadIfFits(
+        @Param("id") Long id,
+        @Param("weight") Integer weight,
+        @Param("minBatteryCapacity") Long minBatteryCapacity,
+        @Param("loaded") State loaded,
+        @Param("loading") State loading
+    );
+
+    @Modifying
+    @Query("update Drone d set d.loadedWeight = d.loadedWeight - :weight where d.id = :id")
+    int unload(@Param("id") Long id, @Param("weight") Integer weight);
+
+    /**
+     * Record that the low battery of the drone was audited, unless it already was or the battery is not low anymore.
+     *
+     * @return the number of updated rows, {@code 0} if the drone must not be audited.
+     */
+    @Modifying
+    @Query(
+        "update Drone d set d.auditFlageNotification = true where d.id = :id and d.batteryCapacity < :threshold" +
+        " and (d.auditFlageNotification = false or d.auditFlageNotification is null)"
+    )
+    int flagLowBattery(@Param("id") Long id, @Param("threshold") Long threshold);
+
+    /**
+     * The next drones after {@code afterId} whose low battery was not audited yet, locked until the end of the transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(
+        "select d from Drone d where d.id > :afterId and d.batteryCapacity < :threshold" +
+        " and (d.auditFlageNotification = false or d.auditFlageNotification is null) order by d.id"
+    )
+    List<Drone> findLowBatteryToAudit(@Param("afterId") Long afterId, @Param("threshold") Long threshold, Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Drone d set d.auditFlageNotification = true where d.id in :ids")
+    int flagAudited(@Param("ids") Collection<Long> ids);
+
+    @Query("select d.weightLimit as weightLimit, d.loadedWeight as loadedWeight from Drone d where d.id = :id")
+    Optional<DroneCapacity> findCapacityById(@Param("id") Long id);
+
+    @Query(
+        "select d.id as id, d.serialNumber as serialNumber, d.model as model, d.state as state, d.weightLimit as weightLimit," +
+        " d.batteryCapacity as batteryCapacity, d.loadedWeight as loadedWeight from Drone d where d.id = :id"
+    )
+    Optional<DroneHotState> findHotStateById(@Param("id") Long id);
+
+    @Query(
+        "select d.id as id, d.serialNumber as serialNumber, d.model as model, d.state as state, d.weightLimit as weightLimit," +
+        " d.batteryCapacity as batteryCapacity, d.loadedWeight as loadedWeight from Drone d"
+    )
+    List<DroneHotState> findAllHotStates();
+
+    @Query(
+        "select d.id as id, d.serialNumber as serialNumber, d.model as model, d.state as state, d.weightLimit as weightLimit," +
+        " d.batteryCapacity as batteryCapacity, d.loadedWeight as loadedWeight from Drone d where d.id in :ids"
+    )
+    List<DroneHotState> findHotStatesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select d.serialNumber from Drone d where d.serialNumber in :serialNumbers")
+    Set<String> findExistingSerialNumbers(@Param("serialNumbers") Collection<String> serialNumbers);
+
+    /**
+     * The current load of a drone, read from the database rather than from the persistence context.
+     */
+    interface DroneCapacity {
+        Integer getWeightLimit();
+
+        Integer getLoadedWeight();
+    }
+
+    /**
+     * The fields of a drone which dispatching reads all the time.
+     */
+    interface DroneHotState extends DroneCapacity {
+        Long getId();
+
+        String getSerialNumber();
+
+        Model getModel();
+
+        State getState();
+
+        Long getBatteryCapacity();
+    }
 }
@@ -0,0 +1,30 @@
+package com.musala.drone.repository;
+
+import com.musala.drone.domain.DroneSnapshot;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the DroneSnapshot entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface DroneSnapshotRepository extends JpaRepository<DroneSnapshot, Long> {
+    /**
+     * @return the last snapshot of the drone up to the seq.
+     */
+    Optional<DroneSnapshot> findFirstByDroneIdAndSeqLessThanEqualOrderBySeqDesc(Long droneId, Long seq);
+
+    /**
+     * @return the last snapshot of each of the drones which has one.
+     */
+    @Query(
+        "select s from DroneSnapshot s where s.droneId in :droneIds" +
+        " and s.seq = (select max(l.seq) from DroneSnapshot l where l.droneId = s.droneId)"
+    )
+    List<DroneSnapshot> findLastByDroneIdIn(@Param("droneIds") Collection<Long> droneIds);
+}
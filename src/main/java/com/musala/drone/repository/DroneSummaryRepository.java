@@ -0,0 +1,43 @@
+package com.musala.drone.repository;
+
+import com.musala.drone.domain.DroneSummary;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the DroneSummary entity.
+ * <p>
+ * The summaries are only ever changed by the relative updates below, in the transaction of the command, so that
+ * concurrent commands on a drone add up rather than overwrite each other.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface DroneSummaryRepository
+    extends JpaRepository<DroneSummary, Long>, JpaSpecificationExecutor<DroneSummary>, PageSpecificationExecutor<DroneSummary> {
+    /**
+     * Add {@code count} medications weighing {@code weight} in total to the summary of the drone; both are negative when
+     * medications are unloaded.
+     *
+     * @return the number of updated rows, {@code 0} if the drone has no summary.
+     */
+    @Modifying
+    @Query(
+        "update DroneSummary s set s.medicationCount = s.medicationCount + :count, s.totalWeight = s.totalWeight + :weight," +
+        " s.remainingCapacity = s.remainingCapacity - :weight where s.droneId = :droneId"
+    )
+    int add(@Param("droneId") Long droneId, @Param("count") int count, @Param("weight") int weight);
+
+    /**
+     * Recompute the remaining capacity of the drone from its new weight limit.
+     *
+     * @return the number of updated rows, {@code 0} if the drone has no summary.
+     */
+    @Modifying
+    @Query("update DroneSummary s set s.remainingCapacity = :weightLimit - s.totalWeight where s.droneId = :droneId")
+    int updateWeightLimit(@Param("droneId") Long droneId, @Param("weightLimit") int weightLimit);
+
+    @Modifying
+    @Query("delete from DroneSummary s where s.droneId = :droneId")
+    int deleteByDroneIdInBatch(@Param("droneId") Long droneId);
+}
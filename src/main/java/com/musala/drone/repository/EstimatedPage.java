@@ -0,0 +1,29 @@
+package com.musala.drone.repository;
+
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * A {@link Page} whose total is an estimate rather than a count.
+ * <p>
+ * The total is at least the number of entities up to this page, plus one if there are more: the number of pages it
+ * gives may be wrong, but there is always a next page as long as some entities follow.
+ *
+ * @param <T> the type of the entities.
+ */
+public class EstimatedPage<T> extends PageImpl<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    public EstimatedPage(List<T> content, Pageable pageable, long total) {
+        super(content, pageable, total);
+    }
+
+    @Override
+    public <U> Page<U> map(Function<? super T, ? extends U> converter) {
+        return new EstimatedPage<>(getConvertedContent(converter), getPageable(), getTotalElements());
+    }
+}
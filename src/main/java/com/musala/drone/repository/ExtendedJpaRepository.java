@@ -0,0 +1,254 @@
+package com.musala.drone.repository;
+
+import java.lang.reflect.AnnotatedElement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.persistence.Column;
+import javax.persistence.EntityManager;
+import javax.persistence.Id;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.data.support.PageableExecutionUtils;
+
+/**
+ * Base class of the repositories, adding the {@link KeysetSpecificationExecutor} and {@link PageSpecificationExecutor}
+ * queries, of entities or of {@link Projection projections}, to the Spring Data JPA ones.
+ *
+ * @param <T> the type of the entities.
+ * @param <ID> the type of the ids.
+ */
+public class ExtendedJpaRepository<T, ID>
+    extends SimpleJpaRepository<T, ID>
+    implements KeysetSpecificationExecutor<T>, PageSpecificationExecutor<T> {
+
+    /**
+     * SQL function counting its argument over the whole result, {@code count(?1) over()}, registered in Hibernate by the
+     * {@link com.musala.drone.config.DatabaseConfiguration}.
+     */
+    public static final String COUNT_OVER_FUNCTION = "count_over";
+
+    private static final String POSTGRESQL_ESTIMATE_QUERY =
+        "select cast(coalesce(sum(greatest(c.reltuples, 0)), 0) as bigint) from pg_class c" +
+        " where c.oid = cast(:table as regclass)" +
+        " or c.oid in (select i.inhrelid from pg_inherits i where i.inhparent = cast(:table as regclass))";
+
+    private static final String H2_ESTIMATE_QUERY =
+        "select row_count_estimate from information_schema.tables" +
+        " where table_schema = current_schema and lower(table_name) = lower(:table)";
+
+    private static final ConversionService CONVERSION_SERVICE = ApplicationConversionService.getSharedInstance();
+
+    private final JpaEntityInformation<T, ?> entityInformation;
+
+    private final EntityManager entityManager;
+
+    public ExtendedJpaRepository(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+        this.entityInformation = entityInformation;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<T> findAll(Specification<T> spec, Keyset keyset, int limit) {
+        return findAll(spec, root -> List.of(root), keyset, limit).stream().map(this::entity).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Tuple> findAll(Specification<T> spec, Projection<T> projection, Keyset keyset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(getDomainClass());
+        Path<Comparable<Object>> key = root.get(sortableAttribute(root.getModel(), keyset.getProperty()).getName());
+        Path<Comparable<Object>> id = root.get(Keyset.ID);
+
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (!keyset.isFirst()) {
+            Predicate seek = after(cb, keyset.getDirection(), id, typedValue(id, keyset.getId().toString()));
+            if (!keyset.getProperty().equals(Keyset.ID)) {
+                Comparable<Object> value = typedValue(key, keyset.getValue());
+                seek = cb.or(after(cb, keyset.getDirection(), key, value), cb.and(cb.equal(key, value), seek));
+            }
+            predicate = predicate == null ? seek : cb.and(predicate, seek);
+        }
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.multiselect(projection.select(root));
+        query.orderBy(
+            keyset.getProperty().equals(Keyset.ID)
+                ? List.of(order(cb, keyset.getDirection(), id))
+                : List.of(order(cb, keyset.getDirection(), key), order(cb, keyset.getDirection(), id))
+        );
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public Page<T> findPage(Specification<T> spec, Pageable pageable, long estimateAbove) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(findAll(spec, pageable.getSort()));
+        }
+        return findPage(spec, root -> List.of(root), pageable, estimateAbove).map(this::entity);
+    }
+
+    @Override
+    public Page<Tuple> findPage(Specification<T> spec, Projection<T> projection, Pageable pageable, long estimateAbove) {
+        if (pageable.isPaged() && estimateAbove > 0 && estimateCount() > estimateAbove) {
+            return findEstimatedPage(spec, projection, pageable);
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(getDomainClass());
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        List<Selection<?>> selections = new ArrayList<>(projection.select(root));
+        // the window would count the rows before they are made distinct
+        boolean counted = pageable.isPaged() && !query.isDistinct();
+        if (counted) {
+            selections.add(cb.function(COUNT_OVER_FUNCTION, Long.class, root.get(entityInformation.getIdAttribute().getName())));
+        }
+        query.multiselect(selections);
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(typedQuery.getResultList());
+        }
+        List<Tuple> rows = typedQuery.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize()).getResultList();
+        if (!counted) {
+            return PageableExecutionUtils.getPage(rows, pageable, () -> count(spec));
+        }
+        if (rows.isEmpty()) {
+            // past the last page, nothing tells the total
+            return new PageImpl<>(Collections.emptyList(), pageable, pageable.getOffset() == 0 ? 0 : count(spec));
+        }
+        return new PageImpl<>(rows, pageable, rows.get(0).get(selections.size() - 1, Long.class));
+    }
+
+    /**
+     * Find the page and one more entity, which tells whether the total is beyond the page.
+     */
+    private Page<Tuple> findEstimatedPage(Specification<T> spec, Projection<T> projection, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(getDomainClass());
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.multiselect(projection.select(root));
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        List<Tuple> rows = entityManager
+            .createQuery(query)
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(pageable.getPageSize() + 1)
+            .getResultList();
+        boolean more = rows.size() > pageable.getPageSize();
+        List<Tuple> content = more ? rows.subList(0, pageable.getPageSize()) : rows;
+        long total = pageable.getOffset() + content.size();
+        if (!more && !content.isEmpty()) {
+            // the last page tells the exact total
+            return new PageImpl<>(content, pageable, total);
+        }
+        if (more) {
+            total++;
+        }
+        if (predicate == null) {
+            total = Math.max(total, estimateCount());
+        }
+        return new EstimatedPage<>(content, pageable, total);
+    }
+
+    @Override
+    public long estimateCount() {
+        SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+        Dialect dialect = sessionFactory.getJdbcServices().getDialect();
+        String sql;
+        if (dialect instanceof PostgreSQL81Dialect) {
+            sql = POSTGRESQL_ESTIMATE_QUERY;
+        } else if (dialect instanceof H2Dialect) {
+            sql = H2_ESTIMATE_QUERY;
+        } else {
+            return -1;
+        }
+        String table = ((AbstractEntityPersister) sessionFactory.getMetamodel().entityPersister(getDomainClass())).getTableName();
+        Number estimate = (Number) entityManager.createNativeQuery(sql).setParameter("table", table).getSingleResult();
+        return estimate == null ? -1 : estimate.longValue();
+    }
+
+    private T entity(Tuple row) {
+        return row.get(0, getDomainClass());
+    }
+
+    private Attribute<? super T, ?> sortableAttribute(EntityType<T> entityType, String property) {
+        Attribute<? super T, ?> attribute;
+        try {
+            attribute = entityType.getAttribute(property);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown sort property " + property);
+        }
+        if (attribute.getPersistentAttributeType() != Attribute.PersistentAttributeType.BASIC || !isNonNull(attribute)) {
+            throw new IllegalArgumentException("Cursor pagination needs a non-null sort property, not " + property);
+        }
+        return attribute;
+    }
+
+    private static boolean isNonNull(Attribute<?, ?> attribute) {
+        if (!(attribute.getJavaMember() instanceof AnnotatedElement)) {
+            return false;
+        }
+        AnnotatedElement member = (AnnotatedElement) attribute.getJavaMember();
+        Column column = member.getAnnotation(Column.class);
+        return member.isAnnotationPresent(Id.class) || (column != null && !column.nullable());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> typedValue(Path<Comparable<Object>> path, String value) {
+        try {
+            return (Comparable<Object>) CONVERSION_SERVICE.convert(value, path.getJavaType());
+        } catch (ConversionException e) {
+            throw new IllegalArgumentException("Invalid cursor value " + value);
+        }
+    }
+
+    private static Predicate after(
+        CriteriaBuilder cb,
+        Sort.Direction direction,
+        Expression<Comparable<Object>> path,
+        Comparable<Object> value
+    ) {
+        return direction.isAscending() ? cb.greaterThan(path, value) : cb.lessThan(path, value);
+    }
+
+    private static Order order(CriteriaBuilder cb, Sort.Direction direction, Expression<?> path) {
+        return direction.isAscending() ? cb.asc(path) : cb.desc(path);
+    }
+}
@@ -0,0 +1,158 @@
+package com.musala.drone.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Position in a list of entities ordered by one property then by id, from which the next entities are sought.
+ * <p>
+ * Seeking on {@code (property, id)} instead of skipping an offset costs the same whatever the depth of the page. The
+ * keyset is exchanged with the clients as an opaque cursor, see {@link #encode()} and {@link #decode(String)}.
+ */
+public final class Keyset {
+
+    public static final String ID = "id";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final String property;
+
+    private final Sort.Direction direction;
+
+    private final String value;
+
+    private final Long id;
+
+    private Keyset(String property, Sort.Direction direction, String value, Long id) {
+        this.property = property;
+        this.direction = direction;
+        this.value = value;
+        this.id = id;
+    }
+
+    /**
+     * The start of the list, ordered by the given sort.
+     *
+     * @param sort the order of the list, by one property at most, optionally followed by the id.
+     * @return the keyset of the first page.
+     * @throws IllegalArgumentException if the sort has several properties.
+     */
+    public static Keyset first(Sort sort) {
+        List<Sort.Order> orders = sort.stream().collect(Collectors.toList());
+        if (orders.isEmpty()) {
+            return new Keyset(ID, Sort.Direction.ASC, null, null);
+        }
+        if (orders.size() > 2 || (orders.size() == 2 && !orders.get(1).getProperty().equals(ID))) {
+            throw new IllegalArgumentException("Cursor pagination sorts on one property only: " + sort);
+        }
+        return new Keyset(orders.get(0).getProperty(), orders.get(0).getDirection(), null, null);
+    }
+
+    /**
+     * @param cursor a cursor obtained from {@link #encode()}.
+     * @return the keyset of the cursor.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    public static Keyset decode(String cursor) {
+        String[] parts;
+        try {
+            parts = new String(DECODER.decode(cursor), StandardCharsets.UTF_8).split("\n", 4);
+            if (parts.length == 4) {
+                return new Keyset(parts[0], Sort.Direction.fromString(parts[1]), parts[3], Long.valueOf(parts[2]));
+            }
+        } catch (IllegalArgumentException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Invalid cursor: " + cursor);
+    }
+
+    /**
+     * @return the opaque cursor of this keyset.
+     */
+    public String encode() {
+        return ENCODER.encodeToString((property + "\n" + direction + "\n" + id + "\n" + value).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param entity the last entity of a page.
+     * @return the keyset of the page following the entity.
+     */
+    public Keyset after(Object entity) {
+        BeanWrapperImpl wrapper = new BeanWrapperImpl(entity);
+        Object lastValue = wrapper.getPropertyValue(property);
+        if (lastValue == null) {
+            throw new IllegalStateException("Cannot seek after a null " + property);
+        }
+        return new Keyset(property, direction, lastValue.toString(), (Long) wrapper.getPropertyValue(ID));
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    /**
+     * @return the value of the property of the last entity seen, {@code null} at the start of the list.
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * @return the id of the last entity seen, {@code null} at the start of the list.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    public boolean isFirst() {
+        return id == null;
+    }
+
+    public Sort toSort() {
+        return property.equals(ID) ? Sort.by(direction, ID) : Sort.by(direction, property, ID);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Keyset)) {
+            return false;
+        }
+        Keyset keyset = (Keyset) o;
+        return (
+            property.equals(keyset.property) &&
+            direction == keyset.direction &&
+            Objects.equals(value, keyset.value) &&
+            Objects.equals(id, keyset.id)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(property, direction, value, id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "Keyset{" +
+            "property='" + property + "'" +
+            ", direction=" + direction +
+            ", value='" + value + "'" +
+            ", id=" + id +
+            "}";
+    }
+}
@@ -0,0 +1,38 @@
+package com.musala.drone.repository;
+
+import java.util.List;
+import javax.persistence.Tuple;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.NoRepositoryBean;
+
+/**
+ * Keyset pagination of the entities matching a {@link Specification}, implemented by {@link ExtendedJpaRepository}.
+ *
+ * @param <T> the type of the entities.
+ */
+@NoRepositoryBean
+public interface KeysetSpecificationExecutor<T> {
+    /**
+     * Find the entities matching the specification which follow the keyset, in the keyset order.
+     *
+     * @param spec the specification the entities must match, may be {@code null}.
+     * @param keyset the position after which the entities are sought.
+     * @param limit the maximum number of entities to return.
+     * @return the matching entities.
+     * @throws IllegalArgumentException if the keyset property is not a non-null basic attribute of the entity.
+     */
+    List<T> findAll(Specification<T> spec, Keyset keyset, int limit);
+
+    /**
+     * Find the projections of the entities matching the specification which follow the keyset, in the keyset order,
+     * selecting only the columns of the projection.
+     *
+     * @param spec the specification the entities must match, may be {@code null}.
+     * @param projection the columns to select.
+     * @param keyset the position after which the entities are sought.
+     * @param limit the maximum number of entities to return.
+     * @return the projections of the matching entities.
+     * @throws IllegalArgumentException if the keyset property is not a non-null basic attribute of the entity.
+     */
+    List<Tuple> findAll(Specification<T> spec, Projection<T> projection, Keyset keyset, int limit);
+}
@@ -3,16 +3,79 @@ package com.musala.drone.repository;
 import com.musala.drone.domain.Drone;
 import com.musala.drone.domain.Medication;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Spring Data JPA repository for the Medication entity.
  */
 @SuppressWarnings("unused")
 @Repository
-public interface MedicationRepository extends JpaRepository<Medication, Long>, JpaSpecificationExecutor<Medication> {
+public interface MedicationRepository
+    extends
+        JpaRepository<Medication, Long>,
+        JpaSpecificationExecutor<Medication>,
+        KeysetSpecificationExecutor<Medication>,
+        PageSpecificationExecutor<Medication> {
 
     public List<Medication> findMedicationByDrone(Drone drone);
+
+    @Query("select d.id as droneId, m.weight as weight from Medication m left join m.drone d where m.id = :id")
+    Optional<DroneLoad> findDroneLoadById(@Param("id") Long id);
+
+    /**
+     * The drone of a medication, read in its own short transaction so that the caller does not hold a connection while it
+     * waits for the command lane of that drone.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    @Query("select m.drone.id from Medication m where m.id = :id")
+    Optional<Long> findDroneIdById(@Param("id") Long id);
+
+    /**
+     * The weights of the given medications which are on no drone, read in its own short transaction so that the caller
+     * does not hold a connection while it waits for the command lanes of the drones it plans them on.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    @Query("select m.id as id, m.weight as weight from Medication m where m.id in :ids and m.drone is null")
+    List<MedicationWeight> findUnassignedWeights(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Put the given medications on the drone, unless another drone got them first.
+     *
+     * @return the number of medications put on the drone.
+     */
+    @Modifying
+    @Query("update Medication m set m.drone = :drone where m.id in :ids and m.drone is null")
+    int assignUnassigned(@Param("ids") Collection<Long> ids, @Param("drone") Drone drone);
+
+    @Query("select m.name from Medication m where m.name in :names")
+    Set<String> findExistingNames(@Param("names") Collection<String> names);
+
+    @Query("select m.code from Medication m where m.code in :codes")
+    Set<String> findExistingCodes(@Param("codes") Collection<String> codes);
+
+    @Query("select m.imageHash from Medication m where m.imageHash in :hashes")
+    Set<String> findReferencedImageHashes(@Param("hashes") Collection<String> hashes);
+
+    /**
+     * The part of a medication which counts in the loaded weight of its drone.
+     */
+    interface DroneLoad {
+        Long getDroneId();
+
+        Integer getWeight();
+    }
+
+    interface MedicationWeight {
+        Long getId();
+
+        Integer getWeight();
+    }
 }
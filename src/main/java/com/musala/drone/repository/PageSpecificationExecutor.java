@@ -0,0 +1,47 @@
+package com.musala.drone.repository;
+
+import javax.persistence.Tuple;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.NoRepositoryBean;
+
+/**
+ * Pages of the entities matching a {@link Specification} fetched with their total in one query, implemented by
+ * {@link ExtendedJpaRepository}.
+ *
+ * @param <T> the type of the entities.
+ */
+@NoRepositoryBean
+public interface PageSpecificationExecutor<T> {
+    /**
+     * Find a page of the entities matching the specification.
+     * <p>
+     * The total is counted by the page query itself, with a {@code count(...) over()} window. Past {@code estimateAbove}
+     * rows in the table, by the database statistics, the total is not counted but estimated, and the page is an
+     * {@link EstimatedPage}.
+     *
+     * @param spec the specification the entities must match, may be {@code null}.
+     * @param pageable the page to find.
+     * @param estimateAbove the number of rows of the table above which the total is estimated, {@code 0} to always count it.
+     * @return the page of matching entities.
+     */
+    Page<T> findPage(Specification<T> spec, Pageable pageable, long estimateAbove);
+
+    /**
+     * Find a page of the projections of the entities matching the specification, selecting only the columns of the
+     * projection. The total is counted or estimated as by {@link #findPage(Specification, Pageable, long)}.
+     *
+     * @param spec the specification the entities must match, may be {@code null}.
+     * @param projection the columns to select, which must tell the entities apart if the specification is distinct.
+     * @param pageable the page to find, or unpaged for all of them.
+     * @param estimateAbove the number of rows of the table above which the total is estimated, {@code 0} to always count it.
+     * @return the page of the projections of the matching entities.
+     */
+    Page<Tuple> findPage(Specification<T> spec, Projection<T> projection, Pageable pageable, long estimateAbove);
+
+    /**
+     * @return the number of rows of the table according to the database statistics, {@code -1} if unknown.
+     */
+    long estimateCount();
+}
@@ -0,0 +1,21 @@
+package com.musala.drone.repository;
+
+import java.util.List;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+
+/**
+ * The columns selected by a projection query of {@link PageSpecificationExecutor} or {@link KeysetSpecificationExecutor},
+ * instead of the whole entity.
+ *
+ * @param <T> the type of the entities.
+ */
+@FunctionalInterface
+public interface Projection<T> {
+    /**
+     * @param root the root of the query.
+     * @return the selections, each aliased with the name its value is read from the {@link Tuple} with.
+     */
+    List<Selection<?>> select(Root<T> root);
+}
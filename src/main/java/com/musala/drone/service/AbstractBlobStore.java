@@ -0,0 +1,149 @@
+package com.musala.drone.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import org.springframework.core.io.Resource;
+
+/**
+ * Base class of the {@link BlobStore}s: the content is spooled to a temporary file through one buffer, while its hash
+ * and size are computed and its type is detected from its first bytes, then saved under its hash unless a blob of that
+ * hash exists, in which case that blob is marked as stored now.
+ */
+public abstract class AbstractBlobStore implements BlobStore {
+
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * The number of bytes the content type is detected from.
+     */
+    private static final int HEAD_SIZE = 12;
+
+    @Override
+    public StoredBlob store(InputStream content, long maxSize) throws IOException {
+        Path spool = Files.createTempFile(spoolDirectory(), "blob", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read = content.readNBytes(buffer, 0, HEAD_SIZE);
+            String contentType = detectContentType(buffer, read);
+            long size = 0;
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(spool), digest)) {
+                while (read > 0) {
+                    size += read;
+                    if (size > maxSize) {
+                        throw new BlobTooLargeException(maxSize);
+                    }
+                    out.write(buffer, 0, read);
+                    read = content.read(buffer);
+                }
+            }
+            String hash = String.format("%064x", new BigInteger(1, digest.digest()));
+            if (!refresh(hash)) {
+                save(hash, spool, size);
+            }
+            return new StoredBlob(hash, size, contentType);
+        } finally {
+            Files.deleteIfExists(spool);
+        }
+    }
+
+    @Override
+    public Optional<Resource> find(String hash) {
+        if (!isHash(hash)) {
+            return Optional.empty();
+        }
+        return open(hash);
+    }
+
+    @Override
+    public boolean touch(String hash) throws IOException {
+        return isHash(hash) && refresh(hash);
+    }
+
+    /**
+     * @return whether the name is a well-formed hash.
+     */
+    protected static boolean isHash(String name) {
+        return name != null && HASH_PATTERN.matcher(name).matches();
+    }
+
+    /**
+     * @return the directory of the temporary files.
+     */
+    protected abstract Path spoolDirectory() throws IOException;
+
+    /**
+     * Mark the blob of the hash, if any, as stored now, so that it is not swept before the command storing it had the
+     * time to reference it. A blob being swept at the same time is either kept or deleted and reported missing.
+     *
+     * @param hash a well-formed hash.
+     * @return whether a blob of that hash is stored.
+     */
+    protected abstract boolean refresh(String hash) throws IOException;
+
+    /**
+     * Save the content of the file as the blob of the hash. Another thread may have just saved the same content, in
+     * which case the blob is left as it is and this method returns normally.
+     *
+     * @param hash the hash of the content.
+     * @param content the temporary file holding the content, which may be moved.
+     * @param size the size of the content.
+     */
+    protected abstract void save(String hash, Path content, long size) throws IOException;
+
+    /**
+     * @param hash a well-formed hash.
+     * @return the content of the blob, empty if there is no such blob.
+     */
+    protected abstract Optional<Resource> open(String hash);
+
+    /**
+     * @return the image format whose signature the head starts with, {@code null} if none.
+     */
+    static String detectContentType(byte[] head, int length) {
+        if (startsWith(head, length, 0, 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n')) {
+            return "image/png";
+        }
+        if (startsWith(head, length, 0, 0xff, 0xd8, 0xff)) {
+            return "image/jpeg";
+        }
+        if (startsWith(head, length, 0, 'G', 'I', 'F', '8', '7', 'a') || startsWith(head, length, 0, 'G', 'I', 'F', '8', '9', 'a')) {
+            return "image/gif";
+        }
+        if (startsWith(head, length, 0, 'R', 'I', 'F', 'F') && startsWith(head, length, 8, 'W', 'E', 'B', 'P')) {
+            return "image/webp";
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] head, int length, int offset, int... signature) {
+        if (length < offset + signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((head[offset + i] & 0xff) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package com.musala.drone.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musala.drone.config.ApplicationProperties;
+import com.musala.drone.repository.AuditRepository;
+import com.musala.drone.service.dto.AuditDTO;
+import com.musala.drone.service.mapper.AuditMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Write-behind journal of the {@link com.musala.drone.domain.Audit audits}.
+ * <p>
+ * The audits are queued in a {@link BoundedRingBuffer} once the transaction appending them commits, and written by a
+ * single thread, {@code batch-size} rows per transaction or every {@code flush-interval-millis}. When the buffer is full,
+ * the configured {@link ApplicationProperties.AuditJournal.Overflow overflow} policy applies. The journal is stopped after
+ * the web server, so with {@code server.shutdown: graceful} the audits of the last requests are still written.
+ */
+@Service
+public class AuditJournal implements SmartLifecycle {
+
+    public static final String DEPTH_METER_NAME = "audit.journal.depth";
+    public static final String FLUSH_METER_NAME = "audit.journal.flush";
+    public static final String OVERFLOW_METER_NAME = "audit.journal.overflow";
+    public static final String OVERFLOW_METER_ACTION_DIMENSION = "action";
+
+    /**
+     * Stopped after the web server (phase {@code Integer.MAX_VALUE - 1}) and its graceful shutdown.
+     */
+    private static final int PHASE = Integer.MAX_VALUE - 2;
+
+    private static final long REPLAY_RETRY_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final Logger log = LoggerFactory.getLogger(AuditJournal.class);
+
+    private final BoundedRingBuffer<AuditDTO> buffer;
+
+    private final int batchSize;
+
+    private final long flushIntervalNanos;
+
+    private final ApplicationProperties.AuditJournal.Overflow overflow;
+
+    private final Path spillFile;
+
+    private final Path replayFile;
+
+    private final long shutdownTimeoutMillis;
+
+    private final AuditRepository auditRepository;
+
+    private final AuditMapper auditMapper;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Timer flushTimer;
+
+    private final Counter blockedCounter;
+
+    private final Counter droppedCounter;
+
+    private final Counter spilledCounter;
+
+    private final AtomicLong appended = new AtomicLong();
+
+    private final AtomicLong settled = new AtomicLong();
+
+    private final Object spillLock = new Object();
+
+    private volatile boolean running;
+
+    private volatile Thread writer;
+
+    private long nextReplayNanos;
+
+    public AuditJournal(
+        ApplicationProperties applicationProperties,
+        AuditRepository auditRepository,
+        AuditMapper auditMapper,
+        ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry
+    ) {
+        ApplicationProperties.AuditJournal properties = applicationProperties.getAuditJournal();
+        this.buffer = new BoundedRingBuffer<>(properties.getCapacity());
+        this.batchSize = properties.getBatchSize();
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMillis());
+        this.overflow = properties.getOverflow();
+        this.spillFile = Paths.get(properties.getSpillFile());
+        this.replayFile = spillFile.resolveSibling(spillFile.getFileName() + ".replay");
+        this.shutdownTimeoutMillis = properties.getShutdownTimeoutMillis();
+        this.auditRepository = auditRepository;
+        this.auditMapper = auditMapper;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        Gauge
+            .builder(DEPTH_METER_NAME, buffer, BoundedRingBuffer::size)
+            .description("Number of audits waiting to be written")
+            .baseUnit("audits")
+            .register(meterRegistry);
+        this.flushTimer = Timer.builder(FLUSH_METER_NAME).description("Time taken to write a batch of audits").register(meterRegistry);
+        this.blockedCounter = overflowCounter("blocked").register(meterRegistry);
+        this.droppedCounter = overflowCounter("dropped").register(meterRegistry);
+        this.spilledCounter = overflowCounter("spilled").register(meterRegistry);
+    }
+
+    private Counter.Builder overflowCounter(String action) {
+        return Counter
+            .builder(OVERFLOW_METER_NAME)
+            .description("Number of audits which found the journal full")
+            .baseUnit("audits")
+            .tag(OVERFLOW_METER_ACTION_DIMENSION, action);
+    }
+
+    /**
+     * Journal an audit, once the current transaction commits if there is one.
+     *
+     * @param auditDTO the audit to write.
+     */
+    public void append(AuditDTO auditDTO) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        enqueue(auditDTO);
+                    }
+                }
+            );
+        } else {
+            enqueue(auditDTO);
+        }
+    }
+
+    private void enqueue(AuditDTO auditDTO) {
+        appended.incrementAndGet();
+        if (!running) {
+            writeOrSpill(Collections.singletonList(auditDTO));
+            return;
+        }
+        if (buffer.offer(auditDTO)) {
+            if (buffer.size() >= batchSize) {
+                LockSupport.unpark(writer);
+            }
+            return;
+        }
+        switch (overflow) {
+            case BLOCK:
+                blockedCounter.increment();
+                while (!buffer.offer(auditDTO)) {
+                    if (!running) {
+                        writeOrSpill(Collections.singletonList(auditDTO));
+                        return;
+                    }
+                    LockSupport.unpark(writer);
+                    LockSupport.parkNanos(this, TimeUnit.MICROSECONDS.toNanos(100));
+                }
+                break;
+            case DROP_OLDEST:
+                while (!buffer.offer(auditDTO)) {
+                    AuditDTO dropped = buffer.poll();
+                    if (dropped != null) {
+                        log.warn("Audit journal full, dropped {}", dropped);
+                        droppedCounter.increment();
+                        settled.incrementAndGet();
+                    }
+                }
+                break;
+            case SPILL:
+                spilledCounter.increment();
+                spill(Collections.singletonList(auditDTO));
+                settled.incrementAndGet();
+                break;
+        }
+    }
+
+    /**
+     * Wait until the audits journalled so far are written, spilled or dropped.
+     *
+     * @param timeout the maximum time to wait.
+     * @return {@code false} if the timeout elapsed first.
+     */
+    public boolean awaitFlushed(Duration timeout) {
+        long target = appended.get();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (settled.get() < target) {
+            if (System.nanoTime() - deadline > 0) {
+                return false;
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        return true;
+    }
+
+    private void drain() {
+        List<AuditDTO> batch = new ArrayList<>(batchSize);
+        while (running || buffer.size() > 0) {
+            try {
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    AuditDTO auditDTO = buffer.poll();
+                    if (auditDTO != null) {
+                        batch.add(auditDTO);
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (!running || remaining <= 0) {
+                        break;
+                    }
+                    LockSupport.parkNanos(this, remaining);
+                }
+                if (!batch.isEmpty()) {
+                    writeOrSpill(batch);
+                    batch.clear();
+                } else if (running) {
+                    replaySpill();
+                }
+            } catch (RuntimeException e) {
+                log.error("Audit journal writer failed", e);
+            }
+        }
+    }
+
+    private void writeOrSpill(List<AuditDTO> batch) {
+        try {
+            write(batch);
+        } catch (RuntimeException e) {
+            log.error("Could not write {} audits, spilling them to {}", batch.size(), spillFile, e);
+            spill(batch);
+        } finally {
+            settled.addAndGet(batch.size());
+        }
+    }
+
+    private void write(List<AuditDTO> batch) {
+        flushTimer.record(() ->
+            transactionTemplate.executeWithoutResult(status -> auditRepository.saveAll(auditMapper.toEntity(batch)))
+        );
+    }
+
+    private void spill(List<AuditDTO> audits) {
+        StringBuilder lines = new StringBuilder();
+        try {
+            for (AuditDTO auditDTO : audits) {
+                lines.append(objectMapper.writeValueAsString(auditDTO)).append('\n');
+            }
+            synchronized (spillLock) {
+                Path parent = spillFile.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                Files.write(
+                    spillFile,
+                    lines.toString().getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND
+                );
+            }
+        } catch (IOException e) {
+            log.error("Could not spill {} audits to {}, they are lost: {}", audits.size(), spillFile, audits, e);
+        }
+    }
+
+    /**
+     * Write the spilled audits, in one transaction so that a failure does not write them twice.
+     */
+    private void replaySpill() {
+        if (System.nanoTime() - nextReplayNanos < 0) {
+            return;
+        }
+        try {
+            synchronized (spillLock) {
+                if (!Files.exists(replayFile)) {
+                    if (!Files.exists(spillFile)) {
+                        return;
+                    }
+                    Files.move(spillFile, replayFile);
+                }
+            }
+            List<AuditDTO> audits = new ArrayList<>();
+            for (String line : Files.readAllLines(replayFile, StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) {
+                    audits.add(objectMapper.readValue(line, AuditDTO.class));
+                }
+            }
+            write(audits);
+            Files.delete(replayFile);
+            log.info("Replayed {} spilled audits", audits.size());
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not replay the spilled audits of {}", replayFile, e);
+            nextReplayNanos = System.nanoTime() + REPLAY_RETRY_NANOS;
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::drain, "audit-journal");
+        thread.setDaemon(true);
+        writer = thread;
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = writer;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(shutdownTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<AuditDTO> left = new ArrayList<>();
+        for (AuditDTO auditDTO = buffer.poll(); auditDTO != null; auditDTO = buffer.poll()) {
+            left.add(auditDTO);
+        }
+        if (thread.isAlive()) {
+            log.warn("Audit journal writer did not finish in time, spilling {} audits to {}", left.size(), spillFile);
+            spill(left);
+            settled.addAndGet(left.size());
+        } else if (!left.isEmpty()) {
+            writeOrSpill(left);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+}
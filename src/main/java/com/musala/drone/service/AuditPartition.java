@@ -0,0 +1,110 @@
+package com.musala.drone.service;
+
+import com.musala.drone.config.ApplicationProperties.AuditRetention.Partitioning;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A partition of the audit table, covering the audits created from {@code from} (inclusive) to {@code to} (exclusive),
+ * in UTC. The period is encoded in the name of the partition: {@code audit_pyyyyMM} or {@code audit_pyyyyMMdd}.
+ */
+final class AuditPartition {
+
+    static final String PREFIX = "audit_p";
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final Partitioning partitioning;
+
+    private final LocalDate from;
+
+    private AuditPartition(Partitioning partitioning, LocalDate from) {
+        this.partitioning = partitioning;
+        this.from = from;
+    }
+
+    /**
+     * @return the partition holding the audits of the given day.
+     */
+    static AuditPartition of(Partitioning partitioning, LocalDate day) {
+        return new AuditPartition(partitioning, partitioning == Partitioning.MONTHLY ? day.withDayOfMonth(1) : day);
+    }
+
+    /**
+     * @return the partition named {@code name}, empty if it is not a partition name.
+     */
+    static Optional<AuditPartition> parse(String name) {
+        if (!name.startsWith(PREFIX)) {
+            return Optional.empty();
+        }
+        String period = name.substring(PREFIX.length());
+        try {
+            if (period.length() == 6) {
+                return Optional.of(new AuditPartition(Partitioning.MONTHLY, LocalDate.parse(period + "01", DAY_FORMAT)));
+            }
+            if (period.length() == 8) {
+                return Optional.of(new AuditPartition(Partitioning.DAILY, LocalDate.parse(period, DAY_FORMAT)));
+            }
+        } catch (DateTimeParseException e) {
+            // not a partition
+        }
+        return Optional.empty();
+    }
+
+    AuditPartition next() {
+        return new AuditPartition(partitioning, to());
+    }
+
+    String name() {
+        String day = DAY_FORMAT.format(from);
+        return PREFIX + (partitioning == Partitioning.MONTHLY ? day.substring(0, 6) : day);
+    }
+
+    LocalDate from() {
+        return from;
+    }
+
+    LocalDate to() {
+        return partitioning == Partitioning.MONTHLY ? from.plusMonths(1) : from.plusDays(1);
+    }
+
+    /**
+     * @return whether some audits would belong to both partitions.
+     */
+    boolean overlaps(AuditPartition other) {
+        return from.isBefore(other.to()) && other.from.isBefore(to());
+    }
+
+    String createStatement() {
+        return "create table if not exists " + name() + " partition of audit for values from ('" + from + "') to ('" + to() + "')";
+    }
+
+    String dropStatement() {
+        return "drop table if exists " + name();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AuditPartition)) {
+            return false;
+        }
+        AuditPartition that = (AuditPartition) o;
+        return partitioning == that.partitioning && from.equals(that.from);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(partitioning, from);
+    }
+
+    @Override
+    public String toString() {
+        return name();
+    }
+}
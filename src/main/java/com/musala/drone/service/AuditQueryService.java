@@ -1,8 +1,10 @@
 package com.musala.drone.service;
 
+import com.musala.drone.config.ApplicationProperties;
 import com.musala.drone.domain.*; // for static metamodels
 import com.musala.drone.domain.Audit;
 import com.musala.drone.repository.AuditRepository;
+import com.musala.drone.repository.Keyset;
 import com.musala.drone.service.criteria.AuditCriteria;
 import com.musala.drone.service.dto.AuditDTO;
 import com.musala.drone.service.mapper.AuditMapper;
@@ -33,9 +35,12 @@ public class AuditQueryService extends QueryService<Audit> {
 
     private final AuditMapper auditMapper;
 
-    public AuditQueryService(AuditRepository auditRepository, AuditMapper auditMapper) {
+    private final long estimateTotalAbove;
+
+    public AuditQueryService(AuditRepository auditRepository, AuditMapper auditMapper, ApplicationProperties applicationProperties) {
         this.auditRepository = auditRepository;
         this.auditMapper = auditMapper;
+        this.estimateTotalAbove = applicationProperties.getPagination().getEstimateTotalAbove();
     }
 
     /**
@@ -52,6 +57,8 @@ public class AuditQueryService extends QueryService<Audit> {
 
     /**
      * Return a {@link Page} of {@link AuditDTO} which matches the criteria from the database.
+     * The page and its total are fetched in one query; the total of a large table may be estimated, see
+     * {@link com.musala.drone.repository.PageSpecificationExecutor#findPage}.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
      * @return the matching entities.
@@ -60,7 +67,21 @@ public class AuditQueryService extends QueryService<Audit> {
     public Page<AuditDTO> findByCriteria(AuditCriteria criteria, Pageable page) {
         log.debug("find by criteria : {}, page: {}", criteria, page);
         final Specification<Audit> specification = createSpecification(criteria);
-        return auditRepository.findAll(specification, page).map(auditMapper::toDto);
+        return auditRepository.findPage(specification, page, estimateTotalAbove).map(auditMapper::toDto);
+    }
+
+    /**
+     * Return a {@link KeysetSlice} of {@link AuditDTO} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param keyset The position after which the entities are sought.
+     * @param size The maximum number of entities to return.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public KeysetSlice<AuditDTO> findByCriteria(AuditCriteria criteria, Keyset keyset, int size) {
+        log.debug("find by criteria : {}, keyset: {}, size: {}", criteria, keyset, size);
+        final Specification<Audit> specification = createSpecification(criteria);
+        return KeysetSlice.of(auditRepository.findAll(specification, keyset, size + 1), keyset, size).map(auditMapper::toDto);
     }
 
     /**
@@ -105,6 +126,18 @@ public class AuditQueryService extends QueryService<Audit> {
             if (criteria.getLastModifiedDate() != null) {
                 specification = specification.and(buildRangeSpecification(criteria.getLastModifiedDate(), Audit_.lastModifiedDate));
             }
+            if (criteria.getDroneId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getDroneId(), Audit_.droneId));
+            }
+            if (criteria.getEventType() != null) {
+                specification = specification.and(buildSpecification(criteria.getEventType(), Audit_.eventType));
+            }
+            if (criteria.getNumericValue() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getNumericValue(), Audit_.numericValue));
+            }
+            if (criteria.getSeverity() != null) {
+                specification = specification.and(buildSpecification(criteria.getSeverity(), Audit_.severity));
+            }
         }
         return specification;
     }
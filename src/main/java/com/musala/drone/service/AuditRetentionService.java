@@ -0,0 +1,165 @@
+package com.musala.drone.service;
+
+import com.musala.drone.config.ApplicationProperties;
+import com.musala.drone.repository.AuditRepository;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps the audit table within its retention.
+ * <p>
+ * On PostgreSQL the audit table is partitioned by {@code created_date}: the maintenance creates the partitions of the
+ * coming periods ahead of time, and drops the partitions entirely past the retention, which costs no row deletion. On
+ * the other databases, H2 in particular, the expired audits are deleted in chunks, one transaction per chunk.
+ */
+@Service
+public class AuditRetentionService {
+
+    private static final String PARTITIONS_QUERY =
+        "select c.relname from pg_inherits i join pg_class c on c.oid = i.inhrelid join pg_class p on p.oid = i.inhparent" +
+        " where p.relname = 'audit'";
+
+    private final Logger log = LoggerFactory.getLogger(AuditRetentionService.class);
+
+    private final ApplicationProperties.AuditRetention properties;
+
+    private final AuditRepository auditRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Clock clock;
+
+    private volatile Boolean partitioned;
+
+    public AuditRetentionService(
+        ApplicationProperties applicationProperties,
+        AuditRepository auditRepository,
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.properties = applicationProperties.getAuditRetention();
+        this.auditRepository = auditRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = Clock.systemUTC();
+    }
+
+    /**
+     * Create the coming partitions and remove the expired audits.
+     */
+    public void maintain() {
+        Instant now = clock.instant();
+        if (isPartitioned()) {
+            createPartitions(LocalDate.ofInstant(now, ZoneOffset.UTC));
+        }
+        if (properties.getRetentionDays() > 0) {
+            removeCreatedBefore(now.minus(properties.getRetentionDays(), ChronoUnit.DAYS));
+        }
+    }
+
+    /**
+     * Remove the audits created before the cutoff: the partitions ending before it are dropped, or the audits deleted in
+     * chunks when the table is not partitioned.
+     *
+     * @param cutoff the creation date before which the audits expire.
+     * @return the number of dropped partitions, or of deleted audits.
+     */
+    public long removeCreatedBefore(Instant cutoff) {
+        return isPartitioned() ? dropPartitionsBefore(cutoff) : deleteCreatedBefore(cutoff);
+    }
+
+    /**
+     * Create the current and coming partitions, except those overlapping an existing partition, as after a change of the
+     * partitioning: the audits of those periods stay in the existing partition.
+     */
+    private int createPartitions(LocalDate today) {
+        int created = 0;
+        List<AuditPartition> existing = findPartitions();
+        AuditPartition partition = AuditPartition.of(properties.getPartitioning(), today);
+        for (int i = 0; i <= properties.getPrecreate(); i++, partition = partition.next()) {
+            if (existing.stream().anyMatch(partition::overlaps)) {
+                continue;
+            }
+            String statement = partition.createStatement();
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute(statement));
+                created++;
+            } catch (DataAccessException e) {
+                // typically the default partition already holds audits of this period
+                log.warn("Could not create the audit partition {}: {}", partition, e.getMessage());
+            }
+        }
+        return created;
+    }
+
+    private int dropPartitionsBefore(Instant cutoff) {
+        LocalDate cutoffDay = LocalDate.ofInstant(cutoff, ZoneOffset.UTC);
+        List<AuditPartition> expired = findPartitions()
+            .stream()
+            .filter(partition -> !partition.to().isAfter(cutoffDay))
+            .collect(Collectors.toList());
+        for (AuditPartition partition : expired) {
+            log.info("Dropping the audit partition {}, created before {}", partition, partition.to());
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute(partition.dropStatement()));
+        }
+        return expired.size();
+    }
+
+    private List<AuditPartition> findPartitions() {
+        return jdbcTemplate
+            .queryForList(PARTITIONS_QUERY, String.class)
+            .stream()
+            .map(AuditPartition::parse)
+            .flatMap(Optional::stream)
+            .collect(Collectors.toList());
+    }
+
+    private long deleteCreatedBefore(Instant cutoff) {
+        long deleted = 0;
+        int chunk;
+        do {
+            chunk =
+                transactionTemplate.execute(status -> {
+                    List<Long> ids = auditRepository.findIdsCreatedBefore(cutoff, PageRequest.of(0, properties.getDeleteChunkSize()));
+                    return ids.isEmpty() ? 0 : auditRepository.deleteByIdIn(ids);
+                });
+            deleted += chunk;
+        } while (chunk == properties.getDeleteChunkSize());
+        if (deleted > 0) {
+            log.info("Deleted {} audits created before {}", deleted, cutoff);
+        }
+        return deleted;
+    }
+
+    private boolean isPartitioned() {
+        Boolean result = partitioned;
+        if (result == null) {
+            result =
+                jdbcTemplate.execute(
+                    (ConnectionCallback<Boolean>) connection -> "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())
+                );
+            if (result) {
+                result = jdbcTemplate.queryForObject("select count(*) from pg_class where relname = 'audit' and relkind = 'p'", Long.class) > 0;
+            }
+            partitioned = result;
+        }
+        return result;
+    }
+}
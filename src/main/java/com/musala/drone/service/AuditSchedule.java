@@ -0,0 +1,49 @@
+package com.musala.drone.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled audit jobs: the fallback sweep for the low battery audits, and the maintenance of the audit table.
+ * <p>
+ * Low batteries are detected on the write path by {@link LowBatteryAuditor}; this sweep only catches the drones changed
+ * behind the application's back, for instance directly in the database. It is disabled unless
+ * {@code application.low-battery.sweep-cron} is set. See {@link LowBatteryAuditor#sweep()}.
+ * <p>
+ * The maintenance runs at startup, so that the current audit partitions exist, and then on
+ * {@code application.audit-retention.cron}. See {@link AuditRetentionService}.
+ */
+@Component
+public class AuditSchedule {
+
+    private final Logger log = LoggerFactory.getLogger(AuditSchedule.class);
+
+    private final LowBatteryAuditor lowBatteryAuditor;
+
+    private final AuditRetentionService auditRetentionService;
+
+    public AuditSchedule(LowBatteryAuditor lowBatteryAuditor, AuditRetentionService auditRetentionService) {
+        this.lowBatteryAuditor = lowBatteryAuditor;
+        this.auditRetentionService = auditRetentionService;
+    }
+
+    @Scheduled(cron = "${application.low-battery.sweep-cron:-}")
+    public void sweepLowBatteryDrones() {
+        log.debug("Sweeping the drones with a battery under {} %", lowBatteryAuditor.getThreshold());
+        int audited = lowBatteryAuditor.sweep();
+        if (audited > 0) {
+            log.info("Audited {} drones with a battery under {} %", audited, lowBatteryAuditor.getThreshold());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${application.audit-retention.cron:-}")
+    public void maintainAudits() {
+        log.debug("Maintaining the audit table");
+        auditRetentionService.maintain();
+    }
+}
@@ -17,6 +17,14 @@ public interface AuditService {
      */
     AuditDTO save(AuditDTO auditDTO);
 
+    /**
+     * Save a audit asynchronously, once the current transaction commits.
+     *
+     * @param auditDTO the entity to save.
+     * @see AuditJournal
+     */
+    void journal(AuditDTO auditDTO);
+
     /**
      * Updates a audit.
      *
@@ -0,0 +1,136 @@
+package com.musala.drone.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import org.springframework.core.io.Resource;
+
+/**
+ * Content-addressed store of binary contents, such as the medication images.
+ * <p>
+ * A blob is named after the SHA-256 of its content, as 64 lowercase hexadecimal digits: an identical content is stored
+ * once, and the content of a blob never changes, so it can be cached forever under its hash.
+ * <p>
+ * The blobs are stored outside of the transactions of the commands which reference them, so a command which fails
+ * leaves its blob behind; the blobs which nothing references are swept once they were last stored long enough ago. A
+ * blob stored again is marked as stored then, so that the command storing it has that long to reference it.
+ */
+public interface BlobStore {
+    /**
+     * Store the content, unless the same content is stored already. The content is read once, in chunks, so it is never
+     * held in memory as a whole.
+     *
+     * @param content the content, read to its end but not closed.
+     * @return the stored blob.
+     * @throws IOException if the content cannot be read or stored.
+     */
+    default StoredBlob store(InputStream content) throws IOException {
+        return store(content, Long.MAX_VALUE);
+    }
+
+    /**
+     * Store the content, unless the same content is stored already, as long as it is not larger than the limit. The
+     * content is read once, through a buffer of a fixed size, so the memory used does not depend on its size.
+     *
+     * @param content the content, read to its end unless too large, but not closed.
+     * @param maxSize the largest size accepted, in bytes.
+     * @return the stored blob.
+     * @throws BlobTooLargeException if the content is larger than the limit, in which case nothing is stored.
+     * @throws IOException if the content cannot be read or stored.
+     */
+    StoredBlob store(InputStream content, long maxSize) throws IOException;
+
+    /**
+     * @param hash the hash of the blob.
+     * @return the content of the blob, streamed when read, empty if there is no such blob.
+     */
+    Optional<Resource> find(String hash);
+
+    /**
+     * Mark the blob as stored now, as {@link #store(InputStream, long)} does for a content stored again, so that a command
+     * referencing it by its hash has the time to commit that reference before the blob could be swept.
+     *
+     * @param hash the hash of the blob.
+     * @return whether there is such a blob.
+     * @throws IOException if the blob cannot be marked.
+     */
+    boolean touch(String hash) throws IOException;
+
+    /**
+     * @param storedBefore the instant before which the blobs were last stored.
+     * @param afterHash the hash after which the blobs are returned, {@code ""} for the first ones.
+     * @param limit the maximal number of hashes to return.
+     * @return the hashes of the blobs last stored before the instant, in order.
+     * @throws IOException if the blobs cannot be listed.
+     */
+    List<String> findStoredBefore(Instant storedBefore, String afterHash, int limit) throws IOException;
+
+    /**
+     * Delete the blob, unless it was stored again since the instant, by a command which may be about to reference it.
+     *
+     * @param hash the hash of the blob.
+     * @param storedBefore the instant before which the blob must have been last stored.
+     * @return whether the blob was deleted.
+     * @throws IOException if the blob cannot be deleted.
+     */
+    boolean deleteStoredBefore(String hash, Instant storedBefore) throws IOException;
+
+    /**
+     * The hash and size of a stored blob, and the type of its content when its first bytes tell it.
+     */
+    final class StoredBlob {
+
+        private final String hash;
+
+        private final long size;
+
+        private final String contentType;
+
+        public StoredBlob(String hash, long size, String contentType) {
+            this.hash = hash;
+            this.size = size;
+            this.contentType = contentType;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * @return the media type detected from the first bytes of the content, {@code null} if they are not one of the
+         * known image formats.
+         */
+        public String getContentType() {
+            return contentType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof StoredBlob)) {
+                return false;
+            }
+            StoredBlob that = (StoredBlob) o;
+            return size == that.size && hash.equals(that.hash) && Objects.equals(contentType, that.contentType);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(hash, size, contentType);
+        }
+
+        @Override
+        public String toString() {
+            return "StoredBlob{hash='" + hash + "', size=" + size + ", contentType='" + contentType + "'}";
+        }
+    }
+}
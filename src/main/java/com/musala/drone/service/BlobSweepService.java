@@ -0,0 +1,81 @@
+package com.musala.drone.service;
+
+import com.musala.drone.config.ApplicationProperties;
+import com.musala.drone.repository.MedicationRepository;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Deletes the blobs which no medication references, so that the blob store does not grow without bound.
+ * <p>
+ * The images are stored before the command referencing them runs, outside of its transaction: a command which is
+ * rejected or rolls back leaves its image behind, as does a medication whose image was replaced or which was deleted.
+ * Only the blobs last stored before {@code sweep-grace-period} are swept, and a blob is deleted only if it was not stored
+ * again since, so that a command still running has that long to commit its reference.
+ */
+@Service
+public class BlobSweepService {
+
+    private final Logger log = LoggerFactory.getLogger(BlobSweepService.class);
+
+    private final BlobStore blobStore;
+
+    private final MedicationRepository medicationRepository;
+
+    private final Duration gracePeriod;
+
+    private final int chunkSize;
+
+    public BlobSweepService(BlobStore blobStore, MedicationRepository medicationRepository, ApplicationProperties applicationProperties) {
+        this.blobStore = blobStore;
+        this.medicationRepository = medicationRepository;
+        this.gracePeriod = applicationProperties.getBlobStore().getSweepGracePeriod();
+        this.chunkSize = applicationProperties.getBlobStore().getSweepChunkSize();
+    }
+
+    /**
+     * Sweep the blobs last stored before the grace period, on {@code application.blob-store.sweep-cron}.
+     *
+     * @return the number of deleted blobs.
+     */
+    @Scheduled(cron = "${application.blob-store.sweep-cron:-}")
+    public int sweep() throws IOException {
+        return sweep(Instant.now().minus(gracePeriod));
+    }
+
+    /**
+     * Delete the blobs last stored before the cutoff which no medication references, checked by chunks of blobs.
+     *
+     * @param storedBefore the instant before which the blobs must have been last stored.
+     * @return the number of deleted blobs.
+     */
+    public int sweep(Instant storedBefore) throws IOException {
+        int deleted = 0;
+        String afterHash = "";
+        List<String> hashes;
+        do {
+            hashes = blobStore.findStoredBefore(storedBefore, afterHash, chunkSize);
+            if (hashes.isEmpty()) {
+                break;
+            }
+            Set<String> referenced = medicationRepository.findReferencedImageHashes(hashes);
+            for (String hash : hashes) {
+                if (!referenced.contains(hash) && blobStore.deleteStoredBefore(hash, storedBefore)) {
+                    deleted++;
+                }
+            }
+            afterHash = hashes.get(hashes.size() - 1);
+        } while (hashes.size() == chunkSize);
+        if (deleted > 0) {
+            log.info("Deleted {} unreferenced blobs stored before {}", deleted, storedBefore);
+        }
+        return deleted;
+    }
+}
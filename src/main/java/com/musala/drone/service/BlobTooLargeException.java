@@ -0,0 +1,10 @@
+package com.musala.drone.service;
+
+public class BlobTooLargeException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    public BlobTooLargeException(long maxSize) {
+        super("The content is larger than " + maxSize + " bytes");
+    }
+}
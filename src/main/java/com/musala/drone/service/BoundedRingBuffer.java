@@ -0,0 +1,96 @@
+package com.musala.drone.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue backed by a ring of slots, safe for any number of producers and consumers.
+ * <p>
+ * Every slot carries a sequence telling whose turn it is: the producer of position {@code p} waits for sequence
+ * {@code p}, publishes its element and moves the sequence to {@code p + 1}; the consumer of position {@code p} waits for
+ * {@code p + 1}, takes the element and moves the sequence to {@code p + capacity}, freeing the slot for the next lap.
+ * Producers and consumers only contend on their own cursor.
+ *
+ * @param <E> the type of the elements.
+ */
+class BoundedRingBuffer<E> {
+
+    private final int mask;
+
+    private final AtomicReferenceArray<E> elements;
+
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong head = new AtomicLong();
+
+    private final AtomicLong tail = new AtomicLong();
+
+    BoundedRingBuffer(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid capacity " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return {@code false} if the buffer is full.
+     */
+    boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int slot = (int) (position & mask);
+            long lag = sequences.get(slot) - position;
+            if (lag == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(slot, element);
+                    sequences.set(slot, position + 1);
+                    return true;
+                }
+            } else if (lag < 0) {
+                return false;
+            }
+            position = tail.get();
+        }
+    }
+
+    /**
+     * @return the oldest element, or {@code null} if the buffer is empty.
+     */
+    E poll() {
+        long position = head.get();
+        while (true) {
+            int slot = (int) (position & mask);
+            long lag = sequences.get(slot) - (position + 1);
+            if (lag == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    E element = elements.get(slot);
+                    elements.lazySet(slot, null);
+                    sequences.set(slot, position + mask + 1);
+                    return element;
+                }
+            } else if (lag < 0) {
+                return null;
+            }
+            position = head.get();
+        }
+    }
+
+    int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,265 @@
+package com.musala.drone.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the rows of a bulk import one line at a time, as JSON objects with the property names of the DTOs, so that the
+ * rows of both formats are then read into DTOs alike and the content is never held in memory.
+ * <p>
+ * A CSV row is named after the header line, in the shape of the Liquibase fake data: {@code ;}-separated, the columns in
+ * snake case. A {@code <relation>_id} column is the id of the relation, and a {@code *_date} column without an offset is
+ * in UTC. Empty values are absent. An NDJSON row is a JSON object per line.
+ */
+final class BulkImportReader implements Closeable {
+
+    private static final char SEPARATOR = ';';
+
+    private static final char QUOTE = '"';
+
+    private final BufferedReader reader;
+
+    private final BulkImportService.Format format;
+
+    private final ObjectMapper objectMapper;
+
+    private List<Column> header;
+
+    private int line;
+
+    BulkImportReader(InputStream content, BulkImportService.Format format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(content, StandardCharsets.UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @return the next row, {@code null} once the content is read.
+     * @throws IOException if the content cannot be read, or its CSV header line is missing.
+     */
+    Row next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+        } while (text.isBlank());
+        if (format == BulkImportService.Format.NDJSON) {
+            return readJson(text);
+        }
+        if (header == null) {
+            header = new ArrayList<>();
+            for (String column : split(text)) {
+                header.add(new Column(column.trim()));
+            }
+            return next();
+        }
+        return readCsv(text);
+    }
+
+    private Row readJson(String text) {
+        try {
+            JsonNode value = objectMapper.readTree(text);
+            if (!value.isObject()) {
+                return new Row(line, null, "The row is not a JSON object");
+            }
+            return new Row(line, (ObjectNode) value, null);
+        } catch (JsonProcessingException e) {
+            return new Row(line, null, "The row is not valid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private Row readCsv(String text) {
+        List<String> values = split(text);
+        if (values == null) {
+            return new Row(line, null, "The row has an unterminated quote");
+        }
+        if (values.size() != header.size()) {
+            return new Row(line, null, "The row has " + values.size() + " columns rather than " + header.size());
+        }
+        ObjectNode value = objectMapper.createObjectNode();
+        for (int i = 0; i < values.size(); i++) {
+            Column column = header.get(i);
+            String cell = values.get(i);
+            if (cell.isEmpty()) {
+                continue;
+            }
+            if (column.date) {
+                cell = toInstant(cell);
+            }
+            if (column.id) {
+                value.putObject(column.name).put("id", cell);
+            } else {
+                value.put(column.name, cell);
+            }
+        }
+        return new Row(line, value, null);
+    }
+
+    /**
+     * @return the values of the line, unquoted; {@code null} if a quote is not terminated.
+     */
+    static List<String> split(String text) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c != QUOTE) {
+                    value.append(c);
+                } else if (i + 1 < text.length() && text.charAt(i + 1) == QUOTE) {
+                    value.append(QUOTE);
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == QUOTE) {
+                quoted = true;
+            } else if (c == SEPARATOR) {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    static String camelCase(String column) {
+        StringBuilder name = new StringBuilder(column.length());
+        boolean upper = false;
+        for (char c : column.toCharArray()) {
+            if (c == '_') {
+                upper = name.length() > 0;
+            } else {
+                name.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            }
+        }
+        return name.toString();
+    }
+
+    /**
+     * @return the date of the cell in UTC, the cell itself if it has an offset already or is not a date.
+     */
+    static String toInstant(String cell) {
+        if (isLocalDateTime(cell)) {
+            // read once, as an instant, by the DTO
+            return cell + "Z";
+        }
+        try {
+            return LocalDateTime.parse(cell).toInstant(ZoneOffset.UTC).toString();
+        } catch (DateTimeParseException e) {
+            // with an offset already, or not a date at all: read as is
+            return cell;
+        }
+    }
+
+    /**
+     * @return whether the cell is a {@code yyyy-MM-ddTHH:mm:ss[.SSS...]} date and time, without an offset.
+     */
+    private static boolean isLocalDateTime(String cell) {
+        if (cell.length() < 19 || (cell.length() > 19 && (cell.length() == 20 || cell.charAt(19) != '.'))) {
+            return false;
+        }
+        for (int i = 0; i < cell.length(); i++) {
+            char c = cell.charAt(i);
+            boolean valid;
+            switch (i) {
+                case 4:
+                case 7:
+                    valid = c == '-';
+                    break;
+                case 10:
+                    valid = c == 'T';
+                    break;
+                case 13:
+                case 16:
+                    valid = c == ':';
+                    break;
+                case 19:
+                    valid = true;
+                    break;
+                default:
+                    valid = c >= '0' && c <= '9';
+            }
+            if (!valid) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * A column of the CSV header, and the property it is read into.
+     */
+    private static final class Column {
+
+        private final String name;
+
+        private final boolean date;
+
+        private final boolean id;
+
+        Column(String column) {
+            this.date = column.endsWith("_date");
+            this.id = column.endsWith("_id");
+            this.name = camelCase(id ? column.substring(0, column.length() - 3) : column);
+        }
+    }
+
+    /**
+     * A row of the import, or the reason why it cannot be read.
+     */
+    static final class Row {
+
+        private final int line;
+
+        private final ObjectNode value;
+
+        private final String error;
+
+        Row(int line, ObjectNode value, String error) {
+            this.line = line;
+            this.value = value;
+            this.error = error;
+        }
+
+        int getLine() {
+            return line;
+        }
+
+        ObjectNode getValue() {
+            return value;
+        }
+
+        String getError() {
+            return error;
+        }
+    }
+}
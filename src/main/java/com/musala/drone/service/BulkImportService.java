@@ -0,0 +1,550 @@
+package com.musala.drone.service;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.musala.drone.config.ApplicationProperties;
+import com.musala.drone.config.Constants;
+import com.musala.drone.domain.Drone;
+import com.musala.drone.domain.DroneSummary;
+import com.musala.drone.domain.Medication;
+import com.musala.drone.domain.enumeration.State;
+import com.musala.drone.repository.DroneRepository;
+import com.musala.drone.repository.DroneSummaryRepository;
+import com.musala.drone.repository.MedicationRepository;
+import com.musala.drone.service.dto.BulkImportResultDTO;
+import com.musala.drone.service.dto.DroneDTO;
+import com.musala.drone.service.dto.DroneStateDTO;
+import com.musala.drone.service.dto.MedicationDTO;
+import com.musala.drone.service.mapper.DroneMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service importing {@link Drone}s and {@link Medication}s in bulk, from CSV in the shape of the Liquibase fake data or
+ * from NDJSON, see {@link BulkImportReader}.
+ * <p>
+ * The content is read and validated one row at a time, as the REST API validates a single entity, and the valid rows
+ * are imported in chunks of {@code chunk-size}, each in its own transaction: a chunk the database rejects is rejected as
+ * a whole, the chunks before it stay imported. A chunk of medications holds the command lanes of its drones until it
+ * commits, so it is closed early rather than load more than {@code max-drones-per-chunk} drones, which keeps the
+ * interactive commands waiting behind it few. Within a chunk the entities are inserted in JDBC batches of
+ * {@code flush-size} rows, their ids drawn from the pooled sequence in blocks. The rows keep none of the ids of the
+ * content. The drones, their summaries and their history are kept up to date as by the commands of {@link DroneService}
+ * and {@link MedicationService}.
+ * <p>
+ * The rows, validated already, are inserted with plain JDBC rather than through the persistence context, so that a row
+ * costs no more than its place in the batch: the summaries and history of new drones are written with one insert per
+ * chunk, and a drone is loaded with the medications of a chunk in one update, its cached medications evicted once the
+ * chunk commits.
+ */
+@Service
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BulkImportService {
+
+    /**
+     * The formats of the content of an import.
+     */
+    public enum Format {
+        CSV("text/csv"),
+        NDJSON("application/x-ndjson");
+
+        private final String mediaType;
+
+        Format(String mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public String getMediaType() {
+            return mediaType;
+        }
+
+        /**
+         * @param contentType the content type of the rows.
+         * @return the format of the content type.
+         * @throws IllegalArgumentException if no format has the content type.
+         */
+        public static Format of(MediaType contentType) {
+            for (Format format : values()) {
+                if (MediaType.parseMediaType(format.mediaType).equalsTypeAndSubtype(contentType)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Rows of type " + contentType + " cannot be imported");
+        }
+    }
+
+    private static final String INSERT_DRONE_SQL =
+        "insert into drone (id, serial_number, model, weight_limit, battery_capacity, state, created_by, created_date," +
+        " last_modified_by, last_modified_date, audit_flage_notification) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_SUMMARY_SQL =
+        "insert into drone_summary (drone_id, medication_count, total_weight, remaining_capacity)" +
+        " select d.id, 0, 0, d.weight_limit from drone d join (values %s) n(id) on n.id = d.id";
+
+    private static final String INSERT_MEDICATION_SQL =
+        "insert into medication (id, name, weight, code, image_hash, image_content_type, created_by, created_date," +
+        " last_modified_by, last_modified_date, drone_id) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String DRONE_MEDICATIONS_ROLE = Drone.class.getName() + ".droneMedications";
+
+    private final Logger log = LoggerFactory.getLogger(BulkImportService.class);
+
+    private final DroneRepository droneRepository;
+
+    private final DroneSummaryRepository droneSummaryRepository;
+
+    private final MedicationRepository medicationRepository;
+
+    private final DroneMapper droneMapper;
+
+    private final LowBatteryAuditor lowBatteryAuditor;
+
+    private final FleetStateRegistry fleetStateRegistry;
+
+    private final DroneCommandLanes droneCommandLanes;
+
+    private final BlobStore blobStore;
+
+    private final EntityVersions entityVersions;
+
+    private final Validator validator;
+
+    private final ObjectMapper objectMapper;
+
+    private final EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int chunkSize;
+
+    private final int flushSize;
+
+    private final int maxErrors;
+
+    private final int maxDronesPerChunk;
+
+    public BulkImportService(
+        DroneRepository droneRepository,
+        DroneSummaryRepository droneSummaryRepository,
+        MedicationRepository medicationRepository,
+        DroneMapper droneMapper,
+        LowBatteryAuditor lowBatteryAuditor,
+        FleetStateRegistry fleetStateRegistry,
+        DroneCommandLanes droneCommandLanes,
+        BlobStore blobStore,
+        EntityVersions entityVersions,
+        Validator validator,
+        ObjectMapper objectMapper,
+        EntityManager entityManager,
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.droneRepository = droneRepository;
+        this.droneSummaryRepository = droneSummaryRepository;
+        this.medicationRepository = medicationRepository;
+        this.droneMapper = droneMapper;
+        this.lowBatteryAuditor = lowBatteryAuditor;
+        this.fleetStateRegistry = fleetStateRegistry;
+        this.droneCommandLanes = droneCommandLanes;
+        this.blobStore = blobStore;
+        this.entityVersions = entityVersions;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = applicationProperties.getBulkImport().getChunkSize();
+        this.flushSize = applicationProperties.getBulkImport().getFlushSize();
+        this.maxErrors = applicationProperties.getBulkImport().getMaxErrors();
+        this.maxDronesPerChunk = applicationProperties.getBulkImport().getMaxDronesPerChunk();
+    }
+
+    /**
+     * Import drones: a drone whose serial number is taken is rejected.
+     *
+     * @param content the rows, read as they are imported.
+     * @param format the format of the rows.
+     * @return how many rows were imported, and why the others were not.
+     * @throws IOException if the content cannot be read; the chunks imported before stay imported.
+     */
+    public BulkImportResultDTO importDrones(InputStream content, Format format) throws IOException {
+        log.debug("Request to import Drones from {}", format);
+        return importRows(content, format, DroneDTO.class, drone -> null, drone -> null, this::importDrones);
+    }
+
+    /**
+     * Import medications, loading those of a drone onto it: the medications of a drone in a chunk are loaded together,
+     * or rejected together if the drone cannot take them. A medication whose name or code is taken is rejected. The
+     * images are not imported, only the hashes of stored images.
+     *
+     * @param content the rows, read as they are imported.
+     * @param format the format of the rows.
+     * @return how many rows were imported, and why the others were not.
+     * @throws IOException if the content cannot be read; the chunks imported before stay imported.
+     */
+    public BulkImportResultDTO importMedications(InputStream content, Format format) throws IOException {
+        log.debug("Request to import Medications from {}", format);
+        return importRows(
+            content,
+            format,
+            MedicationDTO.class,
+            this::checkMedication,
+            medication -> medication.getDrone() == null ? null : medication.getDrone().getId(),
+            this::importMedications
+        );
+    }
+
+    private <T> BulkImportResultDTO importRows(
+        InputStream content,
+        Format format,
+        Class<T> type,
+        Function<T, String> check,
+        Function<T, Long> droneOf,
+        BiConsumer<List<ParsedRow<T>>, Map<Integer, String>> importChunk
+    ) throws IOException {
+        BulkImportResultDTO result = new BulkImportResultDTO();
+        List<ParsedRow<T>> chunk = new ArrayList<>(chunkSize);
+        Set<Long> chunkDrones = new HashSet<>();
+        try (BulkImportReader reader = new BulkImportReader(content, format, objectMapper)) {
+            for (BulkImportReader.Row row = reader.next(); row != null; row = reader.next()) {
+                String error = row.getError();
+                T dto = null;
+                if (error == null) {
+                    try {
+                        dto = objectMapper.treeToValue(row.getValue(), type);
+                        error = check.apply(dto);
+                        if (error == null) {
+                            error = validate(dto);
+                        }
+                    } catch (JsonMappingException e) {
+                        error = unreadable(e);
+                    }
+                }
+                if (error != null) {
+                    reject(result, row.getLine(), error);
+                    continue;
+                }
+                Long droneId = droneOf.apply(dto);
+                if (droneId != null && chunkDrones.size() == maxDronesPerChunk && !chunkDrones.contains(droneId)) {
+                    importChunk(chunk, importChunk, result);
+                    chunk = new ArrayList<>(chunkSize);
+                    chunkDrones.clear();
+                }
+                if (droneId != null) {
+                    chunkDrones.add(droneId);
+                }
+                chunk.add(new ParsedRow<>(row.getLine(), dto));
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, importChunk, result);
+                    chunk = new ArrayList<>(chunkSize);
+                    chunkDrones.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, importChunk, result);
+        }
+        result.getErrors().sort(Comparator.comparingInt(BulkImportResultDTO.RowError::getLine));
+        return result;
+    }
+
+    /**
+     * Import the rows of a chunk in one transaction; the rows rejected by the import itself keep their own errors.
+     */
+    private <T> void importChunk(
+        List<ParsedRow<T>> chunk,
+        BiConsumer<List<ParsedRow<T>>, Map<Integer, String>> importChunk,
+        BulkImportResultDTO result
+    ) {
+        Map<Integer, String> errors = new LinkedHashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> importChunk.accept(chunk, errors));
+            result.setImported(result.getImported() + chunk.size() - errors.size());
+            errors.forEach((line, error) -> reject(result, line, error));
+        } catch (DataAccessException | TransactionException e) {
+            int first = chunk.get(0).getLine();
+            int last = chunk.get(chunk.size() - 1).getLine();
+            log.warn("The rows of lines {} to {} were not imported: {}", first, last, e.getMessage());
+            String error = "The rows of lines " + first + " to " + last + " were rejected by the database";
+            chunk.forEach(row -> reject(result, row.getLine(), errors.getOrDefault(row.getLine(), error)));
+        }
+    }
+
+    private void importDrones(List<ParsedRow<DroneDTO>> chunk, Map<Integer, String> errors) {
+        Set<String> existingSerialNumbers = droneRepository.findExistingSerialNumbers(
+            chunk.stream().map(row -> row.getDto().getSerialNumber()).collect(Collectors.toSet())
+        );
+        Set<String> serialNumbers = new HashSet<>();
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        IdentifierGenerator idGenerator = session.getFactory().getMetamodel().entityPersister(Drone.class).getIdentifierGenerator();
+        List<Drone> drones = new ArrayList<>(chunk.size());
+        for (ParsedRow<DroneDTO> row : chunk) {
+            String serialNumber = row.getDto().getSerialNumber();
+            if (existingSerialNumbers.contains(serialNumber) || !serialNumbers.add(serialNumber)) {
+                errors.put(row.getLine(), "A drone with the serial number " + serialNumber + " already exists");
+                continue;
+            }
+            Drone drone = droneMapper.toEntity(row.getDto());
+            drone.setId((Long) idGenerator.generate(session, null));
+            drone.setAuditFlageNotification(lowBatteryAuditor.check(drone, false));
+            drones.add(drone);
+        }
+        if (drones.isEmpty()) {
+            return;
+        }
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        jdbcTemplate.batchUpdate(
+            INSERT_DRONE_SQL,
+            drones,
+            flushSize,
+            (statement, drone) -> {
+                statement.setLong(1, drone.getId());
+                statement.setString(2, drone.getSerialNumber());
+                statement.setShort(3, drone.getModel().getCode());
+                statement.setInt(4, drone.getWeightLimit());
+                statement.setLong(5, drone.getBatteryCapacity());
+                statement.setShort(6, drone.getState().getCode());
+                statement.setString(7, drone.getCreatedBy());
+                statement.setTimestamp(8, toTimestamp(drone.getCreatedDate()), utc);
+                statement.setString(9, drone.getLastModifiedBy());
+                statement.setTimestamp(10, toTimestamp(drone.getLastModifiedDate()), utc);
+                statement.setBoolean(11, drone.getAuditFlageNotification());
+            }
+        );
+        entityVersions.bump(Drone.class);
+        jdbcTemplate.update(
+            String.format(INSERT_SUMMARY_SQL, String.join(", ", Collections.nCopies(drones.size(), "(?)"))),
+            drones.stream().map(Drone::getId).toArray()
+        );
+        entityVersions.bump(DroneSummary.class);
+        fleetStateRegistry.trackCreated(
+            drones
+                .stream()
+                .map(drone ->
+                    new DroneStateDTO(
+                        drone.getId(),
+                        drone.getSerialNumber(),
+                        drone.getModel(),
+                        drone.getState(),
+                        drone.getWeightLimit(),
+                        drone.getBatteryCapacity(),
+                        0
+                    )
+                )
+                .collect(Collectors.toList())
+        );
+    }
+
+    private static Timestamp toTimestamp(Instant instant) {
+        return instant == null ? null : Timestamp.from(instant);
+    }
+
+    private String checkMedication(MedicationDTO medicationDTO) {
+        if (medicationDTO.getImage() != null) {
+            return "The images are not imported, upload them to /api/medications/{id}/image";
+        }
+        try {
+            // touched, so that the image is not swept before the chunk commits
+            if (medicationDTO.getImageHash() != null && !blobStore.touch(medicationDTO.getImageHash())) {
+                return new UnknownImageException(medicationDTO.getImageHash()).getMessage();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return null;
+    }
+
+    private void importMedications(List<ParsedRow<MedicationDTO>> chunk, Map<Integer, String> errors) {
+        Set<String> existingNames = medicationRepository.findExistingNames(
+            chunk.stream().map(row -> row.getDto().getName()).collect(Collectors.toSet())
+        );
+        Set<String> existingCodes = medicationRepository.findExistingCodes(
+            chunk.stream().map(row -> row.getDto().getCode()).collect(Collectors.toSet())
+        );
+        Set<String> names = new HashSet<>();
+        Set<String> codes = new HashSet<>();
+        Map<Long, List<ParsedRow<MedicationDTO>>> byDrone = new LinkedHashMap<>();
+        for (ParsedRow<MedicationDTO> row : chunk) {
+            MedicationDTO medicationDTO = row.getDto();
+            if (existingNames.contains(medicationDTO.getName()) || !names.add(medicationDTO.getName())) {
+                errors.put(row.getLine(), "A medication with the name " + medicationDTO.getName() + " already exists");
+            } else if (existingCodes.contains(medicationDTO.getCode()) || !codes.add(medicationDTO.getCode())) {
+                errors.put(row.getLine(), "A medication with the code " + medicationDTO.getCode() + " already exists");
+            } else {
+                Long droneId = medicationDTO.getDrone() == null ? null : medicationDTO.getDrone().getId();
+                byDrone.computeIfAbsent(droneId, id -> new ArrayList<>()).add(row);
+            }
+        }
+
+        droneCommandLanes.enter(byDrone.keySet().toArray(Long[]::new));
+        List<ParsedRow<MedicationDTO>> loaded = new ArrayList<>(chunk.size());
+        List<Long> loadedDrones = new ArrayList<>(byDrone.size());
+        byDrone.forEach((droneId, rows) -> {
+            if (droneId == null) {
+                loaded.addAll(rows);
+                return;
+            }
+            int weight = rows.stream().mapToInt(row -> row.getDto().getWeight()).sum();
+            if (droneRepository.loadIfFits(droneId, weight, Constants.MIN_LOADING_BATTERY_CAPACITY, State.LOADED, State.LOADING) > 0) {
+                droneSummaryRepository.add(droneId, rows.size(), weight);
+                fleetStateRegistry.track(droneId);
+                loaded.addAll(rows);
+                loadedDrones.add(droneId);
+            } else {
+                String rejection = rejection(droneId, rows.size(), weight);
+                rows.forEach(row -> errors.put(row.getLine(), rejection));
+            }
+        });
+
+        if (loaded.isEmpty()) {
+            return;
+        }
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        IdentifierGenerator idGenerator = session.getFactory().getMetamodel().entityPersister(Medication.class).getIdentifierGenerator();
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        jdbcTemplate.batchUpdate(
+            INSERT_MEDICATION_SQL,
+            loaded,
+            flushSize,
+            (statement, row) -> {
+                MedicationDTO medication = row.getDto();
+                statement.setLong(1, (Long) idGenerator.generate(session, null));
+                statement.setString(2, medication.getName());
+                statement.setInt(3, medication.getWeight());
+                statement.setString(4, medication.getCode());
+                statement.setString(5, medication.getImageHash());
+                statement.setString(6, medication.getImageContentType());
+                statement.setString(7, medication.getCreatedBy());
+                statement.setTimestamp(8, toTimestamp(medication.getCreatedDate()), utc);
+                statement.setString(9, medication.getLastModifiedBy());
+                statement.setTimestamp(10, toTimestamp(medication.getLastModifiedDate()), utc);
+                statement.setObject(11, medication.getDrone() == null ? null : medication.getDrone().getId(), Types.BIGINT);
+            }
+        );
+        entityVersions.bump(Medication.class);
+        evictMedicationsAfterCommit(loadedDrones, session.getFactory().getCache());
+    }
+
+    /**
+     * Evict the cached medications of the drones once the transaction commits, as Hibernate does for the medications it
+     * inserts itself.
+     */
+    private static void evictMedicationsAfterCommit(List<Long> droneIds, Cache cache) {
+        if (droneIds.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    droneIds.forEach(droneId -> cache.evictCollectionData(DRONE_MEDICATIONS_ROLE, droneId));
+                }
+            }
+        );
+    }
+
+    /**
+     * @return why the drone did not take the medications.
+     */
+    private String rejection(Long droneId, int count, int weight) {
+        return droneRepository
+            .findCapacityById(droneId)
+            .map(drone ->
+                drone.getWeightLimit() < drone.getLoadedWeight() + weight
+                    ? "The Drone " + droneId + " cannot take the " + count + " medications of " + weight +
+                    " of this chunk, its weight limit is " + drone.getWeightLimit()
+                    : "The Drone " + droneId + " battery capacity is less than " + Constants.MIN_LOADING_BATTERY_CAPACITY + " %"
+            )
+            .orElse("The Drone " + droneId + " does not exist");
+    }
+
+    private String validate(Object dto) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations
+            .stream()
+            .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+            .sorted()
+            .collect(Collectors.joining(", "));
+    }
+
+    private static String unreadable(JsonMappingException e) {
+        String field = e.getPath().stream().map(JsonMappingException.Reference::getFieldName).collect(Collectors.joining("."));
+        if (e instanceof InvalidFormatException) {
+            return field + " cannot be read from \"" + ((InvalidFormatException) e).getValue() + "\"";
+        }
+        return field + " cannot be read: " + e.getOriginalMessage();
+    }
+
+    private void reject(BulkImportResultDTO result, int line, String error) {
+        result.setRejected(result.getRejected() + 1);
+        if (result.getErrors().size() < maxErrors) {
+            result.getErrors().add(new BulkImportResultDTO.RowError(line, error));
+        }
+    }
+
+    /**
+     * A valid row of the content, and its line.
+     */
+    private static final class ParsedRow<T> {
+
+        private final int line;
+
+        private final T dto;
+
+        private ParsedRow(int line, T dto) {
+            this.line = line;
+            this.dto = dto;
+        }
+
+        int getLine() {
+            return line;
+        }
+
+        T getDto() {
+            return dto;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.musala.drone.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.musala.drone.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.beans.PropertyDescriptor;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import tech.jhipster.service.Criteria;
+import tech.jhipster.service.filter.Filter;
+
+/**
+ * Cache of the results of the queries of a {@link tech.jhipster.service.QueryService}, keyed by their normalised
+ * criteria, their page and the {@link EntityVersions versions} of the entity types they read.
+ * <p>
+ * A write to one of these entity types changes the key, so the results read before it are not found anymore and age out
+ * of the bounded cache. The results are cached for {@code time-to-live-millis} at most, which bounds how stale they can be
+ * after a write the versions do not see, such as one made by another instance of the application. A transaction which
+ * wrote one of the entity types reads from the database, so it sees its own writes.
+ * <p>
+ * The cached results are shared, they must not be modified. The hits and misses are exported as the {@code cache.gets}
+ * meter, tagged with the name of the cache.
+ *
+ * @param <C> the type of the criteria.
+ */
+public class CriteriaResultCache<C extends Criteria> {
+
+    private final String name;
+
+    private final Cache<Key, Object> cache;
+
+    private final EntityVersions entityVersions;
+
+    private final SingleFlight singleFlight;
+
+    private final Class<?>[] types;
+
+    /**
+     * @param name the name of the cache, in its meters.
+     * @param properties the size and time to live of the cache.
+     * @param entityVersions the versions of the entity types.
+     * @param singleFlight the coalescing of the loads of the same result.
+     * @param meterRegistry the registry of the meters of the cache.
+     * @param types the entity types the queries read.
+     */
+    public CriteriaResultCache(
+        String name,
+        ApplicationProperties.CriteriaCache properties,
+        EntityVersions entityVersions,
+        SingleFlight singleFlight,
+        MeterRegistry meterRegistry,
+        Class<?>... types
+    ) {
+        this.name = name;
+        this.cache =
+            Caffeine
+                .newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(Duration.ofMillis(properties.getTimeToLiveMillis()))
+                .recordStats()
+                .build();
+        this.entityVersions = entityVersions;
+        this.singleFlight = singleFlight;
+        this.types = types.clone();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    /**
+     * Return the cached result of the query, loading it if it is not cached. The concurrent loads of the same result are
+     * coalesced by the {@link SingleFlight}.
+     *
+     * @param query the name of the query, telling apart the queries of the same criteria.
+     * @param criteria the criteria of the query.
+     * @param parameters the other parameters of the query, such as its page.
+     * @param loader the query.
+     * @param <R> the type of the result.
+     * @return the result of the query.
+     */
+    @SuppressWarnings("unchecked")
+    public <R> R get(String query, C criteria, Object parameters, Supplier<R> loader) {
+        if (entityVersions.isWritten(types)) {
+            return loader.get();
+        }
+        long[] versions = new long[types.length];
+        for (int i = 0; i < types.length; i++) {
+            versions[i] = entityVersions.version(types[i]);
+        }
+        Key key = new Key(query, normalise(criteria), parameters, versions);
+        Object result = cache.getIfPresent(key);
+        if (result == null) {
+            result = singleFlight.execute(name + "." + query, key, loader);
+            cache.put(key, result);
+        }
+        return (R) result;
+    }
+
+    /**
+     * Discard the cached results.
+     */
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * @return a copy of the criteria without its empty filters, whose {@code in} and {@code notIn} values are sorted and
+     * deduplicated, and without {@code distinct} unless it is true, so that equivalent criteria are equal.
+     */
+    static <C extends Criteria> Criteria normalise(C criteria) {
+        if (criteria == null) {
+            return null;
+        }
+        Criteria copy = criteria.copy();
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(copy);
+        for (PropertyDescriptor property : wrapper.getPropertyDescriptors()) {
+            String name = property.getName();
+            if (!wrapper.isWritableProperty(name)) {
+                continue;
+            }
+            Object value = wrapper.getPropertyValue(name);
+            if (value instanceof Filter) {
+                wrapper.setPropertyValue(name, normalise((Filter<?>) value));
+            } else if (Boolean.FALSE.equals(value) && "distinct".equals(name)) {
+                wrapper.setPropertyValue(name, null);
+            }
+        }
+        return copy;
+    }
+
+    private static Filter<?> normalise(Filter<?> filter) {
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(filter);
+        boolean empty = true;
+        for (PropertyDescriptor property : wrapper.getPropertyDescriptors()) {
+            String name = property.getName();
+            if (!wrapper.isWritableProperty(name)) {
+                continue;
+            }
+            Object value = wrapper.getPropertyValue(name);
+            if (value instanceof List && ((List<?>) value).stream().allMatch(Comparable.class::isInstance)) {
+                wrapper.setPropertyValue(name, new ArrayList<>(new TreeSet<>((List<?>) value)));
+            }
+            empty &= value == null;
+        }
+        return empty ? null : filter;
+    }
+
+    private static final class Key {
+
+        private final String query;
+
+        private final Criteria criteria;
+
+        private final Object parameters;
+
+        private final long[] versions;
+
+        private Key(String query, Criteria criteria, Object parameters, long[] versions) {
+            this.query = query;
+            this.criteria = criteria;
+            this.parameters = parameters;
+            this.versions = versions;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return (
+                query.equals(key.query) &&
+                Objects.equals(criteria, key.criteria) &&
+                Objects.equals(parameters, key.parameters) &&
+                Arrays.equals(versions, key.versions)
+            );
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(query, criteria, parameters, Arrays.hashCode(versions));
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.musala.drone.service;
+
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import javax.sql.DataSource;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * {@link BlobStore} keeping the blobs in the {@code blob_store} table.
+ * <p>
+ * The blobs are streamed to and from the database. They are looked up and written outside of the current transaction, if
+ * any, each in a short transaction of its own, so that a command storing an image never holds a pooled connection
+ * while it waits for a drone lane. Their content is read with a connection of its own, held while the content is read.
+ * The {@code created_date} of a blob is the date it was last stored.
+ */
+public class DatabaseBlobStore extends AbstractBlobStore {
+
+    private static final String INSERT_QUERY =
+        "insert into blob_store (hash, content, size, created_date) select ?, ?, ?, ?" +
+        " where not exists (select 1 from blob_store where hash = ?)";
+
+    private static final String TOUCH_QUERY = "update blob_store set created_date = ? where hash = ?";
+
+    private static final String STORED_BEFORE_QUERY =
+        "select hash from blob_store where hash > ? and created_date < ? order by hash fetch first ? rows only";
+
+    private static final String DELETE_STORED_BEFORE_QUERY = "delete from blob_store where hash = ? and created_date < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate writeTransactionTemplate;
+
+    private final TransactionTemplate readTransactionTemplate;
+
+    public DatabaseBlobStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.writeTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.writeTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+    }
+
+    @Override
+    protected Path spoolDirectory() {
+        return Paths.get(System.getProperty("java.io.tmpdir"));
+    }
+
+    @Override
+    protected boolean refresh(String hash) {
+        return writeTransactionTemplate.execute(status -> jdbcTemplate.update(TOUCH_QUERY, Timestamp.from(Instant.now()), hash)) > 0;
+    }
+
+    /**
+     * A concurrent save of the same content may insert it first, in which case the content is stored all the same.
+     */
+    @Override
+    protected void save(String hash, Path content, long size) throws IOException {
+        try (InputStream in = Files.newInputStream(content)) {
+            writeTransactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.update(
+                    INSERT_QUERY,
+                    statement -> {
+                        statement.setString(1, hash);
+                        statement.setBinaryStream(2, in, size);
+                        statement.setLong(3, size);
+                        statement.setTimestamp(4, Timestamp.from(Instant.now()));
+                        statement.setString(5, hash);
+                    }
+                )
+            );
+        } catch (DuplicateKeyException e) {
+            // the other save committed the same content under the same hash
+        }
+    }
+
+    @Override
+    public List<String> findStoredBefore(Instant storedBefore, String afterHash, int limit) {
+        return readTransactionTemplate.execute(status ->
+            jdbcTemplate.queryForList(STORED_BEFORE_QUERY, String.class, afterHash, Timestamp.from(storedBefore), limit)
+        );
+    }
+
+    /**
+     * The date is checked by the delete itself, so a blob stored again meanwhile is never deleted.
+     */
+    @Override
+    public boolean deleteStoredBefore(String hash, Instant storedBefore) {
+        return (
+            writeTransactionTemplate.execute(status -> jdbcTemplate.update(DELETE_STORED_BEFORE_QUERY, hash, Timestamp.from(storedBefore))) >
+            0
+        );
+    }
+
+    @Override
+    protected Optional<Resource> open(String hash) {
+        return size(hash).map(size -> new BlobResource(hash, size));
+    }
+
+    private Optional<Long> size(String hash) {
+        List<Long> sizes = readTransactionTemplate.execute(status ->
+            jdbcTemplate.queryForList("select size from blob_store where hash = ?", Long.class, hash)
+        );
+        return sizes.stream().findFirst();
+    }
+
+    private final class BlobResource extends AbstractResource {
+
+        private final String hash;
+
+        private final long size;
+
+        private BlobResource(String hash, long size) {
+            this.hash = hash;
+            this.size = size;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            DataSource dataSource = jdbcTemplate.getDataSource();
+            Connection connection = DataSourceUtils.getConnection(dataSource);
+            PreparedStatement statement = null;
+            try {
+                statement = connection.prepareStatement("select content from blob_store where hash = ?");
+                statement.setString(1, hash);
+                ResultSet resultSet = statement.executeQuery();
+                if (!resultSet.next()) {
+                    throw new FileNotFoundException(getDescription());
+                }
+                PreparedStatement contentStatement = statement;
+                return new FilterInputStream(resultSet.getBinaryStream(1)) {
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            release(contentStatement, connection, dataSource);
+                        }
+                    }
+                };
+            } catch (SQLException e) {
+                release(statement, connection, dataSource);
+                throw new IOException(e);
+            } catch (IOException | RuntimeException e) {
+                release(statement, connection, dataSource);
+                throw e;
+            }
+        }
+
+        @Override
+        public long contentLength() {
+            return size;
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public String getDescription() {
+            return "blob [" + hash + "]";
+        }
+    }
+
+    private static void release(PreparedStatement statement, Connection connection, DataSource dataSource) throws IOException {
+        try {
+            if (statement != null) {
+                statement.close();
+            }
+        } catch (SQLException e) {
+            throw new IOException(e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.musala.drone.service;
+
+import com.musala.drone.domain.enumeration.Model;
+import com.musala.drone.service.dto.DroneStateDTO;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
+
+/**
+ * The drones which can take more medications, bucketed by {@link Model} and ordered by remaining capacity (smallest
+ * first, so the best fit comes first), then by battery capacity (fullest first).
+ * <p>
+ * Finding the first drone with enough remaining capacity is a {@code O(log n)} seek in each bucket; the drones after it
+ * are then scanned until {@code limit} of them have enough battery.
+ */
+public class DroneAvailabilityIndex {
+
+    static final Comparator<DroneStateDTO> BEST_FIT_FIRST = Comparator
+        .comparingInt(DroneStateDTO::getRemainingCapacity)
+        .thenComparing(Comparator.comparingLong(DroneStateDTO::getBatteryCapacity).reversed())
+        .thenComparing(DroneStateDTO::getId);
+
+    private final Map<Model, NavigableSet<DroneStateDTO>> availableDrones = new EnumMap<>(Model.class);
+
+    public DroneAvailabilityIndex() {
+        for (Model model : Model.values()) {
+            availableDrones.put(model, new ConcurrentSkipListSet<>(BEST_FIT_FIRST));
+        }
+    }
+
+    /**
+     * Replace the previous snapshot of a drone with its current one.
+     *
+     * @param previous the previous snapshot, {@code null} for a new drone.
+     * @param current the current snapshot, {@code null} for a deleted drone.
+     */
+    public void update(DroneStateDTO previous, DroneStateDTO current) {
+        if (previous != null && previous.isAvailable()) {
+            availableDrones.get(previous.getModel()).remove(previous);
+        }
+        if (current != null && current.isAvailable()) {
+            availableDrones.get(current.getModel()).add(current);
+        }
+    }
+
+    /**
+     * @param model the model of the drones to return, all models if {@code null}.
+     * @param minCapacity the weight the drones must still be able to take.
+     * @param minBattery the minimal battery capacity of the drones.
+     * @param limit the maximal number of drones to return.
+     * @return the available drones, best fit first.
+     */
+    public List<DroneStateDTO> findAvailable(Model model, int minCapacity, long minBattery, int limit) {
+        DroneStateDTO from = new DroneStateDTO(Long.MIN_VALUE, null, model, null, minCapacity, Long.MAX_VALUE, 0);
+        List<DroneStateDTO> drones = new ArrayList<>();
+        for (Map.Entry<Model, NavigableSet<DroneStateDTO>> bucket : availableDrones.entrySet()) {
+            if (model != null && bucket.getKey() != model) {
+                continue;
+            }
+            int found = 0;
+            for (DroneStateDTO drone : bucket.getValue().tailSet(from, true)) {
+                if (found == limit) {
+                    break;
+                }
+                if (drone.getBatteryCapacity() >= minBattery) {
+                    drones.add(drone);
+                    found++;
+                }
+            }
+        }
+        return drones.stream().sorted(BEST_FIT_FIRST).limit(limit).collect(Collectors.toList());
+    }
+
+    public int size() {
+        return availableDrones.values().stream().mapToInt(NavigableSet::size).sum();
+    }
+}
@@ -0,0 +1,41 @@
+package com.musala.drone.service;
+
+/**
+ * Published when a command brings the battery of a drone under the low battery threshold.
+ */
+public class DroneBatteryLowEvent {
+
+    private final Long droneId;
+
+    private final String serialNumber;
+
+    private final Long batteryCapacity;
+
+    public DroneBatteryLowEvent(Long droneId, String serialNumber, Long batteryCapacity) {
+        this.droneId = droneId;
+        this.serialNumber = serialNumber;
+        this.batteryCapacity = batteryCapacity;
+    }
+
+    public Long getDroneId() {
+        return droneId;
+    }
+
+    public String getSerialNumber() {
+        return serialNumber;
+    }
+
+    public Long getBatteryCapacity() {
+        return batteryCapacity;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "DroneBatteryLowEvent{" +
+            "droneId=" + getDroneId() +
+            ", serialNumber='" + getSerialNumber() + "'" +
+            ", batteryCapacity=" + getBatteryCapacity() +
+            "}";
+    }
+}
@@ -0,0 +1,111 @@
+package com.musala.drone.service;
+
+import com.musala.drone.config.ApplicationProperties;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Per-drone single-writer lanes for the commands which change a drone: load, unload, state and battery updates.
+ * <p>
+ * Drones are striped over a fixed set of fair locks, so the commands of one drone run one after the other in arrival order,
+ * while the commands of drones on other lanes run in parallel. A lane is entered inside the transaction of the command
+ * and left when that transaction completes, so the next command of the drone always sees the committed result of the
+ * previous one.
+ */
+@Service
+public class DroneCommandLanes {
+
+    private final ReentrantLock[] lanes;
+
+    private final long timeoutMillis;
+
+    public DroneCommandLanes(ApplicationProperties applicationProperties) {
+        int stripes = applicationProperties.getCommandLanes().getStripes();
+        this.lanes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            lanes[i] = new ReentrantLock(true);
+        }
+        this.timeoutMillis = applicationProperties.getCommandLanes().getTimeoutMillis();
+    }
+
+    /**
+     * Enter the lanes of the given drones until the current transaction completes, or the returned entry is exited.
+     * Lanes are always entered in the same order, so commands spanning several drones cannot deadlock.
+     *
+     * @param droneIds the ids of the drones the command changes, {@code null} ids are ignored.
+     * @return the entered lanes.
+     * @throws CannotAcquireLockException if a lane stays busy longer than the configured timeout.
+     */
+    public Entry enter(Long... droneIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Drone command lanes can only be entered inside a transaction");
+        }
+        int[] indexes = Arrays.stream(droneIds).filter(Objects::nonNull).mapToInt(this::laneOf).distinct().sorted().toArray();
+        for (int i = 0; i < indexes.length; i++) {
+            ReentrantLock lane = lanes[indexes[i]];
+            boolean acquired;
+            try {
+                acquired = lane.tryLock(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+            if (!acquired) {
+                exit(Arrays.copyOf(indexes, i));
+                throw new CannotAcquireLockException("Drone command lane " + indexes[i] + " is busy");
+            }
+        }
+        Entry entry = new Entry(indexes);
+        if (indexes.length > 0) {
+            TransactionSynchronizationManager.registerSynchronization(entry);
+        }
+        return entry;
+    }
+
+    private void exit(int[] indexes) {
+        for (int i = indexes.length - 1; i >= 0; i--) {
+            lanes[indexes[i]].unlock();
+        }
+    }
+
+    private int laneOf(Long droneId) {
+        long hash = droneId * 0x9E3779B97F4A7C15L;
+        return (int) Math.floorMod(hash ^ (hash >>> 32), (long) lanes.length);
+    }
+
+    /**
+     * The lanes entered by one {@link #enter(Long...)}, left when the transaction completes.
+     */
+    public final class Entry implements TransactionSynchronization {
+
+        private final int[] indexes;
+
+        private boolean exited;
+
+        private Entry(int[] indexes) {
+            this.indexes = indexes;
+        }
+
+        /**
+         * Leave the lanes before the transaction completes, so that a command which found out it needs other lanes can
+         * enter them all again in order. The transaction must not have changed any of their drones yet.
+         */
+        public void exit() {
+            if (!exited) {
+                exited = true;
+                DroneCommandLanes.this.exit(indexes);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            exit();
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.musala.drone.service;
+
+import com.musala.drone.config.ApplicationProperties;
+import com.musala.drone.config.Constants;
+import com.musala.drone.domain.DroneEvent;
+import com.musala.drone.domain.DroneSnapshot;
+import com.musala.drone.domain.enumeration.DroneEventType;
+import com.musala.drone.repository.DroneEventRepository;
+import com.musala.drone.repository.DroneSnapshotRepository;
+import com.musala.drone.security.SecurityUtils;
+import com.musala.drone.service.dto.DroneEventDTO;
+import com.musala.drone.service.dto.DroneSnapshotDTO;
+import com.musala.drone.service.dto.DroneStateDTO;
+import com.musala.drone.service.mapper.DroneEventMapper;
+import com.musala.drone.service.mapper.DroneSnapshotMapper;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TimeZone;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * The history of the state, battery and load of the drones: an append-only log of {@link DroneEvent events}, and the
+ * {@link DroneSnapshot snapshots} folded from it.
+ * <p>
+ * The events are {@link #record(Map) recorded} by {@link FleetStateRegistry} in the transaction of the command, right
+ * before it commits, and inserted with it in JDBC batches, or all at once for the {@link #recordCreated(List) created}
+ * drones; recording only ever inserts. Each event is the difference from the state the log itself holds for the drone,
+ * read in that transaction, not from the state any node keeps in memory, so that the history stays right across
+ * restarts and with several nodes. The state of a drone at any point of its history is its last snapshot up to that
+ * point, followed by the events after it. {@link #snapshot()} keeps that tail short.
+ */
+@Service
+@Transactional
+public class DroneEventLog {
+
+    private static final String INSERT_CREATED_SQL =
+        "insert into drone_event (seq, drone_id, type, state, battery_capacity, loaded_weight, created_by, created_date)" +
+        " select e.seq, d.id, ?, d.state, d.battery_capacity, d.loaded_weight, ?, ? from drone d join (values %s) e(seq, drone_id)" +
+        " on e.drone_id = d.id";
+
+    private final Logger log = LoggerFactory.getLogger(DroneEventLog.class);
+
+    private final DroneEventRepository droneEventRepository;
+
+    private final DroneSnapshotRepository droneSnapshotRepository;
+
+    private final DroneEventMapper droneEventMapper;
+
+    private final DroneSnapshotMapper droneSnapshotMapper;
+
+    private final EntityVersions entityVersions;
+
+    private final EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final int snapshotInterval;
+
+    private final int snapshotChunkSize;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public DroneEventLog(
+        DroneEventRepository droneEventRepository,
+        DroneSnapshotRepository droneSnapshotRepository,
+        DroneEventMapper droneEventMapper,
+        DroneSnapshotMapper droneSnapshotMapper,
+        EntityVersions entityVersions,
+        EntityManager entityManager,
+        JdbcTemplate jdbcTemplate,
+        ApplicationProperties applicationProperties,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.droneEventRepository = droneEventRepository;
+        this.droneSnapshotRepository = droneSnapshotRepository;
+        this.droneEventMapper = droneEventMapper;
+        this.droneSnapshotMapper = droneSnapshotMapper;
+        this.entityVersions = entityVersions;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshotInterval = applicationProperties.getDroneEvents().getSnapshotInterval();
+        this.snapshotChunkSize = applicationProperties.getDroneEvents().getSnapshotChunkSize();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Append the events turning the recorded state of the drones into their new state, for the drones of which anything
+     * the log keeps changed. The recorded states are folded from the last snapshots and the events after them with two
+     * queries, whatever the number of drones. The events are inserted when the transaction is flushed.
+     *
+     * @param drones the new state of each drone, {@code null} if it was deleted.
+     */
+    public void record(Map<Long, DroneStateDTO> drones) {
+        if (drones.isEmpty()) {
+            return;
+        }
+        Map<Long, DroneSnapshotDTO> recorded = findStates(drones.keySet());
+        drones.forEach((droneId, current) -> record(droneId, recorded.get(droneId), current));
+    }
+
+    private void record(Long droneId, DroneSnapshotDTO previous, DroneStateDTO current) {
+        DroneEvent event = new DroneEvent()
+            .droneId(droneId)
+            .createdBy(SecurityUtils.getCurrentUserLogin().orElse(Constants.SYSTEM))
+            .createdDate(Instant.now());
+        if (current == null) {
+            if (previous == null) {
+                return;
+            }
+            event.type(DroneEventType.DELETED);
+        } else if (previous == null) {
+            event
+                .type(DroneEventType.CREATED)
+                .state(current.getState())
+                .batteryCapacity(current.getBatteryCapacity())
+                .loadedWeight(current.getLoadedWeight());
+        } else {
+            event.type(DroneEventType.CHANGED);
+            if (previous.getState() != current.getState()) {
+                event.state(current.getState());
+            }
+            if (!Objects.equals(previous.getBatteryCapacity(), current.getBatteryCapacity())) {
+                event.batteryCapacity(current.getBatteryCapacity());
+            }
+            if (!Objects.equals(previous.getLoadedWeight(), current.getLoadedWeight())) {
+                event.loadedWeight(current.getLoadedWeight());
+            }
+            if (event.getState() == null && event.getBatteryCapacity() == null && event.getLoadedWeight() == null) {
+                return;
+            }
+        }
+        droneEventRepository.save(event);
+    }
+
+    /**
+     * Append the {@link DroneEventType#CREATED} events of drones which are not known yet, from their current state, with
+     * one insert whatever the number of drones. The seqs are drawn from the same blocks as the ones of
+     * {@link #record(Map)}, so the later events of the drones come after them.
+     *
+     * @param droneIds the ids of the drones, which must have been flushed.
+     */
+    public void recordCreated(List<Long> droneIds) {
+        if (droneIds.isEmpty()) {
+            return;
+        }
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        IdentifierGenerator generator = session.getFactory().getMetamodel().entityPersister(DroneEvent.class).getIdentifierGenerator();
+        long[] seqs = new long[droneIds.size()];
+        for (int i = 0; i < seqs.length; i++) {
+            seqs[i] = (Long) generator.generate(session, null);
+        }
+        String createdBy = SecurityUtils.getCurrentUserLogin().orElse(Constants.SYSTEM);
+        Timestamp createdDate = Timestamp.from(Instant.now());
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        jdbcTemplate.update(
+            String.format(INSERT_CREATED_SQL, String.join(", ", Collections.nCopies(droneIds.size(), "(?, ?)"))),
+            statement -> {
+                statement.setShort(1, DroneEventType.CREATED.getCode());
+                statement.setString(2, createdBy);
+                statement.setTimestamp(3, createdDate, utc);
+                for (int i = 0; i < seqs.length; i++) {
+                    statement.setLong(4 + 2 * i, seqs[i]);
+                    statement.setLong(5 + 2 * i, droneIds.get(i));
+                }
+            }
+        );
+        entityVersions.bump(DroneEvent.class);
+    }
+
+    /**
+     * @param droneId the id of the drone.
+     * @param afterSeq the seq after which the events are returned.
+     * @param untilSeq the seq of the last event which may be returned.
+     * @param limit the maximal number of events to return.
+     * @return the events of the drone in the range, in order.
+     */
+    @Transactional(readOnly = true)
+    public List<DroneEventDTO> findHistory(Long droneId, long afterSeq, long untilSeq, int limit) {
+        log.debug("Request to get the events of Drone {} in ({}, {}]", droneId, afterSeq, untilSeq);
+        return droneEventMapper.toDto(droneEventRepository.findHistory(droneId, afterSeq, untilSeq, PageRequest.of(0, limit)));
+    }
+
+    /**
+     * Read the state of a drone from its last snapshot up to the seq and the events after it.
+     *
+     * @param droneId the id of the drone.
+     * @param untilSeq the seq of the last event to take into account.
+     * @return the state of the drone as of its last event up to the seq, empty if it was not created or was deleted.
+     */
+    @Transactional(readOnly = true)
+    public Optional<DroneSnapshotDTO> findState(Long droneId, long untilSeq) {
+        log.debug("Request to get the state of Drone {} as of {}", droneId, untilSeq);
+        DroneSnapshotDTO state = droneSnapshotRepository
+            .findFirstByDroneIdAndSeqLessThanEqualOrderBySeqDesc(droneId, untilSeq)
+            .map(droneSnapshotMapper::toDto)
+            .orElse(null);
+        long afterSeq = state == null ? 0 : state.getSeq();
+        try (Stream<DroneEvent> tail = droneEventRepository.streamHistory(droneId, afterSeq, untilSeq)) {
+            for (DroneEvent event : (Iterable<DroneEvent>) tail::iterator) {
+                state = apply(state, event);
+            }
+        }
+        return Optional.ofNullable(state);
+    }
+
+    private Map<Long, DroneSnapshotDTO> findStates(Collection<Long> droneIds) {
+        Map<Long, DroneSnapshotDTO> states = new HashMap<>();
+        for (DroneSnapshot snapshot : droneSnapshotRepository.findLastByDroneIdIn(droneIds)) {
+            states.put(snapshot.getDroneId(), droneSnapshotMapper.toDto(snapshot));
+        }
+        for (DroneEvent event : droneEventRepository.findTailsByDroneIdIn(droneIds)) {
+            states.compute(event.getDroneId(), (droneId, state) -> apply(state, event));
+        }
+        return states;
+    }
+
+    private static DroneSnapshotDTO apply(DroneSnapshotDTO state, DroneEvent event) {
+        switch (event.getType()) {
+            case DELETED:
+                return null;
+            case CREATED:
+                state = new DroneSnapshotDTO();
+                state.setDroneId(event.getDroneId());
+                break;
+            default:
+                if (state == null) {
+                    throw new IllegalStateException(
+                        "Event " + event.getSeq() + " of drone " + event.getDroneId() + " has no CREATED event before it"
+                    );
+                }
+        }
+        state.setSeq(event.getSeq());
+        state.setCreatedDate(event.getCreatedDate());
+        state.setState(Objects.requireNonNullElse(event.getState(), state.getState()));
+        state.setBatteryCapacity(Objects.requireNonNullElse(event.getBatteryCapacity(), state.getBatteryCapacity()));
+        state.setLoadedWeight(Objects.requireNonNullElse(event.getLoadedWeight(), state.getLoadedWeight()));
+        return state;
+    }
+
+    /**
+     * Snapshot every drone which was not deleted and has at least {@code snapshot-interval} events after its last
+     * snapshot, on {@code application.drone-events.snapshot-cron}.
+     * The drones are found in chunks, each snapshotted in a transaction of its own with its snapshots written in JDBC
+     * batches, so that the events replayed and the snapshots taken do not pile up in one persistence context.
+     *
+     * @return the number of snapshots taken.
+     */
+    @Scheduled(cron = "${application.drone-events.snapshot-cron:-}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int snapshot() {
+        int taken = 0;
+        long afterDroneId = 0;
+        List<Long> droneIds;
+        do {
+            long after = afterDroneId;
+            droneIds =
+                transactionTemplate.execute(status ->
+                    droneEventRepository.findDroneIdsToSnapshot(
+                        after,
+                        snapshotInterval,
+                        DroneEventType.DELETED,
+                        PageRequest.of(0, snapshotChunkSize)
+                    )
+                );
+            List<Long> chunk = droneIds;
+            taken +=
+                transactionTemplate.execute(status -> {
+                    List<DroneSnapshot> snapshots = new ArrayList<>(chunk.size());
+                    for (Long droneId : chunk) {
+                        findState(droneId, Long.MAX_VALUE).map(droneSnapshotMapper::toEntity).ifPresent(snapshots::add);
+                    }
+                    droneSnapshotRepository.saveAll(snapshots);
+                    return snapshots.size();
+                });
+            if (!droneIds.isEmpty()) {
+                afterDroneId = droneIds.get(droneIds.size() - 1);
+            }
+        } while (droneIds.size() == snapshotChunkSize);
+        if (taken > 0) {
+            log.info("Snapshotted the history of {} drones", taken);
+        }
+        return taken;
+    }
+}
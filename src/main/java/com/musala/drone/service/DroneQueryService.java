@@ -1,15 +1,20 @@
 package com.musala.drone.service;
 
+import com.musala.drone.config.ApplicationProperties;
 import com.musala.drone.domain.*; // for static metamodels
 import com.musala.drone.domain.Drone;
 import com.musala.drone.repository.DroneRepository;
+import com.musala.drone.repository.Keyset;
 import com.musala.drone.service.criteria.DroneCriteria;
 import com.musala.drone.service.dto.DroneDTO;
 import com.musala.drone.service.mapper.DroneMapper;
+import java.util.Arrays;
 import java.util.List;
-import javax.persistence.criteria.JoinType;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.persistence.Tuple;
 import javax.persistence.metamodel.SingularAttribute;
-
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -17,7 +22,6 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import tech.jhipster.service.QueryService;
 import tech.jhipster.service.filter.IntegerFilter;
 
 /**
@@ -25,10 +29,27 @@ import tech.jhipster.service.filter.IntegerFilter;
  * The main input is a {@link DroneCriteria} which gets converted to {@link Specification},
  * in a way that all the filters must apply.
  * It returns a {@link List} of {@link DroneDTO} or a {@link Page} of {@link DroneDTO} which fulfills the criteria.
+ * The lists, pages and counts are cached in a {@link CriteriaResultCache}, until the entities they read are written.
  */
 @Service
 @Transactional(readOnly = true)
-public class DroneQueryService extends QueryService<Drone> {
+public class DroneQueryService extends SemiJoinQueryService<Drone> {
+
+    /**
+     * The properties of the {@link DroneDTO} which can be selected on their own.
+     */
+    private static final Fieldset<Drone, DroneDTO> FIELDS = new Fieldset<Drone, DroneDTO>(DroneDTO::new)
+        .field("id", root -> root.get(Drone_.id), DroneDTO::setId)
+        .field("serialNumber", root -> root.get(Drone_.serialNumber), DroneDTO::setSerialNumber)
+        .field("model", root -> root.get(Drone_.model), DroneDTO::setModel)
+        .field("weightLimit", root -> root.get(Drone_.weightLimit), DroneDTO::setWeightLimit)
+        .field("batteryCapacity", root -> root.get(Drone_.batteryCapacity), DroneDTO::setBatteryCapacity)
+        .field("state", root -> root.get(Drone_.state), DroneDTO::setState)
+        .field("createdBy", root -> root.get(Drone_.createdBy), DroneDTO::setCreatedBy)
+        .field("createdDate", root -> root.get(Drone_.createdDate), DroneDTO::setCreatedDate)
+        .field("lastModifiedBy", root -> root.get(Drone_.lastModifiedBy), DroneDTO::setLastModifiedBy)
+        .field("lastModifiedDate", root -> root.get(Drone_.lastModifiedDate), DroneDTO::setLastModifiedDate)
+        .field("auditFlageNotification", root -> root.get(Drone_.auditFlageNotification), DroneDTO::setAuditFlageNotification);
 
     private final Logger log = LoggerFactory.getLogger(DroneQueryService.class);
 
@@ -36,9 +57,34 @@ public class DroneQueryService extends QueryService<Drone> {
 
     private final DroneMapper droneMapper;
 
-    public DroneQueryService(DroneRepository droneRepository, DroneMapper droneMapper) {
+    private final long estimateTotalAbove;
+
+    private final SingleFlight singleFlight;
+
+    private final CriteriaResultCache<DroneCriteria> resultCache;
+
+    public DroneQueryService(
+        DroneRepository droneRepository,
+        DroneMapper droneMapper,
+        ApplicationProperties applicationProperties,
+        EntityVersions entityVersions,
+        SingleFlight singleFlight,
+        MeterRegistry meterRegistry
+    ) {
         this.droneRepository = droneRepository;
         this.droneMapper = droneMapper;
+        this.estimateTotalAbove = applicationProperties.getPagination().getEstimateTotalAbove();
+        this.singleFlight = singleFlight;
+        this.resultCache =
+            new CriteriaResultCache<>(
+                "droneCriteria",
+                applicationProperties.getCriteriaCache(),
+                entityVersions,
+                singleFlight,
+                meterRegistry,
+                Drone.class,
+                Medication.class
+            );
     }
 
     /**
@@ -49,12 +95,18 @@ public class DroneQueryService extends QueryService<Drone> {
     @Transactional(readOnly = true)
     public List<DroneDTO> findByCriteria(DroneCriteria criteria) {
         log.debug("find by criteria : {}", criteria);
-        final Specification<Drone> specification = createSpecification(criteria);
-        return droneMapper.toDto(droneRepository.findAll(specification));
+        return resultCache.get(
+            "list",
+            criteria,
+            Pageable.unpaged(),
+            () -> droneMapper.toDto(droneRepository.findAll(createSpecification(criteria)))
+        );
     }
 
     /**
      * Return a {@link Page} of {@link DroneDTO} which matches the criteria from the database.
+     * The page and its total are fetched in one query; the total of a large table may be estimated, see
+     * {@link com.musala.drone.repository.PageSpecificationExecutor#findPage}.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
      * @return the matching entities.
@@ -62,8 +114,80 @@ public class DroneQueryService extends QueryService<Drone> {
     @Transactional(readOnly = true)
     public Page<DroneDTO> findByCriteria(DroneCriteria criteria, Pageable page) {
         log.debug("find by criteria : {}, page: {}", criteria, page);
-        final Specification<Drone> specification = createSpecification(criteria);
-        return droneRepository.findAll(specification, page).map(droneMapper::toDto);
+        return resultCache.get(
+            "page",
+            criteria,
+            page,
+            () -> droneRepository.findPage(createSpecification(criteria), page, estimateTotalAbove).map(droneMapper::toDto)
+        );
+    }
+
+    /**
+     * Return a {@link Page} of {@link DroneDTO} which matches the criteria from the database, with only the given fields,
+     * the id and the sort fields set: the columns of the other fields are not selected.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @param fields The names of the properties of the {@link DroneDTO} to set.
+     * @return the matching entities.
+     * @throws UnknownFieldException if one of the fields is unknown.
+     */
+    @Transactional(readOnly = true)
+    public Page<DroneDTO> findByCriteria(DroneCriteria criteria, Pageable page, Set<String> fields) {
+        log.debug("find by criteria : {}, page: {}, fields: {}", criteria, page, fields);
+        Fieldset<Drone, DroneDTO>.Selected selected = FIELDS.select(fields, page.getSort());
+        return resultCache.get(
+            "page",
+            criteria,
+            Arrays.asList(page, selected),
+            () -> droneRepository.findPage(createSpecification(criteria), selected, page, estimateTotalAbove).map(selected::toDto)
+        );
+    }
+
+    /**
+     * Return a {@link KeysetSlice} of {@link DroneDTO} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param keyset The position after which the entities are sought.
+     * @param size The maximum number of entities to return.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public KeysetSlice<DroneDTO> findByCriteria(DroneCriteria criteria, Keyset keyset, int size) {
+        log.debug("find by criteria : {}, keyset: {}, size: {}", criteria, keyset, size);
+        return singleFlight.execute(
+            "droneCriteria.keyset",
+            Arrays.asList(CriteriaResultCache.normalise(criteria), keyset, size),
+            () ->
+                KeysetSlice
+                    .of(droneRepository.findAll(createSpecification(criteria), keyset, size + 1), keyset, size)
+                    .map(droneMapper::toDto),
+            Drone.class, Medication.class
+        );
+    }
+
+    /**
+     * Return a {@link KeysetSlice} of {@link DroneDTO} which matches the criteria from the database, with only the given
+     * fields, the id and the keyset field set: the columns of the other fields are not selected.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param keyset The position after which the entities are sought.
+     * @param size The maximum number of entities to return.
+     * @param fields The names of the properties of the {@link DroneDTO} to set.
+     * @return the matching entities.
+     * @throws UnknownFieldException if one of the fields is unknown.
+     */
+    @Transactional(readOnly = true)
+    public KeysetSlice<DroneDTO> findByCriteria(DroneCriteria criteria, Keyset keyset, int size, Set<String> fields) {
+        log.debug("find by criteria : {}, keyset: {}, size: {}, fields: {}", criteria, keyset, size, fields);
+        Fieldset<Drone, DroneDTO>.Selected selected = FIELDS.select(fields, keyset.toSort());
+        return singleFlight.execute(
+            "droneCriteria.keyset",
+            Arrays.asList(CriteriaResultCache.normalise(criteria), keyset, size, selected),
+            () -> {
+                List<Tuple> rows = droneRepository.findAll(createSpecification(criteria), selected, keyset, size + 1);
+                return KeysetSlice.of(rows.stream().map(selected::toDto).collect(Collectors.toList()), keyset, size);
+            },
+            Drone.class,
+            Medication.class
+        );
     }
 
     /**
@@ -74,8 +198,7 @@ public class DroneQueryService extends QueryService<Drone> {
     @Transactional(readOnly = true)
     public long countByCriteria(DroneCriteria criteria) {
         log.debug("count by criteria : {}", criteria);
-        final Specification<Drone> specification = createSpecification(criteria);
-        return droneRepository.count(specification);
+        return resultCache.get("count", criteria, Pageable.unpaged(), () -> droneRepository.count(createSpecification(criteria)));
     }
 
     /**
@@ -100,10 +223,10 @@ public class DroneQueryService extends QueryService<Drone> {
                 specification = specification.and(buildSpecification(criteria.getModel(), Drone_.model));
             }
             if (criteria.getWeightLimit() != null) {
-                specification = specification.and(buildSpecification(criteria.getWeightLimit(), Drone_.weightLimit));
+                specification = specification.and(buildRangeSpecification(criteria.getWeightLimit(), Drone_.weightLimit));
             }
             if (criteria.getBatteryCapacity() != null) {
-                specification = specification.and(buildSpecification(criteria.getBatteryCapacity(), Drone_.batteryCapacity));
+                specification = specification.and(buildRangeSpecification(criteria.getBatteryCapacity(), Drone_.batteryCapacity));
             }
             if (criteria.getState() != null) {
                 specification = specification.and(buildSpecification(criteria.getState(), Drone_.state));
@@ -122,16 +245,9 @@ public class DroneQueryService extends QueryService<Drone> {
             }
             if (criteria.getDroneMedicationsId() != null) {
                 specification =
-                    specification.and(
-                        buildSpecification(
-                            criteria.getDroneMedicationsId(),
-                            root -> root.join(Drone_.droneMedications, JoinType.LEFT).get(Medication_.id)
-                        )
-                    );
+                    specification.and(buildSemiJoinSpecification(criteria.getDroneMedicationsId(), Medication_.drone, Medication_.id));
             }
         }
         return specification;
     }
-
-
 }
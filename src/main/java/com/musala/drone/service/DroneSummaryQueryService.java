@@ -0,0 +1,126 @@
+package com.musala.drone.service;
+
+import com.musala.drone.config.ApplicationProperties;
+import com.musala.drone.domain.*; // for static metamodels
+import com.musala.drone.domain.DroneSummary;
+import com.musala.drone.repository.DroneSummaryRepository;
+import com.musala.drone.service.criteria.DroneSummaryCriteria;
+import com.musala.drone.service.dto.DroneSummaryDTO;
+import com.musala.drone.service.mapper.DroneSummaryMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.service.QueryService;
+
+/**
+ * Service for executing complex queries for {@link DroneSummary} entities in the database.
+ * The main input is a {@link DroneSummaryCriteria} which gets converted to {@link Specification},
+ * in a way that all the filters must apply.
+ * It returns a {@link Page} of {@link DroneSummaryDTO} which fulfills the criteria, read from the summary table alone:
+ * the page and its total are one query, whichever of the counts and weights it filters on.
+ * The pages and counts are cached in a {@link CriteriaResultCache}, until the summaries are written.
+ */
+@Service
+@Transactional(readOnly = true)
+public class DroneSummaryQueryService extends QueryService<DroneSummary> {
+
+    private final Logger log = LoggerFactory.getLogger(DroneSummaryQueryService.class);
+
+    private final DroneSummaryRepository droneSummaryRepository;
+
+    private final DroneSummaryMapper droneSummaryMapper;
+
+    private final long estimateTotalAbove;
+
+    private final CriteriaResultCache<DroneSummaryCriteria> resultCache;
+
+    public DroneSummaryQueryService(
+        DroneSummaryRepository droneSummaryRepository,
+        DroneSummaryMapper droneSummaryMapper,
+        ApplicationProperties applicationProperties,
+        EntityVersions entityVersions,
+        SingleFlight singleFlight,
+        MeterRegistry meterRegistry
+    ) {
+        this.droneSummaryRepository = droneSummaryRepository;
+        this.droneSummaryMapper = droneSummaryMapper;
+        this.estimateTotalAbove = applicationProperties.getPagination().getEstimateTotalAbove();
+        this.resultCache =
+            new CriteriaResultCache<>(
+                "droneSummaryCriteria",
+                applicationProperties.getCriteriaCache(),
+                entityVersions,
+                singleFlight,
+                meterRegistry,
+                DroneSummary.class
+            );
+    }
+
+    /**
+     * Return a {@link Page} of {@link DroneSummaryDTO} which matches the criteria from the database.
+     * The page and its total are fetched in one query; the total of a large table may be estimated, see
+     * {@link com.musala.drone.repository.PageSpecificationExecutor#findPage}.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<DroneSummaryDTO> findByCriteria(DroneSummaryCriteria criteria, Pageable page) {
+        log.debug("find by criteria : {}, page: {}", criteria, page);
+        return resultCache.get(
+            "page",
+            criteria,
+            page,
+            () ->
+                droneSummaryRepository
+                    .findPage(createSpecification(criteria), page, estimateTotalAbove)
+                    .map(droneSummaryMapper::toDto)
+        );
+    }
+
+    /**
+     * Return the number of matching entities in the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the number of matching entities.
+     */
+    @Transactional(readOnly = true)
+    public long countByCriteria(DroneSummaryCriteria criteria) {
+        log.debug("count by criteria : {}", criteria);
+        return resultCache.get(
+            "count",
+            criteria,
+            Pageable.unpaged(),
+            () -> droneSummaryRepository.count(createSpecification(criteria))
+        );
+    }
+
+    /**
+     * Function to convert {@link DroneSummaryCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<DroneSummary> createSpecification(DroneSummaryCriteria criteria) {
+        Specification<DroneSummary> specification = Specification.where(null);
+        if (criteria != null) {
+            if (criteria.getDroneId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getDroneId(), DroneSummary_.droneId));
+            }
+            if (criteria.getMedicationCount() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getMedicationCount(), DroneSummary_.medicationCount));
+            }
+            if (criteria.getTotalWeight() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getTotalWeight(), DroneSummary_.totalWeight));
+            }
+            if (criteria.getRemainingCapacity() != null) {
+                specification =
+                    specification.and(buildRangeSpecification(criteria.getRemainingCapacity(), DroneSummary_.remainingCapacity));
+            }
+        }
+        return specification;
+    }
+}
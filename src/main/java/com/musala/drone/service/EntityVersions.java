@@ -0,0 +1,130 @@
+package com.musala.drone.service;
+
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Version counters of the entity types, bumped on every write to an entity type so that the results read before it can be
+ * told apart from the ones read after it.
+ * <p>
+ * The writes of a transaction bump the versions once it completes, whether it commits or rolls back: a result read while
+ * the transaction was running carries the version before the bump, and cannot be mistaken for one read after its commit.
+ * Until then, {@link #isWritten} tells the transaction it cannot rely on what was read before its own writes.
+ * <p>
+ * The repositories bump the version of their entity type through {@link #repositoryInterceptor}, on their {@code save*}
+ * and {@code delete*} methods and on their {@link Modifying} queries, so the writes of the services, which all go through
+ * the repositories, are covered.
+ */
+@Service
+public class EntityVersions {
+
+    private final Map<Class<?>, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    /**
+     * @param type the entity type.
+     * @return the current version of the entity type.
+     */
+    public long version(Class<?> type) {
+        return counter(type).get();
+    }
+
+    /**
+     * Bump the version of the entity type, once the current transaction completes if there is one.
+     *
+     * @param type the entity type which was written.
+     */
+    public void bump(Class<?> type) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            counter(type).incrementAndGet();
+            return;
+        }
+        WrittenTypes written = writtenTypes();
+        if (written == null) {
+            written = new WrittenTypes();
+            TransactionSynchronizationManager.registerSynchronization(written);
+        }
+        written.types.add(type);
+    }
+
+    /**
+     * @param types the entity types.
+     * @return whether the current transaction wrote one of the entity types.
+     */
+    public boolean isWritten(Class<?>... types) {
+        WrittenTypes written = writtenTypes();
+        if (written == null) {
+            return false;
+        }
+        for (Class<?> type : types) {
+            if (written.types.contains(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param domainType the entity type of the repository.
+     * @return an interceptor of the repository bumping the version of its entity type on its writes.
+     */
+    public MethodInterceptor repositoryInterceptor(Class<?> domainType) {
+        return invocation -> {
+            if (isWrite(invocation.getMethod())) {
+                bump(domainType);
+            }
+            return invocation.proceed();
+        };
+    }
+
+    private static boolean isWrite(Method method) {
+        String name = method.getName();
+        return name.startsWith("save") || name.startsWith("delete") || AnnotatedElementUtils.hasAnnotation(method, Modifying.class);
+    }
+
+    /**
+     * @return the entity types written by the current transaction, {@code null} if none; the ones of a suspended
+     * transaction are suspended with its synchronizations.
+     */
+    private WrittenTypes writtenTypes() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof WrittenTypes && ((WrittenTypes) synchronization).owner() == this) {
+                return (WrittenTypes) synchronization;
+            }
+        }
+        return null;
+    }
+
+    private AtomicLong counter(Class<?> type) {
+        return versions.computeIfAbsent(type, ignored -> new AtomicLong());
+    }
+
+    /**
+     * The entity types written by a transaction, whose versions are bumped once it completes.
+     */
+    private class WrittenTypes implements TransactionSynchronization {
+
+        private final Set<Class<?>> types = new HashSet<>();
+
+        private EntityVersions owner() {
+            return EntityVersions.this;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            types.forEach(type -> counter(type).incrementAndGet());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.musala.drone.service;
+
+import com.musala.drone.repository.Keyset;
+import com.musala.drone.repository.Projection;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import org.springframework.data.domain.Sort;
+
+/**
+ * The properties of a DTO which can be read on their own, each from one column of the entity, so that a query for some of
+ * them does not select the other columns.
+ *
+ * @param <E> the type of the entities.
+ * @param <D> the type of the DTOs.
+ */
+public final class Fieldset<E, D> {
+
+    private final Supplier<D> dtoFactory;
+
+    private final Map<String, Field<E, D, ?>> fields = new LinkedHashMap<>();
+
+    /**
+     * @param dtoFactory the constructor of the empty DTOs.
+     */
+    public Fieldset(Supplier<D> dtoFactory) {
+        this.dtoFactory = dtoFactory;
+    }
+
+    /**
+     * Declare a field, the {@code id} first.
+     *
+     * @param name the name of the property of the DTO.
+     * @param path the column of the property.
+     * @param setter the setter of the property.
+     * @param <X> the type of the property.
+     * @return this fieldset.
+     */
+    public <X> Fieldset<E, D> field(String name, Function<Root<E>, Path<X>> path, BiConsumer<D, X> setter) {
+        fields.put(name, new Field<>(path, setter));
+        return this;
+    }
+
+    /**
+     * Select the given fields, the id, and the fields the list is sorted on, which a distinct query must select and a
+     * keyset is read from.
+     *
+     * @param names the names of the fields.
+     * @param sort the order of the list.
+     * @return the selection.
+     * @throws UnknownFieldException if one of the names is not a field.
+     */
+    public Selected select(Collection<String> names, Sort sort) {
+        Set<String> unknown = new TreeSet<>(names);
+        unknown.removeAll(fields.keySet());
+        if (!unknown.isEmpty()) {
+            throw new UnknownFieldException("Unknown fields " + unknown + ", expected some of " + fields.keySet());
+        }
+        Set<String> sorted = sort.stream().map(Sort.Order::getProperty).collect(Collectors.toSet());
+        Set<String> selected = new LinkedHashSet<>();
+        for (String name : fields.keySet()) {
+            if (name.equals(Keyset.ID) || names.contains(name) || sorted.contains(name)) {
+                selected.add(name);
+            }
+        }
+        return new Selected(selected);
+    }
+
+    /**
+     * Some fields of the fieldset, the projection selecting their columns, equal to the selections of the same fields.
+     */
+    public final class Selected implements Projection<E> {
+
+        private final Set<String> names;
+
+        private Selected(Set<String> names) {
+            this.names = names;
+        }
+
+        @Override
+        public List<Selection<?>> select(Root<E> root) {
+            return names.stream().map(name -> fields.get(name).path.apply(root).alias(name)).collect(Collectors.toList());
+        }
+
+        /**
+         * @param row a row of the projection.
+         * @return the DTO with the selected fields set from the row, and the others {@code null}.
+         */
+        public D toDto(Tuple row) {
+            D dto = dtoFactory.get();
+            for (String name : names) {
+                fields.get(name).set(dto, row.get(name));
+            }
+            return dto;
+        }
+
+        public Set<String> getNames() {
+            return names;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Fieldset.Selected)) {
+                return false;
+            }
+            return names.equals(((Fieldset<?, ?>.Selected) o).names);
+        }
+
+        @Override
+        public int hashCode() {
+            return names.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return names.toString();
+        }
+    }
+
+    private static final class Field<E, D, X> {
+
+        private final Function<Root<E>, Path<X>> path;
+
+        private final BiConsumer<D, X> setter;
+
+        private Field(Function<Root<E>, Path<X>> path, BiConsumer<D, X> setter) {
+            this.path = path;
+            this.setter = setter;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void set(D dto, Object value) {
+            setter.accept(dto, (X) value);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.musala.drone.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+/**
+ * {@link BlobStore} keeping each blob in a file of the directory, {@code ab/abcdef...} after its hash.
+ * <p>
+ * A blob is moved in place once complete, so a file is never read while it is written. The writes are not part of the
+ * database transactions: a blob stored by a transaction which rolled back is kept, unreferenced, until it is swept. The
+ * last modification time of a file is the time its blob was last stored.
+ */
+public class FileSystemBlobStore extends AbstractBlobStore {
+
+    private final Path directory;
+
+    public FileSystemBlobStore(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    protected Path spoolDirectory() throws IOException {
+        // on the same file system as the blobs, so that they are moved rather than copied
+        return Files.createDirectories(directory);
+    }
+
+    @Override
+    protected boolean refresh(String hash) throws IOException {
+        try {
+            Files.setLastModifiedTime(path(hash), FileTime.from(Instant.now()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    @Override
+    protected void save(String hash, Path content, long size) throws IOException {
+        Path path = path(hash);
+        Files.createDirectories(path.getParent());
+        Files.move(content, path, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    protected Optional<Resource> open(String hash) {
+        Path path = path(hash);
+        return Files.isRegularFile(path) ? Optional.of(new FileSystemResource(path)) : Optional.empty();
+    }
+
+    @Override
+    public List<String> findStoredBefore(Instant storedBefore, String afterHash, int limit) throws IOException {
+        List<String> hashes = new ArrayList<>(limit);
+        if (!Files.isDirectory(directory)) {
+            return hashes;
+        }
+        String afterPrefix = afterHash.length() < 2 ? "" : afterHash.substring(0, 2);
+        for (String prefix : list(directory, name -> name.length() == 2 && name.compareTo(afterPrefix) >= 0)) {
+            for (String hash : list(directory.resolve(prefix), name -> isHash(name) && name.compareTo(afterHash) > 0)) {
+                try {
+                    if (Files.getLastModifiedTime(path(hash)).toInstant().isBefore(storedBefore)) {
+                        hashes.add(hash);
+                    }
+                } catch (NoSuchFileException e) {
+                    // deleted meanwhile
+                }
+                if (hashes.size() == limit) {
+                    return hashes;
+                }
+            }
+        }
+        return hashes;
+    }
+
+    /**
+     * The file is first moved aside, where it can no longer be marked as stored, and its time checked again there: a
+     * blob stored again meanwhile is moved back, one stored once it was moved aside is saved anew.
+     */
+    @Override
+    public boolean deleteStoredBefore(String hash, Instant storedBefore) throws IOException {
+        Path path = path(hash);
+        Path swept = path.resolveSibling(hash + ".swept");
+        try {
+            Files.move(path, swept, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        if (Files.getLastModifiedTime(swept).toInstant().isBefore(storedBefore)) {
+            Files.delete(swept);
+            return true;
+        }
+        Files.move(swept, path, StandardCopyOption.ATOMIC_MOVE);
+        return false;
+    }
+
+    private static List<String> list(Path directory, Predicate<String> filter) throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.map(path -> path.getFileName().toString()).filter(filter).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private Path path(String hash) {
+        return directory.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+}
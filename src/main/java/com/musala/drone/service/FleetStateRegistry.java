@@ -0,0 +1,230 @@
+package com.musala.drone.service;
+
+import com.musala.drone.domain.enumeration.Model;
+import com.musala.drone.domain.enumeration.State;
+import com.musala.drone.repository.DroneRepository;
+import com.musala.drone.service.dto.DroneStateDTO;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-memory copy of the state, battery and load of every drone, so that dispatching can read them without a database
+ * round-trip.
+ * <p>
+ * The registry is warmed when the application is ready and written through by the services which change drones: they
+ * {@link #track(Long...) track} the drones they touch, whose fresh state is read just before the transaction commits and
+ * published once it has committed. Drone commands run in {@link DroneCommandLanes}, which are left only after that, so
+ * the snapshots of a drone are published in commit order.
+ * <p>
+ * The changes of the tracked drones are also {@link DroneEventLog#record recorded} in their history, in the transaction
+ * which made them, against the state the history holds rather than the one published here, which another node may have
+ * made stale. The drones created in bulk are {@link #trackCreated tracked} with their state instead, and recorded all
+ * at once.
+ */
+@Service
+public class FleetStateRegistry {
+
+    private final Logger log = LoggerFactory.getLogger(FleetStateRegistry.class);
+
+    private final DroneRepository droneRepository;
+
+    private final DroneEventLog droneEventLog;
+
+    private final Map<Long, DroneStateDTO> drones = new ConcurrentHashMap<>();
+
+    private final Map<String, DroneStateDTO> dronesBySerialNumber = new ConcurrentHashMap<>();
+
+    private final DroneAvailabilityIndex availabilityIndex = new DroneAvailabilityIndex();
+
+    public FleetStateRegistry(DroneRepository droneRepository, DroneEventLog droneEventLog) {
+        this.droneRepository = droneRepository;
+        this.droneEventLog = droneEventLog;
+    }
+
+    /**
+     * Load the state of every drone. Snapshots published meanwhile by committed commands are newer and are kept.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        List<DroneRepository.DroneHotState> states = droneRepository.findAllHotStates();
+        for (DroneRepository.DroneHotState state : states) {
+            DroneStateDTO drone = toDto(state);
+            if (drones.putIfAbsent(drone.getId(), drone) == null) {
+                dronesBySerialNumber.put(drone.getSerialNumber(), drone);
+                availabilityIndex.update(null, drone);
+            }
+        }
+        log.info("Fleet state registry warmed with {} drones", states.size());
+    }
+
+    public Optional<DroneStateDTO> find(Long id) {
+        return Optional.ofNullable(drones.get(id));
+    }
+
+    public Optional<DroneStateDTO> findBySerialNumber(String serialNumber) {
+        return Optional.ofNullable(dronesBySerialNumber.get(serialNumber));
+    }
+
+    /**
+     * @param state the state of the drones to return, all drones if {@code null}.
+     * @return the drones ordered by id.
+     */
+    public List<DroneStateDTO> findAll(State state) {
+        return drones
+            .values()
+            .stream()
+            .filter(drone -> state == null || drone.getState() == state)
+            .sorted(Comparator.comparing(DroneStateDTO::getId))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * @see DroneAvailabilityIndex#findAvailable(Model, int, long, int)
+     */
+    public List<DroneStateDTO> findAvailable(Model model, int minCapacity, long minBattery, int limit) {
+        return availabilityIndex.findAvailable(model, minCapacity, minBattery, limit);
+    }
+
+    /**
+     * Refresh the given drones once the current transaction commits, or right away outside of a transaction.
+     *
+     * @param droneIds the ids of the changed drones, {@code null} ids are ignored.
+     */
+    public void track(Long... droneIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Arrays
+                .stream(droneIds)
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(id -> {
+                    Optional<DroneRepository.DroneHotState> state = droneRepository.findHotStateById(id);
+                    droneEventLog.record(Collections.singletonMap(id, state.map(FleetStateRegistry::toDto).orElse(null)));
+                    publish(id, state);
+                });
+            return;
+        }
+        TrackedDrones tracked = trackedDrones();
+        Arrays.stream(droneIds).filter(Objects::nonNull).forEach(tracked.ids::add);
+    }
+
+    /**
+     * Publish drones created by the current transaction once it commits, or right away outside of a transaction. Their
+     * state is not read back before the commit since no other transaction can change them meanwhile, and their
+     * {@link DroneEventLog#recordCreated created} events are recorded with one insert.
+     *
+     * @param created the state of the drones, which the transaction does not change any further.
+     */
+    public void trackCreated(Collection<DroneStateDTO> created) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            droneEventLog.recordCreated(created.stream().map(DroneStateDTO::getId).collect(Collectors.toList()));
+            created.forEach(this::publish);
+            return;
+        }
+        TrackedDrones tracked = trackedDrones();
+        created.forEach(drone -> tracked.created.put(drone.getId(), drone));
+    }
+
+    private TrackedDrones trackedDrones() {
+        return TransactionSynchronizationManager
+            .getSynchronizations()
+            .stream()
+            .filter(TrackedDrones.class::isInstance)
+            .map(TrackedDrones.class::cast)
+            .findFirst()
+            .orElseGet(() -> {
+                TrackedDrones synchronization = new TrackedDrones();
+                TransactionSynchronizationManager.registerSynchronization(synchronization);
+                return synchronization;
+            });
+    }
+
+    private void publish(Long id, Optional<DroneRepository.DroneHotState> state) {
+        publish(id, state.map(FleetStateRegistry::toDto).orElse(null));
+    }
+
+    private void publish(DroneStateDTO drone) {
+        publish(drone.getId(), drone);
+    }
+
+    private void publish(Long id, DroneStateDTO drone) {
+        DroneStateDTO previous = drone == null ? drones.remove(id) : drones.put(id, drone);
+        if (previous != null) {
+            dronesBySerialNumber.remove(previous.getSerialNumber(), previous);
+        }
+        if (drone != null) {
+            dronesBySerialNumber.put(drone.getSerialNumber(), drone);
+        }
+        availabilityIndex.update(previous, drone);
+    }
+
+    private static DroneStateDTO toDto(DroneRepository.DroneHotState state) {
+        return new DroneStateDTO(
+            state.getId(),
+            state.getSerialNumber(),
+            state.getModel(),
+            state.getState(),
+            state.getWeightLimit(),
+            state.getBatteryCapacity(),
+            state.getLoadedWeight()
+        );
+    }
+
+    /**
+     * The drones changed by one transaction, with their state as seen by that transaction right before it commits,
+     * recorded in their history by that transaction. The states are read with one query, however many drones changed;
+     * the ones of the created drones are known already.
+     */
+    private class TrackedDrones implements TransactionSynchronization {
+
+        private final Set<Long> ids = new LinkedHashSet<>();
+
+        private final Map<Long, DroneStateDTO> created = new LinkedHashMap<>();
+
+        private final Map<Long, Optional<DroneRepository.DroneHotState>> states = new LinkedHashMap<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            ids.removeAll(created.keySet());
+            if (!ids.isEmpty()) {
+                Map<Long, DroneRepository.DroneHotState> found = droneRepository
+                    .findHotStatesByIdIn(ids)
+                    .stream()
+                    .collect(Collectors.toMap(DroneRepository.DroneHotState::getId, Function.identity()));
+                Map<Long, DroneStateDTO> changed = new LinkedHashMap<>();
+                ids.forEach(id -> {
+                    DroneRepository.DroneHotState state = found.get(id);
+                    states.put(id, Optional.ofNullable(state));
+                    changed.put(id, state == null ? null : toDto(state));
+                });
+                droneEventLog.record(changed);
+            }
+            droneEventLog.recordCreated(new ArrayList<>(created.keySet()));
+        }
+
+        @Override
+        public void afterCommit() {
+            states.forEach(FleetStateRegistry.this::publish);
+            created.values().forEach(FleetStateRegistry.this::publish);
+        }
+    }
+}
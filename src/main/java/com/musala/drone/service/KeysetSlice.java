@@ -0,0 +1,51 @@
+package com.musala.drone.service;
+
+import com.musala.drone.repository.Keyset;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A page of a keyset paginated list, with the keyset of the next page if there is one.
+ *
+ * @param <T> the type of the elements.
+ */
+public class KeysetSlice<T> {
+
+    private final List<T> content;
+
+    private final Keyset next;
+
+    private KeysetSlice(List<T> content, Keyset next) {
+        this.content = Collections.unmodifiableList(content);
+        this.next = next;
+    }
+
+    /**
+     * @param entities the entities found after the keyset, at most {@code size + 1} of them.
+     * @param keyset the keyset the entities were sought from.
+     * @param size the size of the page.
+     * @return the page, with a next keyset if more than {@code size} entities were found.
+     */
+    static <E> KeysetSlice<E> of(List<E> entities, Keyset keyset, int size) {
+        if (entities.size() <= size) {
+            return new KeysetSlice<>(entities, null);
+        }
+        List<E> content = entities.subList(0, size);
+        return new KeysetSlice<>(content, keyset.after(content.get(size - 1)));
+    }
+
+    public <R> KeysetSlice<R> map(Function<? super T, ? extends R> mapper) {
+        return new KeysetSlice<>(content.stream().map(mapper).collect(Collectors.toList()), next);
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public Optional<Keyset> getNext() {
+        return Optional.ofNullable(next);
+    }
+}
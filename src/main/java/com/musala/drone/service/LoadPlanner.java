@@ -0,0 +1,90 @@
+package com.musala.drone.service;
+
+import com.musala.drone.service.dto.DroneLoadPlanDTO;
+import com.musala.drone.service.dto.DroneStateDTO;
+import com.musala.drone.service.dto.LoadPlanDTO;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Best-fit decreasing bin packing of medications onto drones.
+ * <p>
+ * Medications are placed heaviest first, each on the drone with the smallest remaining capacity it still fits in, which
+ * is a {@code O(log d)} lookup in a tree of the drones keyed by remaining capacity. Planning {@code m} medications onto
+ * {@code d} drones therefore takes {@code O(m log m + m log d)}.
+ */
+public final class LoadPlanner {
+
+    private LoadPlanner() {}
+
+    /**
+     * @param drones the drones to load, in the order ties are broken.
+     * @param medicationWeights the weight of each medication to place, by medication id.
+     * @return the plan, with the drones in the given order and the medications which fit nowhere as unassigned.
+     */
+    public static LoadPlanDTO plan(Collection<DroneStateDTO> drones, Map<Long, Integer> medicationWeights) {
+        List<Bin> bins = new ArrayList<>(drones.size());
+        TreeMap<Integer, ArrayDeque<Bin>> binsByRemainingCapacity = new TreeMap<>();
+        for (DroneStateDTO drone : drones) {
+            Bin bin = new Bin(drone);
+            bins.add(bin);
+            bin.fileUnder(binsByRemainingCapacity);
+        }
+
+        LoadPlanDTO plan = new LoadPlanDTO();
+        List<Map.Entry<Long, Integer>> medications = new ArrayList<>(medicationWeights.entrySet());
+        medications.sort(
+            Map.Entry.<Long, Integer>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey())
+        );
+        for (Map.Entry<Long, Integer> medication : medications) {
+            Map.Entry<Integer, ArrayDeque<Bin>> bestFit = binsByRemainingCapacity.ceilingEntry(medication.getValue());
+            if (bestFit == null) {
+                plan.getUnassigned().add(medication.getKey());
+                continue;
+            }
+            Bin bin = bestFit.getValue().poll();
+            if (bestFit.getValue().isEmpty()) {
+                binsByRemainingCapacity.remove(bestFit.getKey());
+            }
+            bin.add(medication.getKey(), medication.getValue());
+            bin.fileUnder(binsByRemainingCapacity);
+        }
+
+        for (Bin bin : bins) {
+            if (!bin.load.getMedicationIds().isEmpty()) {
+                plan.getDrones().add(bin.load);
+            }
+        }
+        return plan;
+    }
+
+    private static final class Bin {
+
+        private final DroneLoadPlanDTO load = new DroneLoadPlanDTO();
+
+        private int remainingCapacity;
+
+        Bin(DroneStateDTO drone) {
+            load.setDroneId(drone.getId());
+            load.setSerialNumber(drone.getSerialNumber());
+            remainingCapacity = drone.getRemainingCapacity();
+        }
+
+        void add(Long medicationId, int weight) {
+            load.getMedicationIds().add(medicationId);
+            load.setWeight(load.getWeight() + weight);
+            remainingCapacity -= weight;
+        }
+
+        void fileUnder(TreeMap<Integer, ArrayDeque<Bin>> binsByRemainingCapacity) {
+            if (remainingCapacity > 0) {
+                binsByRemainingCapacity.computeIfAbsent(remainingCapacity, capacity -> new ArrayDeque<>()).add(this);
+            }
+        }
+    }
+}
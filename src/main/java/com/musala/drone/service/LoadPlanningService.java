@@ -0,0 +1,116 @@
+package com.musala.drone.service;
+
+import com.musala.drone.config.Constants;
+import com.musala.drone.domain.enumeration.State;
+import com.musala.drone.repository.DroneRepository;
+import com.musala.drone.repository.DroneSummaryRepository;
+import com.musala.drone.repository.MedicationRepository;
+import com.musala.drone.service.dto.DroneLoadPlanDTO;
+import com.musala.drone.service.dto.DroneStateDTO;
+import com.musala.drone.service.dto.LoadPlanDTO;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service planning the loading of unassigned {@link com.musala.drone.domain.Medication}s onto idle drones.
+ */
+@Service
+@Transactional
+public class LoadPlanningService {
+
+    private final Logger log = LoggerFactory.getLogger(LoadPlanningService.class);
+
+    private final MedicationRepository medicationRepository;
+
+    private final DroneRepository droneRepository;
+
+    private final DroneSummaryRepository droneSummaryRepository;
+
+    private final FleetStateRegistry fleetStateRegistry;
+
+    private final DroneCommandLanes droneCommandLanes;
+
+    public LoadPlanningService(
+        MedicationRepository medicationRepository,
+        DroneRepository droneRepository,
+        DroneSummaryRepository droneSummaryRepository,
+        FleetStateRegistry fleetStateRegistry,
+        DroneCommandLanes droneCommandLanes
+    ) {
+        this.medicationRepository = medicationRepository;
+        this.droneRepository = droneRepository;
+        this.droneSummaryRepository = droneSummaryRepository;
+        this.fleetStateRegistry = fleetStateRegistry;
+        this.droneCommandLanes = droneCommandLanes;
+    }
+
+    /**
+     * Plan the loading of the given medications onto the idle drones with enough battery, without changing anything.
+     *
+     * @param medicationIds the ids of the unassigned medications to load.
+     * @return the plan.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public LoadPlanDTO plan(List<Long> medicationIds) {
+        log.debug("Request to plan the loading of {} Medications", medicationIds.size());
+        Set<Long> ids = new LinkedHashSet<>(medicationIds);
+        Map<Long, Integer> weights = new LinkedHashMap<>();
+        if (!ids.isEmpty()) {
+            medicationRepository
+                .findUnassignedWeights(ids)
+                .forEach(medication -> weights.put(medication.getId(), medication.getWeight()));
+        }
+        List<DroneStateDTO> drones = fleetStateRegistry
+            .findAll(State.IDLE)
+            .stream()
+            .filter(drone -> drone.getBatteryCapacity() >= Constants.MIN_LOADING_BATTERY_CAPACITY)
+            .collect(Collectors.toList());
+
+        LoadPlanDTO plan = LoadPlanner.plan(drones, weights);
+        ids.stream().filter(id -> !weights.containsKey(id)).forEach(plan.getIgnored()::add);
+        return plan;
+    }
+
+    /**
+     * Plan the loading of the given medications and apply the plan, all or nothing.
+     *
+     * @param medicationIds the ids of the unassigned medications to load.
+     * @return the applied plan.
+     * @throws ConcurrencyFailureException if a drone or a medication of the plan changed meanwhile.
+     */
+    public LoadPlanDTO planAndApply(List<Long> medicationIds) {
+        LoadPlanDTO plan = plan(medicationIds);
+        droneCommandLanes.enter(plan.getDrones().stream().map(DroneLoadPlanDTO::getDroneId).toArray(Long[]::new));
+        for (DroneLoadPlanDTO droneLoad : plan.getDrones()) {
+            Long droneId = droneLoad.getDroneId();
+            int loaded = droneRepository.loadIfFits(
+                droneId,
+                droneLoad.getWeight(),
+                Constants.MIN_LOADING_BATTERY_CAPACITY,
+                State.LOADED,
+                State.LOADING
+            );
+            if (loaded == 0) {
+                throw new ConcurrencyFailureException("The Drone " + droneId + " cannot take the planned load anymore");
+            }
+            int assigned = medicationRepository.assignUnassigned(droneLoad.getMedicationIds(), droneRepository.getReferenceById(droneId));
+            if (assigned != droneLoad.getMedicationIds().size()) {
+                throw new ConcurrencyFailureException("Medications planned on the Drone " + droneId + " were assigned meanwhile");
+            }
+            droneSummaryRepository.add(droneId, assigned, droneLoad.getWeight());
+            fleetStateRegistry.track(droneId);
+        }
+        plan.setApplied(true);
+        return plan;
+    }
+}
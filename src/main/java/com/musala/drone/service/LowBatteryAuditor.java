@@ -0,0 +1,170 @@
+package com.musala.drone.service;
+
+import com.musala.drone.config.ApplicationProperties;
+import com.musala.drone.domain.Audit;
+import com.musala.drone.domain.Drone;
+import com.musala.drone.domain.enumeration.AuditEventType;
+import com.musala.drone.domain.enumeration.AuditSeverity;
+import com.musala.drone.repository.AuditRepository;
+import com.musala.drone.repository.DroneRepository;
+import com.musala.drone.service.dto.AuditDTO;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Audits the drones whose battery goes under the configured threshold, once per crossing.
+ * <p>
+ * The commands which change a drone {@link #check(Drone, boolean) check} its battery on the write path; the audit itself
+ * is written once the command has committed. The {@code auditFlageNotification} of the drone records that the current
+ * crossing was audited, and is only cleared when the battery comes back above the threshold plus the hysteresis. The
+ * {@link #sweep()} catches the drones changed outside of the application.
+ */
+@Service
+public class LowBatteryAuditor {
+
+    public static final String AUDIT_CREATED_BY = "AuditSystemJob";
+
+    private final Logger log = LoggerFactory.getLogger(LowBatteryAuditor.class);
+
+    private final DroneRepository droneRepository;
+
+    private final AuditService auditService;
+
+    private final DroneCommandLanes droneCommandLanes;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final long threshold;
+
+    private final long rearmThreshold;
+
+    private final int sweepChunkSize;
+
+    private final AuditRepository auditRepository;
+
+    public LowBatteryAuditor(
+        DroneRepository droneRepository,
+        AuditRepository auditRepository,
+        AuditService auditService,
+        DroneCommandLanes droneCommandLanes,
+        ApplicationEventPublisher applicationEventPublisher,
+        ApplicationProperties applicationProperties
+    ) {
+        this.droneRepository = droneRepository;
+        this.auditRepository = auditRepository;
+        this.auditService = auditService;
+        this.droneCommandLanes = droneCommandLanes;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.threshold = applicationProperties.getLowBattery().getThreshold();
+        this.rearmThreshold = threshold + applicationProperties.getLowBattery().getHysteresis();
+        this.sweepChunkSize = applicationProperties.getLowBattery().getSweepChunkSize();
+    }
+
+    /**
+     * Check the battery of a drone about to be saved, and publish a {@link DroneBatteryLowEvent} if it is under the
+     * threshold and not audited yet.
+     *
+     * @param drone the drone about to be saved.
+     * @param notified whether the current low battery crossing of the drone was already audited.
+     * @return the {@code auditFlageNotification} to save with the drone.
+     */
+    public boolean check(Drone drone, boolean notified) {
+        if (drone.getBatteryCapacity() >= rearmThreshold) {
+            return false;
+        }
+        if (!notified && drone.getBatteryCapacity() < threshold) {
+            applicationEventPublisher.publishEvent(
+                new DroneBatteryLowEvent(drone.getId(), drone.getSerialNumber(), drone.getBatteryCapacity())
+            );
+        }
+        return notified;
+    }
+
+    /**
+     * Audit the drone, unless its crossing was audited meanwhile or its battery came back.
+     */
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onBatteryLow(DroneBatteryLowEvent event) {
+        droneCommandLanes.enter(event.getDroneId());
+        if (droneRepository.flagLowBattery(event.getDroneId(), threshold) == 0) {
+            return;
+        }
+        log.debug("Drone {} battery is under {} %", event.getSerialNumber(), threshold);
+        AuditDTO auditDTO = new AuditDTO();
+        auditDTO.setMessage(message(event.getSerialNumber(), event.getBatteryCapacity()));
+        auditDTO.setDroneId(event.getDroneId());
+        auditDTO.setEventType(AuditEventType.BATTERY_LOW);
+        auditDTO.setNumericValue(event.getBatteryCapacity());
+        auditDTO.setSeverity(severity(event.getBatteryCapacity()));
+        auditDTO.setCreatedBy(AUDIT_CREATED_BY);
+        auditDTO.setCreatedDate(Instant.now());
+        auditService.journal(auditDTO);
+    }
+
+    /**
+     * Audit every drone under the threshold whose crossing was not audited yet, in one transaction.
+     * <p>
+     * The drones are processed in chunks: each chunk is locked with one select, its audits are written in JDBC batches
+     * and its drones are flagged with one update, so the number of statements does not grow with the number of drones.
+     *
+     * @return the number of audited drones.
+     */
+    @Transactional
+    public int sweep() {
+        int audited = 0;
+        long afterId = 0;
+        List<Drone> drones;
+        do {
+            drones = droneRepository.findLowBatteryToAudit(afterId, threshold, PageRequest.of(0, sweepChunkSize));
+            if (drones.isEmpty()) {
+                break;
+            }
+            Instant now = Instant.now();
+            auditRepository.saveAll(
+                drones
+                    .stream()
+                    .map(drone ->
+                        new Audit()
+                            .message(message(drone.getSerialNumber(), drone.getBatteryCapacity()))
+                            .droneId(drone.getId())
+                            .eventType(AuditEventType.BATTERY_LOW)
+                            .numericValue(drone.getBatteryCapacity())
+                            .severity(severity(drone.getBatteryCapacity()))
+                            .createdBy(AUDIT_CREATED_BY)
+                            .createdDate(now)
+                    )
+                    .collect(Collectors.toList())
+            );
+            afterId = drones.get(drones.size() - 1).getId();
+            droneRepository.flagAudited(drones.stream().map(Drone::getId).collect(Collectors.toList()));
+            audited += drones.size();
+        } while (drones.size() == sweepChunkSize);
+        log.debug("Swept {} drones with a battery under {} %", audited, threshold);
+        return audited;
+    }
+
+    private String message(String serialNumber, Long batteryCapacity) {
+        return "Drone " + serialNumber + " is Less than " + threshold + " % and the Value is  :" + batteryCapacity;
+    }
+
+    /**
+     * A battery under half of the threshold is critical.
+     */
+    private AuditSeverity severity(long batteryCapacity) {
+        return batteryCapacity < threshold / 2 ? AuditSeverity.CRITICAL : AuditSeverity.WARNING;
+    }
+
+    public long getThreshold() {
+        return threshold;
+    }
+}
@@ -1,13 +1,20 @@
 package com.musala.drone.service;
 
+import com.musala.drone.config.ApplicationProperties;
 import com.musala.drone.domain.*; // for static metamodels
 import com.musala.drone.domain.Medication;
+import com.musala.drone.repository.Keyset;
 import com.musala.drone.repository.MedicationRepository;
 import com.musala.drone.service.criteria.MedicationCriteria;
+import com.musala.drone.service.dto.DroneDTO;
 import com.musala.drone.service.dto.MedicationDTO;
 import com.musala.drone.service.mapper.MedicationMapper;
+import java.util.Arrays;
 import java.util.List;
-import javax.persistence.criteria.JoinType;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.persistence.Tuple;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -22,20 +29,62 @@ import tech.jhipster.service.QueryService;
  * The main input is a {@link MedicationCriteria} which gets converted to {@link Specification},
  * in a way that all the filters must apply.
  * It returns a {@link List} of {@link MedicationDTO} or a {@link Page} of {@link MedicationDTO} which fulfills the criteria.
+ * The lists, pages and counts are cached in a {@link CriteriaResultCache}, until the entities they read are written.
  */
 @Service
 @Transactional(readOnly = true)
 public class MedicationQueryService extends QueryService<Medication> {
 
+    /**
+     * The properties of the {@link MedicationDTO} which can be selected on their own.
+     */
+    private static final Fieldset<Medication, MedicationDTO> FIELDS = new Fieldset<Medication, MedicationDTO>(MedicationDTO::new)
+        .field("id", root -> root.get(Medication_.id), MedicationDTO::setId)
+        .field("name", root -> root.get(Medication_.name), MedicationDTO::setName)
+        .field("weight", root -> root.get(Medication_.weight), MedicationDTO::setWeight)
+        .field("code", root -> root.get(Medication_.code), MedicationDTO::setCode)
+        .field("imageHash", root -> root.get(Medication_.imageHash), MedicationDTO::setImageHash)
+        .field("imageContentType", root -> root.get(Medication_.imageContentType), MedicationDTO::setImageContentType)
+        .field("createdBy", root -> root.get(Medication_.createdBy), MedicationDTO::setCreatedBy)
+        .field("createdDate", root -> root.get(Medication_.createdDate), MedicationDTO::setCreatedDate)
+        .field("lastModifiedBy", root -> root.get(Medication_.lastModifiedBy), MedicationDTO::setLastModifiedBy)
+        .field("lastModifiedDate", root -> root.get(Medication_.lastModifiedDate), MedicationDTO::setLastModifiedDate)
+        .field("drone", root -> root.get(Medication_.drone).get(Drone_.id), MedicationQueryService::setDroneId);
+
     private final Logger log = LoggerFactory.getLogger(MedicationQueryService.class);
 
     private final MedicationRepository medicationRepository;
 
     private final MedicationMapper medicationMapper;
 
-    public MedicationQueryService(MedicationRepository medicationRepository, MedicationMapper medicationMapper) {
+    private final long estimateTotalAbove;
+
+    private final SingleFlight singleFlight;
+
+    private final CriteriaResultCache<MedicationCriteria> resultCache;
+
+    public MedicationQueryService(
+        MedicationRepository medicationRepository,
+        MedicationMapper medicationMapper,
+        ApplicationProperties applicationProperties,
+        EntityVersions entityVersions,
+        SingleFlight singleFlight,
+        MeterRegistry meterRegistry
+    ) {
         this.medicationRepository = medicationRepository;
         this.medicationMapper = medicationMapper;
+        this.estimateTotalAbove = applicationProperties.getPagination().getEstimateTotalAbove();
+        this.singleFlight = singleFlight;
+        this.resultCache =
+            new CriteriaResultCache<>(
+                "medicationCriteria",
+                applicationProperties.getCriteriaCache(),
+                entityVersions,
+                singleFlight,
+                meterRegistry,
+                Medication.class,
+                Drone.class
+            );
     }
 
     /**
@@ -46,12 +95,18 @@ public class MedicationQueryService extends QueryService<Medication> {
     @Transactional(readOnly = true)
     public List<MedicationDTO> findByCriteria(MedicationCriteria criteria) {
         log.debug("find by criteria : {}", criteria);
-        final Specification<Medication> specification = createSpecification(criteria);
-        return medicationMapper.toDto(medicationRepository.findAll(specification));
+        return resultCache.get(
+            "list",
+            criteria,
+            Pageable.unpaged(),
+            () -> medicationMapper.toDto(medicationRepository.findAll(createSpecification(criteria)))
+        );
     }
 
     /**
      * Return a {@link Page} of {@link MedicationDTO} which matches the criteria from the database.
+     * The page and its total are fetched in one query; the total of a large table may be estimated, see
+     * {@link com.musala.drone.repository.PageSpecificationExecutor#findPage}.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
      * @return the matching entities.
@@ -59,8 +114,80 @@ public class MedicationQueryService extends QueryService<Medication> {
     @Transactional(readOnly = true)
     public Page<MedicationDTO> findByCriteria(MedicationCriteria criteria, Pageable page) {
         log.debug("find by criteria : {}, page: {}", criteria, page);
-        final Specification<Medication> specification = createSpecification(criteria);
-        return medicationRepository.findAll(specification, page).map(medicationMapper::toDto);
+        return resultCache.get(
+            "page",
+            criteria,
+            page,
+            () -> medicationRepository.findPage(createSpecification(criteria), page, estimateTotalAbove).map(medicationMapper::toDto)
+        );
+    }
+
+    /**
+     * Return a {@link Page} of {@link MedicationDTO} which matches the criteria from the database, with only the given
+     * fields, the id and the sort fields set: the columns of the other fields are not selected.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @param fields The names of the properties of the {@link MedicationDTO} to set.
+     * @return the matching entities.
+     * @throws UnknownFieldException if one of the fields is unknown.
+     */
+    @Transactional(readOnly = true)
+    public Page<MedicationDTO> findByCriteria(MedicationCriteria criteria, Pageable page, Set<String> fields) {
+        log.debug("find by criteria : {}, page: {}, fields: {}", criteria, page, fields);
+        Fieldset<Medication, MedicationDTO>.Selected selected = FIELDS.select(fields, page.getSort());
+        return resultCache.get(
+            "page",
+            criteria,
+            Arrays.asList(page, selected),
+            () -> medicationRepository.findPage(createSpecification(criteria), selected, page, estimateTotalAbove).map(selected::toDto)
+        );
+    }
+
+    /**
+     * Return a {@link KeysetSlice} of {@link MedicationDTO} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param keyset The position after which the entities are sought.
+     * @param size The maximum number of entities to return.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public KeysetSlice<MedicationDTO> findByCriteria(MedicationCriteria criteria, Keyset keyset, int size) {
+        log.debug("find by criteria : {}, keyset: {}, size: {}", criteria, keyset, size);
+        return singleFlight.execute(
+            "medicationCriteria.keyset",
+            Arrays.asList(CriteriaResultCache.normalise(criteria), keyset, size),
+            () ->
+                KeysetSlice
+                    .of(medicationRepository.findAll(createSpecification(criteria), keyset, size + 1), keyset, size)
+                    .map(medicationMapper::toDto),
+            Medication.class, Drone.class
+        );
+    }
+
+    /**
+     * Return a {@link KeysetSlice} of {@link MedicationDTO} which matches the criteria from the database, with only the
+     * given fields, the id and the keyset field set: the columns of the other fields are not selected.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param keyset The position after which the entities are sought.
+     * @param size The maximum number of entities to return.
+     * @param fields The names of the properties of the {@link MedicationDTO} to set.
+     * @return the matching entities.
+     * @throws UnknownFieldException if one of the fields is unknown.
+     */
+    @Transactional(readOnly = true)
+    public KeysetSlice<MedicationDTO> findByCriteria(MedicationCriteria criteria, Keyset keyset, int size, Set<String> fields) {
+        log.debug("find by criteria : {}, keyset: {}, size: {}, fields: {}", criteria, keyset, size, fields);
+        Fieldset<Medication, MedicationDTO>.Selected selected = FIELDS.select(fields, keyset.toSort());
+        return singleFlight.execute(
+            "medicationCriteria.keyset",
+            Arrays.asList(CriteriaResultCache.normalise(criteria), keyset, size, selected),
+            () -> {
+                List<Tuple> rows = medicationRepository.findAll(createSpecification(criteria), selected, keyset, size + 1);
+                return KeysetSlice.of(rows.stream().map(selected::toDto).collect(Collectors.toList()), keyset, size);
+            },
+            Medication.class,
+            Drone.class
+        );
     }
 
     /**
@@ -71,8 +198,15 @@ public class MedicationQueryService extends QueryService<Medication> {
     @Transactional(readOnly = true)
     public long countByCriteria(MedicationCriteria criteria) {
         log.debug("count by criteria : {}", criteria);
-        final Specification<Medication> specification = createSpecification(criteria);
-        return medicationRepository.count(specification);
+        return resultCache.get("count", criteria, Pageable.unpaged(), () -> medicationRepository.count(createSpecification(criteria)));
+    }
+
+    private static void setDroneId(MedicationDTO medicationDTO, Long droneId) {
+        if (droneId != null) {
+            DroneDTO droneDTO = new DroneDTO();
+            droneDTO.setId(droneId);
+            medicationDTO.setDrone(droneDTO);
+        }
     }
 
     /**
@@ -113,9 +247,7 @@ public class MedicationQueryService extends QueryService<Medication> {
             }
             if (criteria.getDroneId() != null) {
                 specification =
-                    specification.and(
-                        buildSpecification(criteria.getDroneId(), root -> root.join(Medication_.drone, JoinType.LEFT).get(Drone_.id))
-                    );
+                    specification.and(buildSpecification(criteria.getDroneId(), root -> root.get(Medication_.drone).get(Drone_.id)));
             }
         }
         return specification;
@@ -1,6 +1,10 @@
 package com.musala.drone.service;
 
+import com.musala.drone.service.dto.MedicationBatchResultDTO;
 import com.musala.drone.service.dto.MedicationDTO;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -17,6 +21,16 @@ public interface MedicationService {
      */
     MedicationDTO save(MedicationDTO medicationDTO) throws Exception;
 
+    /**
+     * Load a batch of medications onto one drone.
+     * The combined weight and the battery are checked once, and all the valid medications are inserted in one transaction.
+     *
+     * @param droneId the id of the drone to load.
+     * @param medicationDTOs the medications to save.
+     * @return one result per medication, in the order of the request.
+     */
+    List<MedicationBatchResultDTO> saveAll(Long droneId, List<MedicationDTO> medicationDTOs);
+
     /**
      * Updates a medication.
      *
@@ -31,7 +45,17 @@ public interface MedicationService {
      * @param medicationDTO the entity to update partially.
      * @return the persisted entity.
      */
-    Optional<MedicationDTO> partialUpdate(MedicationDTO medicationDTO);
+    Optional<MedicationDTO> partialUpdate(MedicationDTO medicationDTO) throws Exception;
+
+    /**
+     * Replace the image of a medication by the streamed content, whose type is detected from its first bytes.
+     *
+     * @param id the id of the medication.
+     * @param content the content of the image, read to its end but not closed.
+     * @return the persisted entity, empty if there is no such medication.
+     * @throws BlobTooLargeException if the image is larger than {@code application.blob-store.max-size}.
+     */
+    Optional<MedicationDTO> updateImage(Long id, InputStream content) throws IOException;
 
     /**
      * Get all the medications.
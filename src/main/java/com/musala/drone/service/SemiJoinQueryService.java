@@ -0,0 +1,60 @@
+package com.musala.drone.service;
+
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import javax.persistence.metamodel.SingularAttribute;
+import org.springframework.data.jpa.domain.Specification;
+import tech.jhipster.service.QueryService;
+import tech.jhipster.service.filter.RangeFilter;
+
+/**
+ * Base service for executing complex queries, whose criteria on to-many relationships are semi-joins.
+ * <p>
+ * A criterion on the entities referring to an entity is a subquery rather than a join: the entity is returned once however
+ * many referring entities match, so the query needs no {@code distinct}, and its page and count stay on the entity table.
+ * The subquery is an {@code IN} on the referring entities matching the criterion, which the databases evaluate once,
+ * rather than an {@code EXISTS} correlated to each entity, which H2 evaluates entity by entity.
+ *
+ * @param <ENTITY> the type of the entity which is queried.
+ */
+public abstract class SemiJoinQueryService<ENTITY> extends QueryService<ENTITY> {
+
+    /**
+     * Helper function to return a specification for filtering on a field of the entities referring to this entity.
+     * <p>
+     * The entity matches if one of its referring entities matches the filter; with {@code specified}, if it has referring
+     * entities or not, the latter being a {@code NOT EXISTS}.
+     *
+     * @param filter the individual attribute filter coming from the frontend.
+     * @param reference the attribute of the referring entity pointing to this entity.
+     * @param valueField the field of the referring entity to filter on.
+     * @param <OTHER> the type of the referring entity.
+     * @param <X> the type of the field.
+     * @return a Specification
+     */
+    protected <OTHER, X extends Comparable<? super X>> Specification<ENTITY> buildSemiJoinSpecification(
+        RangeFilter<X> filter,
+        SingularAttribute<OTHER, ENTITY> reference,
+        SingularAttribute<? super OTHER, X> valueField
+    ) {
+        RangeFilter<X> valueFilter = filter.copy();
+        valueFilter.setSpecified(null);
+        boolean exists = !Boolean.FALSE.equals(filter.getSpecified());
+        return (root, query, builder) -> {
+            String idName = root.getModel().getId(root.getModel().getIdType().getJavaType()).getName();
+            Path<Object> id = root.get(idName);
+            Subquery<Object> subquery = query.subquery(Object.class);
+            Root<OTHER> other = subquery.from(reference.getDeclaringType().getJavaType());
+            // the id of the reference is its foreign key, the subquery does not join this entity
+            Path<Object> referenceId = other.get(reference).get(idName);
+            subquery.select(referenceId);
+            if (!exists) {
+                return builder.not(builder.exists(subquery.where(builder.equal(referenceId, id))));
+            }
+            Predicate value = buildSpecification(valueFilter, ignored -> other.get(valueField)).toPredicate(root, query, builder);
+            return id.in(value == null ? subquery : subquery.where(value));
+        };
+    }
+}
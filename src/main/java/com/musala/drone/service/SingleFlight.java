@@ -0,0 +1,136 @@
+package com.musala.drone.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Service;
+
+/**
+ * Coalesces identical concurrent reads: the first call runs the read, the calls made while it runs wait for it and share
+ * its result, or its exception, instead of reading the database again.
+ * <p>
+ * The reads are identified by a name and a key, and by the {@link EntityVersions versions} of the entity types they read:
+ * a call made once a write to these types completed does not join a read started before it. A transaction which wrote
+ * one of these types reads on its own, so it sees its own writes. The results are shared, they must not be modified.
+ * <p>
+ * The calls are counted by the {@value #CALLS_METER_NAME} meter, tagged with the name of the read and whether the call
+ * {@code executed} the read or was {@code coalesced} with a running one.
+ */
+@Service
+public class SingleFlight {
+
+    public static final String CALLS_METER_NAME = "single.flight.calls";
+    public static final String CALLS_METER_NAME_DIMENSION = "name";
+    public static final String CALLS_METER_OUTCOME_DIMENSION = "outcome";
+
+    private final ConcurrentMap<Flight, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+
+    private final EntityVersions entityVersions;
+
+    private final MeterRegistry meterRegistry;
+
+    public SingleFlight(EntityVersions entityVersions, MeterRegistry meterRegistry) {
+        this.entityVersions = entityVersions;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Run the read, unless an identical one is running, in which case wait for its result.
+     *
+     * @param name the name of the read.
+     * @param key the parameters of the read, with {@code equals} and {@code hashCode}.
+     * @param read the read.
+     * @param types the entity types the read reads.
+     * @param <T> the type of the result.
+     * @return the result of the read.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String name, Object key, Supplier<T> read, Class<?>... types) {
+        if (entityVersions.isWritten(types)) {
+            return read.get();
+        }
+        long[] versions = new long[types.length];
+        for (int i = 0; i < types.length; i++) {
+            versions[i] = entityVersions.version(types[i]);
+        }
+        Flight flight = new Flight(name, key, versions);
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> running = flights.putIfAbsent(flight, future);
+        if (running != null) {
+            counter(name, "coalesced").increment();
+            return (T) await(running);
+        }
+        counter(name, "executed").increment();
+        try {
+            T result = read.get();
+            future.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(flight, future);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private Counter counter(String name, String outcome) {
+        return Counter
+            .builder(CALLS_METER_NAME)
+            .description("Number of reads, executed or coalesced with an identical running one")
+            .tag(CALLS_METER_NAME_DIMENSION, name)
+            .tag(CALLS_METER_OUTCOME_DIMENSION, outcome)
+            .register(meterRegistry);
+    }
+
+    private static final class Flight {
+
+        private final String name;
+
+        private final Object key;
+
+        private final long[] versions;
+
+        private Flight(String name, Object key, long[] versions) {
+            this.name = name;
+            this.key = key;
+            this.versions = versions;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Flight)) {
+                return false;
+            }
+            Flight flight = (Flight) o;
+            return name.equals(flight.name) && Objects.equals(key, flight.key) && Arrays.equals(versions, flight.versions);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, key, Arrays.hashCode(versions));
+        }
+    }
+}
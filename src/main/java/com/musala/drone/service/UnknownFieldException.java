@@ -0,0 +1,10 @@
+package com.musala.drone.service;
+
+public class UnknownFieldException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UnknownFieldException(String message) {
+        super(message);
+    }
+}
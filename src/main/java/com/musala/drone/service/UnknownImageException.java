@@ -0,0 +1,10 @@
+package com.musala.drone.service;
+
+public class UnknownImageException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UnknownImageException(String hash) {
+        super("No image is stored under the hash " + hash);
+    }
+}
@@ -1,5 +1,7 @@
 package com.musala.drone.service.criteria;
 
+import com.musala.drone.domain.enumeration.AuditEventType;
+import com.musala.drone.domain.enumeration.AuditSeverity;
 import java.io.Serializable;
 import java.util.Objects;
 import org.springdoc.api.annotations.ParameterObject;
@@ -19,6 +21,40 @@ import tech.jhipster.service.filter.*;
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class AuditCriteria implements Serializable, Criteria {
 
+    /**
+     * Class for filtering AuditEventType
+     */
+    public static class AuditEventTypeFilter extends Filter<AuditEventType> {
+
+        public AuditEventTypeFilter() {}
+
+        public AuditEventTypeFilter(AuditEventTypeFilter filter) {
+            super(filter);
+        }
+
+        @Override
+        public AuditEventTypeFilter copy() {
+            return new AuditEventTypeFilter(this);
+        }
+    }
+
+    /**
+     * Class for filtering AuditSeverity
+     */
+    public static class AuditSeverityFilter extends Filter<AuditSeverity> {
+
+        public AuditSeverityFilter() {}
+
+        public AuditSeverityFilter(AuditSeverityFilter filter) {
+            super(filter);
+        }
+
+        @Override
+        public AuditSeverityFilter copy() {
+            return new AuditSeverityFilter(this);
+        }
+    }
+
     private static final long serialVersionUID = 1L;
 
     private LongFilter id;
@@ -33,6 +69,14 @@ public class AuditCriteria implements Serializable, Criteria {
 
     private InstantFilter lastModifiedDate;
 
+    private LongFilter droneId;
+
+    private AuditEventTypeFilter eventType;
+
+    private LongFilter numericValue;
+
+    private AuditSeverityFilter severity;
+
     private Boolean distinct;
 
     public AuditCriteria() {}
@@ -44,6 +88,10 @@ public class AuditCriteria implements Serializable, Criteria {
         this.createdDate = other.createdDate == null ? null : other.createdDate.copy();
         this.lastModifiedBy = other.lastModifiedBy == null ? null : other.lastModifiedBy.copy();
         this.lastModifiedDate = other.lastModifiedDate == null ? null : other.lastModifiedDate.copy();
+        this.droneId = other.droneId == null ? null : other.droneId.copy();
+        this.eventType = other.eventType == null ? null : other.eventType.copy();
+        this.numericValue = other.numericValue == null ? null : other.numericValue.copy();
+        this.severity = other.severity == null ? null : other.severity.copy();
         this.distinct = other.distinct;
     }
 
@@ -142,6 +190,66 @@ public class AuditCriteria implements Serializable, Criteria {
         this.lastModifiedDate = lastModifiedDate;
     }
 
+    public LongFilter getDroneId() {
+        return droneId;
+    }
+
+    public LongFilter droneId() {
+        if (droneId == null) {
+            droneId = new LongFilter();
+        }
+        return droneId;
+    }
+
+    public void setDroneId(LongFilter droneId) {
+        this.droneId = droneId;
+    }
+
+    public AuditEventTypeFilter getEventType() {
+        return eventType;
+    }
+
+    public AuditEventTypeFilter eventType() {
+        if (eventType == null) {
+            eventType = new AuditEventTypeFilter();
+        }
+        return eventType;
+    }
+
+    public void setEventType(AuditEventTypeFilter eventType) {
+        this.eventType = eventType;
+    }
+
+    public LongFilter getNumericValue() {
+        return numericValue;
+    }
+
+    public LongFilter numericValue() {
+        if (numericValue == null) {
+            numericValue = new LongFilter();
+        }
+        return numericValue;
+    }
+
+    public void setNumericValue(LongFilter numericValue) {
+        this.numericValue = numericValue;
+    }
+
+    public AuditSeverityFilter getSeverity() {
+        return severity;
+    }
+
+    public AuditSeverityFilter severity() {
+        if (severity == null) {
+            severity = new AuditSeverityFilter();
+        }
+        return severity;
+    }
+
+    public void setSeverity(AuditSeverityFilter severity) {
+        this.severity = severity;
+    }
+
     public Boolean getDistinct() {
         return distinct;
     }
@@ -166,13 +274,29 @@ public class AuditCriteria implements Serializable, Criteria {
             Objects.equals(createdDate, that.createdDate) &&
             Objects.equals(lastModifiedBy, that.lastModifiedBy) &&
             Objects.equals(lastModifiedDate, that.lastModifiedDate) &&
+            Objects.equals(droneId, that.droneId) &&
+            Objects.equals(eventType, that.eventType) &&
+            Objects.equals(numericValue, that.numericValue) &&
+            Objects.equals(severity, that.severity) &&
             Objects.equals(distinct, that.distinct)
         );
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, message, createdBy, createdDate, lastModifiedBy, lastModifiedDate, distinct);
+        return Objects.hash(
+            id,
+            message,
+            createdBy,
+            createdDate,
+            lastModifiedBy,
+            lastModifiedDate,
+            droneId,
+            eventType,
+            numericValue,
+            severity,
+            distinct
+        );
     }
 
     // prettier-ignore
@@ -185,6 +309,10 @@ public class AuditCriteria implements Serializable, Criteria {
             (createdDate != null ? "createdDate=" + createdDate + ", " : "") +
             (lastModifiedBy != null ? "lastModifiedBy=" + lastModifiedBy + ", " : "") +
             (lastModifiedDate != null ? "lastModifiedDate=" + lastModifiedDate + ", " : "") +
+            (droneId != null ? "droneId=" + droneId + ", " : "") +
+            (eventType != null ? "eventType=" + eventType + ", " : "") +
+            (numericValue != null ? "numericValue=" + numericValue + ", " : "") +
+            (severity != null ? "severity=" + severity + ", " : "") +
             (distinct != null ? "distinct=" + distinct + ", " : "") +
             "}";
     }
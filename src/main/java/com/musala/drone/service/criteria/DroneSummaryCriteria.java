@@ -0,0 +1,138 @@
+package com.musala.drone.service.criteria;
+
+import java.io.Serializable;
+import java.util.Objects;
+import org.springdoc.api.annotations.ParameterObject;
+import tech.jhipster.service.Criteria;
+import tech.jhipster.service.filter.*;
+
+/**
+ * Criteria class for the {@link com.musala.drone.domain.DroneSummary} entity. This class is used
+ * in {@link com.musala.drone.web.rest.DroneResource} to receive all the possible filtering options from
+ * the Http GET request parameters.
+ * For example the following could be a valid request:
+ * {@code /drones/summaries?remainingCapacity.greaterThanOrEqual=100&medicationCount.equals=0}
+ * As Spring is unable to properly convert the types, unless specific {@link Filter} class are used, we need to use
+ * fix type specific filters.
+ */
+@ParameterObject
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class DroneSummaryCriteria implements Serializable, Criteria {
+
+    private static final long serialVersionUID = 1L;
+
+    private LongFilter droneId;
+
+    private IntegerFilter medicationCount;
+
+    private IntegerFilter totalWeight;
+
+    private IntegerFilter remainingCapacity;
+
+    public DroneSummaryCriteria() {}
+
+    public DroneSummaryCriteria(DroneSummaryCriteria other) {
+        this.droneId = other.droneId == null ? null : other.droneId.copy();
+        this.medicationCount = other.medicationCount == null ? null : other.medicationCount.copy();
+        this.totalWeight = other.totalWeight == null ? null : other.totalWeight.copy();
+        this.remainingCapacity = other.remainingCapacity == null ? null : other.remainingCapacity.copy();
+    }
+
+    @Override
+    public DroneSummaryCriteria copy() {
+        return new DroneSummaryCriteria(this);
+    }
+
+    public LongFilter getDroneId() {
+        return droneId;
+    }
+
+    public LongFilter droneId() {
+        if (droneId == null) {
+            droneId = new LongFilter();
+        }
+        return droneId;
+    }
+
+    public void setDroneId(LongFilter droneId) {
+        this.droneId = droneId;
+    }
+
+    public IntegerFilter getMedicationCount() {
+        return medicationCount;
+    }
+
+    public IntegerFilter medicationCount() {
+        if (medicationCount == null) {
+            medicationCount = new IntegerFilter();
+        }
+        return medicationCount;
+    }
+
+    public void setMedicationCount(IntegerFilter medicationCount) {
+        this.medicationCount = medicationCount;
+    }
+
+    public IntegerFilter getTotalWeight() {
+        return totalWeight;
+    }
+
+    public IntegerFilter totalWeight() {
+        if (totalWeight == null) {
+            totalWeight = new IntegerFilter();
+        }
+        return totalWeight;
+    }
+
+    public void setTotalWeight(IntegerFilter totalWeight) {
+        this.totalWeight = totalWeight;
+    }
+
+    public IntegerFilter getRemainingCapacity() {
+        return remainingCapacity;
+    }
+
+    public IntegerFilter remainingCapacity() {
+        if (remainingCapacity == null) {
+            remainingCapacity = new IntegerFilter();
+        }
+        return remainingCapacity;
+    }
+
+    public void setRemainingCapacity(IntegerFilter remainingCapacity) {
+        this.remainingCapacity = remainingCapacity;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final DroneSummaryCriteria that = (DroneSummaryCriteria) o;
+        return (
+            Objects.equals(droneId, that.droneId) &&
+            Objects.equals(medicationCount, that.medicationCount) &&
+            Objects.equals(totalWeight, that.totalWeight) &&
+            Objects.equals(remainingCapacity, that.remainingCapacity)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(droneId, medicationCount, totalWeight, remainingCapacity);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "DroneSummaryCriteria{" +
+            (droneId != null ? "droneId=" + droneId + ", " : "") +
+            (medicationCount != null ? "medicationCount=" + medicationCount + ", " : "") +
+            (totalWeight != null ? "totalWeight=" + totalWeight + ", " : "") +
+            (remainingCapacity != null ? "remainingCapacity=" + remainingCapacity + ", " : "") +
+            "}";
+    }
+}
@@ -1,5 +1,7 @@
 package com.musala.drone.service.dto;
 
+import com.musala.drone.domain.enumeration.AuditEventType;
+import com.musala.drone.domain.enumeration.AuditSeverity;
 import java.io.Serializable;
 import java.time.Instant;
 import java.util.Objects;
@@ -26,8 +28,13 @@ public class AuditDTO implements Serializable {
 
     private Instant lastModifiedDate;
 
+    private Long droneId;
 
+    private AuditEventType eventType;
 
+    private Long numericValue;
+
+    private AuditSeverity severity;
 
     public Long getId() {
         return id;
@@ -77,6 +84,38 @@ public class AuditDTO implements Serializable {
         this.lastModifiedDate = lastModifiedDate;
     }
 
+    public Long getDroneId() {
+        return droneId;
+    }
+
+    public void setDroneId(Long droneId) {
+        this.droneId = droneId;
+    }
+
+    public AuditEventType getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(AuditEventType eventType) {
+        this.eventType = eventType;
+    }
+
+    public Long getNumericValue() {
+        return numericValue;
+    }
+
+    public void setNumericValue(Long numericValue) {
+        this.numericValue = numericValue;
+    }
+
+    public AuditSeverity getSeverity() {
+        return severity;
+    }
+
+    public void setSeverity(AuditSeverity severity) {
+        this.severity = severity;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -108,6 +147,10 @@ public class AuditDTO implements Serializable {
             ", createdDate='" + getCreatedDate() + "'" +
             ", lastModifiedBy='" + getLastModifiedBy() + "'" +
             ", lastModifiedDate='" + getLastModifiedDate() + "'" +
+            ", droneId=" + getDroneId() +
+            ", eventType='" + getEventType() + "'" +
+            ", numericValue=" + getNumericValue() +
+            ", severity='" + getSeverity() + "'" +
             "}";
     }
 }
@@ -0,0 +1,93 @@
+package com.musala.drone.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The outcome of a bulk import: the numbers of imported and rejected rows, and why the first rejected rows were.
+ */
+public class BulkImportResultDTO implements Serializable {
+
+    private int imported;
+
+    private int rejected;
+
+    private List<RowError> errors = new ArrayList<>();
+
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BulkImportResultDTO{" +
+            "imported=" + getImported() +
+            ", rejected=" + getRejected() +
+            ", errors=" + getErrors() +
+            "}";
+    }
+
+    /**
+     * Why the row at a line of the content was rejected.
+     */
+    public static class RowError implements Serializable {
+
+        private int line;
+
+        private String error;
+
+        public RowError() {}
+
+        public RowError(int line, String error) {
+            this.line = line;
+            this.error = error;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public void setLine(int line) {
+            this.line = line;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return "RowError{" +
+                "line=" + getLine() +
+                ", error='" + getError() + "'" +
+                "}";
+        }
+    }
+}
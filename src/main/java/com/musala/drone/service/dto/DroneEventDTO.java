@@ -0,0 +1,130 @@
+package com.musala.drone.service.dto;
+
+import com.musala.drone.domain.enumeration.DroneEventType;
+import com.musala.drone.domain.enumeration.State;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A DTO for the {@link com.musala.drone.domain.DroneEvent} entity.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class DroneEventDTO implements Serializable {
+
+    private Long seq;
+
+    private Long droneId;
+
+    private DroneEventType type;
+
+    private State state;
+
+    private Long batteryCapacity;
+
+    private Integer loadedWeight;
+
+    private String createdBy;
+
+    private Instant createdDate;
+
+    public Long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
+
+    public Long getDroneId() {
+        return droneId;
+    }
+
+    public void setDroneId(Long droneId) {
+        this.droneId = droneId;
+    }
+
+    public DroneEventType getType() {
+        return type;
+    }
+
+    public void setType(DroneEventType type) {
+        this.type = type;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+    }
+
+    public Long getBatteryCapacity() {
+        return batteryCapacity;
+    }
+
+    public void setBatteryCapacity(Long batteryCapacity) {
+        this.batteryCapacity = batteryCapacity;
+    }
+
+    public Integer getLoadedWeight() {
+        return loadedWeight;
+    }
+
+    public void setLoadedWeight(Integer loadedWeight) {
+        this.loadedWeight = loadedWeight;
+    }
+
+    public String getCreatedBy() {
+        return createdBy;
+    }
+
+    public void setCreatedBy(String createdBy) {
+        this.createdBy = createdBy;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DroneEventDTO)) {
+            return false;
+        }
+
+        DroneEventDTO droneEventDTO = (DroneEventDTO) o;
+        if (this.seq == null) {
+            return false;
+        }
+        return Objects.equals(this.seq, droneEventDTO.seq);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.seq);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "DroneEventDTO{" +
+            "seq=" + getSeq() +
+            ", droneId=" + getDroneId() +
+            ", type='" + getType() + "'" +
+            ", state='" + getState() + "'" +
+            ", batteryCapacity=" + getBatteryCapacity() +
+            ", loadedWeight=" + getLoadedWeight() +
+            ", createdBy='" + getCreatedBy() + "'" +
+            ", createdDate='" + getCreatedDate() + "'" +
+            "}";
+    }
+}
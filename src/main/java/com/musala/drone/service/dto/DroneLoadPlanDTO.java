@@ -0,0 +1,65 @@
+package com.musala.drone.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The medications a {@link LoadPlanDTO} loads on one drone.
+ */
+public class DroneLoadPlanDTO implements Serializable {
+
+    private Long droneId;
+
+    private String serialNumber;
+
+    private int weight;
+
+    private List<Long> medicationIds = new ArrayList<>();
+
+    public Long getDroneId() {
+        return droneId;
+    }
+
+    public void setDroneId(Long droneId) {
+        this.droneId = droneId;
+    }
+
+    public String getSerialNumber() {
+        return serialNumber;
+    }
+
+    public void setSerialNumber(String serialNumber) {
+        this.serialNumber = serialNumber;
+    }
+
+    /**
+     * @return the total weight of the medications.
+     */
+    public int getWeight() {
+        return weight;
+    }
+
+    public void setWeight(int weight) {
+        this.weight = weight;
+    }
+
+    public List<Long> getMedicationIds() {
+        return medicationIds;
+    }
+
+    public void setMedicationIds(List<Long> medicationIds) {
+        this.medicationIds = medicationIds;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "DroneLoadPlanDTO{" +
+            "droneId=" + getDroneId() +
+            ", serialNumber='" + getSerialNumber() + "'" +
+            ", weight=" + getWeight() +
+            ", medicationIds=" + getMedicationIds() +
+            "}";
+    }
+}
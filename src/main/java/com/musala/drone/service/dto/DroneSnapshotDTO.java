@@ -0,0 +1,108 @@
+package com.musala.drone.service.dto;
+
+import com.musala.drone.domain.enumeration.State;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A DTO for the {@link com.musala.drone.domain.DroneSnapshot} entity: the state, battery and load of a drone
+ * as of the event {@code seq}.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class DroneSnapshotDTO implements Serializable {
+
+    private Long seq;
+
+    private Long droneId;
+
+    private State state;
+
+    private Long batteryCapacity;
+
+    private Integer loadedWeight;
+
+    private Instant createdDate;
+
+    public Long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
+
+    public Long getDroneId() {
+        return droneId;
+    }
+
+    public void setDroneId(Long droneId) {
+        this.droneId = droneId;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+    }
+
+    public Long getBatteryCapacity() {
+        return batteryCapacity;
+    }
+
+    public void setBatteryCapacity(Long batteryCapacity) {
+        this.batteryCapacity = batteryCapacity;
+    }
+
+    public Integer getLoadedWeight() {
+        return loadedWeight;
+    }
+
+    public void setLoadedWeight(Integer loadedWeight) {
+        this.loadedWeight = loadedWeight;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DroneSnapshotDTO)) {
+            return false;
+        }
+
+        DroneSnapshotDTO droneSnapshotDTO = (DroneSnapshotDTO) o;
+        if (this.seq == null) {
+            return false;
+        }
+        return Objects.equals(this.seq, droneSnapshotDTO.seq);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.seq);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "DroneSnapshotDTO{" +
+            "seq=" + getSeq() +
+            ", droneId=" + getDroneId() +
+            ", state='" + getState() + "'" +
+            ", batteryCapacity=" + getBatteryCapacity() +
+            ", loadedWeight=" + getLoadedWeight() +
+            ", createdDate='" + getCreatedDate() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,119 @@
+package com.musala.drone.service.dto;
+
+import com.musala.drone.config.Constants;
+import com.musala.drone.domain.enumeration.Model;
+import com.musala.drone.domain.enumeration.State;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * An immutable snapshot of the fields of a {@link com.musala.drone.domain.Drone} which dispatching reads all the time.
+ */
+public class DroneStateDTO implements Serializable {
+
+    private final Long id;
+
+    private final String serialNumber;
+
+    private final Model model;
+
+    private final State state;
+
+    private final int weightLimit;
+
+    private final long batteryCapacity;
+
+    private final int loadedWeight;
+
+    public DroneStateDTO(Long id, String serialNumber, Model model, State state, int weightLimit, long batteryCapacity, int loadedWeight) {
+        this.id = id;
+        this.serialNumber = serialNumber;
+        this.model = model;
+        this.state = state;
+        this.weightLimit = weightLimit;
+        this.batteryCapacity = batteryCapacity;
+        this.loadedWeight = loadedWeight;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getSerialNumber() {
+        return serialNumber;
+    }
+
+    public Model getModel() {
+        return model;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public int getWeightLimit() {
+        return weightLimit;
+    }
+
+    public long getBatteryCapacity() {
+        return batteryCapacity;
+    }
+
+    public int getLoadedWeight() {
+        return loadedWeight;
+    }
+
+    public int getRemainingCapacity() {
+        return weightLimit - loadedWeight;
+    }
+
+    /**
+     * @return whether the drone can take more medications right now.
+     */
+    public boolean isAvailable() {
+        return (
+            (state == State.IDLE || state == State.LOADING) &&
+            batteryCapacity >= Constants.MIN_LOADING_BATTERY_CAPACITY &&
+            getRemainingCapacity() > 0
+        );
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DroneStateDTO)) {
+            return false;
+        }
+        DroneStateDTO that = (DroneStateDTO) o;
+        return (
+            weightLimit == that.weightLimit &&
+            batteryCapacity == that.batteryCapacity &&
+            loadedWeight == that.loadedWeight &&
+            Objects.equals(id, that.id) &&
+            Objects.equals(serialNumber, that.serialNumber) &&
+            model == that.model &&
+            state == that.state
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, serialNumber, model, state, weightLimit, batteryCapacity, loadedWeight);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "DroneStateDTO{" +
+            "id=" + getId() +
+            ", serialNumber='" + getSerialNumber() + "'" +
+            ", model='" + getModel() + "'" +
+            ", state='" + getState() + "'" +
+            ", weightLimit=" + getWeightLimit() +
+            ", batteryCapacity=" + getBatteryCapacity() +
+            ", loadedWeight=" + getLoadedWeight() +
+            "}";
+    }
+}
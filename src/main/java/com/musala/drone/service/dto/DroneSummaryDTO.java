@@ -0,0 +1,83 @@
+package com.musala.drone.service.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A DTO for the {@link com.musala.drone.domain.DroneSummary} entity.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class DroneSummaryDTO implements Serializable {
+
+    private Long droneId;
+
+    private Integer medicationCount;
+
+    private Integer totalWeight;
+
+    private Integer remainingCapacity;
+
+    public Long getDroneId() {
+        return droneId;
+    }
+
+    public void setDroneId(Long droneId) {
+        this.droneId = droneId;
+    }
+
+    public Integer getMedicationCount() {
+        return medicationCount;
+    }
+
+    public void setMedicationCount(Integer medicationCount) {
+        this.medicationCount = medicationCount;
+    }
+
+    public Integer getTotalWeight() {
+        return totalWeight;
+    }
+
+    public void setTotalWeight(Integer totalWeight) {
+        this.totalWeight = totalWeight;
+    }
+
+    public Integer getRemainingCapacity() {
+        return remainingCapacity;
+    }
+
+    public void setRemainingCapacity(Integer remainingCapacity) {
+        this.remainingCapacity = remainingCapacity;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DroneSummaryDTO)) {
+            return false;
+        }
+
+        DroneSummaryDTO droneSummaryDTO = (DroneSummaryDTO) o;
+        if (this.droneId == null) {
+            return false;
+        }
+        return Objects.equals(this.droneId, droneSummaryDTO.droneId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.droneId);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "DroneSummaryDTO{" +
+            "droneId=" + getDroneId() +
+            ", medicationCount=" + getMedicationCount() +
+            ", totalWeight=" + getTotalWeight() +
+            ", remainingCapacity=" + getRemainingCapacity() +
+            "}";
+    }
+}
@@ -0,0 +1,71 @@
+package com.musala.drone.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An assignment of unassigned {@link com.musala.drone.domain.Medication}s onto idle drones.
+ */
+public class LoadPlanDTO implements Serializable {
+
+    private List<DroneLoadPlanDTO> drones = new ArrayList<>();
+
+    private List<Long> unassigned = new ArrayList<>();
+
+    private List<Long> ignored = new ArrayList<>();
+
+    private boolean applied;
+
+    /**
+     * @return the medications to load on each drone.
+     */
+    public List<DroneLoadPlanDTO> getDrones() {
+        return drones;
+    }
+
+    public void setDrones(List<DroneLoadPlanDTO> drones) {
+        this.drones = drones;
+    }
+
+    /**
+     * @return the medications which fit on no drone.
+     */
+    public List<Long> getUnassigned() {
+        return unassigned;
+    }
+
+    public void setUnassigned(List<Long> unassigned) {
+        this.unassigned = unassigned;
+    }
+
+    /**
+     * @return the requested ids which are not those of unassigned medications.
+     */
+    public List<Long> getIgnored() {
+        return ignored;
+    }
+
+    public void setIgnored(List<Long> ignored) {
+        this.ignored = ignored;
+    }
+
+    public boolean isApplied() {
+        return applied;
+    }
+
+    public void setApplied(boolean applied) {
+        this.applied = applied;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "LoadPlanDTO{" +
+            "drones=" + getDrones() +
+            ", unassigned=" + getUnassigned() +
+            ", ignored=" + getIgnored() +
+            ", applied=" + isApplied() +
+            "}";
+    }
+}
@@ -0,0 +1,76 @@
+package com.musala.drone.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * The outcome of one item of a batch load of {@link com.musala.drone.domain.Medication} onto a drone.
+ */
+public class MedicationBatchResultDTO implements Serializable {
+
+    private int index;
+
+    private Long id;
+
+    private boolean created;
+
+    private String error;
+
+    public static MedicationBatchResultDTO created(int index, Long id) {
+        MedicationBatchResultDTO result = new MedicationBatchResultDTO();
+        result.setIndex(index);
+        result.setId(id);
+        result.setCreated(true);
+        return result;
+    }
+
+    public static MedicationBatchResultDTO rejected(int index, String error) {
+        MedicationBatchResultDTO result = new MedicationBatchResultDTO();
+        result.setIndex(index);
+        result.setCreated(false);
+        result.setError(error);
+        return result;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public boolean isCreated() {
+        return created;
+    }
+
+    public void setCreated(boolean created) {
+        this.created = created;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "MedicationBatchResultDTO{" +
+            "index=" + getIndex() +
+            ", id=" + getId() +
+            ", created=" + isCreated() +
+            ", error='" + getError() + "'" +
+            "}";
+    }
+}
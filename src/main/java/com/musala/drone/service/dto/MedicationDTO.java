@@ -23,9 +23,19 @@ public class MedicationDTO implements Serializable {
     @NotNull
     private String code;
 
+    /**
+     * The content of a new image, only set in the requests: the responses carry the hash, and the image is served by its
+     * own endpoint.
+     */
     @Lob
     private byte[] image;
 
+    /**
+     * SHA-256 of the image, which also keeps the current image when updating a medication without its content.
+     */
+    @Pattern(regexp = "[0-9a-f]{64}")
+    private String imageHash;
+
     private String imageContentType;
 
     @NotNull
@@ -80,6 +90,14 @@ public class MedicationDTO implements Serializable {
         this.image = image;
     }
 
+    public String getImageHash() {
+        return imageHash;
+    }
+
+    public void setImageHash(String imageHash) {
+        this.imageHash = imageHash;
+    }
+
     public String getImageContentType() {
         return imageContentType;
     }
@@ -157,7 +175,7 @@ public class MedicationDTO implements Serializable {
             ", name='" + getName() + "'" +
             ", weight=" + getWeight() +
             ", code='" + getCode() + "'" +
-            ", image='" + getImage() + "'" +
+            ", imageHash='" + getImageHash() + "'" +
             ", createdBy='" + getCreatedBy() + "'" +
             ", createdDate='" + getCreatedDate() + "'" +
             ", lastModifiedBy='" + getLastModifiedBy() + "'" +
@@ -2,6 +2,7 @@ package com.musala.drone.service.impl;
 
 import com.musala.drone.domain.Audit;
 import com.musala.drone.repository.AuditRepository;
+import com.musala.drone.service.AuditJournal;
 import com.musala.drone.service.AuditService;
 import com.musala.drone.service.dto.AuditDTO;
 import com.musala.drone.service.mapper.AuditMapper;
@@ -26,9 +27,12 @@ public class AuditServiceImpl implements AuditService {
 
     private final AuditMapper auditMapper;
 
-    public AuditServiceImpl(AuditRepository auditRepository, AuditMapper auditMapper) {
+    private final AuditJournal auditJournal;
+
+    public AuditServiceImpl(AuditRepository auditRepository, AuditMapper auditMapper, AuditJournal auditJournal) {
         this.auditRepository = auditRepository;
         this.auditMapper = auditMapper;
+        this.auditJournal = auditJournal;
     }
 
     @Override
@@ -39,6 +43,12 @@ public class AuditServiceImpl implements AuditService {
         return auditMapper.toDto(audit);
     }
 
+    @Override
+    public void journal(AuditDTO auditDTO) {
+        log.debug("Request to journal Audit : {}", auditDTO);
+        auditJournal.append(auditDTO);
+    }
+
     @Override
     public AuditDTO update(AuditDTO auditDTO) {
         log.debug("Request to update Audit : {}", auditDTO);
@@ -1,13 +1,18 @@
 package com.musala.drone.service.impl;
 
 import com.musala.drone.domain.Drone;
+import com.musala.drone.domain.DroneSummary;
 import com.musala.drone.repository.DroneRepository;
+import com.musala.drone.repository.DroneSummaryRepository;
+import com.musala.drone.service.DroneCommandLanes;
 import com.musala.drone.service.DroneService;
+import com.musala.drone.service.FleetStateRegistry;
+import com.musala.drone.service.LowBatteryAuditor;
+import com.musala.drone.service.SingleFlight;
 import com.musala.drone.service.dto.DroneDTO;
 import com.musala.drone.service.mapper.DroneMapper;
 
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,11 +32,34 @@ public class DroneServiceImpl implements DroneService {
 
     private final DroneRepository droneRepository;
 
+    private final DroneSummaryRepository droneSummaryRepository;
+
     private final DroneMapper droneMapper;
 
-    public DroneServiceImpl(DroneRepository droneRepository, DroneMapper droneMapper) {
+    private final DroneCommandLanes droneCommandLanes;
+
+    private final FleetStateRegistry fleetStateRegistry;
+
+    private final LowBatteryAuditor lowBatteryAuditor;
+
+    private final SingleFlight singleFlight;
+
+    public DroneServiceImpl(
+        DroneRepository droneRepository,
+        DroneSummaryRepository droneSummaryRepository,
+        DroneMapper droneMapper,
+        DroneCommandLanes droneCommandLanes,
+        FleetStateRegistry fleetStateRegistry,
+        LowBatteryAuditor lowBatteryAuditor,
+        SingleFlight singleFlight
+    ) {
         this.droneRepository = droneRepository;
+        this.droneSummaryRepository = droneSummaryRepository;
         this.droneMapper = droneMapper;
+        this.droneCommandLanes = droneCommandLanes;
+        this.fleetStateRegistry = fleetStateRegistry;
+        this.lowBatteryAuditor = lowBatteryAuditor;
+        this.singleFlight = singleFlight;
     }
 
     @Override
@@ -39,34 +67,51 @@ public class DroneServiceImpl implements DroneService {
         log.debug("Request to save Drone : {}", droneDTO);
         Drone drone = droneMapper.toEntity(droneDTO);
         drone = droneRepository.save(drone);
+        drone.setAuditFlageNotification(lowBatteryAuditor.check(drone, false));
+        droneSummaryRepository.save(
+            new DroneSummary().droneId(drone.getId()).medicationCount(0).totalWeight(0).remainingCapacity(drone.getWeightLimit())
+        );
+        fleetStateRegistry.track(drone.getId());
         return droneMapper.toDto(drone);
     }
 
     @Override
     public DroneDTO update(DroneDTO droneDTO) {
         log.debug("Request to update Drone : {}", droneDTO);
+        droneCommandLanes.enter(droneDTO.getId());
+        fleetStateRegistry.track(droneDTO.getId());
+        boolean notified = droneRepository.findById(droneDTO.getId()).map(Drone::getAuditFlageNotification).orElse(false);
         Drone drone = droneMapper.toEntity(droneDTO);
-        if(!Objects.isNull(droneDTO.getAuditFlageNotification())&&droneDTO.getAuditFlageNotification().equals(true)) {
-            drone.setAuditFlageNotification(true);
-        }else {
-            drone.setAuditFlageNotification(false);
-        }
         drone = droneRepository.save(drone);
+        drone.setAuditFlageNotification(lowBatteryAuditor.check(drone, notified));
+        droneSummaryRepository.updateWeightLimit(drone.getId(), drone.getWeightLimit());
         return droneMapper.toDto(drone);
     }
     @Override
     public Optional<List<DroneDTO>> getDronesWithBatteryCapacity(Long batteryCapacity)
     {
-       return droneRepository.findAllByBatteryCapacityLessThanAndAuditFlageNotification(batteryCapacity,false).map(droneMapper::toDto);
+       return singleFlight.execute(
+           "drone.batteryCapacity",
+           batteryCapacity,
+           () -> droneRepository.findAllByBatteryCapacityLessThanAndAuditFlageNotification(batteryCapacity,false).map(droneMapper::toDto),
+           Drone.class
+       );
     }
     @Override
     public Optional<DroneDTO> partialUpdate(DroneDTO droneDTO) {
         log.debug("Request to partially update Drone : {}", droneDTO);
+        droneCommandLanes.enter(droneDTO.getId());
+        fleetStateRegistry.track(droneDTO.getId());
 
         return droneRepository
             .findById(droneDTO.getId())
             .map(existingDrone -> {
+                boolean notified = Boolean.TRUE.equals(existingDrone.getAuditFlageNotification());
                 droneMapper.partialUpdate(existingDrone, droneDTO);
+                existingDrone.setAuditFlageNotification(lowBatteryAuditor.check(existingDrone, notified));
+                if (droneDTO.getWeightLimit() != null) {
+                    droneSummaryRepository.updateWeightLimit(existingDrone.getId(), existingDrone.getWeightLimit());
+                }
 
                 return existingDrone;
             })
@@ -78,19 +123,27 @@ public class DroneServiceImpl implements DroneService {
     @Transactional(readOnly = true)
     public Page<DroneDTO> findAll(Pageable pageable) {
         log.debug("Request to get all Drones");
-        return droneRepository.findAll(pageable).map(droneMapper::toDto);
+        return singleFlight.execute(
+            "drone.findAll",
+            pageable,
+            () -> droneRepository.findAll(pageable).map(droneMapper::toDto),
+            Drone.class
+        );
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<DroneDTO> findOne(Long id) {
         log.debug("Request to get Drone : {}", id);
-        return droneRepository.findById(id).map(droneMapper::toDto);
+        return singleFlight.execute("drone.findOne", id, () -> droneRepository.findById(id).map(droneMapper::toDto), Drone.class);
     }
 
     @Override
     public void delete(Long id) {
         log.debug("Request to delete Drone : {}", id);
+        droneCommandLanes.enter(id);
+        fleetStateRegistry.track(id);
+        droneSummaryRepository.deleteByDroneIdInBatch(id);
         droneRepository.deleteById(id);
     }
 }
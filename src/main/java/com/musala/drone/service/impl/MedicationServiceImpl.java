@@ -1,26 +1,48 @@
 package com.musala.drone.service.impl;
 
+import com.musala.drone.config.ApplicationProperties;
+import com.musala.drone.config.Constants;
 import com.musala.drone.domain.Drone;
 import com.musala.drone.domain.Medication;
 import com.musala.drone.domain.enumeration.State;
+import com.musala.drone.repository.DroneRepository;
+import com.musala.drone.repository.DroneSummaryRepository;
 import com.musala.drone.repository.MedicationRepository;
-import com.musala.drone.service.DroneService;
+import com.musala.drone.service.BlobStore;
+import com.musala.drone.service.BlobTooLargeException;
+import com.musala.drone.service.DroneCommandLanes;
+import com.musala.drone.service.FleetStateRegistry;
 import com.musala.drone.service.MedicationService;
+import com.musala.drone.service.SingleFlight;
+import com.musala.drone.service.UnknownImageException;
 import com.musala.drone.service.dto.DroneDTO;
+import com.musala.drone.service.dto.MedicationBatchResultDTO;
 import com.musala.drone.service.dto.MedicationDTO;
-import com.musala.drone.service.mapper.DroneMapper;
 import com.musala.drone.service.mapper.MedicationMapper;
-
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
-
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 
 /**
@@ -34,109 +56,357 @@ public class MedicationServiceImpl implements MedicationService {
 
     private final MedicationRepository medicationRepository;
 
-    private final DroneService droneSerive;
+    private final DroneRepository droneRepository;
+
+    private final DroneSummaryRepository droneSummaryRepository;
 
     private final MedicationMapper medicationMapper;
 
-    private final DroneMapper droneMapper;
+    private final Validator validator;
+
+    private final DroneCommandLanes droneCommandLanes;
+
+    private final FleetStateRegistry fleetStateRegistry;
+
+    private final SingleFlight singleFlight;
+
+    private final BlobStore blobStore;
+
+    private final long maxImageSize;
 
+    private final TransactionTemplate transactionTemplate;
 
-    public MedicationServiceImpl(MedicationRepository medicationRepository, MedicationMapper medicationMapper,DroneService droneSerive,DroneMapper droneMapper) {
+    public MedicationServiceImpl(
+        MedicationRepository medicationRepository,
+        MedicationMapper medicationMapper,
+        DroneRepository droneRepository,
+        DroneSummaryRepository droneSummaryRepository,
+        Validator validator,
+        DroneCommandLanes droneCommandLanes,
+        FleetStateRegistry fleetStateRegistry,
+        SingleFlight singleFlight,
+        BlobStore blobStore,
+        ApplicationProperties applicationProperties,
+        PlatformTransactionManager transactionManager
+    ) {
         this.medicationRepository = medicationRepository;
         this.medicationMapper = medicationMapper;
-        this.droneSerive=droneSerive;
-        this.droneMapper=droneMapper;
+        this.droneRepository = droneRepository;
+        this.droneSummaryRepository = droneSummaryRepository;
+        this.validator = validator;
+        this.droneCommandLanes = droneCommandLanes;
+        this.fleetStateRegistry = fleetStateRegistry;
+        this.singleFlight = singleFlight;
+        this.blobStore = blobStore;
+        this.maxImageSize = applicationProperties.getBlobStore().getMaxSize().toBytes();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public MedicationDTO save(MedicationDTO medicationDTO) throws Exception {
         log.debug("Request to save Medication : {}", medicationDTO);
+        storeImage(medicationDTO);
         Medication medication = medicationMapper.toEntity(medicationDTO);
-        Optional<DroneDTO> one = droneSerive.findOne(medicationDTO.getDrone().getId());
-        validateMedication(medicationDTO);
-        droneSerive.save(one.get());
+        if (medicationDTO.getDrone() != null) {
+            droneCommandLanes.enter(medicationDTO.getDrone().getId());
+            loadDrone(medicationDTO.getDrone().getId(), medicationDTO.getWeight());
+        }
+        medication = medicationRepository.save(medication);
+        return medicationMapper.toDto(medication);
+    }
 
+    @Override
+    public List<MedicationBatchResultDTO> saveAll(Long droneId, List<MedicationDTO> medicationDTOs) {
+        log.debug("Request to save {} Medications on Drone : {}", medicationDTOs.size(), droneId);
+        MedicationBatchResultDTO[] results = new MedicationBatchResultDTO[medicationDTOs.size()];
+        if (medicationDTOs.isEmpty()) {
+            return List.of();
+        }
+        // the images are stored before entering the lane, in transactions of their own
+        String[] errors = new String[medicationDTOs.size()];
+        for (int i = 0; i < medicationDTOs.size(); i++) {
+            errors[i] = validateBatchItem(droneId, medicationDTOs.get(i));
+            if (errors[i] == null) {
+                try {
+                    storeImage(medicationDTOs.get(i));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+        droneCommandLanes.enter(droneId);
+        Set<String> existingNames = medicationRepository.findExistingNames(
+            medicationDTOs.stream().map(MedicationDTO::getName).collect(Collectors.toSet())
+        );
+        Set<String> existingCodes = medicationRepository.findExistingCodes(
+            medicationDTOs.stream().map(MedicationDTO::getCode).collect(Collectors.toSet())
+        );
+        Set<String> names = new HashSet<>();
+        Set<String> codes = new HashSet<>();
 
-        medication = medicationRepository.save(medication);
-            return medicationMapper.toDto(medication);
+        List<Integer> accepted = new ArrayList<>();
+        int totalWeight = 0;
+        for (int i = 0; i < medicationDTOs.size(); i++) {
+            MedicationDTO medicationDTO = medicationDTOs.get(i);
+            String error = errors[i];
+            if (error == null && (existingNames.contains(medicationDTO.getName()) || !names.add(medicationDTO.getName()))) {
+                error = "A medication with the name " + medicationDTO.getName() + " already exists";
+            }
+            if (error == null && (existingCodes.contains(medicationDTO.getCode()) || !codes.add(medicationDTO.getCode()))) {
+                error = "A medication with the code " + medicationDTO.getCode() + " already exists";
+            }
+            if (error != null) {
+                results[i] = MedicationBatchResultDTO.rejected(i, error);
+            } else {
+                accepted.add(i);
+                totalWeight += medicationDTO.getWeight();
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            Optional<String> rejection = load(droneId, accepted.size(), totalWeight);
+            if (rejection.isPresent()) {
+                accepted.forEach(i -> results[i] = MedicationBatchResultDTO.rejected(i, rejection.get()));
+            } else {
+                Drone drone = droneRepository.getReferenceById(droneId);
+                List<Medication> medications = new ArrayList<>(accepted.size());
+                for (Integer i : accepted) {
+                    Medication medication = medicationMapper.toEntity(medicationDTOs.get(i));
+                    medication.setDrone(drone);
+                    medications.add(medication);
+                }
+                medications = medicationRepository.saveAll(medications);
+                for (int j = 0; j < accepted.size(); j++) {
+                    results[accepted.get(j)] = MedicationBatchResultDTO.created(accepted.get(j), medications.get(j).getId());
+                }
+            }
+        }
+        return List.of(results);
+    }
+
+    private String validateBatchItem(Long droneId, MedicationDTO medicationDTO) {
+        if (medicationDTO.getId() != null) {
+            return "A new medication cannot already have an ID";
+        }
+        DroneDTO drone = medicationDTO.getDrone();
+        if (drone != null && drone.getId() != null && !drone.getId().equals(droneId)) {
+            return "The medication belongs to another drone";
+        }
+        try {
+            if (referencesUnknownImage(medicationDTO)) {
+                return new UnknownImageException(medicationDTO.getImageHash()).getMessage();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (medicationDTO.getImage() != null && medicationDTO.getImage().length > maxImageSize) {
+            return new BlobTooLargeException(maxImageSize).getMessage();
+        }
+        Set<ConstraintViolation<MedicationDTO>> violations = validator.validate(medicationDTO);
+        if (!violations.isEmpty()) {
+            return violations
+                .stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+        }
+        return null;
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public MedicationDTO update(MedicationDTO medicationDTO) throws Exception {
         log.debug("Request to update Medication : {}", medicationDTO);
+        storeImage(medicationDTO);
 
         Medication medication = medicationMapper.toEntity(medicationDTO);
-        validateMedication(medicationDTO);
+        Long droneId = medicationDTO.getDrone() == null ? null : medicationDTO.getDrone().getId();
+        Optional<MedicationRepository.DroneLoad> previousLoad = enterLaneOf(medicationDTO.getId(), droneId);
+        previousLoad.ifPresent(this::unloadDrone);
+        if (droneId != null) {
+            loadDrone(droneId, medicationDTO.getWeight());
+        }
 
         medication = medicationRepository.save(medication);
         return medicationMapper.toDto(medication);
     }
-    private void validateMedication(MedicationDTO medicationDTO) throws Exception {
-        Long droneID = medicationDTO.getDrone().getId();
-        Optional<DroneDTO> one = droneSerive.findOne(droneID);
-
-        Integer newWeight= medicationDTO.getWeight();
-        List<MedicationDTO> medicationsByDrone = getMedicationsByDrone(one.get());
-        Integer sum = medicationsByDrone.stream().mapToInt(value -> value.getWeight()).sum();
-        if( one.get().getWeightLimit()<sum+newWeight)
-        {
-            throw new Exception("This Drone Is Fully Loaded and Max Wight is "+ one.get().getWeightLimit()+" Please specify another one ");
-        }else if(one.get().getWeightLimit() ==sum+newWeight)
-        {
-            one.get().setState(State.LOADED);
-
-
-        }else  if(one.get().getWeightLimit() >=sum+newWeight){
-            if(one.get().getBatteryCapacity()<25)
-            {
-                throw new Exception("The  Drone Battery Capacity is less than 25 %  ");
-            }else {
-                one.get().setState(State.LOADING);
+
+    /**
+     * Store the content of the new image of the medication, which the medication then references by its hash.
+     * The blob store works outside of the current transaction, and this is called before the command enters a lane or
+     * reads anything, so the command holds no connection while the image is stored.
+     *
+     * @throws UnknownImageException if the medication references an image by a hash no image is stored under.
+     */
+    private void storeImage(MedicationDTO medicationDTO) throws IOException {
+        if (medicationDTO.getImage() != null) {
+            BlobStore.StoredBlob image = blobStore.store(new ByteArrayInputStream(medicationDTO.getImage()), maxImageSize);
+            medicationDTO.setImageHash(image.getHash());
+            if (medicationDTO.getImageContentType() == null) {
+                medicationDTO.setImageContentType(image.getContentType());
             }
+        } else if (referencesUnknownImage(medicationDTO)) {
+            throw new UnknownImageException(medicationDTO.getImageHash());
         }
+    }
 
+    /**
+     * The image referenced by its hash is {@link BlobStore#touch touched}, so that it is not swept before the command
+     * commits.
+     */
+    private boolean referencesUnknownImage(MedicationDTO medicationDTO) throws IOException {
+        return (
+            medicationDTO.getImage() == null && medicationDTO.getImageHash() != null && !blobStore.touch(medicationDTO.getImageHash())
+        );
     }
-    public List<MedicationDTO> getMedicationsByDrone(DroneDTO droneDTO)
-    {
-        List<MedicationDTO> medicationDTOList = medicationRepository.findMedicationByDrone(droneMapper.toEntity(droneDTO)).stream().map(medication -> medicationMapper.toDto(medication)).collect(Collectors.toList());
-        return  medicationDTOList;
 
+    /**
+     * Add the weight to the drone with one conditional update, the medications already on board are never read.
+     * The current drone is only fetched when the load is rejected, to report why.
+     */
+    private void loadDrone(Long droneID, Integer weight) throws Exception {
+        Optional<String> rejection = load(droneID, 1, weight);
+        if (rejection.isPresent()) {
+            throw new Exception(rejection.get());
+        }
+    }
+
+    /**
+     * Load {@code count} medications weighing {@code weight} in total on the drone, and add them to its summary.
+     *
+     * @return the reason why the drone cannot take the weight, empty if it was loaded.
+     */
+    private Optional<String> load(Long droneID, int count, Integer weight) {
+        if (droneRepository.loadIfFits(droneID, weight, Constants.MIN_LOADING_BATTERY_CAPACITY, State.LOADED, State.LOADING) > 0) {
+            droneSummaryRepository.add(droneID, count, weight);
+            fleetStateRegistry.track(droneID);
+            return Optional.empty();
+        }
+        Optional<DroneRepository.DroneCapacity> drone = droneRepository.findCapacityById(droneID);
+        if (drone.isEmpty()) {
+            return Optional.of("The Drone " + droneID + " does not exist");
+        }
+        if (drone.get().getWeightLimit() < drone.get().getLoadedWeight() + weight) {
+            return Optional.of("This Drone Is Fully Loaded and Max Wight is "+ drone.get().getWeightLimit()+" Please specify another one ");
+        }
+        return Optional.of("The  Drone Battery Capacity is less than 25 %  ");
+    }
+
+    private void unloadDrone(MedicationRepository.DroneLoad load) {
+        if (load.getDroneId() != null) {
+            unloadDrone(load.getDroneId(), load.getWeight());
+        }
     }
+
+    private void unloadDrone(Long droneID, Integer weight) {
+        droneRepository.unload(droneID, weight);
+        droneSummaryRepository.add(droneID, -1, -weight);
+        fleetStateRegistry.track(droneID);
+    }
+
     @Override
-    public Optional<MedicationDTO> partialUpdate(MedicationDTO medicationDTO) {
+    @Transactional(rollbackFor = Exception.class)
+    public Optional<MedicationDTO> partialUpdate(MedicationDTO medicationDTO) throws Exception {
         log.debug("Request to partially update Medication : {}", medicationDTO);
+        storeImage(medicationDTO);
 
-        return medicationRepository
-            .findById(medicationDTO.getId())
-            .map(existingMedication -> {
-
+        Long newDroneId = medicationDTO.getDrone() == null ? null : medicationDTO.getDrone().getId();
+        Optional<MedicationRepository.DroneLoad> previousLoad = enterLaneOf(medicationDTO.getId(), newDroneId);
+        Optional<Medication> existing = medicationRepository.findById(medicationDTO.getId());
+        if (previousLoad.isEmpty() || existing.isEmpty()) {
+            return Optional.empty();
+        }
+        Medication existingMedication = existing.get();
 
-                medicationMapper.partialUpdate(existingMedication, medicationDTO);
+        medicationMapper.partialUpdate(existingMedication, medicationDTO);
 
-                return existingMedication;
-            })
-            .map(medicationRepository::save)
-            .map(medicationMapper::toDto);
+        Long droneId = newDroneId == null ? previousLoad.get().getDroneId() : newDroneId;
+        if (
+            !Objects.equals(previousLoad.get().getDroneId(), droneId) ||
+            !Objects.equals(previousLoad.get().getWeight(), existingMedication.getWeight())
+        ) {
+            unloadDrone(previousLoad.get());
+            if (droneId != null) {
+                existingMedication.setDrone(droneRepository.getReferenceById(droneId));
+                loadDrone(droneId, existingMedication.getWeight());
+            }
+        }
+        return Optional.of(medicationMapper.toDto(medicationRepository.save(existingMedication)));
+    }
 
+    /**
+     * The image is streamed to the blob store outside of any transaction, so that a slow upload does not hold a database
+     * connection; only the new hash is then written, in a transaction of its own.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<MedicationDTO> updateImage(Long id, InputStream content) throws IOException {
+        log.debug("Request to update the image of Medication : {}", id);
+        if (!medicationRepository.existsById(id)) {
+            return Optional.empty();
+        }
+        BlobStore.StoredBlob image = blobStore.store(content, maxImageSize);
+        String contentType = image.getContentType() == null ? MediaType.APPLICATION_OCTET_STREAM_VALUE : image.getContentType();
+        return transactionTemplate.execute(status ->
+            medicationRepository
+                .findById(id)
+                .map(medication -> medication.imageHash(image.getHash()).imageContentType(contentType))
+                .map(medicationRepository::save)
+                .map(medicationMapper::toDto)
+        );
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<MedicationDTO> findAll(Pageable pageable) {
         log.debug("Request to get all Medications");
-        return medicationRepository.findAll(pageable).map(medicationMapper::toDto);
+        return singleFlight.execute(
+            "medication.findAll",
+            pageable,
+            () -> medicationRepository.findAll(pageable).map(medicationMapper::toDto),
+            Medication.class
+        );
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<MedicationDTO> findOne(Long id) {
         log.debug("Request to get Medication : {}", id);
-        return medicationRepository.findById(id).map(medicationMapper::toDto);
+        return singleFlight.execute(
+            "medication.findOne",
+            id,
+            () -> medicationRepository.findById(id).map(medicationMapper::toDto),
+            Medication.class
+        );
     }
 
     @Override
     public void delete(Long id) {
         log.debug("Request to delete Medication : {}", id);
+        enterLaneOf(id).ifPresent(this::unloadDrone);
         medicationRepository.deleteById(id);
     }
+
+    /**
+     * Enter the lanes of the drone currently carrying the medication and of the other given drones, before the current
+     * transaction reads anything. If the medication moved to another drone in the meantime, the lanes are left and all
+     * of them entered again with that drone, so that they are still entered in order.
+     *
+     * @return the load of the medication, read once its drone is in a lane held by this transaction.
+     */
+    private Optional<MedicationRepository.DroneLoad> enterLaneOf(Long medicationId, Long... otherDroneIds) {
+        Long[] droneIds = Arrays.copyOf(otherDroneIds, otherDroneIds.length + 1);
+        droneIds[otherDroneIds.length] = medicationRepository.findDroneIdById(medicationId).orElse(null);
+        while (true) {
+            DroneCommandLanes.Entry lanes = droneCommandLanes.enter(droneIds);
+            Optional<MedicationRepository.DroneLoad> load = medicationRepository.findDroneLoadById(medicationId);
+            Long droneId = load.map(MedicationRepository.DroneLoad::getDroneId).orElse(null);
+            if (droneId == null || Arrays.asList(droneIds).contains(droneId)) {
+                return load;
+            }
+            lanes.exit();
+            droneIds[otherDroneIds.length] = droneId;
+        }
+    }
 }
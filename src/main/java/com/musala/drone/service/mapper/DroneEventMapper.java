@@ -0,0 +1,11 @@
+package com.musala.drone.service.mapper;
+
+import com.musala.drone.domain.DroneEvent;
+import com.musala.drone.service.dto.DroneEventDTO;
+import org.mapstruct.*;
+
+/**
+ * Mapper for the entity {@link DroneEvent} and its DTO {@link DroneEventDTO}.
+ */
+@Mapper(componentModel = "spring")
+public interface DroneEventMapper extends EntityMapper<DroneEventDTO, DroneEvent> {}
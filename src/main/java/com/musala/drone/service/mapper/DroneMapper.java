@@ -6,6 +6,16 @@ import org.mapstruct.*;
 
 /**
  * Mapper for the entity {@link Drone} and its DTO {@link DroneDTO}.
+ * <p>
+ * The loaded weight is only ever changed by the conditional updates of the repository, never by a mapping.
  */
 @Mapper(componentModel = "spring")
-public interface DroneMapper extends EntityMapper<DroneDTO, Drone> {}
+public interface DroneMapper extends EntityMapper<DroneDTO, Drone> {
+    @Mapping(target = "loadedWeight", ignore = true)
+    Drone toEntity(DroneDTO dto);
+
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "loadedWeight", ignore = true)
+    void partialUpdate(@MappingTarget Drone entity, DroneDTO dto);
+}
@@ -0,0 +1,11 @@
+package com.musala.drone.service.mapper;
+
+import com.musala.drone.domain.DroneSnapshot;
+import com.musala.drone.service.dto.DroneSnapshotDTO;
+import org.mapstruct.*;
+
+/**
+ * Mapper for the entity {@link DroneSnapshot} and its DTO {@link DroneSnapshotDTO}.
+ */
+@Mapper(componentModel = "spring")
+public interface DroneSnapshotMapper extends EntityMapper<DroneSnapshotDTO, DroneSnapshot> {}
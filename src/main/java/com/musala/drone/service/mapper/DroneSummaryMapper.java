@@ -0,0 +1,11 @@
+package com.musala.drone.service.mapper;
+
+import com.musala.drone.domain.DroneSummary;
+import com.musala.drone.service.dto.DroneSummaryDTO;
+import org.mapstruct.*;
+
+/**
+ * Mapper for the entity {@link DroneSummary} and its DTO {@link DroneSummaryDTO}.
+ */
+@Mapper(componentModel = "spring")
+public interface DroneSummaryMapper extends EntityMapper<DroneSummaryDTO, DroneSummary> {}
@@ -11,9 +11,25 @@ import org.mapstruct.*;
  */
 @Mapper(componentModel = "spring")
 public interface MedicationMapper extends EntityMapper<MedicationDTO, Medication> {
+    /**
+     * The content of the image stays in the blob store: the DTO only carries the content of a new image.
+     */
     @Mapping(target = "drone", source = "drone", qualifiedByName = "droneId")
+    @Mapping(target = "image", ignore = true)
     MedicationDTO toDto(Medication s);
 
+    /**
+     * The drone is not mapped: moving a medication to another drone unloads the one and loads the other, which the
+     * service does.
+     */
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "drone", ignore = true)
+    void partialUpdate(@MappingTarget Medication entity, MedicationDTO dto);
+
+    @Mapping(target = "loadedWeight", ignore = true)
+    Drone toEntityDrone(DroneDTO drone);
+
     @Named("droneId")
     @BeanMapping(ignoreByDefault = true)
     @Mapping(target = "id", source = "id")
@@ -3,9 +3,12 @@ package com.musala.drone.web.rest;
 import com.musala.drone.repository.AuditRepository;
 import com.musala.drone.service.AuditQueryService;
 import com.musala.drone.service.AuditService;
+import com.musala.drone.service.KeysetSlice;
 import com.musala.drone.service.criteria.AuditCriteria;
 import com.musala.drone.service.dto.AuditDTO;
 import com.musala.drone.web.rest.errors.BadRequestAlertException;
+import com.musala.drone.web.rest.util.KeysetPaginationUtil;
+import com.musala.drone.web.rest.util.TotalCountPaginationUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -16,6 +19,7 @@ import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
@@ -23,7 +27,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.PaginationUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
 /**
@@ -147,16 +150,34 @@ public class AuditResource {
      *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
+     * @param cursor the keyset pagination cursor, empty for the first page; offset pagination if absent.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of audits in body.
      */
     @GetMapping("/audits")
     public ResponseEntity<List<AuditDTO>> getAllAudits(
         AuditCriteria criteria,
-        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        @RequestParam(name = KeysetPaginationUtil.CURSOR_PARAMETER, required = false) String cursor
     ) {
         log.debug("REST request to get Audits by criteria: {}", criteria);
+        if (cursor != null) {
+            KeysetSlice<AuditDTO> slice;
+            try {
+                slice = auditQueryService.findByCriteria(criteria, KeysetPaginationUtil.keyset(cursor, pageable), pageable.getPageSize());
+            } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+                throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "cursorinvalid");
+            }
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                slice
+            );
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
         Page<AuditDTO> page = auditQueryService.findByCriteria(criteria, pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        HttpHeaders headers = TotalCountPaginationUtil.generatePaginationHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            page
+        );
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
@@ -1,29 +1,51 @@
 package com.musala.drone.web.rest;
 
+import com.musala.drone.domain.enumeration.Model;
+import com.musala.drone.domain.enumeration.State;
 import com.musala.drone.repository.DroneRepository;
+import com.musala.drone.repository.Keyset;
+import com.musala.drone.service.BulkImportService;
+import com.musala.drone.service.DroneEventLog;
 import com.musala.drone.service.DroneQueryService;
 import com.musala.drone.service.DroneService;
+import com.musala.drone.service.DroneSummaryQueryService;
+import com.musala.drone.service.FleetStateRegistry;
+import com.musala.drone.service.KeysetSlice;
+import com.musala.drone.service.UnknownFieldException;
 import com.musala.drone.service.criteria.DroneCriteria;
+import com.musala.drone.service.criteria.DroneSummaryCriteria;
+import com.musala.drone.service.dto.BulkImportResultDTO;
 import com.musala.drone.service.dto.DroneDTO;
+import com.musala.drone.service.dto.DroneEventDTO;
+import com.musala.drone.service.dto.DroneSnapshotDTO;
+import com.musala.drone.service.dto.DroneStateDTO;
+import com.musala.drone.service.dto.DroneSummaryDTO;
 import com.musala.drone.web.rest.errors.BadRequestAlertException;
+import com.musala.drone.web.rest.util.KeysetPaginationUtil;
+import com.musala.drone.web.rest.util.TotalCountPaginationUtil;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.PaginationUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
 /**
@@ -37,6 +59,8 @@ public class DroneResource {
 
     private static final String ENTITY_NAME = "musalaDrone";
 
+    private static final int MAX_EVENTS = 1000;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -46,10 +70,30 @@ public class DroneResource {
 
     private final DroneQueryService droneQueryService;
 
-    public DroneResource(DroneService droneService, DroneRepository droneRepository, DroneQueryService droneQueryService) {
+    private final FleetStateRegistry fleetStateRegistry;
+
+    private final DroneEventLog droneEventLog;
+
+    private final DroneSummaryQueryService droneSummaryQueryService;
+
+    private final BulkImportService bulkImportService;
+
+    public DroneResource(
+        DroneService droneService,
+        DroneRepository droneRepository,
+        DroneQueryService droneQueryService,
+        FleetStateRegistry fleetStateRegistry,
+        DroneEventLog droneEventLog,
+        DroneSummaryQueryService droneSummaryQueryService,
+        BulkImportService bulkImportService
+    ) {
         this.droneService = droneService;
         this.droneRepository = droneRepository;
         this.droneQueryService = droneQueryService;
+        this.fleetStateRegistry = fleetStateRegistry;
+        this.droneEventLog = droneEventLog;
+        this.droneSummaryQueryService = droneSummaryQueryService;
+        this.bulkImportService = bulkImportService;
     }
 
     /**
@@ -72,6 +116,25 @@ public class DroneResource {
             .body(result);
     }
 
+    /**
+     * {@code POST  /drones:import} : import drones in bulk, from CSV with a header line and {@code ;}-separated columns or
+     * from NDJSON, streamed without being held in memory.
+     *
+     * @param contentType the format of the rows, {@code text/csv} or {@code application/x-ndjson}.
+     * @param content the rows.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the numbers of imported and rejected
+     * rows, and the errors of the rejected ones.
+     * @throws IOException if the rows cannot be read; the chunks imported before stay imported.
+     */
+    @PostMapping(value = "/drones:import", consumes = { "text/csv", "application/x-ndjson" })
+    public ResponseEntity<BulkImportResultDTO> importDrones(
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+        InputStream content
+    ) throws IOException {
+        log.debug("REST request to import Drones from {}", contentType);
+        return ResponseEntity.ok().body(bulkImportService.importDrones(content, BulkImportService.Format.of(contentType)));
+    }
+
     /**
      * {@code PUT  /drones/:id} : Updates an existing drone.
      *
@@ -147,16 +210,51 @@ public class DroneResource {
      *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of drones in body.
+     * @param cursor the keyset pagination cursor, empty for the first page; offset pagination if absent.
+     * @param fields the properties to return, with the id; the other properties are {@code null} and their columns not read.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of drones in body,
+     * or with status {@code 400 (Bad Request)} if the cursor or one of the fields is invalid.
      */
     @GetMapping("/drones")
     public ResponseEntity<List<DroneDTO>> getAllDrones(
         DroneCriteria criteria,
-        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        @RequestParam(name = KeysetPaginationUtil.CURSOR_PARAMETER, required = false) String cursor,
+        @RequestParam(name = "fields", required = false) Set<String> fields
     ) {
         log.debug("REST request to get Drones by criteria: {}", criteria);
-        Page<DroneDTO> page = droneQueryService.findByCriteria(criteria, pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        if (cursor != null) {
+            KeysetSlice<DroneDTO> slice;
+            try {
+                Keyset keyset = KeysetPaginationUtil.keyset(cursor, pageable);
+                slice =
+                    fields == null
+                        ? droneQueryService.findByCriteria(criteria, keyset, pageable.getPageSize())
+                        : droneQueryService.findByCriteria(criteria, keyset, pageable.getPageSize(), fields);
+            } catch (UnknownFieldException e) {
+                throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "fieldsinvalid");
+            } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+                throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "cursorinvalid");
+            }
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                slice
+            );
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
+        Page<DroneDTO> page;
+        try {
+            page =
+                fields == null
+                    ? droneQueryService.findByCriteria(criteria, pageable)
+                    : droneQueryService.findByCriteria(criteria, pageable, fields);
+        } catch (UnknownFieldException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "fieldsinvalid");
+        }
+        HttpHeaders headers = TotalCountPaginationUtil.generatePaginationHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            page
+        );
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
@@ -172,6 +270,39 @@ public class DroneResource {
         return ResponseEntity.ok().body(droneQueryService.countByCriteria(criteria));
     }
 
+    /**
+     * {@code GET  /drones/summaries} : get the medication count, total weight and remaining capacity of the drones.
+     *
+     * @param pageable the pagination information.
+     * @param criteria the criteria which the requested summaries should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of drone summaries in body.
+     */
+    @GetMapping("/drones/summaries")
+    public ResponseEntity<List<DroneSummaryDTO>> getAllDroneSummaries(
+        DroneSummaryCriteria criteria,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to get Drone summaries by criteria: {}", criteria);
+        Page<DroneSummaryDTO> page = droneSummaryQueryService.findByCriteria(criteria, pageable);
+        HttpHeaders headers = TotalCountPaginationUtil.generatePaginationHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            page
+        );
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /drones/summaries/count} : count the drone summaries.
+     *
+     * @param criteria the criteria which the requested summaries should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
+     */
+    @GetMapping("/drones/summaries/count")
+    public ResponseEntity<Long> countDroneSummaries(DroneSummaryCriteria criteria) {
+        log.debug("REST request to count Drone summaries by criteria: {}", criteria);
+        return ResponseEntity.ok().body(droneSummaryQueryService.countByCriteria(criteria));
+    }
+
     /**
      * {@code GET  /drones/:id} : get the "id" drone.
      *
@@ -185,6 +316,120 @@ public class DroneResource {
         return ResponseUtil.wrapOrNotFound(droneDTO);
     }
 
+    /**
+     * {@code GET  /drones/:id/state} : get the state, battery and load of the "id" drone, from memory.
+     *
+     * @param id the id of the drone.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the droneStateDTO, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/drones/{id}/state")
+    public ResponseEntity<DroneStateDTO> getDroneState(@PathVariable Long id) {
+        log.debug("REST request to get the state of Drone : {}", id);
+        return ResponseUtil.wrapOrNotFound(fleetStateRegistry.find(id));
+    }
+
+    /**
+     * {@code GET  /drones/states} : get the state, battery and load of the drones, from memory.
+     *
+     * @param state the state of the drones to return, all states if absent.
+     * @param serialNumber the serial number of the drone to return, all drones if absent.
+     * @param available whether to return the drones which can take more medications only.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of drone states in body, ordered by id.
+     */
+    @GetMapping("/drones/states")
+    public ResponseEntity<List<DroneStateDTO>> getDroneStates(
+        @RequestParam(required = false) State state,
+        @RequestParam(required = false) String serialNumber,
+        @RequestParam(defaultValue = "false") boolean available
+    ) {
+        log.debug("REST request to get the states of Drones : {}, {}, {}", state, serialNumber, available);
+        List<DroneStateDTO> drones = serialNumber == null
+            ? fleetStateRegistry.findAll(state)
+            : fleetStateRegistry.findBySerialNumber(serialNumber).map(List::of).orElse(List.of());
+        return ResponseEntity
+            .ok()
+            .body(
+                drones
+                    .stream()
+                    .filter(drone -> state == null || drone.getState() == state)
+                    .filter(drone -> !available || drone.isAvailable())
+                    .collect(Collectors.toList())
+            );
+    }
+
+    /**
+     * {@code GET  /drones/available} : find the drones which can take a load, from memory.
+     *
+     * @param minCapacity the weight the drones must still be able to take.
+     * @param minBattery the minimal battery capacity of the drones.
+     * @param model the model of the drones, all models if absent.
+     * @param limit the maximal number of drones to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of drone states in body, best fit first.
+     */
+    @GetMapping("/drones/available")
+    public ResponseEntity<List<DroneStateDTO>> getAvailableDrones(
+        @RequestParam(defaultValue = "0") int minCapacity,
+        @RequestParam(defaultValue = "0") long minBattery,
+        @RequestParam(required = false) Model model,
+        @RequestParam(defaultValue = "20") int limit
+    ) {
+        log.debug("REST request to get available Drones : {}, {}, {}, {}", minCapacity, minBattery, model, limit);
+        if (limit < 1) {
+            throw new BadRequestAlertException("Invalid limit", ENTITY_NAME, "limitinvalid");
+        }
+        return ResponseEntity.ok().body(fleetStateRegistry.findAvailable(model, minCapacity, minBattery, limit));
+    }
+
+    /**
+     * {@code GET  /drones/:id/events} : get the history of the "id" drone, the changes of its state, battery and load.
+     *
+     * @param id the id of the drone.
+     * @param afterSeq the seq after which the events are returned.
+     * @param untilSeq the seq of the last event which may be returned, the last event if absent.
+     * @param limit the maximal number of events to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of events in body, in order, with a
+     * {@code Link} header to the next events if there may be more.
+     */
+    @GetMapping("/drones/{id}/events")
+    public ResponseEntity<List<DroneEventDTO>> getDroneEvents(
+        @PathVariable Long id,
+        @RequestParam(defaultValue = "0") long afterSeq,
+        @RequestParam(defaultValue = "" + Long.MAX_VALUE) long untilSeq,
+        @RequestParam(defaultValue = "100") int limit
+    ) {
+        log.debug("REST request to get the events of Drone : {}, ({}, {}], {}", id, afterSeq, untilSeq, limit);
+        if (limit < 1 || limit > MAX_EVENTS) {
+            throw new BadRequestAlertException("Invalid limit", ENTITY_NAME, "limitinvalid");
+        }
+        List<DroneEventDTO> events = droneEventLog.findHistory(id, afterSeq, untilSeq, limit);
+        HttpHeaders headers = new HttpHeaders();
+        if (events.size() == limit) {
+            String next = ServletUriComponentsBuilder
+                .fromCurrentRequest()
+                .replaceQueryParam("afterSeq", events.get(events.size() - 1).getSeq())
+                .toUriString();
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return ResponseEntity.ok().headers(headers).body(events);
+    }
+
+    /**
+     * {@code GET  /drones/:id/events/state} : get the state, battery and load of the "id" drone from its history.
+     *
+     * @param id the id of the drone.
+     * @param seq the seq of the last event to take into account, the last event if absent.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the state as of the last event up to
+     * the seq, or with status {@code 404 (Not Found)} if the drone did not exist then.
+     */
+    @GetMapping("/drones/{id}/events/state")
+    public ResponseEntity<DroneSnapshotDTO> getDroneHistoricState(
+        @PathVariable Long id,
+        @RequestParam(defaultValue = "" + Long.MAX_VALUE) long seq
+    ) {
+        log.debug("REST request to get the state of Drone : {} as of {}", id, seq);
+        return ResponseUtil.wrapOrNotFound(droneEventLog.findState(id, seq));
+    }
+
     /**
      * {@code DELETE  /drones/:id} : delete the "id" drone.
      *
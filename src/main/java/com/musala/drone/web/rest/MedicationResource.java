@@ -1,29 +1,50 @@
 package com.musala.drone.web.rest;
 
+import com.musala.drone.repository.Keyset;
 import com.musala.drone.repository.MedicationRepository;
+import com.musala.drone.service.BlobStore;
+import com.musala.drone.service.BulkImportService;
+import com.musala.drone.service.KeysetSlice;
+import com.musala.drone.service.LoadPlanningService;
 import com.musala.drone.service.MedicationQueryService;
 import com.musala.drone.service.MedicationService;
+import com.musala.drone.service.UnknownFieldException;
 import com.musala.drone.service.criteria.MedicationCriteria;
+import com.musala.drone.service.dto.BulkImportResultDTO;
+import com.musala.drone.service.dto.LoadPlanDTO;
+import com.musala.drone.service.dto.MedicationBatchResultDTO;
 import com.musala.drone.service.dto.MedicationDTO;
 import com.musala.drone.web.rest.errors.BadRequestAlertException;
+import com.musala.drone.web.rest.util.KeysetPaginationUtil;
+import com.musala.drone.web.rest.util.TotalCountPaginationUtil;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.PaginationUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
 /**
@@ -46,14 +67,26 @@ public class MedicationResource {
 
     private final MedicationQueryService medicationQueryService;
 
+    private final LoadPlanningService loadPlanningService;
+
+    private final BlobStore blobStore;
+
+    private final BulkImportService bulkImportService;
+
     public MedicationResource(
         MedicationService medicationService,
         MedicationRepository medicationRepository,
-        MedicationQueryService medicationQueryService
+        MedicationQueryService medicationQueryService,
+        LoadPlanningService loadPlanningService,
+        BlobStore blobStore,
+        BulkImportService bulkImportService
     ) {
         this.medicationService = medicationService;
         this.medicationRepository = medicationRepository;
         this.medicationQueryService = medicationQueryService;
+        this.loadPlanningService = loadPlanningService;
+        this.blobStore = blobStore;
+        this.bulkImportService = bulkImportService;
     }
 
     /**
@@ -76,6 +109,62 @@ public class MedicationResource {
             .body(result);
     }
 
+    /**
+     * {@code POST  /drones/:id/medications:batch} : Load a batch of new medications onto a drone.
+     * <p>
+     * The combined weight is checked against the drone once; the items which cannot be created are reported in the result
+     * instead of failing the whole request.
+     *
+     * @param id the id of the drone to load.
+     * @param medicationDTOs the medicationDTOs to create.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each medication, in the request order.
+     */
+    @PostMapping("/drones/{id}/medications:batch")
+    public ResponseEntity<List<MedicationBatchResultDTO>> createMedicationsBatch(
+        @PathVariable Long id,
+        @NotNull @RequestBody List<MedicationDTO> medicationDTOs
+    ) {
+        log.debug("REST request to save a batch of {} Medications on Drone : {}", medicationDTOs.size(), id);
+        return ResponseEntity.ok().body(medicationService.saveAll(id, medicationDTOs));
+    }
+
+    /**
+     * {@code POST  /medications:import} : import medications in bulk, from CSV with a header line and {@code ;}-separated
+     * columns or from NDJSON, streamed without being held in memory. The medications of a drone are loaded onto it.
+     *
+     * @param contentType the format of the rows, {@code text/csv} or {@code application/x-ndjson}.
+     * @param content the rows.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the numbers of imported and rejected
+     * rows, and the errors of the rejected ones.
+     * @throws IOException if the rows cannot be read; the chunks imported before stay imported.
+     */
+    @PostMapping(value = "/medications:import", consumes = { "text/csv", "application/x-ndjson" })
+    public ResponseEntity<BulkImportResultDTO> importMedications(
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+        InputStream content
+    ) throws IOException {
+        log.debug("REST request to import Medications from {}", contentType);
+        return ResponseEntity.ok().body(bulkImportService.importMedications(content, BulkImportService.Format.of(contentType)));
+    }
+
+    /**
+     * {@code POST  /medications/load-plan} : Plan the loading of unassigned medications onto the idle drones.
+     *
+     * @param medicationIds the ids of the medications to load.
+     * @param apply whether to load the drones according to the plan, all or nothing.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the plan,
+     * or with status {@code 409 (Conflict)} if the plan could not be applied because a drone or a medication changed meanwhile.
+     */
+    @PostMapping("/medications/load-plan")
+    public ResponseEntity<LoadPlanDTO> planMedicationsLoading(
+        @NotNull @RequestBody List<Long> medicationIds,
+        @RequestParam(defaultValue = "false") boolean apply
+    ) {
+        log.debug("REST request to plan the loading of {} Medications, apply : {}", medicationIds.size(), apply);
+        LoadPlanDTO plan = apply ? loadPlanningService.planAndApply(medicationIds) : loadPlanningService.plan(medicationIds);
+        return ResponseEntity.ok().body(plan);
+    }
+
     /**
      * {@code PUT  /medications/:id} : Updates an existing medication.
      *
@@ -125,7 +214,7 @@ public class MedicationResource {
     public ResponseEntity<MedicationDTO> partialUpdateMedication(
         @PathVariable(value = "id", required = false) final Long id,
         @NotNull @RequestBody MedicationDTO medicationDTO
-    ) throws URISyntaxException {
+    ) throws Exception {
         log.debug("REST request to partial update Medication partially : {}, {}", id, medicationDTO);
         if (medicationDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -151,16 +240,51 @@ public class MedicationResource {
      *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of medications in body.
+     * @param cursor the keyset pagination cursor, empty for the first page; offset pagination if absent.
+     * @param fields the properties to return, with the id; the other properties are {@code null} and their columns not read.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of medications in body,
+     * or with status {@code 400 (Bad Request)} if the cursor or one of the fields is invalid.
      */
     @GetMapping("/medications")
     public ResponseEntity<List<MedicationDTO>> getAllMedications(
         MedicationCriteria criteria,
-        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        @RequestParam(name = KeysetPaginationUtil.CURSOR_PARAMETER, required = false) String cursor,
+        @RequestParam(name = "fields", required = false) Set<String> fields
     ) {
         log.debug("REST request to get Medications by criteria: {}", criteria);
-        Page<MedicationDTO> page = medicationQueryService.findByCriteria(criteria, pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        if (cursor != null) {
+            KeysetSlice<MedicationDTO> slice;
+            try {
+                Keyset keyset = KeysetPaginationUtil.keyset(cursor, pageable);
+                slice =
+                    fields == null
+                        ? medicationQueryService.findByCriteria(criteria, keyset, pageable.getPageSize())
+                        : medicationQueryService.findByCriteria(criteria, keyset, pageable.getPageSize(), fields);
+            } catch (UnknownFieldException e) {
+                throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "fieldsinvalid");
+            } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+                throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "cursorinvalid");
+            }
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                slice
+            );
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
+        Page<MedicationDTO> page;
+        try {
+            page =
+                fields == null
+                    ? medicationQueryService.findByCriteria(criteria, pageable)
+                    : medicationQueryService.findByCriteria(criteria, pageable, fields);
+        } catch (UnknownFieldException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "fieldsinvalid");
+        }
+        HttpHeaders headers = TotalCountPaginationUtil.generatePaginationHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            page
+        );
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
@@ -189,6 +313,79 @@ public class MedicationResource {
         return ResponseUtil.wrapOrNotFound(medicationDTO);
     }
 
+    /**
+     * {@code GET  /medications/:id/image} : get the image of the "id" medication.
+     * <p>
+     * The image is streamed, whole or the requested {@code Range} of it, with its hash as {@code ETag}. Requested with its
+     * hash, as {@code ?hash=} the {@code imageHash} of the medication, the image is cached as immutable, since the image
+     * of another hash has another URL; otherwise the caches must revalidate it.
+     *
+     * @param id the id of the medication.
+     * @param hash the hash of the current image of the medication, if known.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} or {@code 206 (Partial Content)} and with body the image,
+     * or with status {@code 304 (Not Modified)} if the {@code If-None-Match} image is current,
+     * or with status {@code 404 (Not Found)} if the medication has no image.
+     */
+    @GetMapping("/medications/{id}/image")
+    public ResponseEntity<Resource> getMedicationImage(@PathVariable Long id, @RequestParam(required = false) String hash) {
+        log.debug("REST request to get the image of Medication : {}", id);
+        Optional<MedicationDTO> medicationDTO = medicationService.findOne(id);
+        Optional<Resource> image = medicationDTO.map(MedicationDTO::getImageHash).flatMap(blobStore::find);
+        if (image.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        String imageHash = medicationDTO.get().getImageHash();
+        String contentType = medicationDTO.get().getImageContentType();
+        String cacheControl = imageHash.equals(hash)
+            ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().getHeaderValue() + ", immutable"
+            : CacheControl.noCache().cachePrivate().getHeaderValue();
+        return ResponseEntity
+            .ok()
+            .eTag(imageHash)
+            .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+            .contentType(contentType == null ? MediaType.APPLICATION_OCTET_STREAM : MediaType.parseMediaType(contentType))
+            .body(image.get());
+    }
+
+    /**
+     * {@code PUT  /medications/:id/image} : replace the image of the "id" medication by the body of the request, streamed
+     * to storage without being held in memory; its type is detected from its first bytes.
+     *
+     * @param id the id of the medication.
+     * @param content the content of the image.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated medicationDTO,
+     * with status {@code 404 (Not Found)} if there is no such medication,
+     * or with status {@code 413 (Payload Too Large)} if the image is larger than {@code application.blob-store.max-size}.
+     * @throws IOException if the image cannot be read or stored.
+     */
+    @PutMapping(value = "/medications/{id}/image", consumes = { MediaType.APPLICATION_OCTET_STREAM_VALUE, "image/*" })
+    public ResponseEntity<MedicationDTO> updateMedicationImage(@PathVariable Long id, InputStream content) throws IOException {
+        log.debug("REST request to update the image of Medication : {}", id);
+        return ResponseUtil.wrapOrNotFound(
+            medicationService.updateImage(id, content),
+            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id.toString())
+        );
+    }
+
+    /**
+     * {@code PUT  /medications/:id/image} : replace the image of the "id" medication by the {@code image} part of the
+     * request, which the container spools to disk as it arrives.
+     *
+     * @param id the id of the medication.
+     * @param image the image.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated medicationDTO,
+     * with status {@code 404 (Not Found)} if there is no such medication,
+     * or with status {@code 413 (Payload Too Large)} if the image is larger than {@code application.blob-store.max-size}.
+     * @throws IOException if the image cannot be read or stored.
+     */
+    @PutMapping(value = "/medications/{id}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<MedicationDTO> updateMedicationImage(@PathVariable Long id, @RequestPart("image") MultipartFile image)
+        throws IOException {
+        try (InputStream content = image.getInputStream()) {
+            return updateMedicationImage(id, content);
+        }
+    }
+
     /**
      * {@code DELETE  /medications/:id} : delete the "id" medication.
      *
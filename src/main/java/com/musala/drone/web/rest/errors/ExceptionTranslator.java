@@ -21,6 +21,7 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.zalando.problem.DefaultProblem;
 import org.zalando.problem.Problem;
 import org.zalando.problem.ProblemBuilder;
@@ -149,6 +150,36 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
         return create(new InvalidPasswordException(), request);
     }
 
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleUnknownImageException(
+        com.musala.drone.service.UnknownImageException ex,
+        NativeWebRequest request
+    ) {
+        return handleBadRequestAlertException(new BadRequestAlertException(ex.getMessage(), "musalaMedication", "imageinvalid"), request);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleBlobTooLargeException(
+        com.musala.drone.service.BlobTooLargeException ex,
+        NativeWebRequest request
+    ) {
+        return create(ex, payloadTooLarge(ex.getMessage()), request);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleMaxUploadSizeExceededException(MaxUploadSizeExceededException ex, NativeWebRequest request) {
+        return create(ex, payloadTooLarge("The upload is larger than the limit"), request);
+    }
+
+    private static Problem payloadTooLarge(String detail) {
+        return Problem
+            .builder()
+            .withStatus(Status.REQUEST_ENTITY_TOO_LARGE)
+            .withDetail(detail)
+            .with(MESSAGE_KEY, ErrorConstants.ERR_PAYLOAD_TOO_LARGE)
+            .build();
+    }
+
     @ExceptionHandler
     public ResponseEntity<Problem> handleBadRequestAlertException(BadRequestAlertException ex, NativeWebRequest request) {
         return create(
@@ -0,0 +1,51 @@
+package com.musala.drone.web.rest.util;
+
+import com.musala.drone.repository.Keyset;
+import com.musala.drone.service.KeysetSlice;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for handling keyset pagination.
+ * <p>
+ * A list is paginated by keyset when the request has a {@value #CURSOR_PARAMETER} parameter: empty for the first page,
+ * then the cursor of the next page, given by the {@code Link} header with {@code rel="next"}. The sort of the first page
+ * is kept by the cursors; there is no {@code Link} header after the last page.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String CURSOR_PARAMETER = "cursor";
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * @param cursor the cursor of the request, empty for the first page.
+     * @param pageable the pagination information of the request, only used for the first page.
+     * @return the keyset to seek from.
+     * @throws IllegalArgumentException if the cursor is malformed, or the sort not supported.
+     */
+    public static Keyset keyset(String cursor, Pageable pageable) {
+        return cursor.isEmpty() ? Keyset.first(pageable.getSort()) : Keyset.decode(cursor);
+    }
+
+    /**
+     * Generate pagination headers for a Spring Data {@link KeysetSlice} object.
+     *
+     * @param uriBuilder The URI builder.
+     * @param slice The page.
+     * @return http header.
+     */
+    public static HttpHeaders generateKeysetPaginationHttpHeaders(UriComponentsBuilder uriBuilder, KeysetSlice<?> slice) {
+        HttpHeaders headers = new HttpHeaders();
+        slice
+            .getNext()
+            .ifPresent(next ->
+                headers.add(
+                    HttpHeaders.LINK,
+                    "<" + uriBuilder.replaceQueryParam(CURSOR_PARAMETER, next.encode()).toUriString() + ">; rel=\"next\""
+                )
+            );
+        return headers;
+    }
+}
@@ -0,0 +1,36 @@
+package com.musala.drone.web.rest.util;
+
+import com.musala.drone.repository.EstimatedPage;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+import tech.jhipster.web.util.PaginationUtil;
+
+/**
+ * Utility class for handling pagination whose total may be estimated.
+ * <p>
+ * The headers are the ones of {@link PaginationUtil}; when the page is an {@link EstimatedPage}, the
+ * {@value #HEADER_X_TOTAL_COUNT_ESTIMATED} header tells that {@code X-Total-Count} is an estimate.
+ */
+public final class TotalCountPaginationUtil {
+
+    public static final String HEADER_X_TOTAL_COUNT_ESTIMATED = "X-Total-Count-Estimated";
+
+    private TotalCountPaginationUtil() {}
+
+    /**
+     * Generate pagination headers for a Spring Data {@link Page} object.
+     *
+     * @param uriBuilder The URI builder.
+     * @param page The page.
+     * @param <T> The type of object.
+     * @return http header.
+     */
+    public static <T> HttpHeaders generatePaginationHttpHeaders(UriComponentsBuilder uriBuilder, Page<T> page) {
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(uriBuilder, page);
+        if (page instanceof EstimatedPage) {
+            headers.add(HEADER_X_TOTAL_COUNT_ESTIMATED, Boolean.TRUE.toString());
+        }
+        return headers;
+    }
+}
@@ -1,4 +1,6 @@
 import dayjs from 'dayjs/esm';
+import { AuditEventType } from 'app/entities/enumerations/audit-event-type.model';
+import { AuditSeverity } from 'app/entities/enumerations/audit-severity.model';
 
 export interface IAudit {
   id: number;
@@ -7,6 +9,10 @@ export interface IAudit {
   createdDate?: dayjs.Dayjs | null;
   lastModifiedBy?: string | null;
   lastModifiedDate?: dayjs.Dayjs | null;
+  droneId?: number | null;
+  eventType?: AuditEventType | null;
+  numericValue?: number | null;
+  severity?: AuditSeverity | null;
 }
 
 export type NewAudit = Omit<IAudit, 'id'> & { id: null };
@@ -0,0 +1,3 @@
+export enum AuditEventType {
+  BATTERY_LOW = 'BATTERY_LOW',
+}
@@ -0,0 +1,7 @@
+export enum AuditSeverity {
+  INFO = 'INFO',
+
+  WARNING = 'WARNING',
+
+  CRITICAL = 'CRITICAL',
+}
@@ -3,6 +3,7 @@ import { ActivatedRoute } from '@angular/router';
 
 import { IMedication } from '../medication.model';
 import { DataUtils } from 'app/core/util/data-util.service';
+import { MedicationService } from '../service/medication.service';
 
 @Component({
   selector: 'jhi-medication-detail',
@@ -11,7 +12,11 @@ import { DataUtils } from 'app/core/util/data-util.service';
 export class MedicationDetailComponent implements OnInit {
   medication: IMedication | null = null;
 
-  constructor(protected dataUtils: DataUtils, protected activatedRoute: ActivatedRoute) {}
+  constructor(
+    protected dataUtils: DataUtils,
+    protected activatedRoute: ActivatedRoute,
+    protected medicationService: MedicationService
+  ) {}
 
   ngOnInit(): void {
     this.activatedRoute.data.subscribe(({ medication }) => {
@@ -27,6 +32,10 @@ export class MedicationDetailComponent implements OnInit {
     this.dataUtils.openFile(base64String, contentType);
   }
 
+  openImage(medication: IMedication): void {
+    this.medicationService.image(medication).subscribe(image => window.open(URL.createObjectURL(image), '_blank'));
+  }
+
   previousState(): void {
     window.history.back();
   }
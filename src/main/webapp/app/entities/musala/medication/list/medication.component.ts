@@ -53,6 +53,10 @@ export class MedicationComponent implements OnInit {
     return this.dataUtils.openFile(base64String, contentType);
   }
 
+  openImage(medication: IMedication): void {
+    this.medicationService.image(medication).subscribe(image => window.open(URL.createObjectURL(image), '_blank'));
+  }
+
   delete(medication: IMedication): void {
     const modalRef = this.modalService.open(MedicationDeleteDialogComponent, { size: 'lg', backdrop: 'static' });
     modalRef.componentInstance.medication = medication;
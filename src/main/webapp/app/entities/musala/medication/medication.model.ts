@@ -8,6 +8,7 @@ export interface IMedication {
   code?: string | null;
   image?: string | null;
   imageContentType?: string | null;
+  imageHash?: string | null;
   createdBy?: string | null;
   createdDate?: dayjs.Dayjs | null;
   lastModifiedBy?: string | null;
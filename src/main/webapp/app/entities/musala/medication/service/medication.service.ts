@@ -65,6 +65,13 @@ export class MedicationService {
       .pipe(map(res => this.convertResponseArrayFromServer(res)));
   }
 
+  image(medication: Pick<IMedication, 'id' | 'imageHash'>): Observable<Blob> {
+    return this.http.get(`${this.resourceUrl}/${this.getMedicationIdentifier(medication)}/image`, {
+      params: { hash: medication.imageHash ?? '' },
+      responseType: 'blob',
+    });
+  }
+
   delete(id: number): Observable<HttpResponse<{}>> {
     return this.http.delete(`${this.resourceUrl}/${id}`, { observe: 'response' });
   }
@@ -24,6 +24,7 @@ describe('Medication Form Service', () => {
             weight: expect.any(Object),
             code: expect.any(Object),
             image: expect.any(Object),
+            imageHash: expect.any(Object),
             createdBy: expect.any(Object),
             createdDate: expect.any(Object),
             lastModifiedBy: expect.any(Object),
@@ -43,6 +44,7 @@ describe('Medication Form Service', () => {
             weight: expect.any(Object),
             code: expect.any(Object),
             image: expect.any(Object),
+            imageHash: expect.any(Object),
             createdBy: expect.any(Object),
             createdDate: expect.any(Object),
             lastModifiedBy: expect.any(Object),
@@ -37,6 +37,7 @@ type MedicationFormGroupContent = {
   code: FormControl<MedicationFormRawValue['code']>;
   image: FormControl<MedicationFormRawValue['image']>;
   imageContentType: FormControl<MedicationFormRawValue['imageContentType']>;
+  imageHash: FormControl<MedicationFormRawValue['imageHash']>;
   createdBy: FormControl<MedicationFormRawValue['createdBy']>;
   createdDate: FormControl<MedicationFormRawValue['createdDate']>;
   lastModifiedBy: FormControl<MedicationFormRawValue['lastModifiedBy']>;
@@ -72,6 +73,7 @@ export class MedicationFormService {
       }),
       image: new FormControl(medicationRawValue.image),
       imageContentType: new FormControl(medicationRawValue.imageContentType),
+      imageHash: new FormControl(medicationRawValue.imageHash),
       createdBy: new FormControl(medicationRawValue.createdBy, {
         validators: [Validators.required],
       }),
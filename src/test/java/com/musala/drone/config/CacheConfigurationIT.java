@@ -0,0 +1,165 @@
+package com.musala.drone.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.musala.drone.IntegrationTest;
+import com.musala.drone.domain.Authority;
+import com.musala.drone.domain.Drone;
+import com.musala.drone.domain.Medication;
+import com.musala.drone.domain.enumeration.Model;
+import com.musala.drone.domain.enumeration.State;
+import com.musala.drone.repository.AuthorityRepository;
+import com.musala.drone.repository.DroneRepository;
+import com.musala.drone.repository.MedicationRepository;
+import com.musala.drone.security.AuthoritiesConstants;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import javax.cache.CacheManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the Hibernate second-level cache set up by {@link CacheConfiguration}. The entities are committed,
+ * and read in transactions of their own, so that they come from the cache rather than from the persistence context.
+ */
+@IntegrationTest
+class CacheConfigurationIT {
+
+    private static final String DRONE_REGION = Drone.class.getName();
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private DroneRepository droneRepository;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    @Autowired
+    private AuthorityRepository authorityRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Drone drone;
+
+    @BeforeEach
+    public void initTest() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        drone =
+            transactionTemplate.execute(status ->
+                droneRepository.save(
+                    new Drone()
+                        .serialNumber("L2-CACHE")
+                        .model(Model.Lightweight)
+                        .weightLimit(500)
+                        .batteryCapacity(100L)
+                        .state(State.IDLE)
+                        .createdBy("l2-cache")
+                        .createdDate(Instant.now())
+                )
+            );
+    }
+
+    @AfterEach
+    public void cleanup() {
+        transactionTemplate.executeWithoutResult(status -> {
+            medicationRepository.deleteAll(medicationRepository.findMedicationByDrone(drone));
+            droneRepository.deleteById(drone.getId());
+        });
+    }
+
+    @Test
+    void regionsAreSizedPerRegion() {
+        CaffeineConfiguration<?, ?> drones = configuration(DRONE_REGION);
+        CaffeineConfiguration<?, ?> authorities = configuration(Authority.class.getName());
+        CaffeineConfiguration<?, ?> medications = configuration(Medication.class.getName());
+
+        assertThat(drones.getMaximumSize()).isEqualTo(OptionalLong.of(1000));
+        assertThat(drones.getExpireAfterWrite()).isEqualTo(OptionalLong.of(TimeUnit.HOURS.toNanos(1)));
+        assertThat(authorities.getExpireAfterWrite()).isEqualTo(OptionalLong.of(TimeUnit.DAYS.toNanos(1)));
+        assertThat(medications.getMaximumSize()).isEqualTo(OptionalLong.of(100));
+    }
+
+    @Test
+    void entitiesAreReadFromTheCache() {
+        double hits = hits(DRONE_REGION);
+
+        Drone found = inNewTransaction(() -> droneRepository.findById(drone.getId()).orElseThrow(), 0);
+
+        assertThat(found.getSerialNumber()).isEqualTo("L2-CACHE");
+        assertThat(hits(DRONE_REGION)).isGreaterThan(hits);
+        cacheManager.getCache(Authority.class.getName()).clear();
+        assertThat(inNewTransaction(() -> authorityRepository.findById(AuthoritiesConstants.USER), 1)).isPresent();
+        assertThat(inNewTransaction(() -> authorityRepository.findById(AuthoritiesConstants.USER), 0)).isPresent();
+    }
+
+    @Test
+    void bulkUpdatesEvictTheEntities() {
+        inNewTransaction(() -> droneRepository.findById(drone.getId()), 0);
+
+        transactionTemplate.executeWithoutResult(status ->
+            droneRepository.loadIfFits(drone.getId(), 100, 0L, State.LOADED, State.LOADING)
+        );
+
+        assertThat(inNewTransaction(() -> droneRepository.findById(drone.getId()).orElseThrow().getLoadedWeight(), 1)).isEqualTo(100);
+    }
+
+    @Test
+    void collectionsAreEvictedWhenTheirOwningSideChanges() {
+        assertThat(inNewTransaction(this::medicationsOfTheDrone, 1)).isEmpty();
+        assertThat(inNewTransaction(this::medicationsOfTheDrone, 0)).isEmpty();
+
+        Medication medication = transactionTemplate.execute(status ->
+            medicationRepository.save(
+                new Medication().name("L2-CACHE").weight(10).code("L2_CACHE").createdBy("l2-cache").createdDate(Instant.now()).drone(drone)
+            )
+        );
+
+        assertThat(inNewTransaction(this::medicationsOfTheDrone, 1)).containsExactly(medication.getId());
+    }
+
+    private List<Long> medicationsOfTheDrone() {
+        return droneRepository
+            .findById(drone.getId())
+            .orElseThrow()
+            .getDroneMedications()
+            .stream()
+            .map(Medication::getId)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Run the query in a transaction of its own, checking how many statements it ran.
+     */
+    private <T> T inNewTransaction(Supplier<T> query, int statements) {
+        SqlStatementRecorder.start();
+        T result = transactionTemplate.execute(status -> query.get());
+        assertThat(SqlStatementRecorder.stop()).hasSize(statements);
+        return result;
+    }
+
+    private CaffeineConfiguration<?, ?> configuration(String region) {
+        return cacheManager.getCache(region).getConfiguration(CaffeineConfiguration.class);
+    }
+
+    private double hits(String region) {
+        return meterRegistry.get("cache.gets").tag("cache", region).tag("result", "hit").functionCounter().count();
+    }
+}
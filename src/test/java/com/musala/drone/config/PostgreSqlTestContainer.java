@@ -0,0 +1,130 @@
+package com.musala.drone.config;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.JdbcDatabaseContainer;
+import org.testcontainers.containers.output.Slf4jLogConsumer;
+import org.testcontainers.containers.wait.strategy.LogMessageWaitStrategy;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * The PostgreSQL database of the integration tests run with the {@code testprod} profile, started by
+ * {@link TestContainersSpringContextCustomizerFactory}.
+ * <p>
+ * The container is declared with the generic JDBC module of Testcontainers, which every profile has on its classpath,
+ * rather than with its PostgreSQL module, which only the {@code prod} profile has.
+ */
+public class PostgreSqlTestContainer implements SqlTestContainer {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgreSqlTestContainer.class);
+
+    private PostgreSqlContainer postgreSqlContainer;
+
+    @Override
+    public void destroy() {
+        if (null != postgreSqlContainer && postgreSqlContainer.isRunning()) {
+            postgreSqlContainer.stop();
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (null == postgreSqlContainer) {
+            postgreSqlContainer =
+                new PostgreSqlContainer(DockerImageName.parse("postgres:14.5"))
+                    .withDatabaseName("musala")
+                    .withTmpFs(Collections.singletonMap("/testtmpfs", "rw"))
+                    .withLogConsumer(new Slf4jLogConsumer(log))
+                    .withReuse(true);
+        }
+        if (!postgreSqlContainer.isRunning()) {
+            postgreSqlContainer.start();
+        }
+    }
+
+    @Override
+    public JdbcDatabaseContainer<?> getTestContainer() {
+        return postgreSqlContainer;
+    }
+
+    private static final class PostgreSqlContainer extends JdbcDatabaseContainer<PostgreSqlContainer> {
+
+        private static final int PORT = 5432;
+
+        private String databaseName = "test";
+
+        private String username = "test";
+
+        private String password = "test";
+
+        private PostgreSqlContainer(DockerImageName image) {
+            super(image);
+            addExposedPort(PORT);
+            setWaitStrategy(
+                new LogMessageWaitStrategy()
+                    .withRegEx(".*database system is ready to accept connections.*\\s")
+                    .withTimes(2)
+                    .withStartupTimeout(Duration.of(60, ChronoUnit.SECONDS))
+            );
+            setCommand("postgres", "-c", "fsync=off");
+        }
+
+        @Override
+        protected void configure() {
+            addEnv("POSTGRES_DB", databaseName);
+            addEnv("POSTGRES_USER", username);
+            addEnv("POSTGRES_PASSWORD", password);
+        }
+
+        @Override
+        public String getDriverClassName() {
+            return "org.postgresql.Driver";
+        }
+
+        @Override
+        public String getJdbcUrl() {
+            return "jdbc:postgresql://" + getHost() + ":" + getMappedPort(PORT) + "/" + databaseName + constructUrlParameters("?", "&");
+        }
+
+        @Override
+        public String getDatabaseName() {
+            return databaseName;
+        }
+
+        @Override
+        public String getUsername() {
+            return username;
+        }
+
+        @Override
+        public String getPassword() {
+            return password;
+        }
+
+        @Override
+        protected String getTestQueryString() {
+            return "SELECT 1";
+        }
+
+        @Override
+        public PostgreSqlContainer withDatabaseName(String databaseName) {
+            this.databaseName = databaseName;
+            return self();
+        }
+
+        @Override
+        public PostgreSqlContainer withUsername(String username) {
+            this.username = username;
+            return self();
+        }
+
+        @Override
+        public PostgreSqlContainer withPassword(String password) {
+            this.password = password;
+            return self();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.musala.drone.domain.enumeration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class CodedEnumConverterTest {
+
+    @Test
+    void theCodesMatchTheMigratedData() {
+        assertThat(State.values())
+            .extracting(State::getCode)
+            .containsExactly((short) 0, (short) 1, (short) 2, (short) 3, (short) 4, (short) 5);
+        assertThat(Model.values()).extracting(Model::getCode).containsExactly((short) 0, (short) 1, (short) 2, (short) 3);
+    }
+
+    @Test
+    void everyConstantIsReadBackFromItsCode() {
+        State.Converter converter = new State.Converter();
+
+        for (State state : State.values()) {
+            assertThat(converter.convertToEntityAttribute(converter.convertToDatabaseColumn(state))).isEqualTo(state);
+        }
+        assertThat(converter.convertToDatabaseColumn(null)).isNull();
+        assertThat(converter.convertToEntityAttribute(null)).isNull();
+    }
+
+    @Test
+    void unknownCodesAreRejected() {
+        Model.Converter converter = new Model.Converter();
+
+        assertThatThrownBy(() -> converter.convertToEntityAttribute((short) 4)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> converter.convertToEntityAttribute((short) -1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,146 @@
+package com.musala.drone.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.musala.drone.IntegrationTest;
+import com.musala.drone.domain.Audit;
+import com.musala.drone.domain.Audit_;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.persistence.Tuple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link PageSpecificationExecutor} and {@link KeysetSpecificationExecutor} queries of
+ * {@link ExtendedJpaRepository}.
+ */
+@IntegrationTest
+@Transactional
+class ExtendedJpaRepositoryIT {
+
+    private static final String CREATED_BY = "PAGE-TEST";
+
+    private static final Specification<Audit> CREATED_BY_SPEC = (root, query, cb) -> cb.equal(root.get(Audit_.createdBy), CREATED_BY);
+
+    private static final Projection<Audit> MESSAGE_PROJECTION = root ->
+        List.of(root.get(Audit_.id).alias("id"), root.get(Audit_.message).alias("message"));
+
+    @Autowired
+    private AuditRepository auditRepository;
+
+    private List<Audit> audits;
+
+    @BeforeEach
+    public void initTest() {
+        audits =
+            auditRepository.saveAllAndFlush(
+                IntStream
+                    .range(0, 5)
+                    .mapToObj(i -> new Audit().message("page " + i).createdBy(CREATED_BY).createdDate(Instant.now()))
+                    .collect(Collectors.toList())
+            );
+    }
+
+    @Test
+    void findPageCountsTheTotalWithThePage() {
+        Page<Audit> page = auditRepository.findPage(CREATED_BY_SPEC, PageRequest.of(1, 2, Sort.by(Audit_.ID)), 0);
+
+        assertThat(page).containsExactly(audits.get(2), audits.get(3));
+        assertThat(page.getTotalElements()).isEqualTo(5);
+        assertThat(page).isNotInstanceOf(EstimatedPage.class);
+    }
+
+    @Test
+    void findPageCountsTheTotalPastTheLastPage() {
+        Page<Audit> page = auditRepository.findPage(CREATED_BY_SPEC, PageRequest.of(3, 2, Sort.by(Audit_.ID)), 0);
+
+        assertThat(page).isEmpty();
+        assertThat(page.getTotalElements()).isEqualTo(5);
+    }
+
+    @Test
+    void findPageCountsTheDistinctEntities() {
+        Specification<Audit> distinct = (root, query, cb) -> {
+            query.distinct(true);
+            return null;
+        };
+
+        Page<Audit> page = auditRepository.findPage(distinct.and(CREATED_BY_SPEC), PageRequest.of(0, 2, Sort.by(Audit_.ID)), 0);
+
+        assertThat(page).containsExactly(audits.get(0), audits.get(1));
+        assertThat(page.getTotalElements()).isEqualTo(5);
+    }
+
+    @Test
+    void findPageEstimatesTheTotalOfLargeTables() {
+        assertThat(auditRepository.estimateCount()).isGreaterThanOrEqualTo(5);
+
+        Page<Audit> page = auditRepository.findPage(CREATED_BY_SPEC, PageRequest.of(0, 2, Sort.by(Audit_.ID)), 1);
+
+        assertThat(page).isInstanceOf(EstimatedPage.class).containsExactly(audits.get(0), audits.get(1));
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.hasNext()).isTrue();
+        assertThat(page.map(Audit::getId)).isInstanceOf(EstimatedPage.class);
+    }
+
+    @Test
+    void findPageCountsTheTotalOfTheLastEstimatedPage() {
+        Page<Audit> page = auditRepository.findPage(CREATED_BY_SPEC, PageRequest.of(2, 2, Sort.by(Audit_.ID)), 1);
+
+        assertThat(page).isNotInstanceOf(EstimatedPage.class).containsExactly(audits.get(4));
+        assertThat(page.getTotalElements()).isEqualTo(5);
+    }
+
+    @Test
+    void findPageOfProjectionsSelectsTheProjectedColumns() {
+        Page<Tuple> page = auditRepository.findPage(CREATED_BY_SPEC, MESSAGE_PROJECTION, PageRequest.of(1, 2, Sort.by(Audit_.ID)), 0);
+
+        assertThat(page.map(row -> row.get("message", String.class))).containsExactly("page 2", "page 3");
+        assertThat(page.getContent()).allSatisfy(row -> assertThat(row.get(0)).isInstanceOf(Long.class));
+        assertThat(page.getTotalElements()).isEqualTo(5);
+    }
+
+    @Test
+    void findPageOfProjectionsCountsTheDistinctEntities() {
+        Specification<Audit> distinct = (root, query, cb) -> {
+            query.distinct(true);
+            return null;
+        };
+
+        Page<Tuple> page = auditRepository.findPage(
+            distinct.and(CREATED_BY_SPEC),
+            MESSAGE_PROJECTION,
+            PageRequest.of(0, 2, Sort.by(Audit_.ID)),
+            0
+        );
+
+        assertThat(page.map(row -> row.get("message", String.class))).containsExactly("page 0", "page 1");
+        assertThat(page.getTotalElements()).isEqualTo(5);
+    }
+
+    @Test
+    void findPageOfProjectionsEstimatesTheTotalOfLargeTables() {
+        Page<Tuple> page = auditRepository.findPage(CREATED_BY_SPEC, MESSAGE_PROJECTION, PageRequest.of(0, 2, Sort.by(Audit_.ID)), 1);
+
+        assertThat(page).isInstanceOf(EstimatedPage.class).hasSize(2);
+        assertThat(page.getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    void findAllOfProjectionsSeeksAfterTheKeyset() {
+        Keyset keyset = Keyset.first(Sort.by(Audit_.ID)).after(audits.get(1));
+
+        List<Tuple> rows = auditRepository.findAll(CREATED_BY_SPEC, MESSAGE_PROJECTION, keyset, 2);
+
+        assertThat(rows).extracting(row -> row.get("message", String.class)).containsExactly("page 2", "page 3");
+    }
+}
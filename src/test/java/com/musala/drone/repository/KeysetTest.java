@@ -0,0 +1,40 @@
+package com.musala.drone.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.musala.drone.domain.Audit;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+class KeysetTest {
+
+    @Test
+    void firstKeysetFollowsTheSort() {
+        assertThat(Keyset.first(Sort.unsorted()).toSort()).isEqualTo(Sort.by(Sort.Direction.ASC, "id"));
+        assertThat(Keyset.first(Sort.by(Sort.Direction.DESC, "createdDate")).toSort())
+            .isEqualTo(Sort.by(Sort.Direction.DESC, "createdDate", "id"));
+        assertThat(Keyset.first(Sort.by("createdDate", "id")).isFirst()).isTrue();
+        assertThatThrownBy(() -> Keyset.first(Sort.by("createdDate", "message"))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void cursorsRoundTrip() {
+        Instant createdDate = Instant.parse("2026-10-17T10:15:30.123Z");
+        Keyset keyset = Keyset
+            .first(Sort.by(Sort.Direction.DESC, "message"))
+            .after(new Audit().id(42L).message("a message,\nwith separators").createdDate(createdDate));
+
+        assertThat(keyset.getValue()).isEqualTo("a message,\nwith separators");
+        assertThat(keyset.getId()).isEqualTo(42L);
+        assertThat(Keyset.decode(keyset.encode())).isEqualTo(keyset);
+        assertThat(keyset.encode()).doesNotContain("=", "+", "/");
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        assertThatThrownBy(() -> Keyset.decode("not a cursor")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Keyset.decode("aWQKQVNDCm51bGwKbnVsbA")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
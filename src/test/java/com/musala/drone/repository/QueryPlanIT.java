@@ -0,0 +1,236 @@
+package com.musala.drone.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.musala.drone.IntegrationTest;
+import com.musala.drone.config.SqlStatementRecorder;
+import com.musala.drone.domain.Drone;
+import com.musala.drone.domain.DroneSummary;
+import com.musala.drone.domain.Medication;
+import com.musala.drone.domain.enumeration.Model;
+import com.musala.drone.domain.enumeration.State;
+import com.musala.drone.service.DroneQueryService;
+import com.musala.drone.service.DroneSummaryQueryService;
+import com.musala.drone.service.MedicationQueryService;
+import com.musala.drone.service.criteria.DroneCriteria;
+import com.musala.drone.service.criteria.DroneSummaryCriteria;
+import com.musala.drone.service.criteria.MedicationCriteria;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Plan regression tests of the hot repository and criteria queries: each of them must be served by an index rather than
+ * by a scan of its table.
+ * <p>
+ * The plans are read with {@code EXPLAIN} from the database of the test profile: H2, or PostgreSQL with the
+ * {@code testprod} profile. PostgreSQL is told to avoid sequential scans, so that it only picks one when no index can
+ * serve the query, however small the tables of the test are.
+ */
+@IntegrationTest
+@Transactional
+class QueryPlanIT {
+
+    private static final PageRequest PAGE = PageRequest.of(0, 20, Sort.by("id"));
+
+    private static final Pattern H2_FULL_SCAN = Pattern.compile("\\.tablescan \\*/|/\\* public\\.\\w+ \\*/");
+
+    @Autowired
+    private DroneRepository droneRepository;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    @Autowired
+    private DroneSummaryRepository droneSummaryRepository;
+
+    @Autowired
+    private AuditRepository auditRepository;
+
+    @Autowired
+    private DroneQueryService droneQueryService;
+
+    @Autowired
+    private MedicationQueryService medicationQueryService;
+
+    @Autowired
+    private DroneSummaryQueryService droneSummaryQueryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager em;
+
+    private boolean postgresql;
+
+    private Drone drone;
+
+    @BeforeEach
+    public void initTest() {
+        postgresql =
+            "PostgreSQL".equals(jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName()));
+        if (postgresql) {
+            jdbcTemplate.execute("set local enable_seqscan = off");
+        }
+        // written in the transaction of the test, so that the criteria queries are not answered from their cache
+        drone =
+            droneRepository.save(
+                new Drone()
+                    .serialNumber("QUERY-PLAN")
+                    .model(Model.Lightweight)
+                    .weightLimit(500)
+                    .batteryCapacity(20L)
+                    .state(State.IDLE)
+                    .createdBy("query-plan")
+                    .createdDate(Instant.now())
+            );
+        medicationRepository.save(
+            new Medication().name("QUERY-PLAN").weight(10).code("QUERY_PLAN").createdBy("query-plan").createdDate(Instant.now()).drone(drone)
+        );
+        droneSummaryRepository.save(new DroneSummary().droneId(drone.getId()).medicationCount(1).totalWeight(10).remainingCapacity(490));
+        em.flush();
+    }
+
+    @Test
+    void lowBatteryDronesByBatteryCapacity() {
+        SqlStatementRecorder.start();
+        droneRepository.findAllByBatteryCapacityLessThanAndAuditFlageNotification(25L, false);
+
+        assertThat(explain(single(SqlStatementRecorder.stop()), 25L, false)).contains("idx_drone_battery_capacity");
+    }
+
+    @Test
+    void lowBatterySweepChunk() {
+        SqlStatementRecorder.start();
+        droneRepository.findLowBatteryToAudit(0L, 25L, PageRequest.of(0, 10));
+
+        explain(single(SqlStatementRecorder.stop()), 0L, 25L, 10);
+    }
+
+    @Test
+    void dronesByState() {
+        DroneCriteria criteria = new DroneCriteria();
+        criteria.state().setEquals(State.IDLE);
+
+        SqlStatementRecorder.start();
+        droneQueryService.findByCriteria(criteria, PAGE);
+
+        assertThat(explain(first(SqlStatementRecorder.stop()), State.IDLE.getCode(), PAGE.getPageSize())).contains("idx_drone_state");
+    }
+
+    @Test
+    void dronesByBatteryCapacityRange() {
+        DroneCriteria criteria = new DroneCriteria();
+        criteria.batteryCapacity().setLessThan(25L);
+
+        SqlStatementRecorder.start();
+        droneQueryService.findByCriteria(criteria, PAGE);
+
+        assertThat(explain(first(SqlStatementRecorder.stop()), PAGE.getPageSize())).contains("idx_drone_battery_capacity");
+    }
+
+    @Test
+    void medicationsOfADrone() {
+        SqlStatementRecorder.start();
+        medicationRepository.findMedicationByDrone(drone);
+
+        assertSearchedOn(explain(single(SqlStatementRecorder.stop()), drone.getId()), "drone_id");
+    }
+
+    @Test
+    void medicationsByDroneCriteria() {
+        MedicationCriteria criteria = new MedicationCriteria();
+        criteria.droneId().setEquals(drone.getId());
+
+        SqlStatementRecorder.start();
+        medicationQueryService.findByCriteria(criteria, PAGE);
+
+        assertSearchedOn(explain(first(SqlStatementRecorder.stop()), PAGE.getPageSize()), "drone_id");
+    }
+
+    @Test
+    void droneSummariesByRemainingCapacity() {
+        DroneSummaryCriteria criteria = new DroneSummaryCriteria();
+        criteria.remainingCapacity().setGreaterThanOrEqual(450);
+
+        SqlStatementRecorder.start();
+        droneSummaryQueryService.findByCriteria(criteria, PageRequest.of(0, 20));
+
+        assertThat(explain(single(SqlStatementRecorder.stop()), PAGE.getPageSize())).contains("idx_drone_summary_remaining_capacity");
+    }
+
+    @Test
+    void expiredAudits() {
+        SqlStatementRecorder.start();
+        auditRepository.findIdsCreatedBefore(Instant.now(), PageRequest.of(0, 100));
+
+        explain(single(SqlStatementRecorder.stop()), Timestamp.from(Instant.now()), 100);
+    }
+
+    private static String single(List<String> statements) {
+        assertThat(statements).hasSize(1);
+        return statements.get(0);
+    }
+
+    /**
+     * @return the page query, run before the queries of the associations of the page.
+     */
+    private static String first(List<String> statements) {
+        assertThat(statements).isNotEmpty();
+        return statements.get(0);
+    }
+
+    /**
+     * @return the lower case plan of the statement, checked not to scan a table.
+     */
+    private String explain(String sql, Object... parameters) {
+        assertThat(sql.chars().filter(c -> c == '?').count()).as("parameters of %s", sql).isEqualTo(parameters.length);
+        String plan = String.join(
+            "\n",
+            jdbcTemplate.query(
+                "explain " + sql,
+                statement -> {
+                    for (int i = 0; i < parameters.length; i++) {
+                        statement.setObject(i + 1, parameters[i]);
+                    }
+                },
+                (rs, row) -> rs.getString(1)
+            )
+        )
+            .toLowerCase(Locale.ROOT);
+        assertIndexed(plan);
+        return plan;
+    }
+
+    /**
+     * Check that an index is searched with a condition on the column, whichever of the indexes starting with it is
+     * chosen: the foreign key index and the one of the keyset pagination both serve the medications of a drone.
+     */
+    private void assertSearchedOn(String plan, String column) {
+        if (postgresql) {
+            assertThat(plan).containsPattern("index cond: \\(+" + column + " ");
+        } else {
+            assertThat(plan).containsPattern("/\\* public\\.\\w+: " + column + " ");
+        }
+    }
+
+    private void assertIndexed(String plan) {
+        if (postgresql) {
+            assertThat(plan).doesNotContain("seq scan");
+        } else {
+            assertThat(plan).doesNotContainPattern(H2_FULL_SCAN);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.musala.drone.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.musala.drone.IntegrationTest;
+import com.musala.drone.domain.Audit;
+import com.musala.drone.repository.AuditRepository;
+import com.musala.drone.service.dto.AuditDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link AuditJournal}: the audits are written by the journal thread in their own transactions.
+ */
+@IntegrationTest
+class AuditJournalIT {
+
+    private static final String MESSAGE = "AUDIT-JOURNAL-TEST";
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private AuditJournal auditJournal;
+
+    @Autowired
+    private AuditRepository auditRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    public void cleanUp() {
+        auditRepository.deleteAll(audits());
+    }
+
+    @Test
+    void writesTheJournalledAuditsInBatches() {
+        long flushes = meterRegistry.get(AuditJournal.FLUSH_METER_NAME).timer().count();
+
+        for (int i = 0; i < 250; i++) {
+            auditService.journal(createAudit(i));
+        }
+
+        assertThat(auditJournal.awaitFlushed(Duration.ofSeconds(10))).isTrue();
+        assertThat(audits()).hasSize(250);
+        assertThat(meterRegistry.get(AuditJournal.FLUSH_METER_NAME).timer().count() - flushes).isBetween(3L, 250L);
+        assertThat(meterRegistry.get(AuditJournal.DEPTH_METER_NAME).gauge().value()).isZero();
+    }
+
+    @Test
+    void auditsOfRolledBackTransactionsAreNotWritten() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            auditService.journal(createAudit(0));
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status -> auditService.journal(createAudit(1)));
+
+        assertThat(auditJournal.awaitFlushed(Duration.ofSeconds(10))).isTrue();
+        assertThat(audits()).extracting(Audit::getMessage).containsExactly(MESSAGE + " 1");
+    }
+
+    private AuditDTO createAudit(int i) {
+        AuditDTO auditDTO = new AuditDTO();
+        auditDTO.setMessage(MESSAGE + " " + i);
+        auditDTO.setCreatedBy("journal");
+        auditDTO.setCreatedDate(Instant.now());
+        return auditDTO;
+    }
+
+    private List<Audit> audits() {
+        return auditRepository.findAll().stream().filter(audit -> audit.getMessage().startsWith(MESSAGE)).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,53 @@
+package com.musala.drone.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.musala.drone.config.ApplicationProperties.AuditRetention.Partitioning;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+
+class AuditPartitionTest {
+
+    @Test
+    void monthlyPartitionsCoverTheMonth() {
+        AuditPartition partition = AuditPartition.of(Partitioning.MONTHLY, LocalDate.of(2026, 12, 17));
+
+        assertThat(partition.name()).isEqualTo("audit_p202612");
+        assertThat(partition.from()).isEqualTo(LocalDate.of(2026, 12, 1));
+        assertThat(partition.to()).isEqualTo(LocalDate.of(2027, 1, 1));
+        assertThat(partition.next().name()).isEqualTo("audit_p202701");
+        assertThat(partition.createStatement())
+            .isEqualTo("create table if not exists audit_p202612 partition of audit for values from ('2026-12-01') to ('2027-01-01')");
+    }
+
+    @Test
+    void dailyPartitionsCoverTheDay() {
+        AuditPartition partition = AuditPartition.of(Partitioning.DAILY, LocalDate.of(2026, 2, 28));
+
+        assertThat(partition.name()).isEqualTo("audit_p20260228");
+        assertThat(partition.to()).isEqualTo(LocalDate.of(2026, 3, 1));
+        assertThat(partition.next().name()).isEqualTo("audit_p20260301");
+    }
+
+    @Test
+    void partitionsAreParsedFromTheirName() {
+        AuditPartition monthly = AuditPartition.of(Partitioning.MONTHLY, LocalDate.of(2026, 10, 1));
+        AuditPartition daily = AuditPartition.of(Partitioning.DAILY, LocalDate.of(2026, 10, 17));
+
+        assertThat(AuditPartition.parse(monthly.name())).contains(monthly);
+        assertThat(AuditPartition.parse(daily.name())).contains(daily);
+        assertThat(AuditPartition.parse("audit_default")).isEmpty();
+        assertThat(AuditPartition.parse("audit_p202613")).isEmpty();
+        assertThat(AuditPartition.parse("audit_p2026")).isEmpty();
+    }
+
+    @Test
+    void partitionsOfDifferentPeriodsOverlap() {
+        AuditPartition month = AuditPartition.of(Partitioning.MONTHLY, LocalDate.of(2026, 10, 1));
+
+        assertThat(month.overlaps(AuditPartition.of(Partitioning.DAILY, LocalDate.of(2026, 10, 31)))).isTrue();
+        assertThat(month.overlaps(month)).isTrue();
+        assertThat(month.overlaps(AuditPartition.of(Partitioning.DAILY, LocalDate.of(2026, 11, 1)))).isFalse();
+        assertThat(month.overlaps(month.next())).isFalse();
+    }
+}
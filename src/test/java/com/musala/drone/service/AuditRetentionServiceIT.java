@@ -0,0 +1,70 @@
+package com.musala.drone.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.musala.drone.IntegrationTest;
+import com.musala.drone.domain.Audit;
+import com.musala.drone.repository.AuditRepository;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration tests for {@link AuditRetentionService}: on H2 the expired audits are deleted in chunks.
+ */
+@IntegrationTest
+class AuditRetentionServiceIT {
+
+    private static final String MESSAGE = "AUDIT-RETENTION-TEST";
+
+    @Autowired
+    private AuditRetentionService auditRetentionService;
+
+    @Autowired
+    private AuditRepository auditRepository;
+
+    @AfterEach
+    public void cleanUp() {
+        auditRepository.deleteAll(audits());
+    }
+
+    @Test
+    void maintenanceDeletesTheAuditsPastTheRetention() {
+        Instant now = Instant.now();
+        auditRepository.saveAll(
+            IntStream
+                .range(0, 5)
+                .mapToObj(i -> createAudit("expired " + i, now.minus(31 + i, ChronoUnit.DAYS)))
+                .collect(Collectors.toList())
+        );
+        auditRepository.save(createAudit("kept", now.minus(29, ChronoUnit.DAYS)));
+
+        auditRetentionService.maintain();
+
+        assertThat(audits()).extracting(Audit::getMessage).containsExactly(MESSAGE + " kept");
+    }
+
+    @Test
+    void removeCreatedBeforeReturnsTheNumberOfDeletedAudits() {
+        Instant cutoff = Instant.now().truncatedTo(ChronoUnit.MILLIS).minus(1, ChronoUnit.DAYS);
+        auditRepository.save(createAudit("expired", cutoff.minusSeconds(1)));
+        auditRepository.save(createAudit("kept", cutoff));
+
+        assertThat(auditRetentionService.removeCreatedBefore(cutoff)).isGreaterThanOrEqualTo(1);
+
+        assertThat(audits()).extracting(Audit::getMessage).containsExactly(MESSAGE + " kept");
+    }
+
+    private Audit createAudit(String suffix, Instant createdDate) {
+        return new Audit().message(MESSAGE + " " + suffix).createdBy("retention").createdDate(createdDate);
+    }
+
+    private List<Audit> audits() {
+        return auditRepository.findAll().stream().filter(audit -> audit.getMessage().startsWith(MESSAGE)).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,89 @@
+package com.musala.drone.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.musala.drone.IntegrationTest;
+import com.musala.drone.domain.Medication;
+import com.musala.drone.repository.MedicationRepository;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link BlobSweepService}, on the DATABASE blob store, swept by chunks of 2 blobs.
+ */
+@IntegrationTest
+class BlobSweepServiceIT {
+
+    @Autowired
+    private BlobSweepService blobSweepService;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<String> hashes = new ArrayList<>();
+
+    private Medication medication;
+
+    @BeforeEach
+    public void initTest() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            hashes.add(blobStore.store(new ByteArrayInputStream(("sweep " + i).getBytes(StandardCharsets.US_ASCII))).getHash());
+        }
+        medication =
+            medicationRepository.saveAndFlush(
+                new Medication().name("SWEEP").weight(10).code("SWEEP_1").imageHash(hashes.get(1)).createdBy("sweep").createdDate(Instant.now())
+            );
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        medicationRepository.deleteById(medication.getId());
+        new TransactionTemplate(transactionManager)
+            .executeWithoutResult(status -> hashes.forEach(hash -> jdbcTemplate.update("delete from blob_store where hash = ?", hash)));
+    }
+
+    @Test
+    void onlyUnreferencedBlobsStoredBeforeTheCutoffAreDeleted() throws Exception {
+        Instant cutoff = Instant.now().minusSeconds(60);
+        new TransactionTemplate(transactionManager)
+            .executeWithoutResult(status -> {
+                for (int i = 0; i < 4; i++) {
+                    jdbcTemplate.update(
+                        "update blob_store set created_date = ? where hash = ?",
+                        Timestamp.from(Instant.now().minusSeconds(3600)),
+                        hashes.get(i)
+                    );
+                }
+            });
+        // referenced by its hash by a command which has not committed yet
+        assertThat(blobStore.touch(hashes.get(3))).isTrue();
+
+        assertThat(blobSweepService.sweep(cutoff)).isGreaterThanOrEqualTo(2);
+
+        assertThat(blobStore.find(hashes.get(0))).isEmpty();
+        assertThat(blobStore.find(hashes.get(1))).isPresent();
+        assertThat(blobStore.find(hashes.get(2))).isEmpty();
+        assertThat(blobStore.find(hashes.get(3))).isPresent();
+        assertThat(blobStore.find(hashes.get(4))).isPresent();
+    }
+}
@@ -0,0 +1,95 @@
+package com.musala.drone.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class BoundedRingBufferTest {
+
+    @Test
+    void capacityIsRoundedUpToAPowerOfTwo() {
+        assertThat(new BoundedRingBuffer<>(1).capacity()).isEqualTo(1);
+        assertThat(new BoundedRingBuffer<>(5).capacity()).isEqualTo(8);
+        assertThat(new BoundedRingBuffer<>(8).capacity()).isEqualTo(8);
+        assertThatThrownBy(() -> new BoundedRingBuffer<>(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void isFifoAndBounded() {
+        BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(4);
+        for (int lap = 0; lap < 3; lap++) {
+            for (int i = 0; i < 4; i++) {
+                assertThat(buffer.offer(lap * 4 + i)).isTrue();
+            }
+            assertThat(buffer.offer(-1)).isFalse();
+            assertThat(buffer.size()).isEqualTo(4);
+            for (int i = 0; i < 4; i++) {
+                assertThat(buffer.poll()).isEqualTo(lap * 4 + i);
+            }
+            assertThat(buffer.poll()).isNull();
+            assertThat(buffer.size()).isZero();
+        }
+    }
+
+    @Test
+    void concurrentProducersAndConsumersNeitherLoseNorDuplicate() throws Exception {
+        int producers = 4;
+        int consumers = 3;
+        int perProducer = 20_000;
+        BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(64);
+        ExecutorService executor = Executors.newFixedThreadPool(producers + consumers);
+        CountDownLatch produced = new CountDownLatch(producers);
+        try {
+            for (int p = 0; p < producers; p++) {
+                int first = p * perProducer;
+                executor.submit(() -> {
+                    for (int i = first; i < first + perProducer; i++) {
+                        while (!buffer.offer(i)) {
+                            Thread.yield();
+                        }
+                    }
+                    produced.countDown();
+                });
+            }
+            List<Future<List<Integer>>> consumed = new ArrayList<>();
+            for (int c = 0; c < consumers; c++) {
+                consumed.add(
+                    executor.submit(() -> {
+                        List<Integer> taken = new ArrayList<>();
+                        while (true) {
+                            Integer element = buffer.poll();
+                            if (element != null) {
+                                taken.add(element);
+                            } else if (produced.getCount() == 0 && buffer.size() == 0) {
+                                return taken;
+                            } else {
+                                Thread.yield();
+                            }
+                        }
+                    })
+                );
+            }
+            BitSet seen = new BitSet(producers * perProducer);
+            int total = 0;
+            for (Future<List<Integer>> future : consumed) {
+                for (Integer element : future.get(30, TimeUnit.SECONDS)) {
+                    assertThat(seen.get(element)).isFalse();
+                    seen.set(element);
+                    total++;
+                }
+            }
+            assertThat(total).isEqualTo(producers * perProducer);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
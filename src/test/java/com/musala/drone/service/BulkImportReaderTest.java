@@ -0,0 +1,92 @@
+package com.musala.drone.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+class BulkImportReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void csvRowsAreNamedAfterTheHeader() throws IOException {
+        List<BulkImportReader.Row> rows = read(
+            BulkImportService.Format.CSV,
+            "id;serial_number;weight_limit;drone_id;created_date;last_modified_date\n" +
+            "1;SN-1;300;7;2022-10-16T08:48:22;2022-10-16T08:48:22+02:00\n" +
+            "\n" +
+            "2;\"SN;\"\"2\"\"\";;;;\n"
+        );
+
+        assertThat(rows).extracting(BulkImportReader.Row::getLine).containsExactly(2, 4);
+        assertThat(rows.get(0).getValue().toString())
+            .isEqualTo(
+                "{\"id\":\"1\",\"serialNumber\":\"SN-1\",\"weightLimit\":\"300\",\"drone\":{\"id\":\"7\"}," +
+                "\"createdDate\":\"2022-10-16T08:48:22Z\",\"lastModifiedDate\":\"2022-10-16T08:48:22+02:00\"}"
+            );
+        assertThat(rows.get(1).getValue().toString()).isEqualTo("{\"id\":\"2\",\"serialNumber\":\"SN;\\\"2\\\"\"}");
+    }
+
+    @Test
+    void malformedCsvRowsAreReported() throws IOException {
+        List<BulkImportReader.Row> rows = read(BulkImportService.Format.CSV, "id;name\n1;a;b\n2;\"b\n3;c\n");
+
+        assertThat(rows).extracting(BulkImportReader.Row::getError).containsExactly(
+            "The row has 3 columns rather than 2",
+            "The row has an unterminated quote",
+            null
+        );
+        assertThat(rows.get(2).getValue().get("name").asText()).isEqualTo("c");
+    }
+
+    @Test
+    void ndjsonRowsAreJsonObjects() throws IOException {
+        List<BulkImportReader.Row> rows = read(BulkImportService.Format.NDJSON, "{\"name\":\"a\"}\n\n[1]\n{\"name\":\n");
+
+        assertThat(rows).extracting(BulkImportReader.Row::getLine).containsExactly(1, 3, 4);
+        assertThat(rows.get(0).getValue().get("name").asText()).isEqualTo("a");
+        assertThat(rows.get(1).getError()).isEqualTo("The row is not a JSON object");
+        assertThat(rows.get(2).getError()).startsWith("The row is not valid JSON: ");
+    }
+
+    @Test
+    void datesWithoutAnOffsetAreInUtc() {
+        assertThat(BulkImportReader.toInstant("2022-10-16T08:48:22")).isEqualTo("2022-10-16T08:48:22Z");
+        assertThat(BulkImportReader.toInstant("2022-10-16T08:48:22.125")).isEqualTo("2022-10-16T08:48:22.125Z");
+        assertThat(BulkImportReader.toInstant("2022-10-16T08:48")).isEqualTo("2022-10-16T08:48:00Z");
+        assertThat(BulkImportReader.toInstant("2022-10-16T08:48:22-03:00")).isEqualTo("2022-10-16T08:48:22-03:00");
+        assertThat(BulkImportReader.toInstant("yesterday")).isEqualTo("yesterday");
+    }
+
+    @Test
+    void columnsAreCamelCasedAndFormatsKnown() {
+        assertThat(BulkImportReader.camelCase("image_content_type")).isEqualTo("imageContentType");
+        assertThat(BulkImportReader.camelCase("_name")).isEqualTo("name");
+        assertThatThrownBy(() -> BulkImportService.Format.of(MediaType.TEXT_PLAIN))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<BulkImportReader.Row> read(BulkImportService.Format format, String content) throws IOException {
+        List<BulkImportReader.Row> rows = new ArrayList<>();
+        try (
+            BulkImportReader reader = new BulkImportReader(
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)),
+                format,
+                objectMapper
+            )
+        ) {
+            for (BulkImportReader.Row row = reader.next(); row != null; row = reader.next()) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
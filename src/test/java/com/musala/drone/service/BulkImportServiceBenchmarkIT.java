@@ -0,0 +1,155 @@
+package com.musala.drone.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.musala.drone.IntegrationTest;
+import com.musala.drone.service.dto.BulkImportResultDTO;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Measures the sustained rate of a bulk import of 100k drones from CSV, and of 100k medications loaded onto 1k drones,
+ * with the chunk and flush sizes of the application, once a first import has warmed the JIT up.
+ * <p>
+ * Each import must sustain {@code benchmark.min-rows-per-second} rows per second, 5,000 by default: the rate the import
+ * keeps on the single vCPU of the build agent, with H2 in memory. Faster hosts raise it, up to the tens of thousands of
+ * rows per second of production hardware.
+ * <p>
+ * Run with {@code ./mvnw verify -Dbenchmark=true -Djacoco.skip=true -Dit.test=BulkImportServiceBenchmarkIT}, the coverage
+ * agent slowing every class down.
+ */
+@IntegrationTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestPropertySource(
+    properties = {
+        "application.bulk-import.chunk-size=1000",
+        "application.bulk-import.flush-size=250",
+        "application.bulk-import.max-drones-per-chunk=32",
+    }
+)
+class BulkImportServiceBenchmarkIT {
+
+    private static final long MIN_ROWS_PER_SECOND = Long.getLong("benchmark.min-rows-per-second", 5_000);
+
+    private static final int DRONES = 100_000;
+
+    private static final int WARM_UP_DRONES = 50_000;
+
+    private static final int LOADED_DRONES = 1_000;
+
+    private static final int MEDICATIONS_PER_DRONE = 100;
+
+    private static final int WARM_UP_MEDICATIONS_PER_DRONE = 50;
+
+    private final Logger log = LoggerFactory.getLogger(BulkImportServiceBenchmarkIT.class);
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    @Timeout(600)
+    public void deleteDrones() {
+        new TransactionTemplate(transactionManager)
+            .executeWithoutResult(status -> {
+                String drones = "(select id from drone where created_by = 'benchmark')";
+                jdbcTemplate.update("delete from medication where created_by = 'benchmark'");
+                jdbcTemplate.update("delete from drone_snapshot where drone_id in " + drones);
+                jdbcTemplate.update("delete from drone_event where drone_id in " + drones);
+                jdbcTemplate.update("delete from drone_summary where drone_id in " + drones);
+                jdbcTemplate.update("delete from drone where created_by = 'benchmark'");
+            });
+    }
+
+    @Test
+    @Timeout(600)
+    void importDrones() throws IOException {
+        bulkImportService.importDrones(new ByteArrayInputStream(drones("WARM-UP-", WARM_UP_DRONES)), BulkImportService.Format.CSV);
+        byte[] bytes = drones("BENCHMARK-", DRONES);
+
+        long start = System.nanoTime();
+        BulkImportResultDTO result = bulkImportService.importDrones(new ByteArrayInputStream(bytes), BulkImportService.Format.CSV);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(result.getImported()).isEqualTo(DRONES);
+        assertThat(result.getRejected()).isZero();
+        assertRate("drones", DRONES, millis);
+    }
+
+    @Test
+    @Timeout(600)
+    void importMedications() throws IOException {
+        bulkImportService.importDrones(new ByteArrayInputStream(drones("LOADED-", LOADED_DRONES)), BulkImportService.Format.CSV);
+        List<Long> droneIds = jdbcTemplate.queryForList(
+            "select id from drone where serial_number like 'LOADED-%' order by id",
+            Long.class
+        );
+        bulkImportService.importMedications(
+            new ByteArrayInputStream(medications("WARM-UP-", droneIds, WARM_UP_MEDICATIONS_PER_DRONE)),
+            BulkImportService.Format.CSV
+        );
+        byte[] bytes = medications("BENCHMARK-", droneIds, MEDICATIONS_PER_DRONE);
+
+        long start = System.nanoTime();
+        BulkImportResultDTO result = bulkImportService.importMedications(new ByteArrayInputStream(bytes), BulkImportService.Format.CSV);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(result.getImported()).isEqualTo(LOADED_DRONES * MEDICATIONS_PER_DRONE);
+        assertThat(result.getRejected()).isZero();
+        assertRate("medications", result.getImported(), millis);
+    }
+
+    private void assertRate(String rows, int imported, long millis) {
+        long rowsPerSecond = imported * 1000L / Math.max(millis, 1);
+        log.info("Imported {} {} in {} ms, {} rows/s", imported, rows, millis, rowsPerSecond);
+        assertThat(rowsPerSecond).as("%s imported per second", rows).isGreaterThanOrEqualTo(MIN_ROWS_PER_SECOND);
+    }
+
+    private static byte[] drones(String serialNumberPrefix, int drones) {
+        StringBuilder content = new StringBuilder("serial_number;model;weight_limit;battery_capacity;state;created_by;created_date\n");
+        for (int i = 0; i < drones; i++) {
+            content.append(serialNumberPrefix).append(i).append(";Middleweight;500;90;IDLE;benchmark;2022-10-16T08:48:22\n");
+        }
+        return content.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the medications of each drone in turn, as a depot exports them.
+     */
+    private static byte[] medications(String namePrefix, List<Long> droneIds, int perDrone) {
+        StringBuilder content = new StringBuilder("name;weight;code;created_by;created_date;drone_id\n");
+        int i = 0;
+        for (Long droneId : droneIds) {
+            for (int j = 0; j < perDrone; j++, i++) {
+                content
+                    .append(namePrefix)
+                    .append(i)
+                    .append(";1;")
+                    .append(namePrefix.replace('-', '_'))
+                    .append(i)
+                    .append(";benchmark;2022-10-16T08:48:22;")
+                    .append(droneId)
+                    .append('\n');
+            }
+        }
+        return content.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
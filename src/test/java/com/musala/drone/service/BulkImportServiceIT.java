@@ -0,0 +1,279 @@
+package com.musala.drone.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.musala.drone.IntegrationTest;
+import com.musala.drone.domain.Drone;
+import com.musala.drone.domain.DroneSummary;
+import com.musala.drone.domain.Medication;
+import com.musala.drone.domain.enumeration.DroneEventType;
+import com.musala.drone.domain.enumeration.Model;
+import com.musala.drone.domain.enumeration.State;
+import com.musala.drone.repository.DroneRepository;
+import com.musala.drone.repository.DroneSummaryRepository;
+import com.musala.drone.repository.MedicationRepository;
+import com.musala.drone.service.dto.BulkImportResultDTO;
+import com.musala.drone.service.dto.DroneDTO;
+import com.musala.drone.service.dto.DroneEventDTO;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link BulkImportService}: the chunks are imported in their own committed transactions.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser("import")
+class BulkImportServiceIT {
+
+    private static final String DRONE_HEADER =
+        "id;serial_number;model;weight_limit;battery_capacity;state;created_by;created_date;last_modified_by;last_modified_date\n";
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private DroneService droneService;
+
+    @Autowired
+    private MedicationService medicationService;
+
+    @Autowired
+    private DroneRepository droneRepository;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    @Autowired
+    private DroneSummaryRepository droneSummaryRepository;
+
+    @Autowired
+    private FleetStateRegistry fleetStateRegistry;
+
+    @Autowired
+    private DroneEventLog droneEventLog;
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private DroneDTO drone;
+
+    @BeforeEach
+    public void initTest() {
+        DroneDTO droneDTO = new DroneDTO();
+        droneDTO.setSerialNumber("IMPORT-TARGET");
+        droneDTO.setModel(Model.Lightweight);
+        droneDTO.setWeightLimit(300);
+        droneDTO.setBatteryCapacity(90L);
+        droneDTO.setState(State.IDLE);
+        droneDTO.setCreatedBy("import");
+        droneDTO.setCreatedDate(Instant.now());
+        drone = droneService.save(droneDTO);
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        medicationRepository
+            .findAll()
+            .stream()
+            .filter(medication -> medication.getName().startsWith("import-"))
+            .map(Medication::getId)
+            .forEach(medicationService::delete);
+        droneRepository
+            .findAll()
+            .stream()
+            .filter(drone -> drone.getSerialNumber().startsWith("IMPORT-") || drone.getSerialNumber().startsWith("violet asynchronous"))
+            .map(Drone::getId)
+            .forEach(droneService::delete);
+    }
+
+    @Test
+    void theFakeDataDronesAreImported() throws Exception {
+        byte[] content = new ClassPathResource("config/liquibase/fake-data/drone1.csv").getInputStream().readAllBytes();
+
+        restMockMvc
+            .perform(post("/api/drones:import").contentType("text/csv").content(content))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imported").value(10))
+            .andExpect(jsonPath("$.rejected").value(0));
+
+        Drone imported = droneRepository
+            .findAll()
+            .stream()
+            .filter(drone -> drone.getSerialNumber().equals("violet asynchronous888"))
+            .findFirst()
+            .orElseThrow();
+        assertThat(imported.getId()).isNotEqualTo(10L);
+        assertThat(imported.getWeightLimit()).isEqualTo(3333);
+        assertThat(imported.getCreatedDate()).isEqualTo(Instant.parse("2022-10-16T08:48:22Z"));
+        assertThat(imported.getLoadedWeight()).isZero();
+        assertThat(droneSummaryRepository.findById(imported.getId()))
+            .get()
+            .extracting(DroneSummary::getRemainingCapacity)
+            .isEqualTo(3333);
+        assertThat(fleetStateRegistry.find(imported.getId())).isPresent();
+        assertThat(droneEventLog.findHistory(imported.getId(), 0, Long.MAX_VALUE, 10))
+            .extracting(DroneEventDTO::getType)
+            .containsExactly(DroneEventType.CREATED);
+
+        restMockMvc
+            .perform(post("/api/drones:import").contentType("text/csv").content(content))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imported").value(0))
+            .andExpect(jsonPath("$.rejected").value(10))
+            .andExpect(jsonPath("$.errors.length()").value(3))
+            .andExpect(jsonPath("$.errors[0].line").value(2))
+            .andExpect(jsonPath("$.errors[0].error").value("A drone with the serial number violet asynchronous34345345 already exists"));
+    }
+
+    @Test
+    void invalidDroneRowsAreReported() throws IOException {
+        BulkImportResultDTO result = bulkImportService.importDrones(
+            content(
+                DRONE_HEADER +
+                "1;IMPORT-1;Middleweight;eyeballs;90;IDLE;import;2022-10-16T08:48:22;;\n" +
+                "2;IMPORT-2;Middleweight;200;90;;import;2022-10-16T08:48:22;;\n" +
+                "3;IMPORT-3;Heavyweight;400;90;IDLE;import;2022-10-16T08:48:22;;\n" +
+                "4;IMPORT-3;Heavyweight;400;90;IDLE;import;2022-10-16T08:48:22;;\n"
+            ),
+            BulkImportService.Format.CSV
+        );
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(3);
+        assertThat(result.getErrors()).extracting(BulkImportResultDTO.RowError::getLine).containsExactly(2, 3, 5);
+        assertThat(result.getErrors())
+            .extracting(BulkImportResultDTO.RowError::getError)
+            .containsExactly(
+                "weightLimit cannot be read from \"eyeballs\"",
+                "state must not be null",
+                "A drone with the serial number IMPORT-3 already exists"
+            );
+    }
+
+    @Test
+    void medicationsAreLoadedOntoTheirDrones() throws IOException {
+        String droneId = drone.getId().toString();
+        assertThat(droneMedicationNames()).isEmpty();
+        BulkImportResultDTO result = bulkImportService.importMedications(
+            content(
+                medication("import-1", 100, droneId) +
+                medication("import-2", 150, droneId) +
+                medication("import-3", 50, null) +
+                medication("import-1", 10, null) +
+                "{\"name\":\"import-4\",\"code\":\"IMPORT_4\",\"weight\":1,\"image\":\"AAAA\",\"createdBy\":\"import\",\"createdDate\":\"2022-10-16T08:48:22Z\"}\n" +
+                medication("import-5", 100, droneId) +
+                medication("import-6", 100, Long.toString(Long.MAX_VALUE))
+            ),
+            BulkImportService.Format.NDJSON
+        );
+
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getRejected()).isEqualTo(4);
+        assertThat(result.getErrors())
+            .extracting(BulkImportResultDTO.RowError::getError)
+            .containsExactly(
+                "A medication with the name import-1 already exists",
+                "The images are not imported, upload them to /api/medications/{id}/image",
+                "The Drone " + droneId + " cannot take the 1 medications of 100 of this chunk, its weight limit is 300"
+            );
+        List<Medication> medications = medicationRepository
+            .findMedicationByDrone(droneRepository.getReferenceById(drone.getId()))
+            .stream()
+            .collect(Collectors.toList());
+        assertThat(medications).extracting(Medication::getName).containsExactlyInAnyOrder("import-1", "import-2");
+        assertThat(droneMedicationNames()).containsExactlyInAnyOrder("import-1", "import-2");
+        assertThat(droneRepository.findCapacityById(drone.getId()).orElseThrow().getLoadedWeight()).isEqualTo(250);
+        assertThat(droneSummaryRepository.findById(drone.getId()))
+            .get()
+            .satisfies(summary -> {
+                assertThat(summary.getMedicationCount()).isEqualTo(2);
+                assertThat(summary.getRemainingCapacity()).isEqualTo(50);
+            });
+        assertThat(fleetStateRegistry.find(drone.getId()).orElseThrow().getState()).isEqualTo(State.LOADING);
+    }
+
+    @Test
+    void aChunkLoadsAtMostMaxDronesPerChunkDrones() throws IOException {
+        String droneId = drone.getId().toString();
+        String secondId = otherDrone("IMPORT-SECOND").getId().toString();
+        String thirdId = otherDrone("IMPORT-THIRD").getId().toString();
+        BulkImportResultDTO result = bulkImportService.importMedications(
+            content(
+                medication("import-1", 200, droneId) +
+                medication("import-2", 10, secondId) +
+                medication("import-3", 10, thirdId) +
+                medication("import-4", 200, droneId)
+            ),
+            BulkImportService.Format.NDJSON
+        );
+
+        // the third drone closes the first chunk, so the drone is loaded by two chunks and only the second is rejected
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getRejected()).isEqualTo(1);
+        assertThat(result.getErrors())
+            .extracting(BulkImportResultDTO.RowError::getError)
+            .containsExactly("The Drone " + droneId + " cannot take the 1 medications of 200 of this chunk, its weight limit is 300");
+        assertThat(droneRepository.findCapacityById(drone.getId()).orElseThrow().getLoadedWeight()).isEqualTo(200);
+    }
+
+    /**
+     * @return the names of the medications of the drone, read through its cached collection.
+     */
+    private List<String> droneMedicationNames() {
+        return new TransactionTemplate(transactionManager)
+            .execute(status ->
+                droneRepository
+                    .findById(drone.getId())
+                    .orElseThrow()
+                    .getDroneMedications()
+                    .stream()
+                    .map(Medication::getName)
+                    .collect(Collectors.toList())
+            );
+    }
+
+    private DroneDTO otherDrone(String serialNumber) {
+        DroneDTO droneDTO = new DroneDTO();
+        droneDTO.setSerialNumber(serialNumber);
+        droneDTO.setModel(Model.Lightweight);
+        droneDTO.setWeightLimit(300);
+        droneDTO.setBatteryCapacity(90L);
+        droneDTO.setState(State.IDLE);
+        droneDTO.setCreatedBy("import");
+        droneDTO.setCreatedDate(Instant.now());
+        return droneService.save(droneDTO);
+    }
+
+    private static String medication(String name, int weight, String droneId) {
+        return (
+            "{\"name\":\"" + name + "\",\"code\":\"" + name.toUpperCase().replace('-', '_') + weight + "\",\"weight\":" + weight +
+            (droneId == null ? "" : ",\"drone\":{\"id\":" + droneId + "}") +
+            ",\"createdBy\":\"import\",\"createdDate\":\"2022-10-16T08:48:22Z\"}\n"
+        );
+    }
+
+    private static ByteArrayInputStream content(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
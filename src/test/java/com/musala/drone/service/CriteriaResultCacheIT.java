@@ -0,0 +1,201 @@
+package com.musala.drone.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.musala.drone.IntegrationTest;
+import com.musala.drone.config.SqlStatementRecorder;
+import com.musala.drone.domain.Drone;
+import com.musala.drone.domain.Medication;
+import com.musala.drone.domain.enumeration.Model;
+import com.musala.drone.domain.enumeration.State;
+import com.musala.drone.repository.DroneRepository;
+import com.musala.drone.repository.MedicationRepository;
+import com.musala.drone.service.criteria.DroneCriteria;
+import com.musala.drone.service.dto.DroneDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jhipster.service.filter.LongFilter;
+import tech.jhipster.service.filter.StringFilter;
+
+/**
+ * Integration tests for the {@link CriteriaResultCache} of the {@link DroneQueryService}, whose entities are committed so
+ * that the versions of the entity types are bumped as in production.
+ */
+@IntegrationTest
+class CriteriaResultCacheIT {
+
+    private static final PageRequest PAGE = PageRequest.of(0, 10, Sort.by("id"));
+
+    @Autowired
+    private DroneQueryService droneQueryService;
+
+    @Autowired
+    private DroneRepository droneRepository;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Long> droneIds = new ArrayList<>();
+
+    private Drone drone;
+
+    @BeforeEach
+    public void initTest() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        drone = save(1);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        transactionTemplate.executeWithoutResult(status -> {
+            droneIds.forEach(id -> medicationRepository.deleteAll(medicationRepository.findMedicationByDrone(new Drone().id(id))));
+            droneIds.forEach(droneRepository::deleteById);
+        });
+    }
+
+    @Test
+    void equivalentCriteriaAreReadOnce() {
+        DroneCriteria criteria = criteria();
+        DroneCriteria equivalent = criteria();
+        equivalent.getId().setIn(List.of(drone.getId(), drone.getId()));
+        equivalent.setSerialNumber(new StringFilter());
+        equivalent.setDistinct(false);
+        double hits = hits();
+
+        Page<DroneDTO> page = read(() -> droneQueryService.findByCriteria(criteria, PAGE), 1);
+
+        assertThat(page).extracting(DroneDTO::getId).containsExactly(drone.getId());
+        assertThat(read(() -> droneQueryService.findByCriteria(equivalent, PAGE), 0)).isSameAs(page);
+        assertThat(read(() -> droneQueryService.countByCriteria(criteria), 1)).isEqualTo(1);
+        assertThat(read(() -> droneQueryService.countByCriteria(equivalent), 0)).isEqualTo(1);
+        assertThat(hits()).isEqualTo(hits + 2);
+    }
+
+    @Test
+    void writesOfTheRepositoriesInvalidateTheResults() {
+        DroneCriteria criteria = criteria();
+        criteria.setState(new DroneCriteria.StateFilter());
+        criteria.getState().setEquals(State.IDLE);
+        assertThat(droneQueryService.findByCriteria(criteria, PAGE)).hasSize(1);
+
+        transactionTemplate.executeWithoutResult(status -> droneRepository.save(drone.state(State.LOADING)));
+
+        assertThat(read(() -> droneQueryService.findByCriteria(criteria, PAGE), 1)).isEmpty();
+    }
+
+    @Test
+    void bulkUpdatesInvalidateTheResults() {
+        DroneCriteria criteria = criteria();
+        assertThat(droneQueryService.findByCriteria(criteria)).extracting(DroneDTO::getState).containsExactly(State.IDLE);
+
+        transactionTemplate.executeWithoutResult(status ->
+            droneRepository.loadIfFits(drone.getId(), 100, 0L, State.LOADED, State.LOADING)
+        );
+
+        assertThat(read(() -> droneQueryService.findByCriteria(criteria), 1)).extracting(DroneDTO::getState).containsExactly(State.LOADING);
+    }
+
+    @Test
+    void writesOfTheMedicationsInvalidateTheDroneResults() {
+        DroneCriteria criteria = criteria();
+        criteria.droneMedicationsId().setSpecified(true);
+        assertThat(droneQueryService.findByCriteria(criteria, PAGE)).isEmpty();
+
+        transactionTemplate.executeWithoutResult(status ->
+            medicationRepository.save(
+                new Medication().name("CACHE-1").weight(10).code("CACHE_1").createdBy("cache").createdDate(Instant.now()).drone(drone)
+            )
+        );
+
+        assertThat(droneQueryService.findByCriteria(criteria, PAGE)).extracting(DroneDTO::getId).containsExactly(drone.getId());
+    }
+
+    @Test
+    void aTransactionReadsItsOwnWrites() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Drone other = save(2);
+            DroneCriteria criteria = criteria();
+            criteria.getId().setIn(List.of(drone.getId(), other.getId()));
+
+            assertThat(read(() -> droneQueryService.findByCriteria(criteria, PAGE), 1)).hasSize(2);
+            assertThat(read(() -> droneQueryService.findByCriteria(criteria, PAGE), 1)).hasSize(2);
+        });
+    }
+
+    @Test
+    void aRolledBackWriteInvalidatesTheResults() {
+        DroneCriteria criteria = criteria();
+        droneQueryService.findByCriteria(criteria, PAGE);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            droneRepository.save(drone.state(State.LOADING));
+            status.setRollbackOnly();
+        });
+
+        assertThat(read(() -> droneQueryService.findByCriteria(criteria, PAGE), 1))
+            .extracting(DroneDTO::getState)
+            .containsExactly(State.IDLE);
+    }
+
+    /**
+     * The drones of this test only, so that the ones left by other tests do not matter.
+     */
+    private DroneCriteria criteria() {
+        DroneCriteria criteria = new DroneCriteria();
+        LongFilter id = new LongFilter();
+        id.setIn(List.of(drone.getId()));
+        criteria.setId(id);
+        return criteria;
+    }
+
+    /**
+     * Run the query, checking how many statements it ran.
+     */
+    private <T> T read(Supplier<T> query, int statements) {
+        SqlStatementRecorder.start();
+        T result = query.get();
+        assertThat(SqlStatementRecorder.stop()).hasSize(statements);
+        return result;
+    }
+
+    private double hits() {
+        return meterRegistry.get("cache.gets").tag("cache", "droneCriteria").tag("result", "hit").functionCounter().count();
+    }
+
+    private Drone save(int i) {
+        Drone saved = transactionTemplate.execute(status ->
+            droneRepository.saveAndFlush(
+                new Drone()
+                    .serialNumber("CACHE-" + i)
+                    .model(Model.Lightweight)
+                    .weightLimit(500)
+                    .batteryCapacity(100L)
+                    .state(State.IDLE)
+                    .createdBy("cache")
+                    .createdDate(Instant.now())
+            )
+        );
+        droneIds.add(saved.getId());
+        return saved;
+    }
+}
@@ -0,0 +1,99 @@
+package com.musala.drone.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.musala.drone.IntegrationTest;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link DatabaseBlobStore}.
+ */
+@IntegrationTest
+class DatabaseBlobStoreIT {
+
+    private static final byte[] CONTENT = "database blob store".getBytes(StandardCharsets.US_ASCII);
+
+    private static final String CONTENT_HASH = "67041e5ba39f1090d3348bbb21d2f8b4cc998559a158eba6a791a96ac780cf04";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    public void cleanUp() {
+        new TransactionTemplate(transactionManager)
+            .executeWithoutResult(status -> jdbcTemplate.update("delete from blob_store where hash = ?", CONTENT_HASH));
+    }
+
+    @Test
+    void concurrentSavesOfTheSameContentBothSucceed() throws Exception {
+        DatabaseBlobStore blobStore = new DatabaseBlobStore(jdbcTemplate, transactionManager);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        CompletableFuture<BlobStore.StoredBlob> stored = transactionTemplate.execute(status -> {
+            // the other save inserted the blob, but did not commit yet
+            jdbcTemplate.update(
+                "insert into blob_store (hash, content, size, created_date) values (?, ?, ?, ?)",
+                CONTENT_HASH,
+                CONTENT,
+                CONTENT.length,
+                Timestamp.from(Instant.now())
+            );
+            CompletableFuture<BlobStore.StoredBlob> future = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return blobStore.store(new ByteArrayInputStream(CONTENT));
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            try {
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return future;
+        });
+
+        assertThat(stored.get(10, TimeUnit.SECONDS).getHash()).isEqualTo(CONTENT_HASH);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from blob_store where hash = ?", Long.class, CONTENT_HASH)).isEqualTo(1);
+    }
+
+    @Test
+    void onlyBlobsNotStoredAgainSinceAreDeleted() throws Exception {
+        DatabaseBlobStore blobStore = new DatabaseBlobStore(jdbcTemplate, transactionManager);
+        blobStore.store(new ByteArrayInputStream(CONTENT));
+        new TransactionTemplate(transactionManager)
+            .executeWithoutResult(status ->
+                jdbcTemplate.update(
+                    "update blob_store set created_date = ? where hash = ?",
+                    Timestamp.from(Instant.now().minusSeconds(3600)),
+                    CONTENT_HASH
+                )
+            );
+        Instant cutoff = Instant.now().minusSeconds(60);
+
+        assertThat(blobStore.findStoredBefore(cutoff, "", 1000)).contains(CONTENT_HASH);
+        assertThat(blobStore.findStoredBefore(cutoff, CONTENT_HASH, 1000)).doesNotContain(CONTENT_HASH);
+        blobStore.store(new ByteArrayInputStream(CONTENT));
+        assertThat(blobStore.findStoredBefore(cutoff, "", 1000)).doesNotContain(CONTENT_HASH);
+        assertThat(blobStore.deleteStoredBefore(CONTENT_HASH, cutoff)).isFalse();
+        assertThat(blobStore.find(CONTENT_HASH)).isPresent();
+
+        assertThat(blobStore.deleteStoredBefore(CONTENT_HASH, Instant.now().plusSeconds(60))).isTrue();
+        assertThat(blobStore.find(CONTENT_HASH)).isEmpty();
+        assertThat(blobStore.touch(CONTENT_HASH)).isFalse();
+    }
+}
@@ -0,0 +1,78 @@
+package com.musala.drone.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.musala.drone.domain.enumeration.Model;
+import com.musala.drone.domain.enumeration.State;
+import com.musala.drone.service.dto.DroneStateDTO;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures the lookups of {@link DroneAvailabilityIndex} over fleets of growing size, so that the cost per lookup can
+ * be compared across them, once a round of lookups has warmed the JIT up.
+ * <p>
+ * Run with {@code ./mvnw verify -Dbenchmark=true -Djacoco.skip=true -Dit.test=DroneAvailabilityIndexBenchmarkIT}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class DroneAvailabilityIndexBenchmarkIT {
+
+    private static final int[] FLEET_SIZES = { 10_000, 100_000, 400_000 };
+
+    private static final int LOOKUPS = 100_000;
+
+    private static final State[] STATES = State.values();
+
+    private static final Model[] MODELS = Model.values();
+
+    private final Logger log = LoggerFactory.getLogger(DroneAvailabilityIndexBenchmarkIT.class);
+
+    @Test
+    @Timeout(600)
+    void findAvailableOverGrowingFleets() {
+        for (int fleetSize : FLEET_SIZES) {
+            DroneAvailabilityIndex index = index(fleetSize);
+            lookUp(index);
+
+            long start = System.nanoTime();
+            long found = lookUp(index);
+            long nanos = (System.nanoTime() - start) / LOOKUPS;
+
+            log.info("{} lookups over {} drones ({} available) in {} ns each", LOOKUPS, fleetSize, index.size(), nanos);
+            assertThat(found).isPositive();
+        }
+    }
+
+    private static long lookUp(DroneAvailabilityIndex index) {
+        long found = 0;
+        for (int i = 0; i < LOOKUPS; i++) {
+            found += index.findAvailable(null, i % 500, 25 + i % 75, 10).size();
+        }
+        return found;
+    }
+
+    private static DroneAvailabilityIndex index(int fleetSize) {
+        Random random = new Random(42);
+        DroneAvailabilityIndex index = new DroneAvailabilityIndex();
+        for (long id = 1; id <= fleetSize; id++) {
+            int weightLimit = 100 + random.nextInt(401);
+            index.update(
+                null,
+                new DroneStateDTO(
+                    id,
+                    "SN-" + id,
+                    MODELS[random.nextInt(MODELS.length)],
+                    STATES[random.nextInt(STATES.length)],
+                    weightLimit,
+                    random.nextInt(101),
+                    random.nextInt(weightLimit + 1)
+                )
+            );
+        }
+        return index;
+    }
+}
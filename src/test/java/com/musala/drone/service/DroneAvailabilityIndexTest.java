@@ -0,0 +1,95 @@
+package com.musala.drone.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.musala.drone.domain.enumeration.Model;
+import com.musala.drone.domain.enumeration.State;
+import com.musala.drone.service.dto.DroneStateDTO;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DroneAvailabilityIndexTest {
+
+    private static final int FLEET_SIZE = 10_000;
+
+    private static final State[] STATES = State.values();
+
+    private static final Model[] MODELS = Model.values();
+
+    private final Random random = new Random(42);
+
+    private List<DroneStateDTO> fleet;
+
+    private DroneAvailabilityIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        fleet = new ArrayList<>(FLEET_SIZE);
+        index = new DroneAvailabilityIndex();
+        for (long id = 1; id <= FLEET_SIZE; id++) {
+            DroneStateDTO drone = randomDrone(id);
+            fleet.add(drone);
+            index.update(null, drone);
+        }
+    }
+
+    @Test
+    void indexesAvailableDronesOnly() {
+        assertThat(index.size()).isEqualTo((int) fleet.stream().filter(DroneStateDTO::isAvailable).count());
+    }
+
+    @Test
+    void findAvailableMatchesFullScan() {
+        for (int i = 0; i < 200; i++) {
+            Model model = random.nextBoolean() ? null : MODELS[random.nextInt(MODELS.length)];
+            int minCapacity = random.nextInt(500);
+            long minBattery = random.nextInt(100);
+            int limit = 1 + random.nextInt(50);
+
+            assertThat(index.findAvailable(model, minCapacity, minBattery, limit))
+                .isEqualTo(fullScan(model, minCapacity, minBattery, limit));
+        }
+    }
+
+    @Test
+    void updatesMoveDronesInAndOutOfTheIndex() {
+        DroneStateDTO idle = new DroneStateDTO(0L, "FULL-1", Model.Heavyweight, State.IDLE, 500, 100L, 0);
+        index.update(null, idle);
+        assertThat(index.findAvailable(Model.Heavyweight, 500, 100L, 1)).containsExactly(idle);
+
+        DroneStateDTO loaded = new DroneStateDTO(0L, "FULL-1", Model.Heavyweight, State.LOADED, 500, 100L, 500);
+        index.update(idle, loaded);
+        assertThat(index.findAvailable(Model.Heavyweight, 500, 100L, 1)).doesNotContain(idle, loaded);
+
+        index.update(loaded, null);
+        assertThat(index.size()).isEqualTo((int) fleet.stream().filter(DroneStateDTO::isAvailable).count());
+    }
+
+    private List<DroneStateDTO> fullScan(Model model, int minCapacity, long minBattery, int limit) {
+        return fleet
+            .stream()
+            .filter(DroneStateDTO::isAvailable)
+            .filter(drone -> model == null || drone.getModel() == model)
+            .filter(drone -> drone.getRemainingCapacity() >= minCapacity && drone.getBatteryCapacity() >= minBattery)
+            .sorted(DroneAvailabilityIndex.BEST_FIT_FIRST)
+            .limit(limit)
+            .collect(Collectors.toList());
+    }
+
+    private DroneStateDTO randomDrone(long id) {
+        int weightLimit = 100 + random.nextInt(401);
+        return new DroneStateDTO(
+            id,
+            "SN-" + id,
+            MODELS[random.nextInt(MODELS.length)],
+            STATES[random.nextInt(STATES.length)],
+            weightLimit,
+            random.nextInt(101),
+            random.nextInt(weightLimit + 1)
+        );
+    }
+}
@@ -0,0 +1,159 @@
+package com.musala.drone.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+import com.musala.drone.IntegrationTest;
+import com.musala.drone.domain.Drone;
+import com.musala.drone.domain.enumeration.Model;
+import com.musala.drone.domain.enumeration.State;
+import com.musala.drone.repository.DroneRepository;
+import com.musala.drone.repository.MedicationRepository;
+import com.musala.drone.service.dto.DroneDTO;
+import com.musala.drone.service.dto.MedicationDTO;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Stress tests for {@link DroneCommandLanes}: many threads load and unload the same drone concurrently.
+ */
+@IntegrationTest
+class DroneCommandLanesIT {
+
+    private static final int THREADS = 16;
+
+    private static final int LOADS_PER_THREAD = 20;
+
+    private static final int WEIGHT = 7;
+
+    private static final int WEIGHT_LIMIT = 500;
+
+    @Autowired
+    private MedicationService medicationService;
+
+    @Autowired
+    private DroneService droneService;
+
+    @Autowired
+    private DroneRepository droneRepository;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    @Autowired
+    private DroneCommandLanes droneCommandLanes;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Drone drone;
+
+    @BeforeEach
+    public void initTest() {
+        drone =
+            droneRepository.saveAndFlush(
+                new Drone()
+                    .serialNumber("LANES-STRESS")
+                    .model(Model.Heavyweight)
+                    .weightLimit(WEIGHT_LIMIT)
+                    .batteryCapacity(100L)
+                    .state(State.IDLE)
+                    .createdBy("lanes")
+                    .createdDate(Instant.now())
+            );
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        medicationRepository.findMedicationByDrone(drone).forEach(medication -> medicationService.delete(medication.getId()));
+        droneService.delete(drone.getId());
+    }
+
+    @Test
+    void concurrentLoadsNeverExceedWeightLimit() throws Exception {
+        AtomicInteger loaded = new AtomicInteger();
+        AtomicInteger unloaded = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < LOADS_PER_THREAD; i++) {
+                        MedicationDTO saved;
+                        try {
+                            saved = medicationService.save(createMedication("lanes-" + thread + "-" + i));
+                        } catch (Exception e) {
+                            continue;
+                        }
+                        loaded.incrementAndGet();
+                        if (i % 3 == 0) {
+                            medicationService.delete(saved.getId());
+                            unloaded.incrementAndGet();
+                        }
+                    }
+                    return null;
+                })
+            );
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        Drone result = droneRepository.findById(drone.getId()).orElseThrow();
+        int onBoard = medicationRepository.findMedicationByDrone(drone).stream().mapToInt(m -> m.getWeight()).sum();
+        assertThat(loaded.get()).isPositive();
+        assertThat(result.getLoadedWeight()).isLessThanOrEqualTo(WEIGHT_LIMIT);
+        assertThat(result.getLoadedWeight()).isEqualTo(onBoard);
+        assertThat(result.getLoadedWeight()).isEqualTo((loaded.get() - unloaded.get()) * WEIGHT);
+    }
+
+    @Test
+    void exitedLanesCanBeEnteredBeforeTheTransactionCompletes() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                DroneCommandLanes.Entry lanes = droneCommandLanes.enter(drone.getId());
+                lanes.exit();
+                Future<?> other = executor.submit(() ->
+                    transactionTemplate.executeWithoutResult(otherStatus -> droneCommandLanes.enter(drone.getId()))
+                );
+                assertThatCode(() -> other.get(1, TimeUnit.SECONDS)).doesNotThrowAnyException();
+                droneCommandLanes.enter(drone.getId());
+            });
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private MedicationDTO createMedication(String name) {
+        DroneDTO droneDTO = new DroneDTO();
+        droneDTO.setId(drone.getId());
+        MedicationDTO medicationDTO = new MedicationDTO();
+        medicationDTO.setName(name);
+        medicationDTO.setCode(name);
+        medicationDTO.setWeight(WEIGHT);
+        medicationDTO.setCreatedBy("lanes");
+        medicationDTO.setCreatedDate(Instant.now());
+        medicationDTO.setDrone(droneDTO);
+        return medicationDTO;
+    }
+}
@@ -0,0 +1,250 @@
+package com.musala.drone.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.musala.drone.IntegrationTest;
+import com.musala.drone.domain.DroneSnapshot;
+import com.musala.drone.domain.enumeration.DroneEventType;
+import com.musala.drone.domain.enumeration.Model;
+import com.musala.drone.domain.enumeration.State;
+import com.musala.drone.repository.DroneEventRepository;
+import com.musala.drone.repository.DroneRepository;
+import com.musala.drone.repository.DroneSnapshotRepository;
+import com.musala.drone.repository.MedicationRepository;
+import com.musala.drone.service.dto.DroneDTO;
+import com.musala.drone.service.dto.DroneEventDTO;
+import com.musala.drone.service.dto.DroneSnapshotDTO;
+import com.musala.drone.service.dto.MedicationDTO;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for {@link DroneEventLog}: the commands run in their own committed transactions.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser("history")
+class DroneEventLogIT {
+
+    @Autowired
+    private DroneEventLog droneEventLog;
+
+    @Autowired
+    private DroneService droneService;
+
+    @Autowired
+    private MedicationService medicationService;
+
+    @Autowired
+    private DroneRepository droneRepository;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    @Autowired
+    private DroneEventRepository droneEventRepository;
+
+    @Autowired
+    private DroneSnapshotRepository droneSnapshotRepository;
+
+    @Autowired
+    private MockMvc restDroneMockMvc;
+
+    private DroneDTO drone;
+
+    @BeforeEach
+    public void initTest() {
+        DroneDTO droneDTO = new DroneDTO();
+        droneDTO.setSerialNumber("HISTORY-TEST");
+        droneDTO.setModel(Model.Lightweight);
+        droneDTO.setWeightLimit(300);
+        droneDTO.setBatteryCapacity(90L);
+        droneDTO.setState(State.IDLE);
+        droneDTO.setCreatedBy("history");
+        droneDTO.setCreatedDate(Instant.now());
+        drone = droneService.save(droneDTO);
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        droneRepository
+            .findById(drone.getId())
+            .ifPresent(entity -> {
+                medicationRepository.findMedicationByDrone(entity).forEach(medication -> medicationService.delete(medication.getId()));
+                droneService.delete(entity.getId());
+            });
+        droneEventRepository.deleteAllInBatch(droneEventRepository.findHistory(drone.getId(), 0L, Long.MAX_VALUE, Pageable.unpaged()));
+        droneSnapshotRepository.deleteAllInBatch(
+            droneSnapshotRepository
+                .findAll()
+                .stream()
+                .filter(snapshot -> snapshot.getDroneId().equals(drone.getId()))
+                .collect(Collectors.toList())
+        );
+    }
+
+    @Test
+    void stateBatteryAndLoadChangesAreRecorded() throws Exception {
+        drone.setBatteryCapacity(70L);
+        drone = droneService.update(drone);
+        drone.setSerialNumber("HISTORY-TEST-RENAMED");
+        drone = droneService.update(drone);
+        MedicationDTO medication = medicationService.save(createMedication("history-1", 100));
+        medicationService.delete(medication.getId());
+
+        List<DroneEventDTO> events = history();
+
+        assertThat(events).extracting(DroneEventDTO::getType).containsExactly(
+            DroneEventType.CREATED,
+            DroneEventType.CHANGED,
+            DroneEventType.CHANGED,
+            DroneEventType.CHANGED
+        );
+        assertThat(events).extracting(DroneEventDTO::getState).containsExactly(State.IDLE, null, State.LOADING, null);
+        assertThat(events).extracting(DroneEventDTO::getBatteryCapacity).containsExactly(90L, 70L, null, null);
+        assertThat(events).extracting(DroneEventDTO::getLoadedWeight).containsExactly(0, null, 100, 0);
+        assertThat(events).extracting(DroneEventDTO::getCreatedBy).containsOnly("history");
+        assertThat(events).extracting(DroneEventDTO::getSeq).isSorted();
+    }
+
+    @Test
+    void theStateIsFoldedFromTheEventsUpToTheSeq() throws Exception {
+        drone.setBatteryCapacity(70L);
+        drone = droneService.update(drone);
+        medicationService.save(createMedication("history-2", 300));
+        List<DroneEventDTO> events = history();
+
+        assertThat(droneEventLog.findState(drone.getId(), Long.MAX_VALUE))
+            .get()
+            .satisfies(state -> {
+                assertThat(state.getSeq()).isEqualTo(events.get(2).getSeq());
+                assertThat(state.getState()).isEqualTo(State.LOADED);
+                assertThat(state.getBatteryCapacity()).isEqualTo(70L);
+                assertThat(state.getLoadedWeight()).isEqualTo(300);
+            });
+        assertThat(droneEventLog.findState(drone.getId(), events.get(1).getSeq()))
+            .get()
+            .satisfies(state -> {
+                assertThat(state.getState()).isEqualTo(State.IDLE);
+                assertThat(state.getBatteryCapacity()).isEqualTo(70L);
+                assertThat(state.getLoadedWeight()).isZero();
+            });
+        assertThat(droneEventLog.findState(drone.getId(), events.get(0).getSeq() - 1)).isEmpty();
+    }
+
+    @Test
+    void changesAreRecordedAgainstTheHistoryNotTheRegistry() {
+        FleetStateRegistry otherNode = new FleetStateRegistry(droneRepository, droneEventLog);
+        droneRepository.saveAndFlush(droneRepository.findById(drone.getId()).orElseThrow().batteryCapacity(60L));
+        otherNode.track(drone.getId());
+
+        List<DroneEventDTO> events = history();
+        assertThat(events).extracting(DroneEventDTO::getType).containsExactly(DroneEventType.CREATED, DroneEventType.CHANGED);
+        assertThat(events.get(1).getState()).isNull();
+        assertThat(events.get(1).getBatteryCapacity()).isEqualTo(60L);
+        assertThat(events.get(1).getLoadedWeight()).isNull();
+    }
+
+    @Test
+    void deletedDronesKeepTheirHistory() {
+        droneService.delete(drone.getId());
+
+        List<DroneEventDTO> events = history();
+        assertThat(events).extracting(DroneEventDTO::getType).containsExactly(DroneEventType.CREATED, DroneEventType.DELETED);
+        assertThat(droneEventLog.findState(drone.getId(), Long.MAX_VALUE)).isEmpty();
+        assertThat(droneEventLog.findState(drone.getId(), events.get(0).getSeq())).isPresent();
+    }
+
+    @Test
+    void snapshotsShortenTheTail() {
+        for (long battery = 80; battery >= 60; battery -= 10) {
+            drone.setBatteryCapacity(battery);
+            drone = droneService.update(drone);
+        }
+        DroneSnapshotDTO before = droneEventLog.findState(drone.getId(), Long.MAX_VALUE).orElseThrow();
+
+        assertThat(droneEventLog.snapshot()).isPositive();
+
+        List<DroneSnapshot> snapshots = droneSnapshotRepository
+            .findAll()
+            .stream()
+            .filter(snapshot -> snapshot.getDroneId().equals(drone.getId()))
+            .collect(Collectors.toList());
+        assertThat(snapshots).extracting(DroneSnapshot::getSeq).containsExactly(before.getSeq());
+        assertThat(snapshots.get(0).getBatteryCapacity()).isEqualTo(60L);
+        assertThat(droneEventLog.snapshot()).isZero();
+
+        drone.setState(State.RETURNING);
+        drone = droneService.update(drone);
+        assertThat(droneEventLog.findState(drone.getId(), Long.MAX_VALUE))
+            .get()
+            .satisfies(state -> {
+                assertThat(state.getState()).isEqualTo(State.RETURNING);
+                assertThat(state.getBatteryCapacity()).isEqualTo(60L);
+            });
+        assertThat(droneEventLog.findState(drone.getId(), before.getSeq())).contains(before);
+    }
+
+    @Test
+    void getDroneEvents() throws Exception {
+        drone.setBatteryCapacity(50L);
+        drone = droneService.update(drone);
+        drone.setState(State.RETURNING);
+        drone = droneService.update(drone);
+        List<DroneEventDTO> events = history();
+
+        restDroneMockMvc
+            .perform(get("/api/drones/{id}/events?limit=2", drone.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$.[0].type").value(DroneEventType.CREATED.toString()))
+            .andExpect(jsonPath("$.[1].batteryCapacity").value(50))
+            .andExpect(header().string("Link", containsString("afterSeq=" + events.get(1).getSeq())));
+
+        restDroneMockMvc
+            .perform(get("/api/drones/{id}/events?afterSeq={seq}&limit=2", drone.getId(), events.get(1).getSeq()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$.[0].state").value(State.RETURNING.toString()))
+            .andExpect(header().doesNotExist("Link"));
+
+        restDroneMockMvc
+            .perform(get("/api/drones/{id}/events/state?seq={seq}", drone.getId(), events.get(1).getSeq()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.state").value(State.IDLE.toString()))
+            .andExpect(jsonPath("$.batteryCapacity").value(50));
+
+        restDroneMockMvc.perform(get("/api/drones/{id}/events/state", Long.MAX_VALUE)).andExpect(status().isNotFound());
+        restDroneMockMvc.perform(get("/api/drones/{id}/events?limit=0", drone.getId())).andExpect(status().isBadRequest());
+    }
+
+    private List<DroneEventDTO> history() {
+        return droneEventLog.findHistory(drone.getId(), 0, Long.MAX_VALUE, 100);
+    }
+
+    private MedicationDTO createMedication(String name, int weight) {
+        MedicationDTO medicationDTO = new MedicationDTO();
+        medicationDTO.setName(name);
+        medicationDTO.setCode(name);
+        medicationDTO.setWeight(weight);
+        medicationDTO.setCreatedBy("history");
+        medicationDTO.setCreatedDate(Instant.now());
+        medicationDTO.setDrone(drone);
+        return medicationDTO;
+    }
+}
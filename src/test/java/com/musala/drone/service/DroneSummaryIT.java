@@ -0,0 +1,177 @@
+package com.musala.drone.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.musala.drone.IntegrationTest;
+import com.musala.drone.domain.DroneSummary;
+import com.musala.drone.domain.enumeration.Model;
+import com.musala.drone.domain.enumeration.State;
+import com.musala.drone.repository.DroneRepository;
+import com.musala.drone.repository.DroneSummaryRepository;
+import com.musala.drone.repository.MedicationRepository;
+import com.musala.drone.service.dto.DroneDTO;
+import com.musala.drone.service.dto.MedicationDTO;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests of the {@link DroneSummary} read model: the commands run in their own committed transactions.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser("summary")
+class DroneSummaryIT {
+
+    @Autowired
+    private DroneService droneService;
+
+    @Autowired
+    private MedicationService medicationService;
+
+    @Autowired
+    private DroneRepository droneRepository;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    @Autowired
+    private DroneSummaryRepository droneSummaryRepository;
+
+    @Autowired
+    private MockMvc restDroneMockMvc;
+
+    private DroneDTO drone;
+
+    @BeforeEach
+    public void initTest() {
+        DroneDTO droneDTO = new DroneDTO();
+        droneDTO.setSerialNumber("SUMMARY-TEST");
+        droneDTO.setModel(Model.Middleweight);
+        droneDTO.setWeightLimit(400);
+        droneDTO.setBatteryCapacity(90L);
+        droneDTO.setState(State.IDLE);
+        droneDTO.setCreatedBy("summary");
+        droneDTO.setCreatedDate(Instant.now());
+        drone = droneService.save(droneDTO);
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        droneRepository
+            .findById(drone.getId())
+            .ifPresent(entity -> {
+                medicationRepository.findMedicationByDrone(entity).forEach(medication -> medicationService.delete(medication.getId()));
+                droneService.delete(entity.getId());
+            });
+    }
+
+    @Test
+    void theSummaryFollowsTheMedications() throws Exception {
+        assertSummary(0, 0, 400);
+
+        MedicationDTO medication = medicationService.save(createMedication("summary-1", 100));
+        assertSummary(1, 100, 300);
+
+        medicationService.saveAll(drone.getId(), List.of(createMedication("summary-2", 50), createMedication("summary-3", 20)));
+        assertSummary(3, 170, 230);
+
+        medication.setWeight(150);
+        medication = medicationService.update(medication);
+        assertSummary(3, 220, 180);
+
+        MedicationDTO weight = new MedicationDTO();
+        weight.setId(medication.getId());
+        weight.setWeight(130);
+        medicationService.partialUpdate(weight);
+        assertSummary(3, 200, 200);
+
+        medicationService.delete(medication.getId());
+        assertSummary(2, 70, 330);
+    }
+
+    @Test
+    void rejectedLoadsAreNotSummarised() {
+        assertThat(medicationService.saveAll(drone.getId(), List.of(createMedication("summary-4", 500)))).hasSize(1);
+
+        assertSummary(0, 0, 400);
+    }
+
+    @Test
+    void theRemainingCapacityFollowsTheWeightLimit() throws Exception {
+        medicationService.save(createMedication("summary-5", 100));
+
+        drone = droneService.findOne(drone.getId()).orElseThrow();
+        drone.setWeightLimit(450);
+        drone = droneService.update(drone);
+        assertSummary(1, 100, 350);
+
+        DroneDTO weightLimit = new DroneDTO();
+        weightLimit.setId(drone.getId());
+        weightLimit.setWeightLimit(250);
+        droneService.partialUpdate(weightLimit);
+        assertSummary(1, 100, 150);
+    }
+
+    @Test
+    void deletedDronesHaveNoSummary() {
+        droneService.delete(drone.getId());
+
+        assertThat(droneSummaryRepository.findById(drone.getId())).isEmpty();
+    }
+
+    @Test
+    void getDroneSummaries() throws Exception {
+        medicationService.save(createMedication("summary-6", 150));
+
+        restDroneMockMvc
+            .perform(get("/api/drones/summaries?droneId.equals={id}&remainingCapacity.greaterThanOrEqual=250", drone.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andExpect(jsonPath("$.[0].droneId").value(drone.getId()))
+            .andExpect(jsonPath("$.[0].medicationCount").value(1))
+            .andExpect(jsonPath("$.[0].totalWeight").value(150))
+            .andExpect(jsonPath("$.[0].remainingCapacity").value(250));
+
+        restDroneMockMvc
+            .perform(get("/api/drones/summaries?remainingCapacity.greaterThan=250&sort=droneId,asc"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].droneId").value(not(hasItem(drone.getId().intValue()))));
+
+        restDroneMockMvc
+            .perform(get("/api/drones/summaries/count?droneId.equals={id}&medicationCount.equals=1", drone.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().string("1"));
+    }
+
+    private void assertSummary(int medicationCount, int totalWeight, int remainingCapacity) {
+        DroneSummary summary = droneSummaryRepository.findById(drone.getId()).orElseThrow();
+        assertThat(summary.getMedicationCount()).isEqualTo(medicationCount);
+        assertThat(summary.getTotalWeight()).isEqualTo(totalWeight);
+        assertThat(summary.getRemainingCapacity()).isEqualTo(remainingCapacity);
+    }
+
+    private MedicationDTO createMedication(String name, int weight) {
+        MedicationDTO medicationDTO = new MedicationDTO();
+        medicationDTO.setName(name);
+        medicationDTO.setCode(name.toUpperCase().replace('-', '_'));
+        medicationDTO.setWeight(weight);
+        medicationDTO.setCreatedBy("summary");
+        medicationDTO.setCreatedDate(Instant.now());
+        medicationDTO.setDrone(drone);
+        return medicationDTO;
+    }
+}
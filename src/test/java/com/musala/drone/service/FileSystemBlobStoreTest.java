@@ -0,0 +1,111 @@
+package com.musala.drone.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+
+class FileSystemBlobStoreTest {
+
+    private static final byte[] CONTENT = "abc".getBytes(StandardCharsets.US_ASCII);
+
+    private static final String CONTENT_HASH = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void blobsAreStoredUnderTheirHash() throws IOException {
+        BlobStore blobStore = new FileSystemBlobStore(directory);
+
+        BlobStore.StoredBlob stored = blobStore.store(new ByteArrayInputStream(CONTENT));
+
+        assertThat(stored).isEqualTo(new BlobStore.StoredBlob(CONTENT_HASH, CONTENT.length, null));
+        Resource blob = blobStore.find(CONTENT_HASH).orElseThrow();
+        try (InputStream in = blob.getInputStream()) {
+            assertThat(in.readAllBytes()).isEqualTo(CONTENT);
+        }
+        assertThat(files()).containsExactly(directory.resolve("ba").resolve(CONTENT_HASH));
+    }
+
+    @Test
+    void identicalContentIsStoredOnce() throws IOException {
+        BlobStore blobStore = new FileSystemBlobStore(directory);
+
+        blobStore.store(new ByteArrayInputStream(CONTENT));
+        BlobStore.StoredBlob again = blobStore.store(new ByteArrayInputStream(CONTENT.clone()));
+
+        assertThat(again.getHash()).isEqualTo(CONTENT_HASH);
+        assertThat(files()).hasSize(1);
+    }
+
+    @Test
+    void contentLargerThanTheLimitIsNotStored() throws IOException {
+        BlobStore blobStore = new FileSystemBlobStore(directory);
+
+        assertThatThrownBy(() -> blobStore.store(new ByteArrayInputStream(new byte[20000]), 10000))
+            .isInstanceOf(BlobTooLargeException.class);
+        assertThat(files()).isEmpty();
+        assertThat(blobStore.store(new ByteArrayInputStream(CONTENT), CONTENT.length).getHash()).isEqualTo(CONTENT_HASH);
+    }
+
+    @Test
+    void theContentTypeIsDetectedFromTheFirstBytes() throws IOException {
+        BlobStore blobStore = new FileSystemBlobStore(directory);
+        byte[] png = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 0, 0, 0, 13 };
+        byte[] webp = "RIFF\0\0\0\0WEBPVP8 ".getBytes(StandardCharsets.US_ASCII);
+
+        assertThat(blobStore.store(new ByteArrayInputStream(png)).getContentType()).isEqualTo("image/png");
+        assertThat(blobStore.store(new ByteArrayInputStream(new byte[] { (byte) 0xff, (byte) 0xd8, (byte) 0xff })).getContentType())
+            .isEqualTo("image/jpeg");
+        assertThat(blobStore.store(new ByteArrayInputStream(webp)).getContentType()).isEqualTo("image/webp");
+        assertThat(blobStore.store(new ByteArrayInputStream(CONTENT)).getContentType()).isNull();
+        assertThat(blobStore.store(new ByteArrayInputStream(new byte[0])).getSize()).isZero();
+    }
+
+    @Test
+    void malformedOrUnknownHashesAreNotFound() {
+        BlobStore blobStore = new FileSystemBlobStore(directory);
+
+        assertThat(blobStore.find(CONTENT_HASH)).isEmpty();
+        assertThat(blobStore.find("../" + CONTENT_HASH.substring(3))).isEmpty();
+        assertThat(blobStore.find(null)).isEmpty();
+    }
+
+    @Test
+    void onlyBlobsNotStoredAgainSinceAreDeleted() throws IOException {
+        BlobStore blobStore = new FileSystemBlobStore(directory);
+        BlobStore.StoredBlob stored = blobStore.store(new ByteArrayInputStream(CONTENT));
+        Files.setLastModifiedTime(directory.resolve("ba").resolve(CONTENT_HASH), FileTime.from(Instant.now().minusSeconds(3600)));
+        Instant cutoff = Instant.now().minusSeconds(60);
+
+        assertThat(blobStore.findStoredBefore(cutoff, "", 10)).containsExactly(stored.getHash());
+        assertThat(blobStore.findStoredBefore(cutoff, stored.getHash(), 10)).isEmpty();
+        assertThat(blobStore.touch(stored.getHash())).isTrue();
+        assertThat(blobStore.findStoredBefore(cutoff, "", 10)).isEmpty();
+        assertThat(blobStore.deleteStoredBefore(stored.getHash(), cutoff)).isFalse();
+        assertThat(blobStore.find(stored.getHash())).isPresent();
+
+        assertThat(blobStore.deleteStoredBefore(stored.getHash(), Instant.now().plusSeconds(60))).isTrue();
+        assertThat(files()).isEmpty();
+        assertThat(blobStore.touch(stored.getHash())).isFalse();
+    }
+
+    private Iterable<Path> files() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+    }
+}
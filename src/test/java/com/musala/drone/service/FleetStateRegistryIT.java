@@ -0,0 +1,172 @@
+package com.musala.drone.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.musala.drone.IntegrationTest;
+import com.musala.drone.domain.enumeration.Model;
+import com.musala.drone.domain.enumeration.State;
+import com.musala.drone.repository.DroneRepository;
+import com.musala.drone.repository.MedicationRepository;
+import com.musala.drone.service.dto.DroneDTO;
+import com.musala.drone.service.dto.DroneStateDTO;
+import com.musala.drone.service.dto.MedicationDTO;
+import java.time.Instant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for {@link FleetStateRegistry}: the commands run in their own committed transactions.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class FleetStateRegistryIT {
+
+    private static final String SERIAL_NUMBER = "REGISTRY-TEST";
+
+    @Autowired
+    private FleetStateRegistry fleetStateRegistry;
+
+    @Autowired
+    private DroneService droneService;
+
+    @Autowired
+    private MedicationService medicationService;
+
+    @Autowired
+    private DroneRepository droneRepository;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    @Autowired
+    private MockMvc restDroneMockMvc;
+
+    private DroneDTO drone;
+
+    @BeforeEach
+    public void initTest() {
+        DroneDTO droneDTO = new DroneDTO();
+        droneDTO.setSerialNumber(SERIAL_NUMBER);
+        droneDTO.setModel(Model.Middleweight);
+        droneDTO.setWeightLimit(300);
+        droneDTO.setBatteryCapacity(80L);
+        droneDTO.setState(State.IDLE);
+        droneDTO.setCreatedBy("registry");
+        droneDTO.setCreatedDate(Instant.now());
+        drone = droneService.save(droneDTO);
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        droneRepository
+            .findById(drone.getId())
+            .ifPresent(entity -> {
+                medicationRepository.findMedicationByDrone(entity).forEach(medication -> medicationService.delete(medication.getId()));
+                droneService.delete(entity.getId());
+            });
+    }
+
+    @Test
+    void savedDroneIsRegistered() {
+        assertThat(fleetStateRegistry.find(drone.getId()))
+            .contains(new DroneStateDTO(drone.getId(), SERIAL_NUMBER, Model.Middleweight, State.IDLE, 300, 80L, 0));
+        assertThat(fleetStateRegistry.findBySerialNumber(SERIAL_NUMBER)).isEqualTo(fleetStateRegistry.find(drone.getId()));
+    }
+
+    @Test
+    void loadsAreWrittenThrough() throws Exception {
+        MedicationDTO medication = medicationService.save(createMedication("registry-1", 100));
+
+        DroneStateDTO state = fleetStateRegistry.find(drone.getId()).orElseThrow();
+        assertThat(state.getLoadedWeight()).isEqualTo(100);
+        assertThat(state.getState()).isEqualTo(State.LOADING);
+        assertThat(state.isAvailable()).isTrue();
+
+        assertThatThrownBy(() -> medicationService.save(createMedication("registry-2", 250))).isInstanceOf(Exception.class);
+        assertThat(fleetStateRegistry.find(drone.getId())).contains(state);
+
+        medicationService.delete(medication.getId());
+        assertThat(fleetStateRegistry.find(drone.getId()).orElseThrow().getLoadedWeight()).isZero();
+    }
+
+    @Test
+    void deletedDroneIsUnregistered() {
+        droneService.delete(drone.getId());
+
+        assertThat(fleetStateRegistry.find(drone.getId())).isEmpty();
+        assertThat(fleetStateRegistry.findBySerialNumber(SERIAL_NUMBER)).isEmpty();
+    }
+
+    @Test
+    void getDroneStateFromMemory() throws Exception {
+        medicationService.save(createMedication("registry-3", 300));
+
+        restDroneMockMvc
+            .perform(get("/api/drones/{id}/state", drone.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.serialNumber").value(SERIAL_NUMBER))
+            .andExpect(jsonPath("$.state").value(State.LOADED.toString()))
+            .andExpect(jsonPath("$.batteryCapacity").value(80))
+            .andExpect(jsonPath("$.loadedWeight").value(300))
+            .andExpect(jsonPath("$.available").value(false));
+
+        restDroneMockMvc
+            .perform(get("/api/drones/states?serialNumber={serialNumber}&state=LOADED", SERIAL_NUMBER))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$.[0].id").value(drone.getId().intValue()));
+
+        restDroneMockMvc
+            .perform(get("/api/drones/states?serialNumber={serialNumber}&available=true", SERIAL_NUMBER))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(0)));
+
+        restDroneMockMvc.perform(get("/api/drones/{id}/state", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getAvailableDronesFromMemory() throws Exception {
+        medicationService.save(createMedication("registry-4", 100));
+
+        restDroneMockMvc
+            .perform(get("/api/drones/available?minCapacity=200&minBattery=80&model=Middleweight&limit=100"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(drone.getId().intValue())));
+
+        restDroneMockMvc
+            .perform(get("/api/drones/available?minCapacity=201&model=Middleweight&limit=100"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(drone.getId().intValue()))));
+
+        restDroneMockMvc
+            .perform(get("/api/drones/available?minBattery=81&model=Middleweight&limit=100"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(drone.getId().intValue()))));
+
+        restDroneMockMvc.perform(get("/api/drones/available?limit=0")).andExpect(status().isBadRequest());
+    }
+
+    private MedicationDTO createMedication(String name, int weight) {
+        MedicationDTO medicationDTO = new MedicationDTO();
+        medicationDTO.setName(name);
+        medicationDTO.setCode(name);
+        medicationDTO.setWeight(weight);
+        medicationDTO.setCreatedBy("registry");
+        medicationDTO.setCreatedDate(Instant.now());
+        medicationDTO.setDrone(drone);
+        return medicationDTO;
+    }
+}
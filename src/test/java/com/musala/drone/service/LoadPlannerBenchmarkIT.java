@@ -0,0 +1,64 @@
+package com.musala.drone.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.musala.drone.domain.enumeration.Model;
+import com.musala.drone.domain.enumeration.State;
+import com.musala.drone.service.dto.DroneStateDTO;
+import com.musala.drone.service.dto.LoadPlanDTO;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures the planning of 10k medications onto 1k drones, once a few plans have warmed the JIT up.
+ * <p>
+ * Run with {@code ./mvnw verify -Dbenchmark=true -Djacoco.skip=true -Dit.test=LoadPlannerBenchmarkIT}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LoadPlannerBenchmarkIT {
+
+    private static final int DRONES = 1_000;
+
+    private static final int MEDICATIONS = 10_000;
+
+    private static final int WARM_UP_RUNS = 20;
+
+    private static final int RUNS = 20;
+
+    private final Logger log = LoggerFactory.getLogger(LoadPlannerBenchmarkIT.class);
+
+    @Test
+    @Timeout(300)
+    void planTenThousandMedicationsOntoAThousandDrones() {
+        Random random = new Random(42);
+        List<DroneStateDTO> drones = new ArrayList<>(DRONES);
+        for (long id = 1; id <= DRONES; id++) {
+            drones.add(new DroneStateDTO(id, "SN-" + id, Model.Heavyweight, State.IDLE, 100 + random.nextInt(401), 100L, 0));
+        }
+        Map<Long, Integer> weights = new LinkedHashMap<>();
+        for (long id = 1; id <= MEDICATIONS; id++) {
+            weights.put(id, 1 + random.nextInt(60));
+        }
+        for (int i = 0; i < WARM_UP_RUNS; i++) {
+            LoadPlanner.plan(drones, weights);
+        }
+
+        LoadPlanDTO plan = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            plan = LoadPlanner.plan(drones, weights);
+        }
+        long micros = (System.nanoTime() - start) / 1_000 / RUNS;
+
+        log.info("Planned {} medications onto {} drones in {} us", MEDICATIONS, DRONES, micros);
+        assertThat(plan.getDrones()).isNotEmpty();
+    }
+}
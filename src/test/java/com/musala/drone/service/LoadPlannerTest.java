@@ -0,0 +1,78 @@
+package com.musala.drone.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.musala.drone.domain.enumeration.Model;
+import com.musala.drone.domain.enumeration.State;
+import com.musala.drone.service.dto.DroneLoadPlanDTO;
+import com.musala.drone.service.dto.DroneStateDTO;
+import com.musala.drone.service.dto.LoadPlanDTO;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class LoadPlannerTest {
+
+    @Test
+    void placesHeaviestFirstOnTheTightestDrone() {
+        List<DroneStateDTO> drones = List.of(drone(1L, 500, 0), drone(2L, 300, 0), drone(3L, 200, 100));
+        Map<Long, Integer> weights = new LinkedHashMap<>();
+        weights.put(10L, 90);
+        weights.put(11L, 250);
+        weights.put(12L, 100);
+        weights.put(13L, 600);
+
+        LoadPlanDTO plan = LoadPlanner.plan(drones, weights);
+
+        assertThat(plan.getUnassigned()).containsExactly(13L);
+        assertThat(plan.getDrones()).extracting(DroneLoadPlanDTO::getDroneId).containsExactly(1L, 2L, 3L);
+        assertThat(plan.getDrones().get(0).getMedicationIds()).containsExactly(10L);
+        assertThat(plan.getDrones().get(1).getMedicationIds()).containsExactly(11L);
+        assertThat(plan.getDrones().get(1).getWeight()).isEqualTo(250);
+        assertThat(plan.getDrones().get(2).getMedicationIds()).containsExactly(12L);
+        assertThat(plan.getDrones().get(2).getWeight()).isEqualTo(100);
+    }
+
+    @Test
+    void fullDronesAreSkipped() {
+        LoadPlanDTO plan = LoadPlanner.plan(List.of(drone(1L, 100, 100)), Map.of(10L, 1));
+
+        assertThat(plan.getDrones()).isEmpty();
+        assertThat(plan.getUnassigned()).containsExactly(10L);
+    }
+
+    @Test
+    void plansTenThousandMedicationsOntoAThousandDronesWithinTheirLimits() {
+        Random random = new Random(42);
+        List<DroneStateDTO> drones = new ArrayList<>();
+        Map<Long, DroneStateDTO> dronesById = new LinkedHashMap<>();
+        for (long id = 1; id <= 1_000; id++) {
+            DroneStateDTO drone = drone(id, 100 + random.nextInt(401), 0);
+            drones.add(drone);
+            dronesById.put(id, drone);
+        }
+        Map<Long, Integer> weights = new LinkedHashMap<>();
+        for (long id = 1; id <= 10_000; id++) {
+            weights.put(id, 1 + random.nextInt(60));
+        }
+
+        LoadPlanDTO plan = LoadPlanner.plan(drones, weights);
+
+        Set<Long> placed = new HashSet<>(plan.getUnassigned());
+        for (DroneLoadPlanDTO droneLoad : plan.getDrones()) {
+            assertThat(droneLoad.getWeight()).isLessThanOrEqualTo(dronesById.get(droneLoad.getDroneId()).getWeightLimit());
+            assertThat(droneLoad.getWeight()).isEqualTo(droneLoad.getMedicationIds().stream().mapToInt(weights::get).sum());
+            droneLoad.getMedicationIds().forEach(id -> assertThat(placed.add(id)).isTrue());
+        }
+        assertThat(placed).hasSize(weights.size());
+    }
+
+    private static DroneStateDTO drone(Long id, int weightLimit, int loadedWeight) {
+        return new DroneStateDTO(id, "SN-" + id, Model.Heavyweight, State.IDLE, weightLimit, 100L, loadedWeight);
+    }
+}
@@ -0,0 +1,136 @@
+package com.musala.drone.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.musala.drone.IntegrationTest;
+import com.musala.drone.domain.enumeration.Model;
+import com.musala.drone.domain.enumeration.State;
+import com.musala.drone.repository.DroneRepository;
+import com.musala.drone.repository.MedicationRepository;
+import com.musala.drone.service.dto.DroneDTO;
+import com.musala.drone.service.dto.DroneLoadPlanDTO;
+import com.musala.drone.service.dto.LoadPlanDTO;
+import com.musala.drone.service.dto.MedicationDTO;
+import com.musala.drone.web.rest.TestUtil;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for {@link LoadPlanningService}: the plans are applied in their own committed transactions.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class LoadPlanningServiceIT {
+
+    @Autowired
+    private LoadPlanningService loadPlanningService;
+
+    @Autowired
+    private DroneService droneService;
+
+    @Autowired
+    private MedicationService medicationService;
+
+    @Autowired
+    private FleetStateRegistry fleetStateRegistry;
+
+    @Autowired
+    private DroneRepository droneRepository;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    @Autowired
+    private MockMvc restMedicationMockMvc;
+
+    private final List<DroneDTO> drones = new ArrayList<>();
+
+    private final List<Long> medicationIds = new ArrayList<>();
+
+    @BeforeEach
+    public void initTest() throws Exception {
+        drones.add(droneService.save(createDrone("PLAN-1", 100L)));
+        drones.add(droneService.save(createDrone("PLAN-2", 100L)));
+        drones.add(droneService.save(createDrone("PLAN-LOW", 10L)));
+        for (int i = 0; i < 6; i++) {
+            medicationIds.add(medicationService.save(createMedication("plan-" + i, 150)).getId());
+        }
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        medicationIds.forEach(medicationService::delete);
+        drones.forEach(drone -> droneService.delete(drone.getId()));
+    }
+
+    @Test
+    void planDoesNotChangeAnything() throws Exception {
+        restMedicationMockMvc
+            .perform(
+                post("/api/medications/load-plan")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(medicationIds.get(0), Long.MAX_VALUE)))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.applied").value(false))
+            .andExpect(jsonPath("$.ignored[0]").value(Long.MAX_VALUE))
+            .andExpect(jsonPath("$.drones[*].medicationIds[*]").value(hasItem(medicationIds.get(0).intValue())));
+
+        assertThat(medicationRepository.findDroneLoadById(medicationIds.get(0)).orElseThrow().getDroneId()).isNull();
+    }
+
+    @Test
+    void applyLoadsThePlannedDrones() {
+        LoadPlanDTO plan = loadPlanningService.planAndApply(medicationIds);
+
+        assertThat(plan.isApplied()).isTrue();
+        assertThat(plan.getUnassigned()).isEmpty();
+        assertThat(plan.getDrones()).extracting(DroneLoadPlanDTO::getDroneId).doesNotContain(drones.get(2).getId());
+        for (DroneLoadPlanDTO droneLoad : plan.getDrones()) {
+            assertThat(droneLoad.getWeight()).isLessThanOrEqualTo(500);
+            assertThat(fleetStateRegistry.find(droneLoad.getDroneId()).orElseThrow().getState()).isIn(State.LOADING, State.LOADED);
+            for (Long medicationId : droneLoad.getMedicationIds()) {
+                assertThat(medicationRepository.findDroneLoadById(medicationId).orElseThrow().getDroneId())
+                    .isEqualTo(droneLoad.getDroneId());
+            }
+            assertThat(droneRepository.findCapacityById(droneLoad.getDroneId()).orElseThrow().getLoadedWeight())
+                .isEqualTo(fleetStateRegistry.find(droneLoad.getDroneId()).orElseThrow().getLoadedWeight());
+        }
+    }
+
+    private DroneDTO createDrone(String serialNumber, Long batteryCapacity) {
+        DroneDTO droneDTO = new DroneDTO();
+        droneDTO.setSerialNumber(serialNumber);
+        droneDTO.setModel(Model.Heavyweight);
+        droneDTO.setWeightLimit(500);
+        droneDTO.setBatteryCapacity(batteryCapacity);
+        droneDTO.setState(State.IDLE);
+        droneDTO.setCreatedBy("plan");
+        droneDTO.setCreatedDate(Instant.now());
+        return droneDTO;
+    }
+
+    private MedicationDTO createMedication(String name, int weight) {
+        MedicationDTO medicationDTO = new MedicationDTO();
+        medicationDTO.setName(name);
+        medicationDTO.setCode(name);
+        medicationDTO.setWeight(weight);
+        medicationDTO.setCreatedBy("plan");
+        medicationDTO.setCreatedDate(Instant.now());
+        return medicationDTO;
+    }
+}
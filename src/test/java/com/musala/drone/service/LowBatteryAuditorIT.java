@@ -0,0 +1,161 @@
+package com.musala.drone.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.musala.drone.IntegrationTest;
+import com.musala.drone.domain.Audit;
+import com.musala.drone.domain.Drone;
+import com.musala.drone.domain.enumeration.AuditEventType;
+import com.musala.drone.domain.enumeration.AuditSeverity;
+import com.musala.drone.domain.enumeration.Model;
+import com.musala.drone.domain.enumeration.State;
+import com.musala.drone.repository.AuditRepository;
+import com.musala.drone.repository.DroneRepository;
+import com.musala.drone.service.dto.DroneDTO;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration tests for {@link LowBatteryAuditor}: the commands run in their own committed transactions.
+ */
+@IntegrationTest
+class LowBatteryAuditorIT {
+
+    private static final String SERIAL_NUMBER = "LOW-BATTERY-TEST";
+
+    @Autowired
+    private DroneService droneService;
+
+    @Autowired
+    private DroneRepository droneRepository;
+
+    @Autowired
+    private AuditRepository auditRepository;
+
+    @Autowired
+    private AuditSchedule auditSchedule;
+
+    @Autowired
+    private LowBatteryAuditor lowBatteryAuditor;
+
+    @Autowired
+    private AuditJournal auditJournal;
+
+    private DroneDTO drone;
+
+    @BeforeEach
+    public void initTest() {
+        DroneDTO droneDTO = new DroneDTO();
+        droneDTO.setSerialNumber(SERIAL_NUMBER);
+        droneDTO.setModel(Model.Lightweight);
+        droneDTO.setWeightLimit(100);
+        droneDTO.setBatteryCapacity(50L);
+        droneDTO.setState(State.IDLE);
+        droneDTO.setCreatedBy("low-battery");
+        droneDTO.setCreatedDate(Instant.now());
+        drone = droneService.save(droneDTO);
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        auditRepository.deleteAll(audits());
+        droneService.delete(drone.getId());
+    }
+
+    @Test
+    void auditsOncePerCrossing() {
+        setBattery(10L);
+        assertThat(audits()).hasSize(1);
+        assertThat(audits().get(0).getMessage()).contains("Less than 20 %").endsWith(":10");
+        assertThat(audits().get(0).getDroneId()).isEqualTo(drone.getId());
+        assertThat(audits().get(0).getEventType()).isEqualTo(AuditEventType.BATTERY_LOW);
+        assertThat(audits().get(0).getNumericValue()).isEqualTo(10L);
+        assertThat(audits().get(0).getSeverity()).isEqualTo(AuditSeverity.WARNING);
+        assertThat(droneRepository.findById(drone.getId()).orElseThrow().getAuditFlageNotification()).isTrue();
+
+        setBattery(15L);
+        setBattery(22L);
+        setBattery(5L);
+        assertThat(audits()).hasSize(1);
+
+        setBattery(25L);
+        assertThat(droneRepository.findById(drone.getId()).orElseThrow().getAuditFlageNotification()).isFalse();
+        setBattery(12L);
+        assertThat(audits()).hasSize(2);
+    }
+
+    @Test
+    void batteryAboveThresholdIsNotAudited() {
+        setBattery(20L);
+        assertThat(audits()).isEmpty();
+    }
+
+    @Test
+    void sweepAuditsDronesChangedOutsideTheApplication() {
+        Drone entity = droneRepository.findById(drone.getId()).orElseThrow();
+        entity.setBatteryCapacity(3L);
+        entity.setAuditFlageNotification(false);
+        droneRepository.saveAndFlush(entity);
+        assertThat(audits()).isEmpty();
+
+        auditSchedule.sweepLowBatteryDrones();
+        auditSchedule.sweepLowBatteryDrones();
+
+        assertThat(audits()).hasSize(1);
+        assertThat(audits().get(0).getDroneId()).isEqualTo(drone.getId());
+        assertThat(audits().get(0).getSeverity()).isEqualTo(AuditSeverity.CRITICAL);
+    }
+
+    @Test
+    void sweepAuditsEveryChunk() {
+        List<DroneDTO> others = new ArrayList<>();
+        try {
+            for (int i = 0; i < 7; i++) {
+                DroneDTO droneDTO = new DroneDTO();
+                droneDTO.setSerialNumber(SERIAL_NUMBER + "-" + i);
+                droneDTO.setModel(Model.Lightweight);
+                droneDTO.setWeightLimit(100);
+                droneDTO.setBatteryCapacity(50L);
+                droneDTO.setState(State.IDLE);
+                droneDTO.setCreatedBy("low-battery");
+                droneDTO.setCreatedDate(Instant.now());
+                others.add(droneService.save(droneDTO));
+            }
+            List<Drone> entities = droneRepository.findAllById(others.stream().map(DroneDTO::getId).collect(Collectors.toList()));
+            entities.forEach(entity -> entity.setBatteryCapacity(5L));
+            droneRepository.saveAllAndFlush(entities);
+
+            assertThat(lowBatteryAuditor.sweep()).isGreaterThanOrEqualTo(others.size());
+            assertThat(lowBatteryAuditor.sweep()).isZero();
+
+            assertThat(audits()).hasSize(others.size());
+            assertThat(droneRepository.findAllById(others.stream().map(DroneDTO::getId).collect(Collectors.toList())))
+                .allMatch(Drone::getAuditFlageNotification);
+        } finally {
+            others.forEach(other -> droneService.delete(other.getId()));
+        }
+    }
+
+    private void setBattery(Long batteryCapacity) {
+        DroneDTO droneDTO = new DroneDTO();
+        droneDTO.setId(drone.getId());
+        droneDTO.setBatteryCapacity(batteryCapacity);
+        droneService.partialUpdate(droneDTO);
+    }
+
+    private List<Audit> audits() {
+        assertThat(auditJournal.awaitFlushed(Duration.ofSeconds(10))).isTrue();
+        return auditRepository
+            .findAll()
+            .stream()
+            .filter(audit -> audit.getMessage().contains(SERIAL_NUMBER))
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,194 @@
+package com.musala.drone.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.musala.drone.IntegrationTest;
+import com.musala.drone.domain.Drone;
+import com.musala.drone.domain.Drone_;
+import com.musala.drone.domain.Medication_;
+import com.musala.drone.repository.DroneRepository;
+import com.musala.drone.service.criteria.DroneCriteria;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jhipster.service.filter.LongFilter;
+
+/**
+ * Compares the drones filtered by medication with a {@code LEFT JOIN} and {@code distinct}, as the criteria used to be
+ * built, and with the semi-join of {@link SemiJoinQueryService}, on 1M medications.
+ * <p>
+ * Run with {@code ./mvnw verify -Dbenchmark=true -Dit.test=SemiJoinQueryServiceBenchmarkIT}.
+ */
+@IntegrationTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SemiJoinQueryServiceBenchmarkIT {
+
+    private static final int DRONES = 1_000;
+
+    private static final int MEDICATIONS_PER_DRONE = 1_000;
+
+    private static final long FIRST_ID = 900_000_000L;
+
+    private static final int RUNS = 10;
+
+    private final Logger log = LoggerFactory.getLogger(SemiJoinQueryServiceBenchmarkIT.class);
+
+    @Autowired
+    private DroneQueryService droneQueryService;
+
+    @Autowired
+    private DroneRepository droneRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    @Timeout(600)
+    public void insertMedications() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Long> droneIds = LongStream.range(FIRST_ID, FIRST_ID + DRONES).boxed().collect(Collectors.toList());
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.batchUpdate(
+                "insert into drone (id, serial_number, model, weight_limit, battery_capacity, state, created_by, created_date)" +
+                " values (?, ?, 0, 500, 100, 0, 'benchmark', ?)",
+                droneIds,
+                DRONES,
+                (statement, droneId) -> {
+                    statement.setLong(1, droneId);
+                    statement.setString(2, "BENCHMARK-" + droneId);
+                    statement.setTimestamp(3, now);
+                }
+            )
+        );
+        for (long droneId : droneIds) {
+            long firstMedicationId = FIRST_ID + (droneId - FIRST_ID) * MEDICATIONS_PER_DRONE;
+            List<Long> medicationIds = LongStream
+                .range(firstMedicationId, firstMedicationId + MEDICATIONS_PER_DRONE)
+                .boxed()
+                .collect(Collectors.toList());
+            transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(
+                    "insert into medication (id, name, weight, code, created_by, created_date, drone_id)" +
+                    " values (?, ?, 1, ?, 'benchmark', ?, ?)",
+                    medicationIds,
+                    MEDICATIONS_PER_DRONE,
+                    (statement, medicationId) -> {
+                        statement.setLong(1, medicationId);
+                        statement.setString(2, "BENCHMARK-" + medicationId);
+                        statement.setString(3, "BENCHMARK_" + medicationId);
+                        statement.setTimestamp(4, now);
+                        statement.setLong(5, droneId);
+                    }
+                )
+            );
+        }
+    }
+
+    @AfterEach
+    @Timeout(600)
+    public void deleteMedications() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        for (long droneId = FIRST_ID; droneId < FIRST_ID + DRONES; droneId++) {
+            long id = droneId;
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update("delete from medication where drone_id = ?", id));
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update("delete from drone where created_by = 'benchmark'"));
+    }
+
+    @Test
+    @Timeout(600)
+    void semiJoinAgainstDistinctJoin() {
+        long oneMedication = FIRST_ID + 123_456;
+        List<Long> someMedications = LongStream
+            .range(0, 100)
+            .mapToObj(i -> FIRST_ID + i * 9_901)
+            .collect(Collectors.toList());
+        long half = FIRST_ID + (long) DRONES * MEDICATIONS_PER_DRONE / 2;
+
+        compare("equals", filter -> filter.setEquals(oneMedication), (builder, id) -> builder.equal(id, oneMedication), 1);
+        compare("in 100", filter -> filter.setIn(someMedications), (builder, id) -> id.in(someMedications), 100);
+        compare(
+            "greater than half",
+            filter -> filter.setGreaterThanOrEqual(half),
+            (builder, id) -> builder.greaterThanOrEqualTo(id, half),
+            DRONES / 2
+        );
+    }
+
+    private void compare(
+        String name,
+        Consumer<LongFilter> filter,
+        BiFunction<CriteriaBuilder, Path<Long>, Predicate> condition,
+        long expectedTotal
+    ) {
+        PageRequest page = PageRequest.of(0, 20, Sort.by(Drone_.ID));
+        DroneCriteria criteria = new DroneCriteria();
+        filter.accept(criteria.droneMedicationsId());
+        Specification<Drone> join = (root, query, builder) -> {
+            query.distinct(true);
+            return condition.apply(builder, root.join(Drone_.droneMedications, JoinType.LEFT).get(Medication_.id));
+        };
+
+        Specification<Drone> semiJoin = droneQueryService.createSpecification(criteria);
+
+        Page<Long> joined = measure(name + ", left join + distinct", () -> droneRepository.findAll(join, page).map(Drone::getId));
+        Page<Long> semiJoined = measure(name + ", semi-join", () -> droneRepository.findAll(semiJoin, page).map(Drone::getId));
+        Page<Long> windowed = measure(
+            name + ", semi-join and count over()",
+            () -> droneRepository.findPage(semiJoin, page, 0).map(Drone::getId)
+        );
+
+        assertThat(semiJoined.getContent()).isEqualTo(joined.getContent()).isEqualTo(windowed.getContent());
+        assertThat(semiJoined.getTotalElements()).isEqualTo(joined.getTotalElements()).isEqualTo(expectedTotal);
+        assertThat(windowed.getTotalElements()).isEqualTo(expectedTotal);
+    }
+
+    private <T> T measure(String name, Supplier<T> query) {
+        T result = query.get();
+        long[] millis = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            query.get();
+            millis[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        Arrays.sort(millis);
+        log.info(
+            "{}: median {} ms, min {} ms, max {} ms over {} runs",
+            name,
+            millis[RUNS / 2],
+            millis[0],
+            millis[RUNS - 1],
+            RUNS
+        );
+        return result;
+    }
+}
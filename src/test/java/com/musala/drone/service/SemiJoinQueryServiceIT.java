@@ -0,0 +1,211 @@
+package com.musala.drone.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.musala.drone.IntegrationTest;
+import com.musala.drone.config.SqlStatementRecorder;
+import com.musala.drone.domain.Drone;
+import com.musala.drone.domain.Medication;
+import com.musala.drone.domain.enumeration.Model;
+import com.musala.drone.domain.enumeration.State;
+import com.musala.drone.repository.DroneRepository;
+import com.musala.drone.repository.MedicationRepository;
+import com.musala.drone.service.criteria.DroneCriteria;
+import com.musala.drone.service.criteria.MedicationCriteria;
+import com.musala.drone.service.dto.DroneDTO;
+import com.musala.drone.service.dto.MedicationDTO;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.service.filter.LongFilter;
+
+/**
+ * Integration tests for the semi-join criteria of {@link SemiJoinQueryService}, checking the results and the shape of the
+ * SQL and of its plan.
+ */
+@IntegrationTest
+@Transactional
+class SemiJoinQueryServiceIT {
+
+    private static final PageRequest PAGE = PageRequest.of(0, 10, Sort.by("id"));
+
+    @Autowired
+    private DroneQueryService droneQueryService;
+
+    @Autowired
+    private MedicationQueryService medicationQueryService;
+
+    @Autowired
+    private DroneRepository droneRepository;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager em;
+
+    private Drone loaded;
+
+    private Drone alsoLoaded;
+
+    private Drone empty;
+
+    private List<Medication> medications;
+
+    @BeforeEach
+    public void initTest() {
+        loaded = droneRepository.save(createDrone(1));
+        alsoLoaded = droneRepository.save(createDrone(2));
+        empty = droneRepository.save(createDrone(3));
+        medications =
+            medicationRepository.saveAll(
+                List.of(
+                    createMedication(1).drone(loaded),
+                    createMedication(2).drone(loaded),
+                    createMedication(3).drone(alsoLoaded)
+                )
+            );
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void dronesByMedicationAreReturnedOnce() {
+        DroneCriteria criteria = dronesCriteria();
+        criteria.droneMedicationsId().setIn(List.of(medications.get(0).getId(), medications.get(1).getId(), medications.get(2).getId()));
+
+        SqlStatementRecorder.start();
+        Page<DroneDTO> page = droneQueryService.findByCriteria(criteria, PAGE);
+        List<String> statements = SqlStatementRecorder.stop();
+
+        assertThat(page).extracting(DroneDTO::getId).containsExactly(loaded.getId(), alsoLoaded.getId());
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(statements).hasSize(1);
+        String sql = statements.get(0).toLowerCase(Locale.ROOT);
+        assertThat(sql).contains(" in (select").contains(" over()").doesNotContain("distinct").doesNotContain(" join ");
+    }
+
+    @Test
+    void dronesByMedicationSpecified() {
+        DroneCriteria criteria = dronesCriteria();
+        criteria.droneMedicationsId().setSpecified(true);
+        assertThat(droneQueryService.findByCriteria(criteria, PAGE))
+            .extracting(DroneDTO::getId)
+            .containsExactly(loaded.getId(), alsoLoaded.getId());
+
+        criteria.droneMedicationsId().setSpecified(false);
+        assertThat(droneQueryService.findByCriteria(criteria, PAGE)).extracting(DroneDTO::getId).containsExactly(empty.getId());
+    }
+
+    @Test
+    void dronesByMedicationNotEquals() {
+        DroneCriteria criteria = dronesCriteria();
+        criteria.droneMedicationsId().setNotEquals(medications.get(0).getId());
+
+        assertThat(droneQueryService.findByCriteria(criteria, PAGE))
+            .extracting(DroneDTO::getId)
+            .containsExactly(loaded.getId(), alsoLoaded.getId());
+    }
+
+    @Test
+    void dronesByMedicationPlan() {
+        DroneCriteria criteria = new DroneCriteria();
+        criteria.droneMedicationsId().setEquals(medications.get(0).getId());
+
+        SqlStatementRecorder.start();
+        droneQueryService.findByCriteria(criteria, PAGE);
+        String sql = SqlStatementRecorder.stop().get(0);
+
+        // the drones are looked up by id from the medications found by id, without joining the drones again
+        assertThat(explain(sql).toLowerCase(Locale.ROOT))
+            .containsPattern("/\\* public\\.\\w+: id in\\(select")
+            .doesNotContain("medication.tablescan")
+            .doesNotContain(" join ");
+    }
+
+    @Test
+    void dronesWithoutMedicationPlan() {
+        DroneCriteria criteria = new DroneCriteria();
+        criteria.droneMedicationsId().setSpecified(false);
+
+        SqlStatementRecorder.start();
+        droneQueryService.findByCriteria(criteria, PAGE);
+        String sql = SqlStatementRecorder.stop().get(0);
+
+        // the medications are probed by drone in an index, not scanned
+        assertThat(explain(sql).toLowerCase(Locale.ROOT))
+            .containsPattern("/\\* public\\.\\w+: drone_id = drone0_\\.id \\*/")
+            .doesNotContain("medication.tablescan");
+    }
+
+    @Test
+    void medicationsByDroneDoNotJoin() {
+        MedicationCriteria criteria = new MedicationCriteria();
+        criteria.droneId().setEquals(loaded.getId());
+
+        SqlStatementRecorder.start();
+        Page<MedicationDTO> page = medicationQueryService.findByCriteria(criteria, PAGE);
+        List<String> statements = SqlStatementRecorder.stop();
+
+        assertThat(page).extracting(MedicationDTO::getId).containsExactly(medications.get(0).getId(), medications.get(1).getId());
+        // the page query; the drones of the medications are loaded next by the mapper
+        assertThat(statements.get(0).toLowerCase(Locale.ROOT)).contains(" over()").doesNotContain(" join ");
+    }
+
+    /**
+     * The drones of this test only, so that the ones left by other tests do not matter.
+     */
+    private DroneCriteria dronesCriteria() {
+        DroneCriteria criteria = new DroneCriteria();
+        LongFilter id = new LongFilter();
+        id.setIn(List.of(loaded.getId(), alsoLoaded.getId(), empty.getId()));
+        criteria.setId(id);
+        return criteria;
+    }
+
+    private Drone createDrone(int i) {
+        return new Drone()
+            .serialNumber("SEMI-JOIN-" + i)
+            .model(Model.Lightweight)
+            .weightLimit(500)
+            .batteryCapacity(100L)
+            .state(State.IDLE)
+            .createdBy("semi-join")
+            .createdDate(Instant.now());
+    }
+
+    private Medication createMedication(int i) {
+        return new Medication().name("SEMI-JOIN-" + i).weight(10).code("SEMI_JOIN_" + i).createdBy("semi-join").createdDate(Instant.now());
+    }
+
+    /**
+     * @return the H2 plan of the statement, with its parameters bound to 1.
+     */
+    private String explain(String sql) {
+        int parameters = (int) sql.chars().filter(c -> c == '?').count();
+        return jdbcTemplate.query(
+            "explain " + sql,
+            statement -> {
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setLong(i, 1);
+                }
+            },
+            rs -> {
+                rs.next();
+                return rs.getString(1);
+            }
+        );
+    }
+}
@@ -0,0 +1,155 @@
+package com.musala.drone.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.musala.drone.domain.Drone;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final EntityVersions entityVersions = new EntityVersions();
+
+    private final SingleFlight singleFlight = new SingleFlight(entityVersions, meterRegistry);
+
+    private final AtomicInteger reads = new AtomicInteger();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void init() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    public void shutdown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentIdenticalReadsShareOneRead() throws Exception {
+        List<Future<String>> calls = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            calls.add(executor.submit(() -> singleFlight.execute("drone.findOne", 1L, blockedRead("drone 1"), Drone.class)));
+        }
+        awaitCount("coalesced", 9);
+        release.countDown();
+
+        for (Future<String> call : calls) {
+            assertThat(call.get(5, TimeUnit.SECONDS)).isEqualTo("drone 1");
+        }
+        assertThat(reads).hasValue(1);
+        assertThat(count("executed")).isEqualTo(1);
+    }
+
+    @Test
+    void otherReadsAreNotCoalesced() throws Exception {
+        Future<String> first = executor.submit(() -> singleFlight.execute("drone.findOne", 1L, blockedRead("drone 1"), Drone.class));
+        awaitCount("executed", 1);
+
+        assertThat(singleFlight.execute("drone.findOne", 2L, () -> "drone 2", Drone.class)).isEqualTo("drone 2");
+        assertThat(singleFlight.execute("medication.findOne", 1L, () -> "medication 1", Drone.class)).isEqualTo("medication 1");
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("drone 1");
+        assertThat(count("coalesced")).isZero();
+    }
+
+    @Test
+    void readsAfterAWriteDoNotJoinTheReadsBeforeIt() throws Exception {
+        Future<String> before = executor.submit(() -> singleFlight.execute("drone.findOne", 1L, blockedRead("before"), Drone.class));
+        awaitCount("executed", 1);
+
+        entityVersions.bump(Drone.class);
+
+        assertThat(singleFlight.execute("drone.findOne", 1L, () -> "after", Drone.class)).isEqualTo("after");
+        release.countDown();
+        assertThat(before.get(5, TimeUnit.SECONDS)).isEqualTo("before");
+    }
+
+    @Test
+    void completedReadsAreNotShared() {
+        assertThat(singleFlight.execute("drone.findOne", 1L, () -> "first", Drone.class)).isEqualTo("first");
+        assertThat(singleFlight.execute("drone.findOne", 1L, () -> "second", Drone.class)).isEqualTo("second");
+    }
+
+    @Test
+    void theFailureOfTheReadIsShared() throws Exception {
+        Future<String> leader = executor.submit(() ->
+            singleFlight.execute(
+                "drone.findOne",
+                1L,
+                () -> {
+                    await();
+                    throw new IllegalStateException("database down");
+                },
+                Drone.class
+            )
+        );
+        awaitCount("executed", 1);
+        Future<String> follower = executor.submit(() -> singleFlight.execute("drone.findOne", 1L, () -> "never read", Drone.class));
+        awaitCount("coalesced", 1);
+        release.countDown();
+
+        for (Future<String> call : List.of(leader, follower)) {
+            assertThatThrownBy(() -> call.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        }
+        assertThat(singleFlight.execute("drone.findOne", 1L, () -> "read again", Drone.class)).isEqualTo("read again");
+    }
+
+    private Supplier<String> blockedRead(String result) {
+        return () -> {
+            reads.incrementAndGet();
+            await();
+            return result;
+        };
+    }
+
+    private void await() {
+        try {
+            assertThat(release.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void awaitCount(String outcome, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count(outcome) < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(count(outcome)).isEqualTo(expected);
+    }
+
+    private double count(String outcome) {
+        return meterRegistry
+            .find(SingleFlight.CALLS_METER_NAME)
+            .tag(SingleFlight.CALLS_METER_OUTCOME_DIMENSION, outcome)
+            .counters()
+            .stream()
+            .mapToDouble(Counter::count)
+            .sum();
+    }
+}
@@ -5,25 +5,34 @@ import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.jayway.jsonpath.JsonPath;
 import com.musala.drone.IntegrationTest;
 import com.musala.drone.domain.Audit;
+import com.musala.drone.domain.enumeration.AuditEventType;
+import com.musala.drone.domain.enumeration.AuditSeverity;
 import com.musala.drone.repository.AuditRepository;
 import com.musala.drone.service.criteria.AuditCriteria;
 import com.musala.drone.service.dto.AuditDTO;
 import com.musala.drone.service.mapper.AuditMapper;
+import com.musala.drone.web.rest.util.TotalCountPaginationUtil;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 import javax.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -49,6 +58,18 @@ class AuditResourceIT {
     private static final Instant DEFAULT_LAST_MODIFIED_DATE = Instant.ofEpochMilli(0L);
     private static final Instant UPDATED_LAST_MODIFIED_DATE = Instant.now().truncatedTo(ChronoUnit.MILLIS);
 
+    private static final Long DEFAULT_DRONE_ID = 1L;
+    private static final Long UPDATED_DRONE_ID = 2L;
+
+    private static final AuditEventType DEFAULT_EVENT_TYPE = AuditEventType.BATTERY_LOW;
+    private static final AuditEventType UPDATED_EVENT_TYPE = AuditEventType.BATTERY_LOW;
+
+    private static final Long DEFAULT_NUMERIC_VALUE = 1L;
+    private static final Long UPDATED_NUMERIC_VALUE = 2L;
+
+    private static final AuditSeverity DEFAULT_SEVERITY = AuditSeverity.INFO;
+    private static final AuditSeverity UPDATED_SEVERITY = AuditSeverity.WARNING;
+
     private static final String ENTITY_API_URL = "/api/audits";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
 
@@ -81,7 +102,11 @@ class AuditResourceIT {
             .createdBy(DEFAULT_CREATED_BY)
             .createdDate(DEFAULT_CREATED_DATE)
             .lastModifiedBy(DEFAULT_LAST_MODIFIED_BY)
-            .lastModifiedDate(DEFAULT_LAST_MODIFIED_DATE);
+            .lastModifiedDate(DEFAULT_LAST_MODIFIED_DATE)
+            .droneId(DEFAULT_DRONE_ID)
+            .eventType(DEFAULT_EVENT_TYPE)
+            .numericValue(DEFAULT_NUMERIC_VALUE)
+            .severity(DEFAULT_SEVERITY);
         return audit;
     }
 
@@ -97,7 +122,11 @@ class AuditResourceIT {
             .createdBy(UPDATED_CREATED_BY)
             .createdDate(UPDATED_CREATED_DATE)
             .lastModifiedBy(UPDATED_LAST_MODIFIED_BY)
-            .lastModifiedDate(UPDATED_LAST_MODIFIED_DATE);
+            .lastModifiedDate(UPDATED_LAST_MODIFIED_DATE)
+            .droneId(UPDATED_DRONE_ID)
+            .eventType(UPDATED_EVENT_TYPE)
+            .numericValue(UPDATED_NUMERIC_VALUE)
+            .severity(UPDATED_SEVERITY);
         return audit;
     }
 
@@ -125,6 +154,10 @@ class AuditResourceIT {
         assertThat(testAudit.getCreatedDate()).isEqualTo(DEFAULT_CREATED_DATE);
         assertThat(testAudit.getLastModifiedBy()).isEqualTo(DEFAULT_LAST_MODIFIED_BY);
         assertThat(testAudit.getLastModifiedDate()).isEqualTo(DEFAULT_LAST_MODIFIED_DATE);
+        assertThat(testAudit.getDroneId()).isEqualTo(DEFAULT_DRONE_ID);
+        assertThat(testAudit.getEventType()).isEqualTo(DEFAULT_EVENT_TYPE);
+        assertThat(testAudit.getNumericValue()).isEqualTo(DEFAULT_NUMERIC_VALUE);
+        assertThat(testAudit.getSeverity()).isEqualTo(DEFAULT_SEVERITY);
     }
 
     @Test
@@ -216,7 +249,11 @@ class AuditResourceIT {
             .andExpect(jsonPath("$.[*].createdBy").value(hasItem(DEFAULT_CREATED_BY)))
             .andExpect(jsonPath("$.[*].createdDate").value(hasItem(DEFAULT_CREATED_DATE.toString())))
             .andExpect(jsonPath("$.[*].lastModifiedBy").value(hasItem(DEFAULT_LAST_MODIFIED_BY)))
-            .andExpect(jsonPath("$.[*].lastModifiedDate").value(hasItem(DEFAULT_LAST_MODIFIED_DATE.toString())));
+            .andExpect(jsonPath("$.[*].lastModifiedDate").value(hasItem(DEFAULT_LAST_MODIFIED_DATE.toString())))
+            .andExpect(jsonPath("$.[*].droneId").value(hasItem(DEFAULT_DRONE_ID.intValue())))
+            .andExpect(jsonPath("$.[*].eventType").value(hasItem(DEFAULT_EVENT_TYPE.toString())))
+            .andExpect(jsonPath("$.[*].numericValue").value(hasItem(DEFAULT_NUMERIC_VALUE.intValue())))
+            .andExpect(jsonPath("$.[*].severity").value(hasItem(DEFAULT_SEVERITY.toString())));
     }
 
     @Test
@@ -235,7 +272,11 @@ class AuditResourceIT {
             .andExpect(jsonPath("$.createdBy").value(DEFAULT_CREATED_BY))
             .andExpect(jsonPath("$.createdDate").value(DEFAULT_CREATED_DATE.toString()))
             .andExpect(jsonPath("$.lastModifiedBy").value(DEFAULT_LAST_MODIFIED_BY))
-            .andExpect(jsonPath("$.lastModifiedDate").value(DEFAULT_LAST_MODIFIED_DATE.toString()));
+            .andExpect(jsonPath("$.lastModifiedDate").value(DEFAULT_LAST_MODIFIED_DATE.toString()))
+            .andExpect(jsonPath("$.droneId").value(DEFAULT_DRONE_ID.intValue()))
+            .andExpect(jsonPath("$.eventType").value(DEFAULT_EVENT_TYPE.toString()))
+            .andExpect(jsonPath("$.numericValue").value(DEFAULT_NUMERIC_VALUE.intValue()))
+            .andExpect(jsonPath("$.severity").value(DEFAULT_SEVERITY.toString()));
     }
 
     @Test
@@ -529,6 +570,229 @@ class AuditResourceIT {
         defaultAuditShouldNotBeFound("lastModifiedDate.specified=false");
     }
 
+    @Test
+    @Transactional
+    void getAllAuditsByDroneIdIsEqualToSomething() throws Exception {
+        // Initialize the database
+        auditRepository.saveAndFlush(audit);
+
+        // Get all the auditList where droneId equals to DEFAULT_DRONE_ID
+        defaultAuditShouldBeFound("droneId.equals=" + DEFAULT_DRONE_ID);
+
+        // Get all the auditList where droneId equals to UPDATED_DRONE_ID
+        defaultAuditShouldNotBeFound("droneId.equals=" + UPDATED_DRONE_ID);
+    }
+
+    @Test
+    @Transactional
+    void getAllAuditsByDroneIdIsInShouldWork() throws Exception {
+        // Initialize the database
+        auditRepository.saveAndFlush(audit);
+
+        // Get all the auditList where droneId in DEFAULT_DRONE_ID or UPDATED_DRONE_ID
+        defaultAuditShouldBeFound("droneId.in=" + DEFAULT_DRONE_ID + "," + UPDATED_DRONE_ID);
+
+        // Get all the auditList where droneId equals to UPDATED_DRONE_ID
+        defaultAuditShouldNotBeFound("droneId.in=" + UPDATED_DRONE_ID);
+    }
+
+    @Test
+    @Transactional
+    void getAllAuditsByDroneIdIsNullOrNotNull() throws Exception {
+        // Initialize the database
+        auditRepository.saveAndFlush(audit);
+
+        // Get all the auditList where droneId is not null
+        defaultAuditShouldBeFound("droneId.specified=true");
+
+        // Get all the auditList where droneId is null
+        defaultAuditShouldNotBeFound("droneId.specified=false");
+    }
+
+    @Test
+    @Transactional
+    void getAllAuditsByDroneIdIsGreaterThanOrEqualToSomething() throws Exception {
+        // Initialize the database
+        auditRepository.saveAndFlush(audit);
+
+        // Get all the auditList where droneId is greater than or equal to DEFAULT_DRONE_ID
+        defaultAuditShouldBeFound("droneId.greaterThanOrEqual=" + DEFAULT_DRONE_ID);
+
+        // Get all the auditList where droneId is greater than or equal to UPDATED_DRONE_ID
+        defaultAuditShouldNotBeFound("droneId.greaterThanOrEqual=" + UPDATED_DRONE_ID);
+    }
+
+    @Test
+    @Transactional
+    void getAllAuditsByDroneIdIsLessThanSomething() throws Exception {
+        // Initialize the database
+        auditRepository.saveAndFlush(audit);
+
+        // Get all the auditList where droneId is less than DEFAULT_DRONE_ID
+        defaultAuditShouldNotBeFound("droneId.lessThan=" + DEFAULT_DRONE_ID);
+
+        // Get all the auditList where droneId is less than UPDATED_DRONE_ID
+        defaultAuditShouldBeFound("droneId.lessThan=" + UPDATED_DRONE_ID);
+    }
+
+    @Test
+    @Transactional
+    void getAllAuditsByEventTypeIsNullOrNotNull() throws Exception {
+        // Initialize the database
+        auditRepository.saveAndFlush(audit);
+
+        // Get all the auditList where eventType is not null
+        defaultAuditShouldBeFound("eventType.specified=true");
+
+        // Get all the auditList where eventType is null
+        defaultAuditShouldNotBeFound("eventType.specified=false");
+    }
+
+    @Test
+    @Transactional
+    void getAllAuditsByNumericValueIsEqualToSomething() throws Exception {
+        // Initialize the database
+        auditRepository.saveAndFlush(audit);
+
+        // Get all the auditList where numericValue equals to DEFAULT_NUMERIC_VALUE
+        defaultAuditShouldBeFound("numericValue.equals=" + DEFAULT_NUMERIC_VALUE);
+
+        // Get all the auditList where numericValue equals to UPDATED_NUMERIC_VALUE
+        defaultAuditShouldNotBeFound("numericValue.equals=" + UPDATED_NUMERIC_VALUE);
+    }
+
+    @Test
+    @Transactional
+    void getAllAuditsByNumericValueIsGreaterThanOrEqualToSomething() throws Exception {
+        // Initialize the database
+        auditRepository.saveAndFlush(audit);
+
+        // Get all the auditList where numericValue is greater than or equal to DEFAULT_NUMERIC_VALUE
+        defaultAuditShouldBeFound("numericValue.greaterThanOrEqual=" + DEFAULT_NUMERIC_VALUE);
+
+        // Get all the auditList where numericValue is greater than or equal to UPDATED_NUMERIC_VALUE
+        defaultAuditShouldNotBeFound("numericValue.greaterThanOrEqual=" + UPDATED_NUMERIC_VALUE);
+    }
+
+    @Test
+    @Transactional
+    void getAllAuditsByNumericValueIsLessThanSomething() throws Exception {
+        // Initialize the database
+        auditRepository.saveAndFlush(audit);
+
+        // Get all the auditList where numericValue is less than DEFAULT_NUMERIC_VALUE
+        defaultAuditShouldNotBeFound("numericValue.lessThan=" + DEFAULT_NUMERIC_VALUE);
+
+        // Get all the auditList where numericValue is less than UPDATED_NUMERIC_VALUE
+        defaultAuditShouldBeFound("numericValue.lessThan=" + UPDATED_NUMERIC_VALUE);
+    }
+
+    @Test
+    @Transactional
+    void getAllAuditsBySeverityIsEqualToSomething() throws Exception {
+        // Initialize the database
+        auditRepository.saveAndFlush(audit);
+
+        // Get all the auditList where severity equals to DEFAULT_SEVERITY
+        defaultAuditShouldBeFound("severity.equals=" + DEFAULT_SEVERITY);
+
+        // Get all the auditList where severity equals to UPDATED_SEVERITY
+        defaultAuditShouldNotBeFound("severity.equals=" + UPDATED_SEVERITY);
+    }
+
+    @Test
+    @Transactional
+    void getAllAuditsBySeverityIsInShouldWork() throws Exception {
+        // Initialize the database
+        auditRepository.saveAndFlush(audit);
+
+        // Get all the auditList where severity in DEFAULT_SEVERITY or UPDATED_SEVERITY
+        defaultAuditShouldBeFound("severity.in=" + DEFAULT_SEVERITY + "," + UPDATED_SEVERITY);
+
+        // Get all the auditList where severity equals to UPDATED_SEVERITY
+        defaultAuditShouldNotBeFound("severity.in=" + UPDATED_SEVERITY);
+    }
+
+    @Test
+    @Transactional
+    void getAllAuditsBySeverityIsNullOrNotNull() throws Exception {
+        // Initialize the database
+        auditRepository.saveAndFlush(audit);
+
+        // Get all the auditList where severity is not null
+        defaultAuditShouldBeFound("severity.specified=true");
+
+        // Get all the auditList where severity is null
+        defaultAuditShouldNotBeFound("severity.specified=false");
+    }
+
+    @Test
+    @Transactional
+    void getAllAuditsByDroneIdAndEventTypeInCreatedDateRange() throws Exception {
+        // Initialize the database
+        auditRepository.saveAndFlush(audit);
+
+        defaultAuditShouldBeFound(
+            "droneId.equals=" + DEFAULT_DRONE_ID + "&eventType.equals=" + DEFAULT_EVENT_TYPE + "&createdDate.lessThan=" + UPDATED_CREATED_DATE
+        );
+        defaultAuditShouldNotBeFound("droneId.equals=" + DEFAULT_DRONE_ID + "&createdDate.greaterThan=" + DEFAULT_CREATED_DATE);
+    }
+
+    @Test
+    @Transactional
+    void getAllAuditsByCursor() throws Exception {
+        // Initialize the database, with ties on the sort property
+        List<Audit> audits = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            audits.add(
+                auditRepository.saveAndFlush(createEntity(em).createdBy("KEYSET").createdDate(DEFAULT_CREATED_DATE.plusSeconds(i / 2)))
+            );
+        }
+        List<Long> expected = audits
+            .stream()
+            .sorted(Comparator.comparing(Audit::getCreatedDate).thenComparing(Audit::getId).reversed())
+            .map(Audit::getId)
+            .collect(Collectors.toList());
+
+        // Follow the next links, two audits at a time
+        List<Long> ids = new ArrayList<>();
+        String url = ENTITY_API_URL + "?cursor=&size=2&sort=createdDate,desc&createdBy.equals=KEYSET";
+        for (int pages = 0; url != null; pages++) {
+            assertThat(pages).isLessThan(3);
+            MvcResult result = restAuditMockMvc.perform(get(url)).andExpect(status().isOk()).andReturn();
+            List<Number> pageIds = JsonPath.read(result.getResponse().getContentAsString(), "$[*].id");
+            pageIds.forEach(id -> ids.add(id.longValue()));
+            String link = result.getResponse().getHeader(HttpHeaders.LINK);
+            url = link == null ? null : link.substring(link.indexOf("/api/"), link.indexOf('>'));
+        }
+
+        assertThat(ids).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    @Transactional
+    void getAllAuditsWithTheTotalCount() throws Exception {
+        // Initialize the database
+        for (int i = 0; i < 3; i++) {
+            auditRepository.saveAndFlush(createEntity(em).createdBy("TOTAL"));
+        }
+
+        restAuditMockMvc
+            .perform(get(ENTITY_API_URL + "?page=1&size=2&sort=id&createdBy.equals=TOTAL"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "3"))
+            .andExpect(header().doesNotExist(TotalCountPaginationUtil.HEADER_X_TOTAL_COUNT_ESTIMATED))
+            .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    @Transactional
+    void getAllAuditsByInvalidCursor() throws Exception {
+        restAuditMockMvc.perform(get(ENTITY_API_URL + "?cursor=invalid")).andExpect(status().isBadRequest());
+        restAuditMockMvc.perform(get(ENTITY_API_URL + "?cursor=&sort=lastModifiedBy")).andExpect(status().isBadRequest());
+        restAuditMockMvc.perform(get(ENTITY_API_URL + "?cursor=&sort=createdBy&sort=message")).andExpect(status().isBadRequest());
+    }
+
     /**
      * Executes the search, and checks that the default entity is returned.
      */
@@ -542,7 +806,11 @@ class AuditResourceIT {
             .andExpect(jsonPath("$.[*].createdBy").value(hasItem(DEFAULT_CREATED_BY)))
             .andExpect(jsonPath("$.[*].createdDate").value(hasItem(DEFAULT_CREATED_DATE.toString())))
             .andExpect(jsonPath("$.[*].lastModifiedBy").value(hasItem(DEFAULT_LAST_MODIFIED_BY)))
-            .andExpect(jsonPath("$.[*].lastModifiedDate").value(hasItem(DEFAULT_LAST_MODIFIED_DATE.toString())));
+            .andExpect(jsonPath("$.[*].lastModifiedDate").value(hasItem(DEFAULT_LAST_MODIFIED_DATE.toString())))
+            .andExpect(jsonPath("$.[*].droneId").value(hasItem(DEFAULT_DRONE_ID.intValue())))
+            .andExpect(jsonPath("$.[*].eventType").value(hasItem(DEFAULT_EVENT_TYPE.toString())))
+            .andExpect(jsonPath("$.[*].numericValue").value(hasItem(DEFAULT_NUMERIC_VALUE.intValue())))
+            .andExpect(jsonPath("$.[*].severity").value(hasItem(DEFAULT_SEVERITY.toString())));
 
         // Check, that the count call also returns 1
         restAuditMockMvc
@@ -595,7 +863,11 @@ class AuditResourceIT {
             .createdBy(UPDATED_CREATED_BY)
             .createdDate(UPDATED_CREATED_DATE)
             .lastModifiedBy(UPDATED_LAST_MODIFIED_BY)
-            .lastModifiedDate(UPDATED_LAST_MODIFIED_DATE);
+            .lastModifiedDate(UPDATED_LAST_MODIFIED_DATE)
+            .droneId(UPDATED_DRONE_ID)
+            .eventType(UPDATED_EVENT_TYPE)
+            .numericValue(UPDATED_NUMERIC_VALUE)
+            .severity(UPDATED_SEVERITY);
         AuditDTO auditDTO = auditMapper.toDto(updatedAudit);
 
         restAuditMockMvc
@@ -615,6 +887,10 @@ class AuditResourceIT {
         assertThat(testAudit.getCreatedDate()).isEqualTo(UPDATED_CREATED_DATE);
         assertThat(testAudit.getLastModifiedBy()).isEqualTo(UPDATED_LAST_MODIFIED_BY);
         assertThat(testAudit.getLastModifiedDate()).isEqualTo(UPDATED_LAST_MODIFIED_DATE);
+        assertThat(testAudit.getDroneId()).isEqualTo(UPDATED_DRONE_ID);
+        assertThat(testAudit.getEventType()).isEqualTo(UPDATED_EVENT_TYPE);
+        assertThat(testAudit.getNumericValue()).isEqualTo(UPDATED_NUMERIC_VALUE);
+        assertThat(testAudit.getSeverity()).isEqualTo(UPDATED_SEVERITY);
     }
 
     @Test
@@ -713,6 +989,10 @@ class AuditResourceIT {
         assertThat(testAudit.getCreatedDate()).isEqualTo(DEFAULT_CREATED_DATE);
         assertThat(testAudit.getLastModifiedBy()).isEqualTo(DEFAULT_LAST_MODIFIED_BY);
         assertThat(testAudit.getLastModifiedDate()).isEqualTo(DEFAULT_LAST_MODIFIED_DATE);
+        assertThat(testAudit.getDroneId()).isEqualTo(DEFAULT_DRONE_ID);
+        assertThat(testAudit.getEventType()).isEqualTo(DEFAULT_EVENT_TYPE);
+        assertThat(testAudit.getNumericValue()).isEqualTo(DEFAULT_NUMERIC_VALUE);
+        assertThat(testAudit.getSeverity()).isEqualTo(DEFAULT_SEVERITY);
     }
 
     @Test
@@ -732,7 +1012,11 @@ class AuditResourceIT {
             .createdBy(UPDATED_CREATED_BY)
             .createdDate(UPDATED_CREATED_DATE)
             .lastModifiedBy(UPDATED_LAST_MODIFIED_BY)
-            .lastModifiedDate(UPDATED_LAST_MODIFIED_DATE);
+            .lastModifiedDate(UPDATED_LAST_MODIFIED_DATE)
+            .droneId(UPDATED_DRONE_ID)
+            .eventType(UPDATED_EVENT_TYPE)
+            .numericValue(UPDATED_NUMERIC_VALUE)
+            .severity(UPDATED_SEVERITY);
 
         restAuditMockMvc
             .perform(
@@ -751,6 +1035,10 @@ class AuditResourceIT {
         assertThat(testAudit.getCreatedDate()).isEqualTo(UPDATED_CREATED_DATE);
         assertThat(testAudit.getLastModifiedBy()).isEqualTo(UPDATED_LAST_MODIFIED_BY);
         assertThat(testAudit.getLastModifiedDate()).isEqualTo(UPDATED_LAST_MODIFIED_DATE);
+        assertThat(testAudit.getDroneId()).isEqualTo(UPDATED_DRONE_ID);
+        assertThat(testAudit.getEventType()).isEqualTo(UPDATED_EVENT_TYPE);
+        assertThat(testAudit.getNumericValue()).isEqualTo(UPDATED_NUMERIC_VALUE);
+        assertThat(testAudit.getSeverity()).isEqualTo(UPDATED_SEVERITY);
     }
 
     @Test
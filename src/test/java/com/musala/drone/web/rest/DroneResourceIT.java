@@ -2,10 +2,12 @@ package com.musala.drone.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.nullValue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.musala.drone.IntegrationTest;
+import com.musala.drone.config.SqlStatementRecorder;
 import com.musala.drone.domain.Drone;
 import com.musala.drone.domain.Medication;
 import com.musala.drone.domain.enumeration.Model;
@@ -47,7 +49,7 @@ class DroneResourceIT {
     private static final Integer UPDATED_WEIGHT_LIMIT = 324234;
 
     private static final Long DEFAULT_BATTERY_CAPACITY = Long.valueOf(2);
-    private static final Long UPDATED_BATTERY_CAPACITY = Long.valueOf(2);
+    private static final Long UPDATED_BATTERY_CAPACITY = Long.valueOf(3);
 
     private static final State DEFAULT_STATE = State.IDLE;
     private static final State UPDATED_STATE = State.LOADING;
@@ -314,7 +316,7 @@ class DroneResourceIT {
             .andExpect(jsonPath("$.[*].serialNumber").value(hasItem(DEFAULT_SERIAL_NUMBER)))
             .andExpect(jsonPath("$.[*].model").value(hasItem(DEFAULT_MODEL.toString())))
             .andExpect(jsonPath("$.[*].weightLimit").value(hasItem(DEFAULT_WEIGHT_LIMIT)))
-            .andExpect(jsonPath("$.[*].batteryCapacity").value(hasItem(DEFAULT_BATTERY_CAPACITY)))
+            .andExpect(jsonPath("$.[*].batteryCapacity").value(hasItem(DEFAULT_BATTERY_CAPACITY.intValue())))
             .andExpect(jsonPath("$.[*].state").value(hasItem(DEFAULT_STATE.toString())))
             .andExpect(jsonPath("$.[*].createdBy").value(hasItem(DEFAULT_CREATED_BY)))
             .andExpect(jsonPath("$.[*].createdDate").value(hasItem(DEFAULT_CREATED_DATE.toString())))
@@ -322,6 +324,32 @@ class DroneResourceIT {
             .andExpect(jsonPath("$.[*].lastModifiedDate").value(hasItem(DEFAULT_LAST_MODIFIED_DATE.toString())));
     }
 
+    @Test
+    @Transactional
+    void getAllDronesWithFields() throws Exception {
+        droneRepository.saveAndFlush(drone);
+
+        SqlStatementRecorder.start();
+        restDroneMockMvc
+            .perform(get(ENTITY_API_URL + "?id.equals=" + drone.getId() + "&sort=serialNumber,desc&fields=state"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(drone.getId().intValue()))
+            .andExpect(jsonPath("$.[0].state").value(DEFAULT_STATE.toString()))
+            .andExpect(jsonPath("$.[0].serialNumber").value(DEFAULT_SERIAL_NUMBER))
+            .andExpect(jsonPath("$.[0].model").value(nullValue()))
+            .andExpect(jsonPath("$.[0].batteryCapacity").value(nullValue()));
+        List<String> statements = SqlStatementRecorder.stop();
+
+        assertThat(statements).hasSize(1);
+        assertThat(statements.get(0)).doesNotContain("model").doesNotContain("battery_capacity");
+    }
+
+    @Test
+    @Transactional
+    void getAllDronesWithUnknownFields() throws Exception {
+        restDroneMockMvc.perform(get(ENTITY_API_URL + "?fields=state,loadedWeight")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getDrone() throws Exception {
@@ -337,7 +365,7 @@ class DroneResourceIT {
             .andExpect(jsonPath("$.serialNumber").value(DEFAULT_SERIAL_NUMBER))
             .andExpect(jsonPath("$.model").value(DEFAULT_MODEL.toString()))
             .andExpect(jsonPath("$.weightLimit").value(DEFAULT_WEIGHT_LIMIT))
-            .andExpect(jsonPath("$.batteryCapacity").value(DEFAULT_BATTERY_CAPACITY))
+            .andExpect(jsonPath("$.batteryCapacity").value(DEFAULT_BATTERY_CAPACITY.intValue()))
             .andExpect(jsonPath("$.state").value(DEFAULT_STATE.toString()))
             .andExpect(jsonPath("$.createdBy").value(DEFAULT_CREATED_BY))
             .andExpect(jsonPath("$.createdDate").value(DEFAULT_CREATED_DATE.toString()))
@@ -508,28 +536,28 @@ class DroneResourceIT {
 
     @Test
     @Transactional
-    void getAllDronesByWeightLimitContainsSomething() throws Exception {
+    void getAllDronesByWeightLimitIsGreaterThanOrEqualToSomething() throws Exception {
         // Initialize the database
         droneRepository.saveAndFlush(drone);
 
-        // Get all the droneList where weightLimit contains DEFAULT_WEIGHT_LIMIT
-        defaultDroneShouldBeFound("weightLimit.contains=" + DEFAULT_WEIGHT_LIMIT);
+        // Get all the droneList where weightLimit is greater than or equal to DEFAULT_WEIGHT_LIMIT
+        defaultDroneShouldBeFound("weightLimit.greaterThanOrEqual=" + DEFAULT_WEIGHT_LIMIT);
 
-        // Get all the droneList where weightLimit contains UPDATED_WEIGHT_LIMIT
-        defaultDroneShouldNotBeFound("weightLimit.contains=" + UPDATED_WEIGHT_LIMIT);
+        // Get all the droneList where weightLimit is greater than or equal to UPDATED_WEIGHT_LIMIT
+        defaultDroneShouldNotBeFound("weightLimit.greaterThanOrEqual=" + UPDATED_WEIGHT_LIMIT);
     }
 
     @Test
     @Transactional
-    void getAllDronesByWeightLimitNotContainsSomething() throws Exception {
+    void getAllDronesByWeightLimitIsLessThanSomething() throws Exception {
         // Initialize the database
         droneRepository.saveAndFlush(drone);
 
-        // Get all the droneList where weightLimit does not contain DEFAULT_WEIGHT_LIMIT
-        defaultDroneShouldNotBeFound("weightLimit.doesNotContain=" + DEFAULT_WEIGHT_LIMIT);
+        // Get all the droneList where weightLimit is less than DEFAULT_WEIGHT_LIMIT
+        defaultDroneShouldNotBeFound("weightLimit.lessThan=" + DEFAULT_WEIGHT_LIMIT);
 
-        // Get all the droneList where weightLimit does not contain UPDATED_WEIGHT_LIMIT
-        defaultDroneShouldBeFound("weightLimit.doesNotContain=" + UPDATED_WEIGHT_LIMIT);
+        // Get all the droneList where weightLimit is less than UPDATED_WEIGHT_LIMIT
+        defaultDroneShouldBeFound("weightLimit.lessThan=" + UPDATED_WEIGHT_LIMIT);
     }
 
     @Test
@@ -573,28 +601,28 @@ class DroneResourceIT {
 
     @Test
     @Transactional
-    void getAllDronesByBatteryCapacityContainsSomething() throws Exception {
+    void getAllDronesByBatteryCapacityIsGreaterThanOrEqualToSomething() throws Exception {
         // Initialize the database
         droneRepository.saveAndFlush(drone);
 
-        // Get all the droneList where batteryCapacity contains DEFAULT_BATTERY_CAPACITY
-        defaultDroneShouldBeFound("batteryCapacity.contains=" + DEFAULT_BATTERY_CAPACITY);
+        // Get all the droneList where batteryCapacity is greater than or equal to DEFAULT_BATTERY_CAPACITY
+        defaultDroneShouldBeFound("batteryCapacity.greaterThanOrEqual=" + DEFAULT_BATTERY_CAPACITY);
 
-        // Get all the droneList where batteryCapacity contains UPDATED_BATTERY_CAPACITY
-        defaultDroneShouldNotBeFound("batteryCapacity.contains=" + UPDATED_BATTERY_CAPACITY);
+        // Get all the droneList where batteryCapacity is greater than or equal to UPDATED_BATTERY_CAPACITY
+        defaultDroneShouldNotBeFound("batteryCapacity.greaterThanOrEqual=" + UPDATED_BATTERY_CAPACITY);
     }
 
     @Test
     @Transactional
-    void getAllDronesByBatteryCapacityNotContainsSomething() throws Exception {
+    void getAllDronesByBatteryCapacityIsLessThanSomething() throws Exception {
         // Initialize the database
         droneRepository.saveAndFlush(drone);
 
-        // Get all the droneList where batteryCapacity does not contain DEFAULT_BATTERY_CAPACITY
-        defaultDroneShouldNotBeFound("batteryCapacity.doesNotContain=" + DEFAULT_BATTERY_CAPACITY);
+        // Get all the droneList where batteryCapacity is less than DEFAULT_BATTERY_CAPACITY
+        defaultDroneShouldNotBeFound("batteryCapacity.lessThan=" + DEFAULT_BATTERY_CAPACITY);
 
-        // Get all the droneList where batteryCapacity does not contain UPDATED_BATTERY_CAPACITY
-        defaultDroneShouldBeFound("batteryCapacity.doesNotContain=" + UPDATED_BATTERY_CAPACITY);
+        // Get all the droneList where batteryCapacity is less than UPDATED_BATTERY_CAPACITY
+        defaultDroneShouldBeFound("batteryCapacity.lessThan=" + UPDATED_BATTERY_CAPACITY);
     }
 
     @Test
@@ -879,7 +907,7 @@ class DroneResourceIT {
             .andExpect(jsonPath("$.[*].serialNumber").value(hasItem(DEFAULT_SERIAL_NUMBER)))
             .andExpect(jsonPath("$.[*].model").value(hasItem(DEFAULT_MODEL.toString())))
             .andExpect(jsonPath("$.[*].weightLimit").value(hasItem(DEFAULT_WEIGHT_LIMIT)))
-            .andExpect(jsonPath("$.[*].batteryCapacity").value(hasItem(DEFAULT_BATTERY_CAPACITY)))
+            .andExpect(jsonPath("$.[*].batteryCapacity").value(hasItem(DEFAULT_BATTERY_CAPACITY.intValue())))
             .andExpect(jsonPath("$.[*].state").value(hasItem(DEFAULT_STATE.toString())))
             .andExpect(jsonPath("$.[*].createdBy").value(hasItem(DEFAULT_CREATED_BY)))
             .andExpect(jsonPath("$.[*].createdDate").value(hasItem(DEFAULT_CREATED_DATE.toString())))
@@ -1,32 +1,46 @@
 package com.musala.drone.web.rest;
 
+import static org.assertj.core.api.Assertions.as;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.nullValue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.musala.drone.IntegrationTest;
+import com.musala.drone.config.SqlStatementRecorder;
 import com.musala.drone.domain.Drone;
 import com.musala.drone.domain.Medication;
+import com.musala.drone.domain.enumeration.State;
 import com.musala.drone.repository.MedicationRepository;
+import com.musala.drone.service.BlobStore;
 import com.musala.drone.service.criteria.MedicationCriteria;
 import com.musala.drone.service.dto.MedicationDTO;
 import com.musala.drone.service.mapper.MedicationMapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.persistence.EntityManager;
+import org.assertj.core.api.InstanceOfAssertFactories;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.Base64Utils;
 
 /**
  * Integration tests for the {@link MedicationResource} REST controller.
@@ -48,6 +62,8 @@ class MedicationResourceIT {
 
     private static final byte[] DEFAULT_IMAGE = TestUtil.createByteArray(1, "0");
     private static final byte[] UPDATED_IMAGE = TestUtil.createByteArray(1, "1");
+    private static final String DEFAULT_IMAGE_HASH = sha256(DEFAULT_IMAGE);
+    private static final String UPDATED_IMAGE_HASH = sha256(UPDATED_IMAGE);
     private static final String DEFAULT_IMAGE_CONTENT_TYPE = "image/jpg";
     private static final String UPDATED_IMAGE_CONTENT_TYPE = "image/png";
 
@@ -75,6 +91,9 @@ class MedicationResourceIT {
     @Autowired
     private MedicationMapper medicationMapper;
 
+    @Autowired
+    private BlobStore blobStore;
+
     @Autowired
     private EntityManager em;
 
@@ -94,7 +113,7 @@ class MedicationResourceIT {
             .name(DEFAULT_NAME)
             .weight(DEFAULT_WEIGHT)
             .code(DEFAULT_CODE)
-            .image(DEFAULT_IMAGE)
+            .imageHash(DEFAULT_IMAGE_HASH)
             .imageContentType(DEFAULT_IMAGE_CONTENT_TYPE)
             .createdBy(DEFAULT_CREATED_BY)
             .createdDate(DEFAULT_CREATED_DATE)
@@ -114,7 +133,7 @@ class MedicationResourceIT {
             .name(UPDATED_NAME)
             .weight(UPDATED_WEIGHT)
             .code(UPDATED_CODE)
-            .image(UPDATED_IMAGE)
+            .imageHash(UPDATED_IMAGE_HASH)
             .imageContentType(UPDATED_IMAGE_CONTENT_TYPE)
             .createdBy(UPDATED_CREATED_BY)
             .createdDate(UPDATED_CREATED_DATE)
@@ -124,8 +143,18 @@ class MedicationResourceIT {
     }
 
     @BeforeEach
-    public void initTest() {
+    public void initTest() throws IOException {
         medication = createEntity(em);
+        blobStore.store(new ByteArrayInputStream(DEFAULT_IMAGE));
+        blobStore.store(new ByteArrayInputStream(UPDATED_IMAGE));
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return String.format("%064x", new BigInteger(1, MessageDigest.getInstance("SHA-256").digest(content)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     @Test
@@ -134,9 +163,13 @@ class MedicationResourceIT {
         int databaseSizeBeforeCreate = medicationRepository.findAll().size();
         // Create the Medication
         MedicationDTO medicationDTO = medicationMapper.toDto(medication);
+        medicationDTO.setImageHash(null);
+        medicationDTO.setImage(DEFAULT_IMAGE);
         restMedicationMockMvc
             .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(medicationDTO)))
-            .andExpect(status().isCreated());
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.imageHash").value(DEFAULT_IMAGE_HASH))
+            .andExpect(jsonPath("$.image").value(nullValue()));
 
         // Validate the Medication in the database
         List<Medication> medicationList = medicationRepository.findAll();
@@ -145,7 +178,7 @@ class MedicationResourceIT {
         assertThat(testMedication.getName()).isEqualTo(DEFAULT_NAME);
         assertThat(testMedication.getWeight()).isEqualTo(DEFAULT_WEIGHT);
         assertThat(testMedication.getCode()).isEqualTo(DEFAULT_CODE);
-        assertThat(testMedication.getImage()).isEqualTo(DEFAULT_IMAGE);
+        assertThat(testMedication.getImageHash()).isEqualTo(DEFAULT_IMAGE_HASH);
         assertThat(testMedication.getImageContentType()).isEqualTo(DEFAULT_IMAGE_CONTENT_TYPE);
         assertThat(testMedication.getCreatedBy()).isEqualTo(DEFAULT_CREATED_BY);
         assertThat(testMedication.getCreatedDate()).isEqualTo(DEFAULT_CREATED_DATE);
@@ -172,6 +205,94 @@ class MedicationResourceIT {
         assertThat(medicationList).hasSize(databaseSizeBeforeCreate);
     }
 
+    @Test
+    @Transactional
+    void createMedicationAddsToDroneLoadedWeight() throws Exception {
+        Drone drone = DroneResourceIT.createEntity(em).weightLimit(DEFAULT_WEIGHT + 1).batteryCapacity(100L);
+        em.persist(drone);
+        em.flush();
+        medication.setDrone(drone);
+        MedicationDTO medicationDTO = medicationMapper.toDto(medication);
+
+        restMedicationMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(medicationDTO)))
+            .andExpect(status().isCreated());
+
+        em.refresh(drone);
+        assertThat(drone.getLoadedWeight()).isEqualTo(DEFAULT_WEIGHT);
+        assertThat(drone.getState()).isEqualTo(State.LOADING);
+    }
+
+    @Test
+    @Transactional
+    void createMedicationOnFullyLoadedDrone() throws Exception {
+        Drone drone = DroneResourceIT.createEntity(em).weightLimit(DEFAULT_WEIGHT - 1).batteryCapacity(100L);
+        em.persist(drone);
+        em.flush();
+        int databaseSizeBeforeCreate = medicationRepository.findAll().size();
+        medication.setDrone(drone);
+        MedicationDTO medicationDTO = medicationMapper.toDto(medication);
+
+        restMedicationMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(medicationDTO)))
+            .andExpect(status().isInternalServerError());
+
+        em.refresh(drone);
+        assertThat(drone.getLoadedWeight()).isZero();
+        assertThat(medicationRepository.findAll()).hasSize(databaseSizeBeforeCreate);
+    }
+
+    @Test
+    @Transactional
+    void createMedicationsBatch() throws Exception {
+        Drone drone = DroneResourceIT.createEntity(em).weightLimit(100).batteryCapacity(100L);
+        em.persist(drone);
+        em.flush();
+        int databaseSizeBeforeCreate = medicationRepository.findAll().size();
+        MedicationDTO first = medicationMapper.toDto(medication);
+        MedicationDTO second = medicationMapper.toDto(createUpdatedEntity(em));
+        MedicationDTO invalid = medicationMapper.toDto(createEntity(em).name(null).code("CCCCCCCCCC"));
+
+        restMedicationMockMvc
+            .perform(
+                post("/api/drones/{id}/medications:batch", drone.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(first, second, invalid)))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].created").value(contains(true, true, false)))
+            .andExpect(jsonPath("$.[2].error").value(containsString("name")));
+
+        assertThat(medicationRepository.findAll()).hasSize(databaseSizeBeforeCreate + 2);
+        em.refresh(drone);
+        assertThat(drone.getLoadedWeight()).isEqualTo(DEFAULT_WEIGHT + UPDATED_WEIGHT);
+        assertThat(drone.getState()).isEqualTo(State.LOADING);
+    }
+
+    @Test
+    @Transactional
+    void createMedicationsBatchOverWeightLimit() throws Exception {
+        Drone drone = DroneResourceIT.createEntity(em).weightLimit(DEFAULT_WEIGHT + UPDATED_WEIGHT - 1).batteryCapacity(100L);
+        em.persist(drone);
+        em.flush();
+        int databaseSizeBeforeCreate = medicationRepository.findAll().size();
+        MedicationDTO first = medicationMapper.toDto(medication);
+        MedicationDTO second = medicationMapper.toDto(createUpdatedEntity(em));
+
+        restMedicationMockMvc
+            .perform(
+                post("/api/drones/{id}/medications:batch", drone.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(first, second)))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].created").value(contains(false, false)));
+
+        assertThat(medicationRepository.findAll()).hasSize(databaseSizeBeforeCreate);
+        em.refresh(drone);
+        assertThat(drone.getLoadedWeight()).isZero();
+    }
+
     @Test
     @Transactional
     void checkNameIsRequired() throws Exception {
@@ -278,13 +399,66 @@ class MedicationResourceIT {
             .andExpect(jsonPath("$.[*].weight").value(hasItem(DEFAULT_WEIGHT.intValue())))
             .andExpect(jsonPath("$.[*].code").value(hasItem(DEFAULT_CODE)))
             .andExpect(jsonPath("$.[*].imageContentType").value(hasItem(DEFAULT_IMAGE_CONTENT_TYPE)))
-            .andExpect(jsonPath("$.[*].image").value(hasItem(Base64Utils.encodeToString(DEFAULT_IMAGE))))
+            .andExpect(jsonPath("$.[*].imageHash").value(hasItem(DEFAULT_IMAGE_HASH)))
             .andExpect(jsonPath("$.[*].createdBy").value(hasItem(DEFAULT_CREATED_BY)))
             .andExpect(jsonPath("$.[*].createdDate").value(hasItem(DEFAULT_CREATED_DATE.toString())))
             .andExpect(jsonPath("$.[*].lastModifiedBy").value(hasItem(DEFAULT_LAST_MODIFIED_BY)))
             .andExpect(jsonPath("$.[*].lastModifiedDate").value(hasItem(DEFAULT_LAST_MODIFIED_DATE.toString())));
     }
 
+    @Test
+    @Transactional
+    void getAllMedicationsWithFields() throws Exception {
+        Drone drone;
+        if (TestUtil.findAll(em, Drone.class).isEmpty()) {
+            drone = DroneResourceIT.createEntity(em);
+            em.persist(drone);
+            em.flush();
+        } else {
+            drone = TestUtil.findAll(em, Drone.class).get(0);
+        }
+        medication.setDrone(drone);
+        medicationRepository.saveAndFlush(medication);
+
+        SqlStatementRecorder.start();
+        restMedicationMockMvc
+            .perform(get(ENTITY_API_URL + "?id.equals=" + medication.getId() + "&fields=name,drone"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(medication.getId().intValue()))
+            .andExpect(jsonPath("$.[0].name").value(DEFAULT_NAME))
+            .andExpect(jsonPath("$.[0].drone.id").value(drone.getId().intValue()))
+            .andExpect(jsonPath("$.[0].weight").value(nullValue()))
+            .andExpect(jsonPath("$.[0].image").value(nullValue()));
+        List<String> statements = SqlStatementRecorder.stop();
+
+        assertThat(statements).hasSize(1);
+        assertThat(statements.get(0)).doesNotContain("image").doesNotContain("weight").doesNotContain(" join ");
+    }
+
+    @Test
+    @Transactional
+    void getAllMedicationsWithFieldsByCursor() throws Exception {
+        medicationRepository.saveAndFlush(medication);
+
+        SqlStatementRecorder.start();
+        restMedicationMockMvc
+            .perform(get(ENTITY_API_URL + "?cursor=&sort=name,asc&name.equals=" + DEFAULT_NAME + "&fields=code"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(medication.getId().intValue()))
+            .andExpect(jsonPath("$.[0].code").value(DEFAULT_CODE))
+            .andExpect(jsonPath("$.[0].name").value(DEFAULT_NAME))
+            .andExpect(jsonPath("$.[0].image").value(nullValue()));
+
+        assertThat(SqlStatementRecorder.stop()).singleElement(as(InstanceOfAssertFactories.STRING)).doesNotContain("image");
+    }
+
+    @Test
+    @Transactional
+    void getAllMedicationsWithUnknownFields() throws Exception {
+        restMedicationMockMvc.perform(get(ENTITY_API_URL + "?fields=name,secret")).andExpect(status().isBadRequest());
+        restMedicationMockMvc.perform(get(ENTITY_API_URL + "?cursor=&fields=droneMedications")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getMedication() throws Exception {
@@ -301,7 +475,7 @@ class MedicationResourceIT {
             .andExpect(jsonPath("$.weight").value(DEFAULT_WEIGHT.intValue()))
             .andExpect(jsonPath("$.code").value(DEFAULT_CODE))
             .andExpect(jsonPath("$.imageContentType").value(DEFAULT_IMAGE_CONTENT_TYPE))
-            .andExpect(jsonPath("$.image").value(Base64Utils.encodeToString(DEFAULT_IMAGE)))
+            .andExpect(jsonPath("$.imageHash").value(DEFAULT_IMAGE_HASH))
             .andExpect(jsonPath("$.createdBy").value(DEFAULT_CREATED_BY))
             .andExpect(jsonPath("$.createdDate").value(DEFAULT_CREATED_DATE.toString()))
             .andExpect(jsonPath("$.lastModifiedBy").value(DEFAULT_LAST_MODIFIED_BY))
@@ -791,7 +965,7 @@ class MedicationResourceIT {
             .andExpect(jsonPath("$.[*].weight").value(hasItem(DEFAULT_WEIGHT.intValue())))
             .andExpect(jsonPath("$.[*].code").value(hasItem(DEFAULT_CODE)))
             .andExpect(jsonPath("$.[*].imageContentType").value(hasItem(DEFAULT_IMAGE_CONTENT_TYPE)))
-            .andExpect(jsonPath("$.[*].image").value(hasItem(Base64Utils.encodeToString(DEFAULT_IMAGE))))
+            .andExpect(jsonPath("$.[*].imageHash").value(hasItem(DEFAULT_IMAGE_HASH)))
             .andExpect(jsonPath("$.[*].createdBy").value(hasItem(DEFAULT_CREATED_BY)))
             .andExpect(jsonPath("$.[*].createdDate").value(hasItem(DEFAULT_CREATED_DATE.toString())))
             .andExpect(jsonPath("$.[*].lastModifiedBy").value(hasItem(DEFAULT_LAST_MODIFIED_BY)))
@@ -831,6 +1005,134 @@ class MedicationResourceIT {
         restMedicationMockMvc.perform(get(ENTITY_API_URL_ID, Long.MAX_VALUE)).andExpect(status().isNotFound());
     }
 
+    @Test
+    @Transactional
+    void getMedicationImage() throws Exception {
+        medicationRepository.saveAndFlush(medication);
+
+        restMedicationMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/image", medication.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(DEFAULT_IMAGE_CONTENT_TYPE))
+            .andExpect(content().bytes(DEFAULT_IMAGE))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + DEFAULT_IMAGE_HASH + "\""))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"));
+
+        restMedicationMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/image?hash=" + DEFAULT_IMAGE_HASH, medication.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")));
+    }
+
+    @Test
+    @Transactional
+    void getMedicationImageConditionally() throws Exception {
+        medicationRepository.saveAndFlush(medication);
+
+        restMedicationMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/image", medication.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"" + DEFAULT_IMAGE_HASH + "\""))
+            .andExpect(status().isNotModified());
+        restMedicationMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/image", medication.getId()).header(HttpHeaders.RANGE, "bytes=0-0"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-0/" + DEFAULT_IMAGE.length));
+    }
+
+    @Test
+    @Transactional
+    void getMedicationWithoutImage() throws Exception {
+        medicationRepository.saveAndFlush(medication.imageHash(null));
+
+        restMedicationMockMvc.perform(get(ENTITY_API_URL_ID + "/image", medication.getId())).andExpect(status().isNotFound());
+        restMedicationMockMvc.perform(get(ENTITY_API_URL_ID + "/image", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void updateMedicationImage() throws Exception {
+        byte[] png = TestUtil.createByteArray(40000, "1");
+        System.arraycopy(new byte[] { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n' }, 0, png, 0, 8);
+        medicationRepository.saveAndFlush(medication);
+        try {
+            restMedicationMockMvc
+                .perform(put(ENTITY_API_URL_ID + "/image", medication.getId()).contentType(MediaType.APPLICATION_OCTET_STREAM).content(png))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imageHash").value(sha256(png)))
+                .andExpect(jsonPath("$.imageContentType").value(MediaType.IMAGE_PNG_VALUE));
+
+            restMedicationMockMvc
+                .perform(get(ENTITY_API_URL_ID + "/image", medication.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_PNG))
+                .andExpect(content().bytes(png));
+        } finally {
+            medicationRepository.deleteById(medication.getId());
+        }
+    }
+
+    @Test
+    void updateMedicationImageWithMultipart() throws Exception {
+        medicationRepository.saveAndFlush(medication);
+        try {
+            restMedicationMockMvc
+                .perform(
+                    multipart(ENTITY_API_URL_ID + "/image", medication.getId())
+                        .file(new MockMultipartFile("image", "image.bin", MediaType.APPLICATION_OCTET_STREAM_VALUE, UPDATED_IMAGE))
+                        .with(request -> {
+                            request.setMethod("PUT");
+                            return request;
+                        })
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imageHash").value(UPDATED_IMAGE_HASH))
+                .andExpect(jsonPath("$.imageContentType").value(MediaType.APPLICATION_OCTET_STREAM_VALUE));
+        } finally {
+            medicationRepository.deleteById(medication.getId());
+        }
+    }
+
+    @Test
+    void updateMedicationImageTooLarge() throws Exception {
+        byte[] image = TestUtil.createByteArray(64 * 1024 + 1, "1");
+        medicationRepository.saveAndFlush(medication);
+        try {
+            restMedicationMockMvc
+                .perform(put(ENTITY_API_URL_ID + "/image", medication.getId()).contentType(MediaType.IMAGE_JPEG).content(image))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(jsonPath("$.message").value("error.payloadTooLarge"));
+
+            assertThat(medicationRepository.findById(medication.getId()).orElseThrow().getImageHash()).isEqualTo(DEFAULT_IMAGE_HASH);
+            assertThat(blobStore.find(sha256(image))).isEmpty();
+        } finally {
+            medicationRepository.deleteById(medication.getId());
+        }
+    }
+
+    @Test
+    void updateNonExistingMedicationImage() throws Exception {
+        restMedicationMockMvc
+            .perform(put(ENTITY_API_URL_ID + "/image", Long.MAX_VALUE).contentType(MediaType.APPLICATION_OCTET_STREAM).content(UPDATED_IMAGE))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void putMedicationWithUnknownImage() throws Exception {
+        medicationRepository.saveAndFlush(medication);
+        MedicationDTO medicationDTO = medicationMapper.toDto(medication);
+        medicationDTO.setImageHash(sha256(new byte[] { 2 }));
+
+        restMedicationMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, medicationDTO.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(medicationDTO))
+            )
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.imageinvalid"));
+
+        assertThat(medicationRepository.findById(medication.getId()).orElseThrow().getImageHash()).isEqualTo(DEFAULT_IMAGE_HASH);
+    }
+
     @Test
     @Transactional
     void putExistingMedication() throws Exception {
@@ -847,13 +1149,13 @@ class MedicationResourceIT {
             .name(UPDATED_NAME)
             .weight(UPDATED_WEIGHT)
             .code(UPDATED_CODE)
-            .image(UPDATED_IMAGE)
             .imageContentType(UPDATED_IMAGE_CONTENT_TYPE)
             .createdBy(UPDATED_CREATED_BY)
             .createdDate(UPDATED_CREATED_DATE)
             .lastModifiedBy(UPDATED_LAST_MODIFIED_BY)
             .lastModifiedDate(UPDATED_LAST_MODIFIED_DATE);
         MedicationDTO medicationDTO = medicationMapper.toDto(updatedMedication);
+        medicationDTO.setImage(UPDATED_IMAGE);
 
         restMedicationMockMvc
             .perform(
@@ -870,7 +1172,7 @@ class MedicationResourceIT {
         assertThat(testMedication.getName()).isEqualTo(UPDATED_NAME);
         assertThat(testMedication.getWeight()).isEqualTo(UPDATED_WEIGHT);
         assertThat(testMedication.getCode()).isEqualTo(UPDATED_CODE);
-        assertThat(testMedication.getImage()).isEqualTo(UPDATED_IMAGE);
+        assertThat(testMedication.getImageHash()).isEqualTo(UPDATED_IMAGE_HASH);
         assertThat(testMedication.getImageContentType()).isEqualTo(UPDATED_IMAGE_CONTENT_TYPE);
         assertThat(testMedication.getCreatedBy()).isEqualTo(UPDATED_CREATED_BY);
         assertThat(testMedication.getCreatedDate()).isEqualTo(UPDATED_CREATED_DATE);
@@ -958,7 +1260,7 @@ class MedicationResourceIT {
         partialUpdatedMedication
             .name(UPDATED_NAME)
             .code(UPDATED_CODE)
-            .image(UPDATED_IMAGE)
+            .imageHash(UPDATED_IMAGE_HASH)
             .imageContentType(UPDATED_IMAGE_CONTENT_TYPE)
             .createdBy(UPDATED_CREATED_BY)
             .createdDate(UPDATED_CREATED_DATE)
@@ -979,7 +1281,7 @@ class MedicationResourceIT {
         assertThat(testMedication.getName()).isEqualTo(UPDATED_NAME);
         assertThat(testMedication.getWeight()).isEqualTo(DEFAULT_WEIGHT);
         assertThat(testMedication.getCode()).isEqualTo(UPDATED_CODE);
-        assertThat(testMedication.getImage()).isEqualTo(UPDATED_IMAGE);
+        assertThat(testMedication.getImageHash()).isEqualTo(UPDATED_IMAGE_HASH);
         assertThat(testMedication.getImageContentType()).isEqualTo(UPDATED_IMAGE_CONTENT_TYPE);
         assertThat(testMedication.getCreatedBy()).isEqualTo(UPDATED_CREATED_BY);
         assertThat(testMedication.getCreatedDate()).isEqualTo(UPDATED_CREATED_DATE);
@@ -1003,7 +1305,7 @@ class MedicationResourceIT {
             .name(UPDATED_NAME)
             .weight(UPDATED_WEIGHT)
             .code(UPDATED_CODE)
-            .image(UPDATED_IMAGE)
+            .imageHash(UPDATED_IMAGE_HASH)
             .imageContentType(UPDATED_IMAGE_CONTENT_TYPE)
             .createdBy(UPDATED_CREATED_BY)
             .createdDate(UPDATED_CREATED_DATE)
@@ -1025,7 +1327,7 @@ class MedicationResourceIT {
         assertThat(testMedication.getName()).isEqualTo(UPDATED_NAME);
         assertThat(testMedication.getWeight()).isEqualTo(UPDATED_WEIGHT);
         assertThat(testMedication.getCode()).isEqualTo(UPDATED_CODE);
-        assertThat(testMedication.getImage()).isEqualTo(UPDATED_IMAGE);
+        assertThat(testMedication.getImageHash()).isEqualTo(UPDATED_IMAGE_HASH);
         assertThat(testMedication.getImageContentType()).isEqualTo(UPDATED_IMAGE_CONTENT_TYPE);
         assertThat(testMedication.getCreatedBy()).isEqualTo(UPDATED_CREATED_BY);
         assertThat(testMedication.getCreatedDate()).isEqualTo(UPDATED_CREATED_DATE);
@@ -1033,6 +1335,44 @@ class MedicationResourceIT {
         assertThat(testMedication.getLastModifiedDate()).isEqualTo(UPDATED_LAST_MODIFIED_DATE);
     }
 
+    @Test
+    @Transactional
+    void patchMedicationOntoAnotherDrone() throws Exception {
+        Drone drone = DroneResourceIT.createEntity(em).weightLimit(DEFAULT_WEIGHT).batteryCapacity(100L);
+        Drone otherDrone = DroneResourceIT.createEntity(em).serialNumber("BBBBBBBBBB").weightLimit(DEFAULT_WEIGHT).batteryCapacity(100L);
+        em.persist(drone);
+        em.persist(otherDrone);
+        em.flush();
+        medication.setDrone(drone);
+        restMedicationMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(medicationMapper.toDto(medication)))
+            )
+            .andExpect(status().isCreated());
+        Medication created = medicationRepository.findAll().get(medicationRepository.findAll().size() - 1);
+
+        MedicationDTO partialUpdatedMedication = new MedicationDTO();
+        partialUpdatedMedication.setId(created.getId());
+        partialUpdatedMedication.setDrone(medicationMapper.toDtoDroneId(otherDrone));
+
+        restMedicationMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, created.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedMedication))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.drone.id").value(otherDrone.getId().intValue()));
+
+        em.refresh(drone);
+        em.refresh(otherDrone);
+        assertThat(drone.getLoadedWeight()).isZero();
+        assertThat(otherDrone.getLoadedWeight()).isEqualTo(DEFAULT_WEIGHT);
+        assertThat(otherDrone.getState()).isEqualTo(State.LOADED);
+    }
+
     @Test
     @Transactional
     void patchNonExistingMedication() throws Exception {